@@ -1,7 +1,9 @@
 package org.correomqtt.core;
 
 import lombok.Getter;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.core.fileprovider.HistoryManager;
+import org.correomqtt.core.metrics.MetricsRegistry;
 import org.correomqtt.core.plugin.PluginManager;
 import org.correomqtt.core.settings.SettingsManager;
 import org.correomqtt.core.utils.ConnectionManager;
@@ -17,15 +19,21 @@ public class CoreManager {
     private final SettingsManager settingsManager;
     private final HistoryManager historyManager;
     private final PluginManager pluginManager;
+    private final CorreoExecutors executors;
+    private final MetricsRegistry metricsRegistry;
 
     @Inject
     public CoreManager(ConnectionManager connectionManager,
                        SettingsManager settingsManager,
                        HistoryManager historyManager,
-                       PluginManager pluginManager) {
+                       PluginManager pluginManager,
+                       CorreoExecutors executors,
+                       MetricsRegistry metricsRegistry) {
         this.connectionManager = connectionManager;
         this.settingsManager = settingsManager;
         this.historyManager = historyManager;
         this.pluginManager = pluginManager;
+        this.executors = executors;
+        this.metricsRegistry = metricsRegistry;
     }
 }
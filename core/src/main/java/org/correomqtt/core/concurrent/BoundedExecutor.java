@@ -0,0 +1,192 @@
+package org.correomqtt.core.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size thread pool with a bounded queue for one {@link ExecutorPool}.
+ * <p>
+ * Tasks submitted with {@link #executeExempt(Runnable)} are queued beyond the capacity and are never discarded by the
+ * rejection policy. They are meant for a bounded number of drainers, like the lanes of {@link SerialEventLanes}, which
+ * would stall if their only scheduled run was lost.
+ */
+public class BoundedExecutor implements Executor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedExecutor.class);
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final ThreadLocal<BoundedExecutor> CURRENT = new ThreadLocal<>();
+
+    private final ExecutorPool pool;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejectedTasks = new LongAdder();
+
+    BoundedExecutor(ExecutorPool pool,
+                    int threads,
+                    int queueCapacity,
+                    RejectionPolicy rejectionPolicy,
+                    boolean virtualThreads) {
+        this.pool = pool;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(threads,
+                threads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new CapacityQueue(queueCapacity),
+                createThreadFactory(pool, virtualThreads),
+                createRejectionHandler(rejectionPolicy));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * Queues the command regardless of the capacity, it is only rejected after {@link #shutdown()}.
+     */
+    public void executeExempt(Runnable command) {
+        executor.execute(new ExemptTask(command));
+    }
+
+    /**
+     * @return True, if the current thread is a worker of this executor.
+     */
+    public boolean isWorkerThread() {
+        return CURRENT.get() == this;
+    }
+
+    public ExecutorPool getPool() {
+        return pool;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public ExecutorStats getStats() {
+        return new ExecutorStats(pool,
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getCompletedTaskCount(),
+                rejectedTasks.sum());
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private RejectedExecutionHandler createRejectionHandler(RejectionPolicy rejectionPolicy) {
+        RejectedExecutionHandler delegate = switch (rejectionPolicy) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD_OLDEST -> BoundedExecutor::discardOldest;
+        };
+        return (r, e) -> {
+            if (r instanceof ExemptTask) {
+                // only after shutdown, the queue accepts exempt tasks otherwise
+                throw new RejectedExecutionException(pool + " executor is shut down.");
+            }
+            rejectedTasks.increment();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("{} executor is saturated ({} queued), applying {}.", pool, e.getQueue().size(), rejectionPolicy);
+            }
+            delegate.rejectedExecution(r, e);
+        };
+    }
+
+    private static void discardOldest(Runnable r, ThreadPoolExecutor e) {
+        if (e.isShutdown()) {
+            return;
+        }
+        Iterator<Runnable> queued = e.getQueue().iterator();
+        while (queued.hasNext()) {
+            if (!(queued.next() instanceof ExemptTask)) {
+                queued.remove();
+                e.execute(r);
+                return;
+            }
+        }
+        // only exempt tasks are queued, drop the new one instead
+    }
+
+    private ThreadFactory createThreadFactory(ExecutorPool pool, boolean virtualThreads) {
+        ThreadFactory threadFactory = null;
+        if (virtualThreads) {
+            threadFactory = createVirtualThreadFactory(pool.getThreadName());
+        }
+        if (threadFactory == null) {
+            AtomicInteger counter = new AtomicInteger();
+            threadFactory = r -> {
+                Thread thread = new Thread(r, pool.getThreadName() + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        ThreadFactory delegate = threadFactory;
+        return r -> delegate.newThread(() -> {
+            CURRENT.set(this);
+            r.run();
+        });
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String threadName) {
+        // looked up reflectively, virtual threads are only available on Java 21+
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadName + "-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Virtual threads are not available in this runtime, using platform threads for {}.", threadName);
+            return null;
+        }
+    }
+
+    private record ExemptTask(Runnable command) implements Runnable {
+
+        @Override
+        public void run() {
+            command.run();
+        }
+    }
+
+    /**
+     * Bounded like an {@link java.util.concurrent.ArrayBlockingQueue}, except for {@link ExemptTask}s.
+     */
+    private static class CapacityQueue extends LinkedBlockingQueue<Runnable> {
+
+        private final int capacity;
+
+        CapacityQueue(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean offer(Runnable runnable) {
+            if (!(runnable instanceof ExemptTask) && size() >= capacity) {
+                return false;
+            }
+            return super.offer(runnable);
+        }
+    }
+}
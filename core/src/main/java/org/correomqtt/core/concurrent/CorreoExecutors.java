@@ -0,0 +1,152 @@
+package org.correomqtt.core.concurrent;
+
+import org.correomqtt.core.applifecycle.ShutdownEvent;
+import org.correomqtt.core.fileprovider.ConnectionsUpdatedEvent;
+import org.correomqtt.core.fileprovider.UserFilePersistence;
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.ExecutorSettingsDTO;
+import org.correomqtt.core.model.SettingsDTO;
+import org.correomqtt.core.settings.SettingsManager;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.Observes;
+import org.correomqtt.di.SingletonBean;
+import org.correomqtt.di.SoyEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.correomqtt.core.events.ObservesFilterNames.CONNECTION_ID;
+
+/**
+ * Owns the executors for async events and tasks. Sizes, queue capacities and rejection policies are read once from
+ * {@link SettingsDTO#getExecutors()}, the per connection event lanes from {@link SettingsDTO#getEventLaneDepth()}.
+ * Tasks get it injected through their factories. Delayed and periodic work is handed to a pool by a single shared
+ * timer thread, so it runs on the configured executors and shows in their stats. The executors are shut down on
+ * {@link ShutdownEvent}.
+ */
+@SingletonBean
+public class CorreoExecutors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CorreoExecutors.class);
+
+    private final Map<ExecutorPool, BoundedExecutor> executors = new EnumMap<>(ExecutorPool.class);
+    private final SerialEventLanes eventLanes;
+    private final ScheduledThreadPoolExecutor timer;
+    private final SettingsManager settingsManager;
+
+    @Inject
+    public CorreoExecutors(SettingsManager settingsManager, UserFilePersistence persistence) {
+        this.settingsManager = settingsManager;
+        SettingsDTO settings = settingsManager.getSettings();
+        Map<ExecutorPool, ExecutorSettingsDTO> overrides = settings == null || settings.getExecutors() == null
+                ? Map.of()
+                : settings.getExecutors();
+        for (ExecutorPool pool : ExecutorPool.values()) {
+            executors.put(pool, create(pool, overrides.get(pool)));
+        }
+        SoyEvents.setAsyncExecutor(executors.get(ExecutorPool.EVENTS));
+        eventLanes = new SerialEventLanes(executors.get(ExecutorPool.EVENTS),
+                settings == null ? SettingsDTO.DEFAULT_EVENT_LANE_DEPTH : settings.getEventLaneDepth(),
+                settings == null || settings.getEventLaneOverflowPolicy() == null
+                        ? LaneOverflowPolicy.DROP_OLDEST
+                        : settings.getEventLaneOverflowPolicy());
+        SoyEvents.setEventLanes(CONNECTION_ID, eventLanes);
+        timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "correo-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        // created before the executors, as the settings are read through it
+        persistence.setExecutors(this);
+    }
+
+    private static BoundedExecutor create(ExecutorPool pool, ExecutorSettingsDTO override) {
+        int threads = pool.getDefaultThreads();
+        int queueCapacity = pool.getDefaultQueueCapacity();
+        RejectionPolicy rejectionPolicy = pool.getDefaultRejectionPolicy();
+        boolean virtualThreads = false;
+        if (override != null) {
+            threads = override.getThreads() == null ? threads : Math.max(1, override.getThreads());
+            queueCapacity = override.getQueueCapacity() == null ? queueCapacity : Math.max(1, override.getQueueCapacity());
+            rejectionPolicy = override.getRejectionPolicy() == null ? rejectionPolicy : override.getRejectionPolicy();
+            virtualThreads = override.isVirtualThreads();
+        }
+        LOGGER.debug("Creating {} executor with {} threads, queue capacity {} and policy {}{}.",
+                pool, threads, queueCapacity, rejectionPolicy, virtualThreads ? " on virtual threads" : "");
+        return new BoundedExecutor(pool, threads, queueCapacity, rejectionPolicy, virtualThreads);
+    }
+
+    public BoundedExecutor get(ExecutorPool pool) {
+        return executors.get(pool);
+    }
+
+    public List<ExecutorStats> getStats() {
+        return executors.values()
+                .stream()
+                .map(BoundedExecutor::getStats)
+                .toList();
+    }
+
+    /**
+     * Runs the task on the pool after the delay. If the pool rejects it, the timer thread runs it, so it is not lost.
+     */
+    public ScheduledFuture<?> schedule(ExecutorPool pool, Runnable task, long delay, TimeUnit unit) {
+        return timer.schedule(() -> {
+            if (!handOver(pool, task)) {
+                task.run();
+            }
+        }, delay, unit);
+    }
+
+    /**
+     * Runs the task on the pool periodically. A run rejected by a full pool is skipped, the schedule goes on.
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(ExecutorPool pool, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return timer.scheduleAtFixedRate(() -> handOver(pool, task), initialDelay, period, unit);
+    }
+
+    private boolean handOver(ExecutorPool pool, Runnable task) {
+        try {
+            executors.get(pool).execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Scheduled task rejected by {} executor.", pool);
+            return false;
+        }
+    }
+
+    /**
+     * Async events carrying a connection id are delivered in order per connection through these lanes.
+     */
+    public SerialEventLanes getEventLanes() {
+        return eventLanes;
+    }
+
+    @SuppressWarnings("unused")
+    @Observes(ConnectionsUpdatedEvent.class)
+    public void onConnectionsUpdated() {
+        eventLanes.retainLanes(settingsManager.getConnectionConfigs()
+                .stream()
+                .map(ConnectionConfigDTO::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    @SuppressWarnings("unused")
+    @Observes(ShutdownEvent.class)
+    public void shutdown() {
+        SoyEvents.setEventLanes(null, null);
+        SoyEvents.setAsyncExecutor(null);
+        timer.shutdownNow();
+        executors.values().forEach(BoundedExecutor::shutdown);
+        LOGGER.info("Shut down executors.");
+    }
+}
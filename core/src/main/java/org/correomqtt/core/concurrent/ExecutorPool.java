@@ -0,0 +1,23 @@
+package org.correomqtt.core.concurrent;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The executors background work is split into, so e.g. a long running script can not delay message delivery.
+ */
+@AllArgsConstructor
+@Getter
+public enum ExecutorPool {
+    EVENTS("correo-events", 2, 10_000, RejectionPolicy.CALLER_RUNS),
+    PUBSUB("correo-pubsub", 4, 1_000, RejectionPolicy.ABORT),
+    SCRIPTING("correo-scripting", 4, 100, RejectionPolicy.ABORT),
+    IO("correo-io", 2, 1_000, RejectionPolicy.ABORT),
+    // replays and load tests, which hold a thread for minutes or until they are stopped
+    LONG_RUNNING("correo-long-running", 2, 4, RejectionPolicy.ABORT);
+
+    private final String threadName;
+    private final int defaultThreads;
+    private final int defaultQueueCapacity;
+    private final RejectionPolicy defaultRejectionPolicy;
+}
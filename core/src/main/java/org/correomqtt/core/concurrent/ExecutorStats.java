@@ -0,0 +1,13 @@
+package org.correomqtt.core.concurrent;
+
+/**
+ * Point in time view of a {@link BoundedExecutor}.
+ */
+public record ExecutorStats(ExecutorPool pool,
+                            int threads,
+                            int activeCount,
+                            int queueDepth,
+                            int queueCapacity,
+                            long completedTasks,
+                            long rejectedTasks) {
+}
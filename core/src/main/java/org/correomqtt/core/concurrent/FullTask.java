@@ -4,8 +4,8 @@ import org.correomqtt.di.SoyEvents;
 
 public abstract class FullTask<T, P, E> extends TaskImpl<T, P, E, TaskErrorResult<E>> {
 
-    protected FullTask(SoyEvents soyEvents) {
-        super(soyEvents);
+    protected FullTask(SoyEvents soyEvents, CorreoExecutors executors) {
+        super(soyEvents, executors);
     }
 
     public FullTask<T, P, E> onStarted(StartListener listener) {
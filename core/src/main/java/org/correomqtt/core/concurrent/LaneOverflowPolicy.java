@@ -0,0 +1,24 @@
+package org.correomqtt.core.concurrent;
+
+import org.correomqtt.di.DroppableEvent;
+
+/**
+ * What a full lane of {@link SerialEventLanes} does with a new delivery of a {@link DroppableEvent}. Deliveries of
+ * other events are always queued and do not count towards the depth of the lane.
+ */
+public enum LaneOverflowPolicy {
+    /**
+     * Wait until the lane has room again, at most {@value SerialEventLanes#MAX_BLOCK_MILLIS} ms, then drop the new
+     * delivery. Slows down the producer, e.g. the MQTT client of a flooding connection. Workers of the event executor
+     * do not wait.
+     */
+    BLOCK,
+    /**
+     * Drop the oldest queued delivery of a droppable event of the lane.
+     */
+    DROP_OLDEST,
+    /**
+     * Drop the new delivery.
+     */
+    DROP_NEWEST
+}
@@ -0,0 +1,7 @@
+package org.correomqtt.core.concurrent;
+
+/**
+ * Point in time view of one lane of {@link SerialEventLanes}.
+ */
+public record LaneStats(Object laneKey, int queueDepth, long delivered, long dropped) {
+}
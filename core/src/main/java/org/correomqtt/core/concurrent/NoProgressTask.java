@@ -4,8 +4,8 @@ import org.correomqtt.di.SoyEvents;
 
 public abstract class NoProgressTask<T, E> extends TaskImpl<T, Void, E, TaskErrorResult<E>> {
 
-    public NoProgressTask(SoyEvents soyEvents) {
-        super(soyEvents);
+    public NoProgressTask(SoyEvents soyEvents, CorreoExecutors executors) {
+        super(soyEvents, executors);
     }
 
     public NoProgressTask<T, E> onStarted(StartListener listener) {
@@ -0,0 +1,19 @@
+package org.correomqtt.core.concurrent;
+
+/**
+ * What a {@link BoundedExecutor} does with a task when all threads are busy and the queue is full.
+ */
+public enum RejectionPolicy {
+    /**
+     * Fail the task. Tasks report this through their error listeners.
+     */
+    ABORT,
+    /**
+     * Run the task on the submitting thread, which slows down the producer.
+     */
+    CALLER_RUNS,
+    /**
+     * Drop the oldest queued task in favour of the new one.
+     */
+    DISCARD_OLDEST
+}
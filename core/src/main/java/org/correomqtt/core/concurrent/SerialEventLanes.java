@@ -0,0 +1,240 @@
+package org.correomqtt.core.concurrent;
+
+import org.correomqtt.di.EventLanes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One serial queue per lane key, e.g. per connection, drained by a shared executor.
+ * <p>
+ * Deliveries of a lane run one after another in submission order. A lane gives its worker back after
+ * {@link #BATCH_SIZE} deliveries and queues up again, so a flooding connection can not hold all workers while a
+ * quiet connection waits. On a {@link BoundedExecutor} the drainers are scheduled exempt from its capacity and
+ * rejection policy, so a lane is never left without a drainer.
+ * <p>
+ * Only deliveries of {@link org.correomqtt.di.DroppableEvent}s count towards the depth of a lane and are subject to
+ * the {@link LaneOverflowPolicy}. All other deliveries, like state changes and publish results, are always queued.
+ * <p>
+ * Producers are never blocked for long: {@link LaneOverflowPolicy#BLOCK} waits at most {@link #MAX_BLOCK_MILLIS} ms
+ * before it drops the delivery, and workers of the executor never wait, as they would hold up the drainers.
+ */
+public class SerialEventLanes implements EventLanes {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SerialEventLanes.class);
+    private static final int BATCH_SIZE = 64;
+    static final long MAX_BLOCK_MILLIS = 100;
+
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int depth;
+    private final LaneOverflowPolicy overflowPolicy;
+
+    public SerialEventLanes(Executor executor, int depth, LaneOverflowPolicy overflowPolicy) {
+        this.executor = executor;
+        this.depth = Math.max(1, depth);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public void execute(Object laneKey, Runnable delivery, boolean droppable) {
+        while (!lanes.computeIfAbsent(laneKey, Lane::new).offer(new Delivery(delivery, droppable))) {
+            // the lane was removed meanwhile, the next one takes over
+        }
+    }
+
+    public List<LaneStats> getStats() {
+        return lanes.values()
+                .stream()
+                .map(Lane::getStats)
+                .toList();
+    }
+
+    /**
+     * @return The stats of the lane or null, if nothing was delivered through it yet.
+     */
+    public LaneStats getStats(Object laneKey) {
+        Lane lane = lanes.get(laneKey);
+        return lane == null ? null : lane.getStats();
+    }
+
+    /**
+     * Removes the idle lanes whose key is not in the given set, e.g. of deleted connections. Lanes with pending
+     * deliveries are kept.
+     */
+    public void retainLanes(Set<?> laneKeys) {
+        lanes.values().removeIf(lane -> !laneKeys.contains(lane.key) && lane.retireIfIdle());
+    }
+
+    private boolean isExecutorThread() {
+        return executor instanceof BoundedExecutor boundedExecutor && boundedExecutor.isWorkerThread();
+    }
+
+    private record Delivery(Runnable runnable, boolean droppable) {
+    }
+
+    private class Lane implements Runnable {
+
+        private final Object key;
+        private final ArrayDeque<Delivery> queue = new ArrayDeque<>();
+        // queued deliveries, which count towards the depth
+        private int droppableQueued;
+        private boolean scheduled;
+        private boolean retired;
+        private Thread drainingThread;
+        private long delivered;
+        private long dropped;
+
+        Lane(Object key) {
+            this.key = key;
+        }
+
+        /**
+         * @return false if the lane is retired and the delivery has to go to a new lane
+         */
+        boolean offer(Delivery delivery) {
+            synchronized (this) {
+                if (retired) {
+                    return false;
+                }
+                if (delivery.droppable()) {
+                    if (droppableQueued >= depth && !handleOverflow()) {
+                        return true;
+                    }
+                    droppableQueued++;
+                }
+                queue.add(delivery);
+                if (scheduled) {
+                    return true;
+                }
+                scheduled = true;
+            }
+            schedule();
+            return true;
+        }
+
+        /**
+         * @return true if the new delivery is to be queued
+         */
+        private boolean handleOverflow() {
+            switch (overflowPolicy) {
+                case DROP_NEWEST -> {
+                    dropped++;
+                    return false;
+                }
+                case DROP_OLDEST -> {
+                    Iterator<Delivery> iterator = queue.iterator();
+                    while (iterator.hasNext()) {
+                        if (iterator.next().droppable()) {
+                            iterator.remove();
+                            droppableQueued--;
+                            break;
+                        }
+                    }
+                    dropped++;
+                    return true;
+                }
+                default -> {
+                    // an observer firing into a lane must not wait for the workers it holds up
+                    if (drainingThread == Thread.currentThread() || isExecutorThread()) {
+                        return true;
+                    }
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_BLOCK_MILLIS);
+                    while (droppableQueued >= depth) {
+                        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (remaining <= 0 || retired) {
+                            dropped++;
+                            return false;
+                        }
+                        try {
+                            wait(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped++;
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                drainingThread = Thread.currentThread();
+            }
+            try {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    Delivery delivery;
+                    synchronized (this) {
+                        delivery = queue.poll();
+                        if (delivery == null) {
+                            scheduled = false;
+                            return;
+                        }
+                        if (delivery.droppable()) {
+                            droppableQueued--;
+                        }
+                        delivered++;
+                        notifyAll();
+                    }
+                    try {
+                        delivery.runnable().run();
+                    } catch (RuntimeException e) {
+                        LOGGER.error("Event delivery on lane {} failed.", key, e);
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    drainingThread = null;
+                }
+            }
+            reschedule();
+        }
+
+        private void reschedule() {
+            synchronized (this) {
+                if (queue.isEmpty()) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            try {
+                if (executor instanceof BoundedExecutor boundedExecutor) {
+                    boundedExecutor.executeExempt(this);
+                } else {
+                    executor.execute(this);
+                }
+            } catch (RejectedExecutionException e) {
+                // shut down, still the only drainer of this lane, so the order is kept
+                run();
+            }
+        }
+
+        synchronized boolean retireIfIdle() {
+            if (scheduled || !queue.isEmpty()) {
+                return false;
+            }
+            retired = true;
+            return true;
+        }
+
+        synchronized LaneStats getStats() {
+            return new LaneStats(key, queue.size(), delivered, dropped);
+        }
+    }
+}
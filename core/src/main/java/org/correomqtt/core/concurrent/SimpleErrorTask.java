@@ -4,8 +4,8 @@ import org.correomqtt.di.SoyEvents;
 
 public abstract class SimpleErrorTask<E> extends TaskImpl<Void, Void, E, TaskErrorResult<E>> {
 
-    protected SimpleErrorTask(SoyEvents soyEvents){
-        super(soyEvents);
+    protected SimpleErrorTask(SoyEvents soyEvents, CorreoExecutors executors){
+        super(soyEvents, executors);
     }
 
     @SuppressWarnings("unused")
@@ -4,8 +4,8 @@ import org.correomqtt.di.SoyEvents;
 
 public abstract class SimpleProgressTask<P> extends TaskImpl<Void, P, Void, SimpleTaskErrorResult> {
 
-    protected SimpleProgressTask(SoyEvents soyEvents) {
-        super(soyEvents);
+    protected SimpleProgressTask(SoyEvents soyEvents, CorreoExecutors executors) {
+        super(soyEvents, executors);
     }
 
     public SimpleProgressTask<P> onStarted(StartListener listener) {
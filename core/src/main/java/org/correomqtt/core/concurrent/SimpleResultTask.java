@@ -4,8 +4,8 @@ import org.correomqtt.di.SoyEvents;
 
 public abstract class SimpleResultTask<T> extends TaskImpl<T, Void, Void, SimpleTaskErrorResult> {
 
-    protected SimpleResultTask(SoyEvents soyEvents) {
-        super(soyEvents);
+    protected SimpleResultTask(SoyEvents soyEvents, CorreoExecutors executors) {
+        super(soyEvents, executors);
     }
 
     public SimpleResultTask<T> onStarted(StartListener listener) {
@@ -4,8 +4,8 @@ import org.correomqtt.di.SoyEvents;
 
 public abstract class SimpleTask extends TaskImpl<Void, Void, Void, SimpleTaskErrorResult> {
 
-    protected SimpleTask(SoyEvents soyEvents) {
-        super(soyEvents);
+    protected SimpleTask(SoyEvents soyEvents, CorreoExecutors executors) {
+        super(soyEvents, executors);
     }
 
     public SimpleTask onStarted(StartListener listener) {
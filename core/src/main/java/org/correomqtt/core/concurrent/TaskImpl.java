@@ -9,13 +9,17 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 abstract class TaskImpl<T, P, E, R> {
 
     protected final SoyEvents soyEvents;
+    private final CorreoExecutors executors;
 
-    protected TaskImpl(SoyEvents soyEvents){
+    protected TaskImpl(SoyEvents soyEvents, CorreoExecutors executors) {
         this.soyEvents = soyEvents;
+        this.executors = executors;
     }
 
     abstract T executeImpl() throws Exception;
@@ -69,8 +73,8 @@ abstract class TaskImpl<T, P, E, R> {
         }
 
         beforeHookImpl();
-        return this.getFuture()
-                .handleAsync((result, t) -> {
+        return this.getFuture(executors.get(getExecutorPool()))
+                .handle((result, t) -> {
                     if (t != null) {
                         E expectedError = null;
                         if (t instanceof CompletionException ce && ce.getCause() instanceof TaskException taskException) {
@@ -93,17 +97,27 @@ abstract class TaskImpl<T, P, E, R> {
                 });
     }
 
+    /**
+     * @return The executor this task runs on. Blocking file work by default.
+     */
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.IO;
+    }
 
-    abstract R createTaskErrorResult(E expectedError, Throwable throwable);
 
-    private CompletableFuture<T> getFuture() {
+    abstract R createTaskErrorResult(E expectedError, Throwable throwable);
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return executeImpl();
-            } catch (Exception e) {
-                throw new CompletionException(e);
-            }
-        });
+    private CompletableFuture<T> getFuture(Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return executeImpl();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 }
@@ -1,8 +1,10 @@
 package org.correomqtt.core.connection;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.concurrent.SimpleProgressTask;
 import org.correomqtt.core.concurrent.TaskException;
 import org.correomqtt.di.SoyEvents;
@@ -31,8 +33,9 @@ public class ConnectTask extends SimpleProgressTask<ConnectionStateChangedEvent>
     public ConnectTask(ConnectionManager connectionManager,
                        CorreoMqttClientFactory correoMqttClientFactory,
                        SoyEvents soyEvents,
+                       CorreoExecutors executors,
                        @Assisted String connectionId) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.connectionManager = connectionManager;
         this.correoMqttClientFactory = correoMqttClientFactory;
         this.connectionId = connectionId;
@@ -68,4 +71,8 @@ public class ConnectTask extends SimpleProgressTask<ConnectionStateChangedEvent>
         return connectionId;
     }
 
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.PUBSUB;
+    }
 }
@@ -0,0 +1,30 @@
+package org.correomqtt.core.connection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.correomqtt.di.Event;
+import org.correomqtt.di.ObservesFilter;
+
+import java.time.Duration;
+
+import static org.correomqtt.core.events.ObservesFilterNames.CONNECTION_ID;
+
+/**
+ * A lost connection is back and its subscriptions are restored.
+ */
+@AllArgsConstructor
+@Getter
+public class ConnectionRecoveredEvent implements Event {
+    private String connectionId;
+    // from the loss of the connection until all subscriptions are active again
+    private Duration timeToRecover;
+    private int attempts;
+    // the broker kept the session, nothing had to be re-subscribed
+    private boolean sessionPresent;
+    private int resubscribed;
+
+    @ObservesFilter(CONNECTION_ID)
+    public String getConnectionId() {
+        return connectionId;
+    }
+}
@@ -7,4 +7,20 @@ public enum ConnectionState {
     DISCONNECTING,
     DISCONNECTED_GRACEFUL,
     DISCONNECTED_UNGRACEFUL;
+
+    /**
+     * Valid transitions of a client. Connecting is only possible while disconnected, everything else follows the
+     * callbacks of the MQTT client.
+     */
+    public boolean canChangeTo(ConnectionState next) {
+        return switch (this) {
+            case CONNECTING -> next == CONNECTED || next == DISCONNECTING || next == DISCONNECTED_UNGRACEFUL;
+            case CONNECTED -> next == DISCONNECTING;
+            case RECONNECTING -> next == CONNECTED || next == DISCONNECTING;
+            case DISCONNECTING -> next == RECONNECTING || next == DISCONNECTED_GRACEFUL || next == DISCONNECTED_UNGRACEFUL;
+            case DISCONNECTED_GRACEFUL -> next == CONNECTING;
+            // a failed first connect may still be reported by the client afterwards
+            case DISCONNECTED_UNGRACEFUL -> next == CONNECTING || next == DISCONNECTING;
+        };
+    }
 }
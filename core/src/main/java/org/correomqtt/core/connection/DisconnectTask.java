@@ -1,8 +1,10 @@
 package org.correomqtt.core.connection;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.concurrent.SimpleTask;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.core.mqtt.CorreoMqttClient;
@@ -17,8 +19,9 @@ public class DisconnectTask extends SimpleTask {
     @Inject
     public DisconnectTask(ConnectionManager connectionManager,
                           SoyEvents soyEvents,
+                          CorreoExecutors executors,
                           @Assisted String connectionId) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.connectionManager = connectionManager;
         this.connectionId = connectionId;
     }
@@ -34,4 +37,9 @@ public class DisconnectTask extends SimpleTask {
     protected void successHook() {
         connectionManager.getConnection(connectionId).setClient(null); // TODO extract
     }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.PUBSUB;
+    }
 }
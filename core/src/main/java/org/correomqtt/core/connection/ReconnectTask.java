@@ -1,5 +1,7 @@
 package org.correomqtt.core.connection;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.concurrent.NoProgressTask;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.core.model.SubscriptionDTO;
@@ -26,10 +28,11 @@ public class ReconnectTask extends NoProgressTask<Void, Void> {
     @Inject
     public ReconnectTask(SubscribeTaskFactory subscribeTaskFactory,
                          SoyEvents soyEvents,
+                         CorreoExecutors executors,
                          CorreoMqttClientFactory correoMqttClientFactory,
                          ConnectionManager connectionManager,
                          @Assisted String connectionId) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.subscribeTaskFactory = subscribeTaskFactory;
         this.correoMqttClientFactory = correoMqttClientFactory;
         this.connectionManager = connectionManager;
@@ -49,4 +52,9 @@ public class ReconnectTask extends NoProgressTask<Void, Void> {
 
         return null;
     }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.PUBSUB;
+    }
 }
@@ -0,0 +1,20 @@
+package org.correomqtt.core.exception;
+
+public class CorreoMqttOfflineQueueFullException extends CorreoMqttException {
+
+    private final int queued;
+
+    public CorreoMqttOfflineQueueFullException(int queued) {
+        this.queued = queued;
+    }
+
+    public CorreoMqttOfflineQueueFullException(int queued, Throwable cause) {
+        super(cause);
+        this.queued = queued;
+    }
+
+    @Override
+    public String getInfo() {
+        return "Offline queue is full with " + queued + " messages.";
+    }
+}
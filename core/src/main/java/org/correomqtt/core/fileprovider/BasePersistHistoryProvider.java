@@ -1,7 +1,9 @@
 package org.correomqtt.core.fileprovider;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import lombok.Getter;
+import org.correomqtt.di.ObservesFilter;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.core.settings.SettingsManager;
 import org.slf4j.Logger;
@@ -10,24 +12,41 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 
+import static org.correomqtt.core.events.ObservesFilterNames.CONNECTION_ID;
+
+/**
+ * History of one connection, kept in a {@link HistoryJournal}.
+ *
+ * @param <E> Type of the entries.
+ */
 @Getter
-abstract class BasePersistHistoryProvider<D> extends BaseUserFileProvider {
+abstract class BasePersistHistoryProvider<E> extends BaseUserFileProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BasePersistHistoryProvider.class);
 
     abstract String getHistoryFileName();
 
-    abstract Class<D> getDTOClass();
-
-    abstract void setDTO(String id, D readValue);
-
     private final SettingsManager settings;
+    @Getter(AccessLevel.NONE)
     private final String connectionId;
+    @Getter(AccessLevel.PACKAGE)
+    private final HistoryJournal<E> journal;
 
+    /**
+     * @param field       Name of the array in the history file.
+     * @param unique      True, if adding an entry again moves it to the newest position.
+     * @param newestFirst True, if the history file lists the newest entry first.
+     */
     BasePersistHistoryProvider(SettingsManager settings,
                                SoyEvents soyEvents,
-                               String id) {
+                               CorreoExecutors executors,
+                               String id,
+                               String field,
+                               Class<E> entryClass,
+                               boolean unique,
+                               boolean newestFirst) {
         super(soyEvents);
         this.settings = settings;
         connectionId = id;
@@ -38,30 +57,53 @@ abstract class BasePersistHistoryProvider<D> extends BaseUserFileProvider {
             LOGGER.error("Error reading " + historyFileName, e);
             readingError(e);
         }
+        journal = new HistoryJournal<>(getFile().toPath(),
+                field,
+                entryClass,
+                unique,
+                newestFirst,
+                settings.getSettings().getHistoryMaxEntries(),
+                executors,
+                this::writingError);
         try {
-            setDTO(id, new ObjectMapper().readValue(getFile(), getDTOClass()));
-        } catch (IOException e) {
+            journal.load();
+        } catch (IOException | RuntimeException e) {
             LOGGER.error("Error reading " + historyFileName, e);
             readingError(e);
         }
     }
 
+    @ObservesFilter(CONNECTION_ID)
+    public String getConnectionId() {
+        return connectionId;
+    }
+
     protected abstract void readingError(Exception e);
 
+    protected abstract void writingError(IOException e);
+
     protected void removeFileIfConnectionDeleted() {
         settings.getConnectionConfigs().stream()
                 .filter(c -> c.getId().equals(getConnectionId()))
                 .findFirst()
                 .ifPresentOrElse(c -> {
                 }, () -> {
-                    try {
-                        Files.delete(getFile().toPath());
-                        LOGGER.info("{} deleted successfully", getFile());
-                    } catch (IOException e) {
-                        LOGGER.info("Failed to delete {}", getFile(), e);
+                    journal.close();
+                    for (Path path : new Path[]{getFile().toPath(), journal.getJournalPath()}) {
+                        try {
+                            Files.deleteIfExists(path);
+                            LOGGER.info("{} deleted successfully", path);
+                        } catch (IOException e) {
+                            LOGGER.info("Failed to delete {}", path, e);
+                        }
                     }
                 });
     }
-}
-
 
+    /**
+     * Writes pending changes and releases the history file.
+     */
+    public void cleanUp() {
+        journal.close();
+    }
+}
@@ -25,10 +25,19 @@ public abstract class BaseUserFileProvider {
     protected static final String SCRIPT_EXECUTIONS_FOLDER_NAME = SCRIPT_FOLDER_NAME + File.separator + "executions";
     private final Map<String, String> cache = new HashMap<>();
     protected final SoyEvents soyEvents;
+    protected final UserFilePersistence persistence;
     private File file;
 
     protected BaseUserFileProvider(SoyEvents soyEvents){
+        this(soyEvents, null);
+    }
+
+    /**
+     * @param persistence Used by providers that save their file.
+     */
+    protected BaseUserFileProvider(SoyEvents soyEvents, UserFilePersistence persistence) {
         this.soyEvents = soyEvents;
+        this.persistence = persistence;
     }
 
     protected File getFile() {
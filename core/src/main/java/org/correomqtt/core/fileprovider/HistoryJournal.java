@@ -0,0 +1,337 @@
+package org.correomqtt.core.fileprovider;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded history, persisted as a snapshot plus an append-only journal. Changes are appended to the journal, a task on
+ * the IO executor folds it into the snapshot a few seconds later. The snapshot keeps the format of the former history
+ * files, {@code {"<field>": [...]}}, and is read with a streaming parser.
+ * <p>
+ * Snapshot and journal carry a generation, so a journal that was already folded into the snapshot before a crash is not
+ * replayed twice. All methods are thread safe.
+ */
+class HistoryJournal<E> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HistoryJournal.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String GENERATION_FIELD = "journalGeneration";
+    private static final char GENERATION = 'G';
+    private static final char ADD = 'A';
+    private static final char REMOVE = 'R';
+    private static final char CLEAR = 'C';
+    private static final long COMPACTION_DELAY = 5;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final String field;
+    private final Class<E> type;
+    private final boolean newestFirst;
+    private final int capacity;
+    private final CorreoExecutors executors;
+    private final Consumer<IOException> onWriteFailed;
+    // oldest first
+    private final Collection<E> entries;
+    private FileChannel journal;
+    private long generation;
+    private boolean dirty;
+    private boolean compactionScheduled;
+    private boolean closed;
+
+    /**
+     * @param field         Name of the array in the snapshot.
+     * @param unique        True, if adding an entry again moves it to the newest position.
+     * @param newestFirst   True, if the snapshot lists the newest entry first.
+     * @param executors     Compacts on the IO executor, null compacts on {@link #compact()} and {@link #close()} only.
+     * @param onWriteFailed Called if the journal or the snapshot can not be written, the history stays usable in memory.
+     */
+    HistoryJournal(Path snapshotPath,
+                   String field,
+                   Class<E> type,
+                   boolean unique,
+                   boolean newestFirst,
+                   int capacity,
+                   CorreoExecutors executors,
+                   Consumer<IOException> onWriteFailed) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal");
+        this.field = field;
+        this.type = type;
+        this.newestFirst = newestFirst;
+        this.capacity = Math.max(1, capacity);
+        this.executors = executors;
+        this.onWriteFailed = onWriteFailed;
+        this.entries = unique ? new LinkedHashSet<>() : new ArrayDeque<>();
+    }
+
+    /**
+     * Reads the snapshot and replays the journal on top of it.
+     */
+    synchronized void load() throws IOException {
+        entries.clear();
+        generation = 0;
+        readSnapshot();
+        replayJournal();
+    }
+
+    private void readSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        List<E> loaded = new ArrayList<>();
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(snapshotPath.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (GENERATION_FIELD.equals(name) && token.isNumeric()) {
+                    generation = parser.getLongValue();
+                } else if (field.equals(name) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        if (newestFirst && loaded.size() >= capacity) {
+                            parser.skipChildren();
+                        } else {
+                            loaded.add(OBJECT_MAPPER.readValue(parser, type));
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (newestFirst) {
+            for (int i = loaded.size() - 1; i >= 0; i--) {
+                addEntry(loaded.get(i));
+            }
+        } else {
+            loaded.forEach(this::addEntry);
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        List<String> lines;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            lines = reader.lines().toList();
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (lines.isEmpty() || !lines.get(0).equals(GENERATION + " " + generation)) {
+            // folded into the snapshot already or never written completely
+            Files.writeString(journalPath, GENERATION + " " + generation + "\n", StandardCharsets.UTF_8);
+            return;
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            try {
+                replay(line);
+            } catch (IOException | RuntimeException e) {
+                // most likely torn by a crash while appending, everything before is intact
+                LOGGER.warn("Stopped replaying {} at an unreadable entry.", journalPath, e);
+                break;
+            }
+        }
+        if (lines.size() > 1) {
+            // start with an empty journal, new entries must not follow a torn one
+            dirty = true;
+            compact();
+        }
+    }
+
+    private void replay(String line) throws IOException {
+        char op = line.charAt(0);
+        switch (op) {
+            case ADD -> addEntry(OBJECT_MAPPER.readValue(line.substring(2), type));
+            case REMOVE -> entries.remove(OBJECT_MAPPER.readValue(line.substring(2), type));
+            case CLEAR -> entries.clear();
+            default -> throw new IOException("Unknown journal entry " + op);
+        }
+    }
+
+    /**
+     * @return A copy of the entries, oldest first.
+     */
+    synchronized List<E> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * @param added Oldest first, only the newest {@code capacity} entries can survive.
+     */
+    synchronized void add(List<E> added) {
+        List<E> kept = added.subList(Math.max(0, added.size() - capacity), added.size());
+        StringBuilder records = new StringBuilder();
+        try {
+            for (E entry : kept) {
+                records.append(ADD).append(' ').append(OBJECT_MAPPER.writeValueAsString(entry)).append('\n');
+            }
+        } catch (IOException e) {
+            onWriteFailed.accept(e);
+            return;
+        }
+        kept.forEach(this::addEntry);
+        append(records);
+    }
+
+    synchronized void remove(E entry) {
+        if (!entries.remove(entry)) {
+            return;
+        }
+        try {
+            append(new StringBuilder().append(REMOVE).append(' ').append(OBJECT_MAPPER.writeValueAsString(entry)).append('\n'));
+        } catch (IOException e) {
+            onWriteFailed.accept(e);
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        append(new StringBuilder().append(CLEAR).append('\n'));
+    }
+
+    private void addEntry(E entry) {
+        if (entries instanceof LinkedHashSet) {
+            entries.remove(entry);
+        }
+        entries.add(entry);
+        while (entries.size() > capacity) {
+            Iterator<E> oldest = entries.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void append(StringBuilder records) {
+        if (closed) {
+            return;
+        }
+        try {
+            if (journal == null) {
+                journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                if (journal.size() == 0) {
+                    writeGeneration();
+                } else {
+                    journal.position(journal.size());
+                }
+            }
+            write(records);
+            dirty = true;
+            scheduleCompaction();
+        } catch (IOException e) {
+            onWriteFailed.accept(e);
+        }
+    }
+
+    private void writeGeneration() throws IOException {
+        journal.truncate(0);
+        journal.position(0);
+        write(new StringBuilder().append(GENERATION).append(' ').append(generation).append('\n'));
+    }
+
+    private void write(StringBuilder records) throws IOException {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(records.toString());
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+    }
+
+    private void scheduleCompaction() {
+        if (dirty && !compactionScheduled && !closed && executors != null) {
+            compactionScheduled = true;
+            executors.schedule(ExecutorPool.IO, this::compactQuietly, COMPACTION_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException e) {
+            LOGGER.error("Failed to compact {}.", journalPath, e);
+            onWriteFailed.accept(e);
+        }
+    }
+
+    /**
+     * Writes all entries to a new snapshot and starts a new journal.
+     */
+    synchronized void compact() throws IOException {
+        compactionScheduled = false;
+        if (!dirty) {
+            return;
+        }
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempPath);
+             JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField(GENERATION_FIELD, generation + 1);
+            generator.writeArrayFieldStart(field);
+            List<E> ordered = new ArrayList<>(entries);
+            for (int i = 0; i < ordered.size(); i++) {
+                OBJECT_MAPPER.writeValue(generator, ordered.get(newestFirst ? ordered.size() - 1 - i : i));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        try {
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        generation++;
+        dirty = false;
+        if (journal != null) {
+            writeGeneration();
+        } else {
+            Files.writeString(journalPath, GENERATION + " " + generation + "\n", StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Compacts pending changes and releases the journal.
+     */
+    @Override
+    public synchronized void close() {
+        compactQuietly();
+        closed = true;
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close {}.", journalPath, e);
+            }
+            journal = null;
+        }
+    }
+
+    Path getJournalPath() {
+        return journalPath;
+    }
+}
@@ -26,7 +26,8 @@ public class PluginConfigProvider extends BaseUserFileProvider {
     private static final String EX_MSG_PREPARE_PLUGIN_FOLDER = "Could not create plugin folder.";
     private static final String PLUGIN_FOLDER = "plugins";
 
-    private HooksDTO hooksDTO;
+    private volatile HooksDTO hooksDTO;
+    private volatile long hooksRevision;
     private String pluginPath;
 
     @Inject
@@ -42,13 +43,24 @@ public class PluginConfigProvider extends BaseUserFileProvider {
 
         preparePluginPath();
 
+        reloadHooks();
+    }
+
+    public synchronized void reloadHooks() {
         try {
             hooksDTO = new ObjectMapper().readValue(getFile(), HooksDTO.class);
+            hooksRevision++;
         } catch (IOException e) {
             LOGGER.error("Exception parsing hooks file {}", HOOK_FILE_NAME, e);
             soyEvents.fire(new InvalidHooksFileEvent(e));
         }
+    }
 
+    /**
+     * @return A counter that changes every time the hooks have been (re)loaded.
+     */
+    public long getHooksRevision() {
+        return hooksRevision;
     }
 
     public List<HooksDTO.Extension> getOutgoingMessageHooks() {
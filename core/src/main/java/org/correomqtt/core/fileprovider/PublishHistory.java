@@ -1,38 +1,34 @@
 package org.correomqtt.core.fileprovider;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.di.Observes;
-import org.correomqtt.core.model.PublishHistoryListDTO;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.pubsub.PublishBatchEvent;
 import org.correomqtt.core.pubsub.PublishEvent;
 import org.correomqtt.core.settings.SettingsManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @DefaultBean
-public class PublishHistory extends BasePersistHistoryProvider<PublishHistoryListDTO> {
+public class PublishHistory extends BasePersistHistoryProvider<String> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PublishHistory.class);
 
     private static final String HISTORY_FILE_NAME = "publishHistory.json";
-    private static final int MAX_ENTRIES = 100;
-
-    private static final Map<String, PublishHistory> instances = new HashMap<>();
-    private static final Map<String, PublishHistoryListDTO> historyDTOs = new HashMap<>();
 
     @Inject
     public PublishHistory(SettingsManager settings,
                           SoyEvents soyEvents,
+                          CorreoExecutors executors,
                           @Assisted String connectionId) {
-        super(settings, soyEvents, connectionId);
+        super(settings, soyEvents, executors, connectionId, "topics", String.class, true, false);
     }
 
     @Override
@@ -41,47 +37,36 @@ public class PublishHistory extends BasePersistHistoryProvider<PublishHistoryLis
     }
 
     @Override
-    String getHistoryFileName() {
-        return HISTORY_FILE_NAME;
-    }
-
-    @Override
-    Class<PublishHistoryListDTO> getDTOClass() {
-        return PublishHistoryListDTO.class;
+    protected void writingError(IOException e) {
+        LOGGER.error("Failed to write " + getHistoryFileName(), e);
+        soyEvents.fireAsync(new PersistPublishHistoryWriteFailedEvent(e));
     }
 
     @Override
-    void setDTO(String id, PublishHistoryListDTO dto) {
-        historyDTOs.put(id, dto);
+    String getHistoryFileName() {
+        return HISTORY_FILE_NAME;
     }
 
-    public List<String> getTopics(String connectionId) {
-        return historyDTOs.get(connectionId).getTopics();
+    /**
+     * @return A copy of the topics, most recently used last.
+     */
+    public List<String> getTopics() {
+        return getJournal().getEntries();
     }
 
     @SuppressWarnings("unused")
     public void onPublishSucceeded(@Observes PublishEvent event) {
         LOGGER.info("Persisting new publish history entry: {}", event.getMessageDTO().getTopic());
-
-        List<String> topicsSet = getTopics(event.getConnectionId());
-        String topic = event.getMessageDTO().getTopic();
-        topicsSet.remove(topic);
-        topicsSet.add(topic);
-        while (topicsSet.size() > MAX_ENTRIES) {
-            LOGGER.info("Removing last entry from publish history, cause limit of {} is reached.", MAX_ENTRIES);
-            topicsSet.remove(topicsSet.iterator().next());
-        }
-
-        saveHistory(event.getConnectionId());
+        getJournal().add(List.of(event.getMessageDTO().getTopic()));
     }
 
-    private void saveHistory(String connectionId) {
-        try {
-            new ObjectMapper().writeValue(getFile(), historyDTOs.get(connectionId));
-        } catch (IOException e) {
-            LOGGER.error("Failed to write " + getHistoryFileName(), e);
-            soyEvents.fireAsync(new PersistPublishHistoryWriteFailedEvent(e));
-        }
+    @SuppressWarnings("unused")
+    public void onPublishBatchSucceeded(@Observes PublishBatchEvent event) {
+        LOGGER.info("Persisting {} new publish history entries.", event.getMessages().size());
+        getJournal().add(event.getMessages()
+                .stream()
+                .map(MessageDTO::getTopic)
+                .toList());
     }
 
     @SuppressWarnings("unused")
@@ -89,12 +74,4 @@ public class PublishHistory extends BasePersistHistoryProvider<PublishHistoryLis
     public void onConnectionsUpdated() {
         removeFileIfConnectionDeleted();
     }
-
-
-    public void cleanUp() {
-        instances.remove(getConnectionId());
-        historyDTOs.remove(getConnectionId());
-    }
 }
-
-
@@ -1,13 +1,13 @@
 package org.correomqtt.core.fileprovider;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.di.Observes;
 import org.correomqtt.core.model.MessageDTO;
-import org.correomqtt.core.model.PublishMessageHistoryListDTO;
+import org.correomqtt.core.pubsub.PublishBatchEvent;
 import org.correomqtt.core.pubsub.PublishEvent;
 import org.correomqtt.core.pubsub.PublishListClearEvent;
 import org.correomqtt.core.pubsub.PublishListRemovedEvent;
@@ -16,25 +16,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 @DefaultBean
-public class PublishMessageHistory extends BasePersistHistoryProvider<PublishMessageHistoryListDTO> {
+public class PublishMessageHistory extends BasePersistHistoryProvider<MessageDTO> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PublishMessageHistory.class);
 
     private static final String HISTORY_FILE_NAME = "publishMessageHistory.json";
-    private static final int MAX_ENTRIES = 100;
-
-    private static final Map<String, PublishMessageHistoryListDTO> historyDTOs = new HashMap<>();
 
     @Inject
     PublishMessageHistory(SettingsManager settings,
                           SoyEvents soyEvents,
+                          CorreoExecutors executors,
                           @Assisted String connectionId) {
-        super(settings, soyEvents, connectionId);
+        super(settings, soyEvents, executors, connectionId, "messages", MessageDTO.class, false, true);
     }
 
     @Override
@@ -43,59 +40,46 @@ public class PublishMessageHistory extends BasePersistHistoryProvider<PublishMes
     }
 
     @Override
-    String getHistoryFileName() {
-        return HISTORY_FILE_NAME;
+    protected void writingError(IOException e) {
+        LOGGER.error("Failed to write " + getHistoryFileName(), e);
+        soyEvents.fireAsync(new PersistPublishHistoryWriteFailedEvent(e));
     }
 
     @Override
-    Class<PublishMessageHistoryListDTO> getDTOClass() {
-        return PublishMessageHistoryListDTO.class;
-    }
-
-    @Override
-    void setDTO(String id, PublishMessageHistoryListDTO dto) {
-        historyDTOs.put(id, dto);
+    String getHistoryFileName() {
+        return HISTORY_FILE_NAME;
     }
 
-    public List<MessageDTO> getMessages(String connectionId) {
-        return historyDTOs.get(connectionId).getMessages();
+    /**
+     * @return A copy of the history, newest first.
+     */
+    public List<MessageDTO> getMessages() {
+        List<MessageDTO> messages = getJournal().getEntries();
+        Collections.reverse(messages);
+        return messages;
     }
 
     public void onPublishSucceeded(@Observes PublishEvent event) {
         LOGGER.info("Persisting new publish history entry: {}", event.getMessageDTO().getTopic());
-
-        List<MessageDTO> messageList = getMessages(event.getConnectionId());
-        messageList.add(0, event.getMessageDTO());
-        while (messageList.size() > MAX_ENTRIES) {
-            LOGGER.info("Removing last entry from publish history, cause limit of {} is reached.", MAX_ENTRIES);
-            messageList.remove(messageList.size() - 1);
-        }
-        saveHistory(event.getConnectionId());
+        getJournal().add(List.of(event.getMessageDTO()));
     }
 
-    private void saveHistory(String id) {
-        try {
-            new ObjectMapper().writeValue(getFile(), historyDTOs.get(id));
-        } catch (IOException e) {
-            LOGGER.error("Failed to write " + getHistoryFileName(), e);
-            soyEvents.fireAsync(new PersistPublishHistoryWriteFailedEvent(e));
-        }
+    @SuppressWarnings("unused")
+    public void onPublishBatchSucceeded(@Observes PublishBatchEvent event) {
+        LOGGER.info("Persisting {} new publish history entries.", event.getMessages().size());
+        getJournal().add(event.getMessages());
     }
 
     @SuppressWarnings("unused")
     public void onPublishRemoved(@Observes PublishListRemovedEvent event) {
         LOGGER.info("Removing {} from publish history for {}.", event.getMessageDTO().getTopic(), event.getConnectionId());
-        List<MessageDTO> messageList = getMessages(event.getConnectionId());
-        messageList.remove(event.getMessageDTO());
-        saveHistory(event.getConnectionId());
+        getJournal().remove(event.getMessageDTO());
     }
 
     @SuppressWarnings("unused")
     public void onPublishesCleared(@Observes PublishListClearEvent event) {
         LOGGER.info("Clearing publish history for {}.", event.getConnectionId());
-        List<MessageDTO> messageList = getMessages(event.getConnectionId());
-        messageList.clear();
-        saveHistory(event.getConnectionId());
+        getJournal().clear();
     }
 
     @SuppressWarnings("unused")
@@ -103,10 +87,4 @@ public class PublishMessageHistory extends BasePersistHistoryProvider<PublishMes
     public void onConnectionsUpdated() {
         removeFileIfConnectionDeleted();
     }
-
-    public void cleanUp() {
-        historyDTOs.remove(getConnectionId());
-    }
 }
-
-
@@ -36,8 +36,8 @@ public class SecretStoreProvider extends BaseUserFileProvider {
 
 
     @Inject
-    public SecretStoreProvider(SoyEvents soyEvents) {
-        super(soyEvents);
+    public SecretStoreProvider(SoyEvents soyEvents, UserFilePersistence persistence) {
+        super(soyEvents, persistence);
 
         try {
             prepareFile(PASSWORD_FILE_NAME);
@@ -47,7 +47,7 @@ public class SecretStoreProvider extends BaseUserFileProvider {
         }
 
         try {
-            passwordsDTO = new ObjectMapper().readValue(this.getFile(), PasswordsDTO.class);
+            passwordsDTO = persistence.read(this.getFile(), PasswordsDTO.class);
         } catch (IOException e) {
             LOGGER.error("Password file can not be read {}.", PASSWORD_FILE_NAME, e);
             soyEvents.fire(new InvalidPasswordFileEvent());
@@ -82,7 +82,7 @@ public class SecretStoreProvider extends BaseUserFileProvider {
             passwordsDTO.setSalt(null);
             passwordsDTO.setPasswords(encryptedPasswords);
             passwordsDTO.setEncryptionType(encryptor.getEncryptionTranslation());
-            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(getFile(), passwordsDTO);
+            persistence.save(getFile().toPath(), persistence.toJson(passwordsDTO));
         } catch (IOException e) {
             LOGGER.error("Could not save encrypted passwords. ", e);
             throw new EncryptionRecoverableException();
@@ -1,40 +1,33 @@
 package org.correomqtt.core.fileprovider;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.di.Observes;
 import org.correomqtt.core.model.SubscriptionDTO;
-import org.correomqtt.core.model.SubscriptionHistoryListDTO;
 import org.correomqtt.core.pubsub.SubscribeEvent;
 import org.correomqtt.core.settings.SettingsManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @DefaultBean
-public class SubscriptionHistory extends BasePersistHistoryProvider<SubscriptionHistoryListDTO> {
+public class SubscriptionHistory extends BasePersistHistoryProvider<String> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionHistory.class);
 
     private static final String HISTORY_FILE_NAME = "subscriptionHistory.json";
 
-    private static final int MAX_ENTRIES = 100;
-
-    private static Map<String, SubscriptionHistoryListDTO> historyDTOs = new HashMap<>();
-
     @Inject
     SubscriptionHistory(SettingsManager settings,
                         SoyEvents soyEvents,
+                        CorreoExecutors executors,
                         @Assisted String connectionId) {
-        super(settings, soyEvents, connectionId);
+        super(settings, soyEvents, executors, connectionId, "topics", String.class, true, false);
     }
 
     public void onSubscribedSucceeded(@Observes SubscribeEvent event) {
@@ -46,34 +39,15 @@ public class SubscriptionHistory extends BasePersistHistoryProvider<Subscription
         }
 
         LOGGER.info("Persisting new subscription history entry: {}", subscriptionDTO.getTopic());
-
-        List<String> topicsSet = getTopics(getConnectionId());
-        String topic = subscriptionDTO.getTopic();
-        topicsSet.remove(topic);
-        topicsSet.add(topic);
-        while (topicsSet.size() > MAX_ENTRIES) {
-            LOGGER.info("Removing last entry from subscription history, cause limit of {} is reached.", MAX_ENTRIES);
-            topicsSet.remove(topicsSet.iterator().next());
-        }
-
-        saveHistory(getConnectionId()); //TODO is the connectionId not fixed?
+        getJournal().add(List.of(subscriptionDTO.getTopic()));
+        soyEvents.fireAsync(new PersistSubscribeHistoryUpdateEvent(getConnectionId()));
     }
 
-    public List<String> getTopics(String connectionId) {
-        if (historyDTOs.get(connectionId) == null) {
-            setDTO(connectionId, new SubscriptionHistoryListDTO(new ArrayList<>()));
-        }
-        return historyDTOs.get(connectionId).getTopics();
-    }
-
-    private void saveHistory(String connectionId) {
-        try {
-            new ObjectMapper().writeValue(getFile(), historyDTOs.get(connectionId));
-            soyEvents.fireAsync(new PersistSubscribeHistoryUpdateEvent(connectionId));
-        } catch (IOException e) {
-            LOGGER.error("Failed to write " + getHistoryFileName(), e);
-            soyEvents.fireAsync(new PersistSubscribeHistoryWriteFailedEvent(getConnectionId(), e));
-        }
+    /**
+     * @return A copy of the topics, most recently used last.
+     */
+    public List<String> getTopics() {
+        return getJournal().getEntries();
     }
 
     @Override
@@ -82,18 +56,14 @@ public class SubscriptionHistory extends BasePersistHistoryProvider<Subscription
     }
 
     @Override
-    Class<SubscriptionHistoryListDTO> getDTOClass() {
-        return SubscriptionHistoryListDTO.class;
-    }
-
-    @Override
-    void setDTO(String id, SubscriptionHistoryListDTO dto) {
-        historyDTOs.put(id, dto);
+    protected void readingError(Exception e) {
+        soyEvents.fireAsync(new PersistSubscribeHistoryReadFailedEvent(getConnectionId(), e));
     }
 
     @Override
-    protected void readingError(Exception e) {
-        soyEvents.fireAsync(new PersistSubscribeHistoryReadFailedEvent(getConnectionId(), e));
+    protected void writingError(IOException e) {
+        LOGGER.error("Failed to write " + getHistoryFileName(), e);
+        soyEvents.fireAsync(new PersistSubscribeHistoryWriteFailedEvent(getConnectionId(), e));
     }
 
     @SuppressWarnings("unused")
@@ -101,10 +71,4 @@ public class SubscriptionHistory extends BasePersistHistoryProvider<Subscription
     public void onConnectionsUpdated() {
         removeFileIfConnectionDeleted();
     }
-
-    public void cleanUp() {
-        historyDTOs.remove(getConnectionId());
-    }
 }
-
-
@@ -0,0 +1,142 @@
+package org.correomqtt.core.fileprovider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.correomqtt.core.applifecycle.ShutdownEvent;
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
+import org.correomqtt.di.Observes;
+import org.correomqtt.di.SingletonBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes the JSON files of the {@link BaseUserFileProvider}s. Files are replaced atomically via a temp file,
+ * so a crash while writing leaves the former content. {@link #saveLater} coalesces the saves of a file within
+ * {@value #DEBOUNCE_MILLIS} ms and writes the latest content on the IO executor. Pending saves are written on
+ * {@link ShutdownEvent}, saves after that are written immediately.
+ */
+@SingletonBean
+public class UserFilePersistence {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserFilePersistence.class);
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectWriter writer = objectMapper.writerWithDefaultPrettyPrinter();
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Path, PendingSave> pendingSaves = new ConcurrentHashMap<>();
+    // set once the executors exist, they read their settings through this class
+    private volatile CorreoExecutors executors;
+    private volatile boolean shutdown;
+
+    /**
+     * Starts writing the saves, that were requested before the executors existed.
+     */
+    public void setExecutors(CorreoExecutors executors) {
+        this.executors = executors;
+        pendingSaves.keySet().forEach(target -> scheduleFlush(executors, target));
+    }
+
+    public <T> T read(File file, Class<T> type) throws IOException {
+        return readers.computeIfAbsent(type, objectMapper::readerFor).readValue(file);
+    }
+
+    public byte[] toJson(Object value) throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    /**
+     * Writes the content within the debounce window, the content must not change afterwards.
+     *
+     * @param onFailed Called on the writing thread, if the file can not be written.
+     */
+    public void saveLater(Path target, byte[] content, Consumer<IOException> onFailed) {
+        if (shutdown) {
+            saveNow(target, content, onFailed);
+            return;
+        }
+        PendingSave previous = pendingSaves.put(target, new PendingSave(content, onFailed));
+        CorreoExecutors currentExecutors = executors;
+        // without executors the save waits for them or the shutdown
+        if (previous == null && currentExecutors != null) {
+            scheduleFlush(currentExecutors, target);
+        }
+    }
+
+    private void scheduleFlush(CorreoExecutors currentExecutors, Path target) {
+        try {
+            currentExecutors.schedule(ExecutorPool.IO, () -> flush(target), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // shut down meanwhile
+            flush(target);
+        }
+    }
+
+    /**
+     * Writes the content immediately and drops a pending save of the same file.
+     */
+    public void save(Path target, byte[] content) throws IOException {
+        synchronized (this) {
+            pendingSaves.remove(target);
+            write(target, content);
+        }
+    }
+
+    private void saveNow(Path target, byte[] content, Consumer<IOException> onFailed) {
+        try {
+            save(target, content);
+        } catch (IOException e) {
+            onFailed.accept(e);
+        }
+    }
+
+    // the lock keeps saves of the same file in order
+    private synchronized void flush(Path target) {
+        PendingSave pendingSave = pendingSaves.remove(target);
+        if (pendingSave == null) {
+            return;
+        }
+        try {
+            write(target, pendingSave.content());
+        } catch (IOException e) {
+            LOGGER.error("Failed to write {}.", target, e);
+            pendingSave.onFailed().accept(e);
+        }
+    }
+
+    private static void write(Path target, byte[] content) throws IOException {
+        Path tempPath = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(tempPath, content);
+        try {
+            Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @Observes(ShutdownEvent.class)
+    public void onShutdown() {
+        shutdown = true;
+        pendingSaves.keySet().forEach(this::flush);
+        LOGGER.info("Flushed pending file writes.");
+    }
+
+    private record PendingSave(byte[] content, Consumer<IOException> onFailed) {
+    }
+}
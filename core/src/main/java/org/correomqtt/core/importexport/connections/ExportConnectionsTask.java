@@ -1,6 +1,7 @@
 package org.correomqtt.core.importexport.connections;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -36,10 +37,11 @@ public class ExportConnectionsTask extends NoProgressTask<Integer, ExportConnect
 
     @Inject
     public ExportConnectionsTask(SoyEvents soyEvents,
+                                 CorreoExecutors executors,
                                  @Assisted File file,
                                  @Assisted List<ConnectionConfigDTO> connectionList,
                                  @Assisted String password) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.file = file;
         this.connectionList = connectionList;
         this.password = password;
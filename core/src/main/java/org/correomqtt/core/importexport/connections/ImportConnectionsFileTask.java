@@ -1,6 +1,7 @@
 package org.correomqtt.core.importexport.connections;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -30,8 +31,9 @@ public class ImportConnectionsFileTask extends NoProgressTask<ConnectionExportDT
 
     @Inject
     public ImportConnectionsFileTask(SoyEvents soyEvents,
+                                     CorreoExecutors executors,
                                      @Assisted File file) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.file = file;
     }
 
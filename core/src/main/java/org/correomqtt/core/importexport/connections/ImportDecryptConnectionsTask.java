@@ -3,6 +3,7 @@ package org.correomqtt.core.importexport.connections;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -32,10 +33,11 @@ public class ImportDecryptConnectionsTask extends NoProgressTask<List<Connection
 
     @Inject
     public ImportDecryptConnectionsTask(SoyEvents soyEvents,
+                                        CorreoExecutors executors,
                                         @Assisted("encryptedData") String encryptedData,
                                         @Assisted("encryptedType") String encryptionType,
                                         @Assisted("password") String password) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.encryptedData = encryptedData;
         this.encryptionType = encryptionType;
         this.password = password;
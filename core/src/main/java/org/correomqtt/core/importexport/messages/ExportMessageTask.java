@@ -1,6 +1,7 @@
 package org.correomqtt.core.importexport.messages;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -23,9 +24,10 @@ public class ExportMessageTask extends SimpleTask {
 
     @Inject
     public ExportMessageTask(SoyEvents soyEvents,
+                             CorreoExecutors executors,
                              @Assisted File file,
                              @Assisted MessageDTO messageDTO) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.soyEvents = soyEvents;
         this.file = file;
         this.messageDTO = messageDTO;
@@ -0,0 +1,41 @@
+package org.correomqtt.core.importexport.messages;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.correomqtt.core.model.MessageDTO;
+
+import java.io.File;
+import java.util.function.Predicate;
+
+/**
+ * Parameters of a bulk export of messages.
+ */
+@Getter
+@Builder
+public class ExportMessagesConfig {
+
+    private final File file;
+    /**
+     * Iterated once on the export thread. Messages may be produced while iterating, so they need not fit into memory.
+     */
+    private final Iterable<MessageDTO> messages;
+    /**
+     * Number of messages, only used to report the progress. If not set, the size of a collection is used.
+     */
+    private final long total;
+    /**
+     * Only matching messages are exported, null exports all.
+     */
+    private final Predicate<MessageDTO> filter;
+    @Builder.Default
+    private final ExportMessagesFormat format = ExportMessagesFormat.JSONL;
+    /**
+     * Writes all payloads as base64. Otherwise, JSON Lines only encode payloads, which are no valid text, and CSV
+     * writes every payload as text.
+     */
+    private final boolean base64Payloads;
+    /**
+     * Compresses the file with gzip while writing.
+     */
+    private final boolean gzip;
+}
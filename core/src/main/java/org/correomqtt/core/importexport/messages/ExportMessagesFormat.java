@@ -0,0 +1,12 @@
+package org.correomqtt.core.importexport.messages;
+
+public enum ExportMessagesFormat {
+    /**
+     * One JSON object per line.
+     */
+    JSONL,
+    /**
+     * RFC 4180 with a header line.
+     */
+    CSV
+}
@@ -0,0 +1,13 @@
+package org.correomqtt.core.importexport.messages;
+
+/**
+ * @param exported Messages written so far.
+ * @param visited  Messages visited so far.
+ * @param total    Messages to visit, including the ones the filter skips, 0 if unknown.
+ */
+public record ExportMessagesProgress(long exported, long visited, long total) {
+
+    public double getProgress() {
+        return total == 0 ? 1 : (double) visited / total;
+    }
+}
@@ -0,0 +1,235 @@
+package org.correomqtt.core.importexport.messages;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.FullTask;
+import org.correomqtt.core.concurrent.TaskException;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.utils.CorreoCharsetDecoder;
+import org.correomqtt.di.Assisted;
+import org.correomqtt.di.DefaultBean;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.SoyEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes messages to a file as JSON Lines or CSV, optionally gzip compressed. Messages are written one by one
+ * through a buffered stream, so memory use does not depend on the number of messages. A cancelled or failed export
+ * deletes the incomplete file.
+ */
+@DefaultBean
+public class ExportMessagesTask extends FullTask<Long, ExportMessagesProgress, ExportMessagesTask.Error> {
+
+    public enum Error {
+        FILE_IS_NULL,
+        CANCELLED
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportMessagesTask.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final ExportMessagesConfig config;
+    private volatile boolean cancelled;
+    // reused for the payload of every message
+    private byte[] payloadBytes = new byte[1024];
+
+    @Inject
+    public ExportMessagesTask(SoyEvents soyEvents,
+                              CorreoExecutors executors,
+                              @Assisted ExportMessagesConfig config) {
+        super(soyEvents, executors);
+        this.config = config;
+    }
+
+    /**
+     * Stops the export before the next message.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    protected Long execute() throws IOException {
+        File file = config.getFile();
+        if (file == null) {
+            throw new TaskException(Error.FILE_IS_NULL);
+        }
+        long exported;
+        try (OutputStream out = openStream(file)) {
+            exported = switch (config.getFormat()) {
+                case JSONL -> writeJsonLines(out);
+                case CSV -> writeCsv(out);
+            };
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+        LOGGER.info("Exported {} messages to {}.", exported, file);
+        return exported;
+    }
+
+    private OutputStream openStream(File file) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()), BUFFER_SIZE);
+        try {
+            return config.isGzip() ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    private long writeJsonLines(OutputStream out) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            return export(messageDTO -> {
+                generator.writeStartObject();
+                writeJsonField(generator, "messageId", messageDTO.getMessageId());
+                writeJsonField(generator, "topic", messageDTO.getTopic());
+                if (messageDTO.getQos() != null) {
+                    generator.writeNumberField("qos", messageDTO.getQos().toJsonValue());
+                }
+                generator.writeBooleanField("retained", messageDTO.isRetained());
+                LocalDateTime dateTime = messageDTO.getDateTime();
+                writeJsonField(generator, "dateTime", dateTime == null ? null : dateTime.toString());
+                ByteBuffer payload = messageDTO.getPayloadBuffer();
+                if (payload != null) {
+                    if (config.isBase64Payloads() || !CorreoCharsetDecoder.isDecodable(payload)) {
+                        generator.writeFieldName("payloadBase64");
+                        generator.writeBinary(toBytes(payload), 0, payload.remaining());
+                    } else {
+                        generator.writeStringField("payload", CorreoCharsetDecoder.decode(payload));
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private static void writeJsonField(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private long writeCsv(OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write("messageId,topic,qos,retained,dateTime," + (config.isBase64Payloads() ? "payloadBase64" : "payload") + "\r\n");
+            return export(messageDTO -> {
+                writeCsvField(writer, messageDTO.getMessageId());
+                writer.write(',');
+                writeCsvField(writer, messageDTO.getTopic());
+                writer.write(',');
+                if (messageDTO.getQos() != null) {
+                    writer.write(Integer.toString(messageDTO.getQos().toJsonValue()));
+                }
+                writer.write(',');
+                writer.write(Boolean.toString(messageDTO.isRetained()));
+                writer.write(',');
+                LocalDateTime dateTime = messageDTO.getDateTime();
+                if (dateTime != null) {
+                    writer.write(dateTime.toString());
+                }
+                writer.write(',');
+                ByteBuffer payload = messageDTO.getPayloadBuffer();
+                if (payload != null) {
+                    if (config.isBase64Payloads()) {
+                        writer.write(new String(Base64.getEncoder().encode(payload).array(), StandardCharsets.US_ASCII));
+                    } else {
+                        writeCsvField(writer, CorreoCharsetDecoder.decode(payload));
+                    }
+                }
+                writer.write("\r\n");
+            });
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private byte[] toBytes(ByteBuffer payload) {
+        if (payloadBytes.length < payload.remaining()) {
+            payloadBytes = new byte[Math.max(payload.remaining(), payloadBytes.length * 2)];
+        }
+        payload.get(payload.position(), payloadBytes, 0, payload.remaining());
+        return payloadBytes;
+    }
+
+    private long export(MessageWriter messageWriter) throws IOException {
+        Iterable<MessageDTO> messages = config.getMessages();
+        Predicate<MessageDTO> filter = config.getFilter();
+        long total = config.getTotal();
+        if (total <= 0 && messages instanceof Collection<MessageDTO> collection) {
+            total = collection.size();
+        }
+        long visited = 0;
+        long exported = 0;
+        long nextProgress = System.nanoTime() + PROGRESS_INTERVAL_NANOS;
+        if (messages != null) {
+            for (MessageDTO messageDTO : messages) {
+                if (cancelled) {
+                    throw new TaskException(Error.CANCELLED);
+                }
+                visited++;
+                if (messageDTO != null && (filter == null || filter.test(messageDTO))) {
+                    messageWriter.write(messageDTO);
+                    exported++;
+                }
+                if (System.nanoTime() - nextProgress >= 0) {
+                    reportProgress(new ExportMessagesProgress(exported, visited, total));
+                    nextProgress = System.nanoTime() + PROGRESS_INTERVAL_NANOS;
+                }
+            }
+        }
+        reportProgress(new ExportMessagesProgress(exported, visited, total));
+        return exported;
+    }
+
+    @FunctionalInterface
+    private interface MessageWriter {
+
+        void write(MessageDTO messageDTO) throws IOException;
+    }
+}
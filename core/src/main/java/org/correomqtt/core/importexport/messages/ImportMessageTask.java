@@ -1,6 +1,7 @@
 package org.correomqtt.core.importexport.messages;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -22,8 +23,9 @@ public class ImportMessageTask extends SimpleResultTask<MessageDTO> {
 
     @Inject
     public ImportMessageTask(SoyEvents soyEvents,
+                             CorreoExecutors executors,
                              @Assisted File file) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.file = file;
     }
 
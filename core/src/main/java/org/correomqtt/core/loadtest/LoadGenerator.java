@@ -0,0 +1,253 @@
+package org.correomqtt.core.loadtest;
+
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.MessageType;
+import org.correomqtt.core.model.SubscriptionDTO;
+import org.correomqtt.core.mqtt.CorreoMqttClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Publishes at a fixed rate over several client connections and subscribes to the same topics to measure the end to
+ * end latency.
+ * <p>
+ * Every payload starts with the time the message was scheduled for, not the time it was actually sent. If the
+ * clients or the broker cannot keep up, the delay is part of the latency instead of being hidden by a slower send
+ * rate (coordinated omission). A client with {@link LoadGeneratorConfig#getMaxOutstandingPerClient()} messages not
+ * completed yet holds back the schedule, the messages sent afterwards carry their original times. Messages still
+ * due when the run is stopped are counted as unsent with the time they waited as latency.
+ * <p>
+ * The load clients get connection ids of their own. They never show up as connections in the UI and their messages
+ * bypass the message hooks and the message lists.
+ */
+public class LoadGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Function<ConnectionConfigDTO, CorreoMqttClient> clientFactory;
+    private final LoadGeneratorConfig config;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder unsent = new LongAdder();
+    private final LongAccumulator lastReceived = new LongAccumulator(Long::max, Long.MIN_VALUE);
+    private volatile boolean stopped;
+
+    /**
+     * @param clientFactory Creates a client for a connection, usually
+     *                      {@link org.correomqtt.core.mqtt.CorreoMqttClientFactory#createClient}.
+     */
+    public LoadGenerator(Function<ConnectionConfigDTO, CorreoMqttClient> clientFactory, LoadGeneratorConfig config) {
+        config.validate();
+        this.clientFactory = clientFactory;
+        this.config = config;
+    }
+
+    /**
+     * Stops sending. Messages already sent are still awaited.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public LoadGeneratorResult run() throws InterruptedException, ExecutionException, TimeoutException, SSLException {
+        List<CorreoMqttClient> clients = new ArrayList<>(config.getClientCount());
+        try {
+            connect(clients);
+            return generate(clients);
+        } finally {
+            clients.forEach(this::disconnect);
+        }
+    }
+
+    private void connect(List<CorreoMqttClient> clients)
+            throws InterruptedException, ExecutionException, TimeoutException, SSLException {
+        ConnectionConfigDTO template = config.getConnection();
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        Map<String, CorreoMqttClient> subscribers = new LinkedHashMap<>();
+        for (int c = 0; c < config.getClientCount(); c++) {
+            ConnectionConfigDTO clientConfig = new ConnectionConfigDTO(template);
+            clientConfig.setId(UUID.randomUUID().toString());
+            clientConfig.setName(template.getName() + " load " + c);
+            clientConfig.setClientId(clientIdPrefix(template) + "load-" + runId + "-" + c);
+            clientConfig.setCleanSession(true);
+            // queued messages would be measured as sent
+            clientConfig.setOfflineQueue(false);
+            // the load generator spreads the load over its own clients
+            clientConfig.setConsumerGroup(null);
+            CorreoMqttClient client = clientFactory.apply(clientConfig);
+            client.connect();
+            clients.add(client);
+            for (int t = 0; t < config.getTopicsPerClient(); t++) {
+                // topics shared by several clients are subscribed once, so every message is received once
+                subscribers.putIfAbsent(config.topicFor(c, t), client);
+            }
+        }
+        for (Map.Entry<String, CorreoMqttClient> entry : subscribers.entrySet()) {
+            entry.getValue().subscribe(SubscriptionDTO.builder()
+                    .topic(entry.getKey())
+                    .qos(config.getQos())
+                    .hidden(true)
+                    .build(), this::onReceived);
+        }
+        LOGGER.info("Load test connected {} clients and subscribed to {} topics.", clients.size(), subscribers.size());
+    }
+
+    private static String clientIdPrefix(ConnectionConfigDTO template) {
+        String clientId = template.getClientId();
+        return clientId == null || clientId.isEmpty() ? "correomqtt-" : clientId + "-";
+    }
+
+    private LoadGeneratorResult generate(List<CorreoMqttClient> clients) {
+        int clientCount = clients.size();
+        int topicsPerClient = config.getTopicsPerClient();
+        long interval = Math.max(1, TimeUnit.SECONDS.toNanos(1) / config.getMessagesPerSecond());
+        long maxMessages = config.getMaxMessages();
+        long start = System.nanoTime();
+        long end = start + config.getDuration().toNanos();
+        long next = start;
+        long count = 0;
+        Semaphore[] outstanding = new Semaphore[clientCount];
+        for (int c = 0; c < clientCount; c++) {
+            outstanding[c] = new Semaphore(config.getMaxOutstandingPerClient());
+        }
+
+        while (!stopped && next - end < 0 && (maxMessages <= 0 || count < maxMessages)) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                continue;
+            }
+            int client = (int) (count % clientCount);
+            int topic = (int) ((count / clientCount) % topicsPerClient);
+            if (!acquire(outstanding[client])) {
+                break;
+            }
+            publish(clients.get(client), config.topicFor(client, topic), next, outstanding[client]);
+            next += interval;
+            count++;
+        }
+        long sendEnd = System.nanoTime();
+        LOGGER.info("Load test sent {} messages, waiting for outstanding messages.", count);
+        countUnsent(next, interval, Math.min(sendEnd, end), maxMessages <= 0 ? Long.MAX_VALUE : maxMessages - count);
+
+        drain(sendEnd + config.getDrainTimeout().toNanos());
+        long last = Math.max(sendEnd, lastReceived.get());
+        return LoadGeneratorResult.of(sent.sum(),
+                received.sum(),
+                failed.sum(),
+                unsent.sum(),
+                Duration.ofNanos(last - start),
+                histogram);
+    }
+
+    /**
+     * Waits until the client has room for another message.
+     *
+     * @return False if the run was stopped or interrupted meanwhile.
+     */
+    private boolean acquire(Semaphore outstanding) {
+        try {
+            while (!outstanding.tryAcquire(DRAIN_POLL_NANOS, TimeUnit.NANOSECONDS)) {
+                if (stopped) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Records the messages that were due until the run ended, but not sent, with the time they waited.
+     */
+    private void countUnsent(long next, long interval, long until, long remaining) {
+        long now = System.nanoTime();
+        for (long scheduled = next; scheduled - until <= 0 && remaining > 0; scheduled += interval, remaining--) {
+            histogram.record(now - scheduled);
+            unsent.increment();
+        }
+    }
+
+    private void publish(CorreoMqttClient client, String topic, long scheduledNanos, Semaphore outstanding) {
+        ByteBuffer payload = ByteBuffer.allocate(config.getPayloadSize());
+        payload.putLong(0, scheduledNanos);
+        MessageDTO messageDTO = MessageDTO.builder()
+                .topic(topic)
+                .qos(config.getQos())
+                .payload(payload)
+                .messageType(MessageType.OUTGOING)
+                .build();
+        sent.increment();
+        try {
+            client.publishAsync(messageDTO).whenComplete((result, throwable) -> {
+                outstanding.release();
+                if (throwable != null) {
+                    failed.increment();
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.debug("Failed to publish load message on {}.", topic, e);
+            outstanding.release();
+            failed.increment();
+        }
+    }
+
+    private void onReceived(MessageDTO messageDTO) {
+        long now = System.nanoTime();
+        ByteBuffer payload = messageDTO.getPayloadBuffer();
+        if (payload == null || payload.remaining() < LoadGeneratorConfig.MIN_PAYLOAD_SIZE) {
+            return;
+        }
+        histogram.record(now - payload.getLong(payload.position()));
+        received.increment();
+        lastReceived.accumulate(now);
+    }
+
+    private void drain(long deadline) {
+        while (received.sum() + failed.sum() < sent.sum() && deadline - System.nanoTime() > 0) {
+            LockSupport.parkNanos(DRAIN_POLL_NANOS);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private void disconnect(CorreoMqttClient client) {
+        try {
+            client.disconnect();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to disconnect load client.", e);
+        }
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,83 @@
+package org.correomqtt.core.loadtest;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.Qos;
+
+import java.time.Duration;
+
+/**
+ * Parameters of a load test run. The {@link #topicPattern} may contain the placeholders {@value #CLIENT_PLACEHOLDER}
+ * (index of the load client) and {@value #TOPIC_PLACEHOLDER} (index of the topic within the client).
+ */
+@Getter
+@Builder
+public class LoadGeneratorConfig {
+
+    public static final String CLIENT_PLACEHOLDER = "{client}";
+    public static final String TOPIC_PLACEHOLDER = "{topic}";
+
+    // first bytes of every payload carry the send timestamp
+    public static final int MIN_PAYLOAD_SIZE = Long.BYTES;
+
+    /**
+     * Broker settings. Every load client connects with a copy of it and a client id of its own.
+     */
+    private final ConnectionConfigDTO connection;
+    @Builder.Default
+    private final int clientCount = 1;
+    @Builder.Default
+    private final String topicPattern = "correo/load/" + CLIENT_PLACEHOLDER + "/" + TOPIC_PLACEHOLDER;
+    @Builder.Default
+    private final int topicsPerClient = 1;
+    @Builder.Default
+    private final int payloadSize = 64;
+    @Builder.Default
+    private final Qos qos = Qos.AT_MOST_ONCE;
+    /**
+     * Target rate over all clients.
+     */
+    @Builder.Default
+    private final int messagesPerSecond = 1000;
+    @Builder.Default
+    private final Duration duration = Duration.ofSeconds(10);
+    /**
+     * Stops the run early after this number of messages, 0 for no limit.
+     */
+    @Builder.Default
+    private final long maxMessages = 0;
+    /**
+     * Messages a client has not completed yet. The next message for the client waits, so a broker falling behind
+     * shows up as latency instead of failing messages in the client's publish queue. Keep it below the
+     * {@code publishQueueCapacity} setting.
+     */
+    @Builder.Default
+    private final int maxOutstandingPerClient = 500;
+    /**
+     * Time to wait for outstanding messages after the last one was sent.
+     */
+    @Builder.Default
+    private final Duration drainTimeout = Duration.ofSeconds(5);
+
+    void validate() {
+        if (connection == null) {
+            throw new IllegalArgumentException("Load test needs a connection.");
+        }
+        if (clientCount < 1 || topicsPerClient < 1 || messagesPerSecond < 1 || maxOutstandingPerClient < 1) {
+            throw new IllegalArgumentException(
+                    "Client count, topics per client, rate and outstanding messages must be positive.");
+        }
+        if (payloadSize < MIN_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Payload size must be at least " + MIN_PAYLOAD_SIZE + " bytes.");
+        }
+        if (topicPattern == null || topicPattern.isEmpty() || topicPattern.contains("+") || topicPattern.contains("#")) {
+            throw new IllegalArgumentException("Topic pattern must be a topic name without wildcards.");
+        }
+    }
+
+    String topicFor(int client, int topic) {
+        return topicPattern.replace(CLIENT_PLACEHOLDER, Integer.toString(client))
+                .replace(TOPIC_PLACEHOLDER, Integer.toString(topic));
+    }
+}
@@ -0,0 +1,62 @@
+package org.correomqtt.core.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a load test run. Latencies are measured end to end from the intended send time to the arrival at the
+ * subscriber, so a broker or client falling behind the target rate shows up as latency.
+ *
+ * @param sent       Messages handed to the clients.
+ * @param received   Messages that arrived at the subscribing clients.
+ * @param failed     Messages that could not be published.
+ * @param unsent     Messages due before the run was stopped, but still waiting for their client. The time they
+ *                   waited counts as latency.
+ * @param duration   Time from the first send until the last message arrived or the drain timeout passed.
+ * @param throughput Received messages per second.
+ */
+public record LoadGeneratorResult(long sent,
+                                  long received,
+                                  long failed,
+                                  long unsent,
+                                  Duration duration,
+                                  double throughput,
+                                  Duration p50,
+                                  Duration p99,
+                                  Duration p999,
+                                  Duration max) {
+
+    static LoadGeneratorResult of(long sent,
+                                  long received,
+                                  long failed,
+                                  long unsent,
+                                  Duration duration,
+                                  LatencyHistogram histogram) {
+        double seconds = duration.toNanos() / 1_000_000_000d;
+        return new LoadGeneratorResult(sent,
+                received,
+                failed,
+                unsent,
+                duration,
+                seconds > 0 ? received / seconds : 0,
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9),
+                histogram.getMax());
+    }
+
+    public long lost() {
+        return Math.max(0, sent - failed - received);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sent %d, received %d, failed %d, lost %d, unsent %d in %.1f s, %.0f msg/s, "
+                        + "latency p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms",
+                sent, received, failed, lost(), unsent, duration.toMillis() / 1000d, throughput,
+                millis(p50), millis(p99), millis(p999), millis(max));
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000d;
+    }
+}
@@ -0,0 +1,60 @@
+package org.correomqtt.core.loadtest;
+
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
+import org.correomqtt.core.concurrent.SimpleResultTask;
+import org.correomqtt.core.concurrent.TaskException;
+import org.correomqtt.core.mqtt.CorreoMqttClientFactory;
+import org.correomqtt.di.Assisted;
+import org.correomqtt.di.DefaultBean;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.SoyEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a {@link LoadGenerator} on the long running pool, as it blocks for the whole duration of the test.
+ */
+@DefaultBean
+public class LoadGeneratorTask extends SimpleResultTask<LoadGeneratorResult> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadGeneratorTask.class);
+
+    private final LoadGenerator loadGenerator;
+
+    @Inject
+    public LoadGeneratorTask(CorreoMqttClientFactory correoMqttClientFactory,
+                             SoyEvents soyEvents,
+                             CorreoExecutors executors,
+                             @Assisted LoadGeneratorConfig config) {
+        super(soyEvents, executors);
+        this.loadGenerator = new LoadGenerator(correoMqttClientFactory::createClient, config);
+    }
+
+    public void stop() {
+        loadGenerator.stop();
+    }
+
+    @Override
+    protected LoadGeneratorResult execute() {
+        try {
+            LoadGeneratorResult result = loadGenerator.run();
+            LOGGER.info("Load test finished: {}", result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskException(e);
+        } catch (ExecutionException | TimeoutException | SSLException e) {
+            throw new TaskException(e);
+        }
+    }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.LONG_RUNNING;
+    }
+}
@@ -0,0 +1,225 @@
+package org.correomqtt.core.metrics;
+
+import org.correomqtt.core.connection.ConnectionState;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.Qos;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Live counters of one connection. All record methods are lock free and may be called from any thread.
+ */
+public class ConnectionMetrics {
+
+    private final String connectionId;
+    private final RateCounter incoming = new RateCounter();
+    private final RateCounter outgoing = new RateCounter();
+    private final LongAdder failedPublishes = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyStat ackLatency = new LatencyStat();
+    private final LatencyStat hookTime = new LatencyStat();
+    private final Map<String, RateCounter> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> dropped = new ConcurrentHashMap<>();
+    private final Map<String, RateCounter> members = new ConcurrentHashMap<>();
+    private final List<IntSupplier> uiQueues = new CopyOnWriteArrayList<>();
+    private final LongAdder uiUpdates = new LongAdder();
+    private final LongAdder uiUpdatedMessages = new LongAdder();
+    private volatile ConnectionState state;
+    private volatile Duration lastRecovery;
+    private volatile int offlineQueued;
+    private volatile long offlineQueueOldest;
+    private final LongAdder topicAliasHits = new LongAdder();
+    private final LongAdder topicAliasMisses = new LongAdder();
+    private final LongAdder topicAliasBytesSaved = new LongAdder();
+    private volatile int topicAliasMaximum;
+    private volatile int topicAliasActive;
+    private long lastSnapshotNanos = System.nanoTime();
+
+    ConnectionMetrics(String connectionId) {
+        this.connectionId = connectionId;
+    }
+
+    public void recordIncoming(String subscriptionTopic, MessageDTO messageDTO) {
+        int bytes = sizeOf(messageDTO);
+        incoming.record(bytes);
+        subscriptions.computeIfAbsent(subscriptionTopic, t -> new RateCounter()).record(bytes);
+    }
+
+    /**
+     * Counts a message received by one client of a consumer group, in addition to {@link #recordIncoming}.
+     */
+    public void recordMemberIncoming(String memberClientId, MessageDTO messageDTO) {
+        members.computeIfAbsent(memberClientId, m -> new RateCounter()).record(sizeOf(messageDTO));
+    }
+
+    /**
+     * Counts a message of a subscription that was dropped or replaced because the subscriber fell behind.
+     */
+    public void recordDropped(String subscriptionTopic) {
+        subscriptions.computeIfAbsent(subscriptionTopic, t -> new RateCounter());
+        dropped.computeIfAbsent(subscriptionTopic, t -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return Start time to pass to {@link #publishSucceeded} or {@link #publishFailed}.
+     */
+    public long publishStarted(Qos qos) {
+        if (qos != Qos.AT_MOST_ONCE) {
+            inFlight.increment();
+        }
+        return System.nanoTime();
+    }
+
+    public void publishSucceeded(MessageDTO messageDTO, long startNanos) {
+        if (messageDTO.getQos() != Qos.AT_MOST_ONCE) {
+            inFlight.decrement();
+            ackLatency.record(System.nanoTime() - startNanos);
+        }
+        outgoing.record(sizeOf(messageDTO));
+    }
+
+    public void publishFailed(Qos qos) {
+        if (qos != Qos.AT_MOST_ONCE) {
+            inFlight.decrement();
+        }
+        failedPublishes.increment();
+    }
+
+    /**
+     * The message went to the offline queue instead of the broker.
+     */
+    public void publishQueued(Qos qos) {
+        if (qos != Qos.AT_MOST_ONCE) {
+            inFlight.decrement();
+        }
+    }
+
+    /**
+     * @param oldestTimestamp Epoch millis when the oldest message was queued, 0 if the queue is empty.
+     */
+    public void recordOfflineQueue(int queued, long oldestTimestamp) {
+        this.offlineQueued = queued;
+        this.offlineQueueOldest = oldestTimestamp;
+    }
+
+    /**
+     * @param maximum Outgoing topic aliases negotiated with the broker, 0 if they are not used.
+     */
+    public void setTopicAliasMaximum(int maximum) {
+        this.topicAliasMaximum = maximum;
+        this.topicAliasActive = 0;
+    }
+
+    /**
+     * Records the estimate of a {@code TopicAliasTracker} for one publish.
+     *
+     * @param hit        True, if the topic is estimated to be sent as an alias only.
+     * @param savedBytes Bytes saved compared to sending the topic, negative when a new alias was assigned.
+     * @param active     Aliases in use after the publish.
+     */
+    public void recordTopicAlias(boolean hit, int savedBytes, int active) {
+        if (hit) {
+            topicAliasHits.increment();
+        } else {
+            topicAliasMisses.increment();
+        }
+        topicAliasBytesSaved.add(savedBytes);
+        this.topicAliasActive = active;
+    }
+
+    public void recordHookTime(long nanos) {
+        hookTime.record(nanos);
+    }
+
+    /**
+     * Adds the pending messages of a view to the reported UI queue depth.
+     */
+    public void addUiQueue(IntSupplier depth) {
+        uiQueues.add(depth);
+    }
+
+    public void removeUiQueue(IntSupplier depth) {
+        uiQueues.remove(depth);
+    }
+
+    /**
+     * Counts one update of a view, which showed the given number of queued messages at once.
+     */
+    public void recordUiUpdate(int messages) {
+        uiUpdates.increment();
+        uiUpdatedMessages.add(messages);
+    }
+
+    void setState(ConnectionState state) {
+        this.state = state;
+    }
+
+    void recordRecovery(Duration timeToRecover) {
+        this.lastRecovery = timeToRecover;
+    }
+
+    void removeSubscription(String subscriptionTopic) {
+        subscriptions.remove(subscriptionTopic);
+        dropped.remove(subscriptionTopic);
+    }
+
+    /**
+     * Must not be called concurrently, the registry takes all snapshots on one thread.
+     */
+    MetricsSnapshot snapshot(long nowNanos) {
+        double seconds = (nowNanos - lastSnapshotNanos) / 1_000_000_000d;
+        lastSnapshotNanos = nowNanos;
+        int uiQueueDepth = 0;
+        for (IntSupplier queue : uiQueues) {
+            uiQueueDepth += queue.getAsInt();
+        }
+        long updates = uiUpdates.sumThenReset();
+        long updatedMessages = uiUpdatedMessages.sumThenReset();
+        return new MetricsSnapshot(connectionId,
+                state,
+                incoming.snapshot(seconds),
+                outgoing.snapshot(seconds),
+                failedPublishes.sum(),
+                inFlight.sum(),
+                ackLatency.snapshot(),
+                hookTime.snapshot(),
+                uiQueueDepth,
+                updates == 0 ? 0 : (double) updatedMessages / updates,
+                lastRecovery,
+                offlineQueued,
+                offlineQueueOldest == 0 ? Duration.ZERO : Duration.ofMillis(Math.max(0, System.currentTimeMillis() - offlineQueueOldest)),
+                new MetricsSnapshot.TopicAliasEstimate(topicAliasMaximum,
+                        topicAliasActive,
+                        topicAliasHits.sum(),
+                        topicAliasMisses.sum(),
+                        topicAliasBytesSaved.sum()),
+                subscriptions.entrySet()
+                        .stream()
+                        .map(e -> new MetricsSnapshot.Subscription(e.getKey(),
+                                e.getValue().snapshot(seconds),
+                                droppedOf(e.getKey())))
+                        .toList(),
+                members.entrySet()
+                        .stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(e -> new MetricsSnapshot.Member(e.getKey(), e.getValue().snapshot(seconds)))
+                        .toList());
+    }
+
+    private long droppedOf(String subscriptionTopic) {
+        LongAdder count = dropped.get(subscriptionTopic);
+        return count == null ? 0 : count.sum();
+    }
+
+    private static int sizeOf(MessageDTO messageDTO) {
+        ByteBuffer payload = messageDTO.getPayloadBuffer();
+        return payload == null ? 0 : payload.remaining();
+    }
+}
@@ -0,0 +1,37 @@
+package org.correomqtt.core.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mean and maximum of durations recorded since the previous snapshot.
+ */
+class LatencyStat {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    // only touched by the snapshot thread
+    private long lastCount;
+    private long lastTotalNanos;
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    MetricsSnapshot.Latency snapshot() {
+        long currentCount = count.sum();
+        long currentTotal = totalNanos.sum();
+        long samples = currentCount - lastCount;
+        MetricsSnapshot.Latency latency = new MetricsSnapshot.Latency(
+                samples > 0 ? Duration.ofNanos((currentTotal - lastTotalNanos) / samples) : Duration.ZERO,
+                Duration.ofNanos(maxNanos.getThenReset()),
+                samples);
+        lastCount = currentCount;
+        lastTotalNanos = currentTotal;
+        return latency;
+    }
+}
@@ -0,0 +1,90 @@
+package org.correomqtt.core.metrics;
+
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
+import org.correomqtt.core.connection.ConnectionRecoveredEvent;
+import org.correomqtt.core.connection.ConnectionStateChangedEvent;
+import org.correomqtt.core.model.SettingsDTO;
+import org.correomqtt.core.pubsub.UnsubscribeEvent;
+import org.correomqtt.core.settings.SettingsManager;
+import org.correomqtt.core.utils.ConnectionManager;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.Observes;
+import org.correomqtt.di.SingletonBean;
+import org.correomqtt.di.SoyEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the {@link ConnectionMetrics} of all connections and fires a {@link MetricsSnapshotEvent} per connection every
+ * {@link SettingsDTO#getMetricsInterval()} milliseconds.
+ */
+@SingletonBean
+public class MetricsRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    private final Map<String, ConnectionMetrics> connections = new ConcurrentHashMap<>();
+    private final ConnectionManager connectionManager;
+    private final SoyEvents soyEvents;
+
+    @Inject
+    public MetricsRegistry(ConnectionManager connectionManager,
+                           SettingsManager settingsManager,
+                           SoyEvents soyEvents,
+                           CorreoExecutors executors) {
+        this.connectionManager = connectionManager;
+        this.soyEvents = soyEvents;
+        SettingsDTO settings = settingsManager.getSettings();
+        long interval = settings == null ? 1000 : settings.getMetricsInterval();
+        // stops with the executors on shutdown
+        if (interval > 0) {
+            executors.scheduleAtFixedRate(ExecutorPool.IO, this::fireSnapshots, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public ConnectionMetrics forConnection(String connectionId) {
+        return connections.computeIfAbsent(connectionId, ConnectionMetrics::new);
+    }
+
+    @SuppressWarnings("unused")
+    public void onConnectionStateChanged(@Observes ConnectionStateChangedEvent event) {
+        forConnection(event.getConnectionId()).setState(event.getState());
+    }
+
+    @SuppressWarnings("unused")
+    public void onConnectionRecovered(@Observes ConnectionRecoveredEvent event) {
+        forConnection(event.getConnectionId()).recordRecovery(event.getTimeToRecover());
+    }
+
+    @SuppressWarnings("unused")
+    public void onUnsubscribe(@Observes UnsubscribeEvent event) {
+        ConnectionMetrics metrics = connections.get(event.getConnectionId());
+        if (metrics != null) {
+            metrics.removeSubscription(event.getSubscriptionDTO().getTopic());
+        }
+    }
+
+    private void fireSnapshots() {
+        try {
+            long now = System.nanoTime();
+            Iterator<Map.Entry<String, ConnectionMetrics>> iterator = connections.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, ConnectionMetrics> entry = iterator.next();
+                // connections that were deleted or never configured, e.g. load test clients
+                if (connectionManager.getConfig(entry.getKey()) == null) {
+                    iterator.remove();
+                    continue;
+                }
+                soyEvents.fireAsync(new MetricsSnapshotEvent(entry.getKey(), entry.getValue().snapshot(now)));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to publish metrics.", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.correomqtt.core.metrics;
+
+import org.correomqtt.core.connection.ConnectionState;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Metrics of one connection for the interval since the previous snapshot. Totals count since the connection was
+ * opened.
+ *
+ * @param inFlight           QoS 1 and 2 publishes waiting for the broker.
+ * @param ackLatency         Time from handing a QoS 1 or 2 message to the client until the broker acknowledged it.
+ * @param hookTime           Time spent in the message hook pipeline, incoming and outgoing.
+ * @param uiQueueDepth       Messages waiting to be shown in the message lists.
+ * @param uiBatchSize        Messages shown per update of a message list in the interval, 0 without updates.
+ * @param lastRecovery       Time from losing the connection until it was restored the last time, null if it never was.
+ * @param offlineQueued      Messages waiting in the offline queue.
+ * @param offlineQueueAge    Time the oldest message in the offline queue is waiting.
+ * @param topicAliasEstimate Outgoing MQTT 5 topic aliases, estimated.
+ * @param members            Clients of the consumer group, empty if the connection does not use one.
+ */
+public record MetricsSnapshot(String connectionId,
+                              ConnectionState state,
+                              Throughput incoming,
+                              Throughput outgoing,
+                              long failedPublishes,
+                              long inFlight,
+                              Latency ackLatency,
+                              Latency hookTime,
+                              int uiQueueDepth,
+                              double uiBatchSize,
+                              Duration lastRecovery,
+                              int offlineQueued,
+                              Duration offlineQueueAge,
+                              TopicAliasEstimate topicAliasEstimate,
+                              List<Subscription> subscriptions,
+                              List<Member> members) {
+
+    public record Throughput(double messagesPerSecond, double bytesPerSecond, long totalMessages, long totalBytes) {
+    }
+
+    /**
+     * @param samples Number of recorded durations in the interval.
+     */
+    public record Latency(Duration mean, Duration max, long samples) {
+    }
+
+    /**
+     * Simulates a least recently used alias table of the negotiated size over the published topics. The MQTT client
+     * assigns the aliases on the wire itself and does not report them, so the numbers are estimates.
+     *
+     * @param maximum    Aliases negotiated with the broker, 0 if aliases are not used.
+     * @param active     Aliases the simulated table holds on the current connection.
+     * @param hits       Publishes estimated to send the alias instead of the topic.
+     * @param misses     Publishes estimated to assign a new alias.
+     * @param bytesSaved Estimated topic bytes not sent, less the cost of the alias properties.
+     */
+    public record TopicAliasEstimate(int maximum, int active, long hits, long misses, long bytesSaved) {
+    }
+
+    /**
+     * @param dropped Messages dropped by the overflow policy since the subscribe.
+     */
+    public record Subscription(String topic, Throughput incoming, long dropped) {
+    }
+
+    public record Member(String clientId, Throughput incoming) {
+    }
+}
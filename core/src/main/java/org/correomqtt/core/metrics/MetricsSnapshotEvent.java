@@ -0,0 +1,26 @@
+package org.correomqtt.core.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.correomqtt.di.Event;
+import org.correomqtt.di.ObservesFilter;
+
+import static org.correomqtt.core.events.ObservesFilterNames.CONNECTION_ID;
+
+@AllArgsConstructor
+@Getter
+public class MetricsSnapshotEvent implements Event {
+
+    private String connectionId;
+    private MetricsSnapshot snapshot;
+
+    @ObservesFilter(CONNECTION_ID)
+    public String getConnectionId() {
+        return connectionId;
+    }
+
+    @Override
+    public boolean isLogable() {
+        return false;
+    }
+}
@@ -0,0 +1,33 @@
+package org.correomqtt.core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts messages and bytes. Recording is contention free, rates are derived from the totals of two snapshots.
+ */
+class RateCounter {
+
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    // only touched by the snapshot thread
+    private long lastMessages;
+    private long lastBytes;
+
+    void record(int byteCount) {
+        messages.increment();
+        bytes.add(byteCount);
+    }
+
+    MetricsSnapshot.Throughput snapshot(double seconds) {
+        long currentMessages = messages.sum();
+        long currentBytes = bytes.sum();
+        MetricsSnapshot.Throughput throughput = new MetricsSnapshot.Throughput(
+                seconds > 0 ? (currentMessages - lastMessages) / seconds : 0,
+                seconds > 0 ? (currentBytes - lastBytes) / seconds : 0,
+                currentMessages,
+                currentBytes);
+        lastMessages = currentMessages;
+        lastBytes = currentBytes;
+        return throughput;
+    }
+}
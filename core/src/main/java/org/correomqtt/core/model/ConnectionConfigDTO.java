@@ -55,6 +55,17 @@ public class ConnectionConfigDTO {
     private Qos lwtQoS;
     private boolean lwtRetained;
     private String lwtPayload;
+    // queue publishes on disk while the broker is not reachable
+    private boolean offlineQueue;
+    // send repeated topics of MQTT 5 publishes as topic aliases
+    @Builder.Default
+    private boolean topicAliases = true;
+    // spread incoming messages over several clients sharing the subscriptions as $share/<consumerGroup>/<filter>
+    private String consumerGroup;
+    @Builder.Default
+    private int consumerGroupSize = 1;
+    // record all incoming messages on disk, see MessageRecorder
+    private boolean recordMessages;
     @Builder.Default
     private ConnectionUISettings connectionUISettings = null;
 
@@ -84,6 +95,11 @@ public class ConnectionConfigDTO {
         auth = configDTO.auth;
         authPassword = configDTO.authPassword;
         authKeyfile = configDTO.authKeyfile;
+        offlineQueue = configDTO.offlineQueue;
+        topicAliases = configDTO.topicAliases;
+        consumerGroup = configDTO.consumerGroup;
+        consumerGroupSize = configDTO.consumerGroupSize;
+        recordMessages = configDTO.recordMessages;
         connectionUISettings = configDTO.connectionUISettings;
         publishListViewConfig = configDTO.publishListViewConfig;
         subscribeListViewConfig = configDTO.subscribeListViewConfig;
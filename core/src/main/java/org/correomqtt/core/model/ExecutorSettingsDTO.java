@@ -7,18 +7,22 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.correomqtt.core.concurrent.RejectionPolicy;
 
-import java.util.List;
-
+/**
+ * Overrides for one {@link org.correomqtt.core.concurrent.ExecutorPool}. Unset values fall back to the defaults of the
+ * pool.
+ */
 @Getter
 @Setter
-@NoArgsConstructor
 @AllArgsConstructor
+@NoArgsConstructor
 @Builder
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class PublishHistoryListDTO {
-
-    private List<String> topics;
-
+public class ExecutorSettingsDTO {
+    private Integer threads;
+    private Integer queueCapacity;
+    private RejectionPolicy rejectionPolicy;
+    private boolean virtualThreads;
 }
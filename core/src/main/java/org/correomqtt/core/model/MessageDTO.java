@@ -1,9 +1,12 @@
 package org.correomqtt.core.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.hivemq.client.mqtt.mqtt3.message.publish.Mqtt3Publish;
 import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -12,6 +15,9 @@ import lombok.Setter;
 import org.correomqtt.core.utils.CorreoCharsetDecoder;
 import org.correomqtt.core.utils.MessageDateTimeFormatter;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Objects;
@@ -25,36 +31,232 @@ import java.util.UUID;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class MessageDTO implements Comparable<MessageDTO> {
+
+    private static final ByteBuffer EMPTY_PAYLOAD = ByteBuffer.allocate(0).asReadOnlyBuffer();
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // keeps ids derived from sequence ids unique across restarts, e.g. in the offline queue or the history
+    private static final String SEQUENCE_ID_PREFIX = UUID.randomUUID().toString().substring(0, 8) + "-";
+
     private String topic;
-    private String payload;
+
+    /*
+     * The payload is kept as received and converted lazily. At least one of both is set, the other one is a cache.
+     * Both are immutable, so racing threads may at worst convert twice.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile ByteBuffer payloadBuffer;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile String payloadText;
+
     private boolean isRetained;
     private Qos qos;
+
+    /*
+     * Incoming messages only capture a sequence id and a timestamp, the message id and the date time are derived from
+     * them on first access. Racing threads may at worst derive them twice.
+     */
     @MessageDateTimeFormatter
-    private LocalDateTime dateTime;
-    private String messageId;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile LocalDateTime dateTime;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile String messageId;
+    // unique per connection and session, 0 if not assigned
+    @JsonIgnore
+    private long sequenceId;
+    // epoch nanos, 0 if the date time was set explicitly
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long timestampNanos;
     private MessageType messageType;
     private PublishStatus publishStatus;
 
-    public MessageDTO(Mqtt3Publish mqtt3Publish) {
+    /**
+     * @param sequenceId Next sequence id of the receiving connection.
+     */
+    public MessageDTO(Mqtt3Publish mqtt3Publish, long sequenceId) {
+        this.timestampNanos = nowNanos();
+        this.sequenceId = sequenceId;
         setTopic(mqtt3Publish.getTopic().toString());
         setQos(Qos.valueOf(mqtt3Publish.getQos()));
         setRetained(mqtt3Publish.isRetain());
-        setPayload(CorreoCharsetDecoder.decode(mqtt3Publish.getPayloadAsBytes()));
-        setDateTime(LocalDateTime.now(ZoneOffset.UTC));
-        setMessageId(UUID.randomUUID().toString());
+        setPayloadBuffer(mqtt3Publish.getPayload().orElse(EMPTY_PAYLOAD));
         setMessageType(MessageType.INCOMING);
     }
 
-    public MessageDTO(Mqtt5Publish mqtt5Publish) {
+    /**
+     * @param sequenceId Next sequence id of the receiving connection.
+     */
+    public MessageDTO(Mqtt5Publish mqtt5Publish, long sequenceId) {
+        this.timestampNanos = nowNanos();
+        this.sequenceId = sequenceId;
         setTopic(mqtt5Publish.getTopic().toString());
         setQos(Qos.valueOf(mqtt5Publish.getQos()));
         setRetained(mqtt5Publish.isRetain());
-        setPayload(CorreoCharsetDecoder.decode(mqtt5Publish.getPayloadAsBytes()));
-        setDateTime(LocalDateTime.now(ZoneOffset.UTC));
-        setMessageId(UUID.randomUUID().toString());
+        setPayloadBuffer(mqtt5Publish.getPayload().orElse(EMPTY_PAYLOAD));
         setMessageType(MessageType.INCOMING);
     }
 
+    /**
+     * @return The current time in epoch nanos, as precise as the system clock.
+     */
+    public static long nowNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * NANOS_PER_SECOND + now.getNano();
+    }
+
+    /**
+     * @return The explicit date time or the one of the timestamp in UTC.
+     */
+    public LocalDateTime getDateTime() {
+        LocalDateTime value = dateTime;
+        if (value == null && timestampNanos != 0) {
+            value = LocalDateTime.ofEpochSecond(Math.floorDiv(timestampNanos, NANOS_PER_SECOND),
+                    (int) Math.floorMod(timestampNanos, NANOS_PER_SECOND),
+                    ZoneOffset.UTC);
+            dateTime = value;
+        }
+        return value;
+    }
+
+    public void setDateTime(LocalDateTime dateTime) {
+        this.timestampNanos = 0;
+        this.dateTime = dateTime;
+    }
+
+    /**
+     * @return Epoch nanos the message was received or sent at, 0 if the date time was set explicitly.
+     */
+    @JsonIgnore
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * Replaces the date time, which is derived from the timestamp on first access.
+     */
+    @JsonIgnore
+    public void setTimestampNanos(long timestampNanos) {
+        this.timestampNanos = timestampNanos;
+        this.dateTime = null;
+    }
+
+    /**
+     * @return The explicit message id or one derived from the sequence id.
+     */
+    public String getMessageId() {
+        String value = messageId;
+        if (value == null && sequenceId != 0) {
+            value = SEQUENCE_ID_PREFIX + Long.toString(sequenceId, Character.MAX_RADIX);
+            messageId = value;
+        }
+        return value;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    /**
+     * @return The payload decoded as UTF-8. Decoding happens on first access only.
+     */
+    @JsonIgnore
+    public String getPayload() {
+        String text = payloadText;
+        if (text == null) {
+            ByteBuffer buffer = payloadBuffer;
+            if (buffer == null) {
+                return null;
+            }
+            text = CorreoCharsetDecoder.decode(buffer);
+            payloadText = text;
+        }
+        return text;
+    }
+
+    @JsonIgnore
+    public void setPayload(String payload) {
+        payloadBuffer = null;
+        payloadText = payload;
+    }
+
+    /**
+     * @return Read only view of the raw payload. Text payloads are encoded as UTF-8 on first access only.
+     */
+    @JsonIgnore
+    public ByteBuffer getPayloadBuffer() {
+        ByteBuffer buffer = payloadBuffer;
+        if (buffer == null) {
+            String text = payloadText;
+            if (text == null) {
+                return null;
+            }
+            buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+            payloadBuffer = buffer;
+        }
+        return buffer.duplicate();
+    }
+
+    @JsonIgnore
+    public void setPayloadBuffer(ByteBuffer payload) {
+        payloadText = null;
+        payloadBuffer = payload == null ? null : payload.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return A copy of the raw payload.
+     */
+    @JsonIgnore
+    public byte[] getPayloadBytes() {
+        ByteBuffer buffer = getPayloadBuffer();
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @JsonIgnore
+    public void setPayloadBytes(byte[] payload) {
+        setPayloadBuffer(payload == null ? null : ByteBuffer.wrap(payload));
+    }
+
+    /**
+     * @return True, if the payload can be represented as text without loss.
+     */
+    @JsonIgnore
+    public boolean isTextPayload() {
+        ByteBuffer buffer = payloadBuffer;
+        return buffer == null || CorreoCharsetDecoder.isDecodable(buffer);
+    }
+
+    // Text payloads are written as "payload" to stay compatible to existing files, binary payloads as base64.
+
+    @JsonProperty("payload")
+    private String getJsonPayload() {
+        return isTextPayload() ? getPayload() : null;
+    }
+
+    @JsonProperty("payload")
+    private void setJsonPayload(String payload) {
+        setPayload(payload);
+    }
+
+    @JsonProperty("payloadBase64")
+    private byte[] getJsonPayloadBase64() {
+        return isTextPayload() ? null : getPayloadBytes();
+    }
+
+    @JsonProperty("payloadBase64")
+    private void setJsonPayloadBase64(byte[] payload) {
+        setPayloadBytes(payload);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -62,22 +264,40 @@ public class MessageDTO implements Comparable<MessageDTO> {
         MessageDTO that = (MessageDTO) o;
         return isRetained() == that.isRetained() &&
                 getTopic().equals(that.getTopic()) &&
-                Objects.equals(getPayload(), that.getPayload()) &&
+                Objects.equals(getPayloadBuffer(), that.getPayloadBuffer()) &&
                 getQos() == that.getQos() &&
                 Objects.equals(getDateTime(), that.getDateTime());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getTopic(), getPayload(), isRetained(), getQos(), getDateTime());
+        return Objects.hash(getTopic(), getPayloadBuffer(), isRetained(), getQos(), getDateTime());
     }
 
     @Override
     public int compareTo(MessageDTO o) {
+        if (o != null && o.timestampNanos != 0 && timestampNanos != 0) {
+            return Long.compare(o.timestampNanos, timestampNanos);
+        }
         if ((o == null || o.getDateTime() == null)) {
             return (getDateTime() == null) ? 0 : 1;
         }
 
         return o.getDateTime().compareTo(getDateTime());
     }
+
+    public static class MessageDTOBuilder {
+
+        public MessageDTOBuilder payload(String payload) {
+            this.payloadText = payload;
+            this.payloadBuffer = null;
+            return this;
+        }
+
+        public MessageDTOBuilder payload(ByteBuffer payload) {
+            this.payloadText = null;
+            this.payloadBuffer = payload == null ? null : payload.asReadOnlyBuffer();
+            return this;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.correomqtt.core.model;
 
 public enum PublishStatus implements GenericTranslatable {
     PUBLISHED("published"),
+    QUEUED("queued"),
     SUCCEEDED("succeeded"),
     FAILED("failed");
 
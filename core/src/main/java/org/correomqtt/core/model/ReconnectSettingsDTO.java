@@ -0,0 +1,51 @@
+package org.correomqtt.core.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Automatic reconnect after a lost connection. The delay starts at {@link #initialDelay} and is multiplied by
+ * {@link #multiplier} per attempt up to {@link #maxDelay}. {@link #jitter} shortens every delay by a random share, so
+ * many clients of a restarted broker do not reconnect at the same time.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ReconnectSettingsDTO {
+
+    // milliseconds
+    @Builder.Default
+    private long initialDelay = 1000;
+    // milliseconds
+    @Builder.Default
+    private long maxDelay = 60_000;
+    @Builder.Default
+    private double multiplier = 2;
+    // 0 to 1
+    @Builder.Default
+    private double jitter = 0.5;
+    // 0 retries forever
+    @Builder.Default
+    private int maxRetries = 5;
+    /**
+     * Seconds the broker keeps an MQTT 5 session after the connection was lost, so messages published during the
+     * outage are delivered after the reconnect. 0 ends the session with the connection.
+     */
+    @Builder.Default
+    private long sessionExpiryInterval = 300;
+
+    @JsonIgnore
+    public boolean isUnlimited() {
+        return maxRetries <= 0;
+    }
+}
@@ -8,6 +8,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import org.correomqtt.core.concurrent.ExecutorPool;
+import org.correomqtt.core.concurrent.LaneOverflowPolicy;
+
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -21,6 +25,8 @@ import java.util.Map;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SettingsDTO {
 
+    public static final int DEFAULT_EVENT_LANE_DEPTH = 10_000;
+
     private boolean useRegexForSearch;
     private boolean useIgnoreCase;
     private Locale savedLocale = null;
@@ -33,6 +39,46 @@ public class SettingsDTO {
     private boolean firstStart = true;
     private String keyringIdentifier;
     @Builder.Default
+    private int messageListCapacity = 5000;
+    @Builder.Default
+    private long messageListFlushInterval = 0;
+    @Builder.Default
+    private Map<ExecutorPool, ExecutorSettingsDTO> executors = new EnumMap<>(ExecutorPool.class);
+    @Builder.Default
+    private int publishWindow = 100;
+    // QoS 1 and 2 messages per connection waiting for the publish window, further publishes wait for room
+    @Builder.Default
+    private int publishQueueCapacity = 1000;
+    @Builder.Default
+    private int eventLaneDepth = DEFAULT_EVENT_LANE_DEPTH;
+    @Builder.Default
+    private LaneOverflowPolicy eventLaneOverflowPolicy = LaneOverflowPolicy.DROP_OLDEST;
+    @Builder.Default
+    private long metricsInterval = 1000;
+    @Builder.Default
+    private ReconnectSettingsDTO reconnect = new ReconnectSettingsDTO();
+    // messages per second when sending the offline queue after a reconnect, 0 is unlimited
+    @Builder.Default
+    private int offlineQueueDrainRate = 1000;
+    // bytes per connection
+    @Builder.Default
+    private long offlineQueueMaxSize = 64L * 1024 * 1024;
+    // outgoing topic aliases per MQTT 5 connection, the broker may allow less
+    @Builder.Default
+    private int topicAliasMaximum = 16;
+    // messages buffered per subscription with an overflow policy
+    @Builder.Default
+    private int subscriptionBufferSize = 1000;
+    // entries kept per history of a connection
+    @Builder.Default
+    private int historyMaxEntries = 1000;
+    // bytes per file of a message recording
+    @Builder.Default
+    private long recorderSegmentSize = 64L * 1024 * 1024;
+    // files kept per message recording, 0 keeps all
+    @Builder.Default
+    private int recorderMaxSegments = 64;
+    @Builder.Default
     private GlobalUISettings globalUISettings = null;
     @Builder.Default
     private String configCreatedWithCorreoVersion = null;
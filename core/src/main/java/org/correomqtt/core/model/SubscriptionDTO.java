@@ -22,6 +22,9 @@ public class SubscriptionDTO {
     private String topic;
     private Qos qos;
     private boolean hidden = false;
+    @Builder.Default
+    private SubscriptionOverflowPolicy overflowPolicy = SubscriptionOverflowPolicy.UNBUFFERED;
+    private boolean recorded;
 
     @Override
     public boolean equals(Object o) {
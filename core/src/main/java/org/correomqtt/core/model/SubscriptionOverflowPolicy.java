@@ -0,0 +1,62 @@
+package org.correomqtt.core.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * What a subscription does with incoming messages while the application is slower than the publishers.
+ */
+public enum SubscriptionOverflowPolicy implements GenericTranslatable {
+    /**
+     * No buffer, every message is handed over on the thread of the MQTT client.
+     */
+    UNBUFFERED("subscriptionOverflowPolicyUnbuffered"),
+    /**
+     * Stop reading from the broker while the buffer is full. The broker holds back QoS 1 and 2 messages.
+     */
+    BACKPRESSURE("subscriptionOverflowPolicyBackpressure"),
+    /**
+     * Drop the oldest buffered message.
+     */
+    DROP_OLDEST("subscriptionOverflowPolicyDropOldest"),
+    /**
+     * Drop the new message.
+     */
+    DROP_NEWEST("subscriptionOverflowPolicyDropNewest"),
+    /**
+     * Keep only the latest buffered message per topic.
+     */
+    CONFLATE("subscriptionOverflowPolicyConflate");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionOverflowPolicy.class);
+
+    private final String labelTranslationKey;
+
+    SubscriptionOverflowPolicy(String labelTranslationKey) {
+        this.labelTranslationKey = labelTranslationKey;
+    }
+
+    @SuppressWarnings("unused")
+    @JsonCreator
+    public static SubscriptionOverflowPolicy fromJsonValue(String value) {
+        try {
+            return SubscriptionOverflowPolicy.valueOf(value);
+        } catch (IllegalArgumentException iae) {
+            LOGGER.warn("Exception reading from json value.", iae);
+            return UNBUFFERED;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @JsonValue
+    public String toJsonValue() {
+        return name();
+    }
+
+    @Override
+    public String getLabelTranslationKey() {
+        return labelTranslationKey;
+    }
+}
@@ -1,75 +1,246 @@
 package org.correomqtt.core.mqtt;
 
+import com.hivemq.client.mqtt.datatypes.MqttTopic;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedContext;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedContext;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttDisconnectSource;
+import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5PubAckException;
+import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5PubRecException;
 import com.hivemq.client.util.KeyStoreUtil;
 import lombok.Getter;
+import org.correomqtt.core.connection.ConnectionRecoveredEvent;
 import org.correomqtt.core.connection.ConnectionState;
 import org.correomqtt.core.connection.ConnectionStateChangedEvent;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.core.exception.CorreoMqttAlreadySubscribedException;
+import org.correomqtt.core.metrics.ConnectionMetrics;
+import org.correomqtt.core.metrics.MetricsRegistry;
 import org.correomqtt.core.model.ConnectionConfigDTO;
 import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.model.Proxy;
+import org.correomqtt.core.model.PublishStatus;
+import org.correomqtt.core.model.Qos;
+import org.correomqtt.core.model.ReconnectSettingsDTO;
+import org.correomqtt.core.model.SettingsDTO;
 import org.correomqtt.core.model.SubscriptionDTO;
+import org.correomqtt.core.model.SubscriptionOverflowPolicy;
+import org.correomqtt.core.offline.OfflinePublishQueue;
+import org.correomqtt.core.offline.OfflineQueueRegistry;
+import org.correomqtt.core.recorder.MessageRecorder;
+import org.correomqtt.core.recorder.MessageRecorderRegistry;
+import org.correomqtt.core.pubsub.PublishEvent;
+import org.correomqtt.core.pubsub.PublishFailedEvent;
+import org.correomqtt.core.utils.TopicFilterTrie;
 import org.correomqtt.core.ssh.SshProxy;
 import org.correomqtt.core.ssh.SshProxyDelegate;
 import org.slf4j.Logger;
+import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.TrustManagerFactory;
 import java.io.File;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisconnectedListener, MqttClientConnectedListener, SshProxyDelegate {
 
-    private static final int MAX_RECONNECTS = 5;
+    private static final int PUBLISH_TIMEOUT_SECONDS = 10;
+    private static final int SUBSCRIBE_TIMEOUT_SECONDS = 10;
+    private static final long DRAIN_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
 
     private final SoyEvents soyEvents;
     private final ConnectionConfigDTO configDTO;
+    private final ReconnectSettingsDTO reconnectSettings;
     private final AtomicInteger triedReconnects = new AtomicInteger(0);
-    private final Set<SubscriptionDTO> subscriptions = new HashSet<>();
+    // time the connection was lost, 0 while connected
+    private final AtomicLong disconnectedAt = new AtomicLong();
+    // read by the client's connected listener, which must never wait for a lock held during a blocking call
+    private final Map<SubscriptionDTO, Consumer<MessageDTO>> subscriptions = new ConcurrentHashMap<>();
+    private final Semaphore publishWindow;
+    // messages waiting for a free slot in the publish window, guarded by itself
+    private final Deque<WindowedMessage> windowQueue = new ArrayDeque<>();
+    private final int windowQueueCapacity;
+    private final OfflineQueueRegistry offlineQueueRegistry;
+    private final MetricsRegistry metricsRegistry;
+    private final int offlineQueueDrainRate;
+    // delivers flow-controlled subscriptions and drains the offline queue
+    private final Executor pubSubExecutor;
+    private final int subscriptionBufferSize;
+    private final Map<SubscriptionDTO, FlowControlledSubscriber> flowControlledSubscribers = new ConcurrentHashMap<>();
+    // where dropped messages are counted, the consumer group points its members to the metrics of the connection
+    private volatile ConnectionMetrics subscriptionMetrics;
+    // shared by the members of a consumer group, so their message ids do not collide
+    private volatile AtomicLong messageSequence = new AtomicLong();
+    private final MessageRecorderRegistry recorderRegistry;
+    // recorded subscriptions, guarded by itself
+    private final Set<SubscriptionDTO> recordedSubscriptions = new HashSet<>();
+    // filters of the recorded subscriptions, replaced on every change, as it is matched on the event loop
+    private volatile TopicFilterTrie<SubscriptionDTO> recordedFilters = new TopicFilterTrie<>();
+    private volatile MessageRecorder recorder;
+    // the consumer group records the messages of its members in its own recording
+    private volatile String recordingConnectionId;
 
     @Getter
-    private SshProxy proxy;
+    private final SshProxy proxy;
 
-    @Getter
-    private ConnectionState state = ConnectionState.DISCONNECTED_GRACEFUL;
+    // changed by compare and set only, see ConnectionState#canChangeTo
+    private final AtomicReference<ConnectionState> state = new AtomicReference<>(ConnectionState.DISCONNECTED_GRACEFUL);
 
     protected BaseCorreoMqttClient(SoyEvents soyEvents,
-                                   ConnectionConfigDTO configDTO) {
+                                   ConnectionConfigDTO configDTO,
+                                   SettingsDTO settings,
+                                   OfflineQueueRegistry offlineQueueRegistry,
+                                   MetricsRegistry metricsRegistry,
+                                   MessageRecorderRegistry recorderRegistry,
+                                   Executor pubSubExecutor) {
         this.soyEvents = soyEvents;
         this.configDTO = configDTO;
+        this.reconnectSettings = settings.getReconnect() == null ? new ReconnectSettingsDTO() : settings.getReconnect();
+        this.publishWindow = new Semaphore(Math.max(1, settings.getPublishWindow()), true);
+        this.windowQueueCapacity = Math.max(1, settings.getPublishQueueCapacity());
+        this.offlineQueueRegistry = offlineQueueRegistry;
+        this.metricsRegistry = metricsRegistry;
+        this.recorderRegistry = recorderRegistry;
+        this.recordingConnectionId = configDTO.getId();
+        this.offlineQueueDrainRate = settings.getOfflineQueueDrainRate();
+        this.pubSubExecutor = pubSubExecutor;
+        this.subscriptionBufferSize = settings.getSubscriptionBufferSize();
+        this.proxy = configDTO.getProxy().equals(Proxy.SSH) ? new SshProxy(this, configDTO) : null;
     }
 
     ConnectionConfigDTO getConfigDTO() {
         return configDTO;
     }
 
+    ConnectionMetrics getMetrics() {
+        return metricsRegistry.forConnection(configDTO.getId());
+    }
+
+    /**
+     * @return Identity of a message sent or received by this client, unique for the lifetime of the client.
+     */
+    long nextSequenceId() {
+        return messageSequence.incrementAndGet();
+    }
+
+    void setMessageSequence(AtomicLong messageSequence) {
+        this.messageSequence = messageSequence;
+    }
+
+    void setSubscriptionMetrics(ConnectionMetrics subscriptionMetrics) {
+        this.subscriptionMetrics = subscriptionMetrics;
+    }
+
+    void setRecordingConnectionId(String recordingConnectionId) {
+        this.recordingConnectionId = recordingConnectionId;
+    }
+
+    /**
+     * Records a PUBLISH received from the broker, if it matches a recorded subscription. Called once per PUBLISH, not
+     * once per subscription it is delivered to.
+     */
+    void onPublishReceived(MqttTopic topic, Supplier<MessageDTO> messageDTO) {
+        MessageRecorder currentRecorder = recorder;
+        if (currentRecorder != null && recordedFilters.matches(topic.toString())) {
+            // raw message, before any plugin changes it
+            currentRecorder.record(messageDTO.get());
+        }
+    }
+
+    private void startRecording(SubscriptionDTO subscriptionDTO) {
+        MessageRecorder subscriptionRecorder = recorderRegistry.forSubscription(recordingConnectionId, subscriptionDTO);
+        if (subscriptionRecorder != null) {
+            synchronized (recordedSubscriptions) {
+                recordedSubscriptions.add(subscriptionDTO);
+                rebuildRecordedFilters();
+            }
+            recorder = subscriptionRecorder;
+        }
+    }
+
+    private void stopRecording(SubscriptionDTO subscriptionDTO) {
+        synchronized (recordedSubscriptions) {
+            if (recordedSubscriptions.remove(subscriptionDTO)) {
+                rebuildRecordedFilters();
+            }
+        }
+    }
+
+    private void rebuildRecordedFilters() {
+        TopicFilterTrie<SubscriptionDTO> filters = new TopicFilterTrie<>();
+        recordedSubscriptions.forEach(subscriptionDTO -> filters.add(subscriptionDTO.getTopic(), subscriptionDTO));
+        recordedFilters = filters;
+    }
+
+    private ConnectionMetrics getSubscriptionMetrics() {
+        ConnectionMetrics metrics = subscriptionMetrics;
+        return metrics == null ? getMetrics() : metrics;
+    }
+
+    ReconnectSettingsDTO getReconnectSettings() {
+        return reconnectSettings;
+    }
+
     abstract Logger getLogger();
 
     public Set<SubscriptionDTO> getSubscriptions() {
-        return new HashSet<>(subscriptions);
+        return new HashSet<>(subscriptions.keySet());
     }
 
     @Override
-    public synchronized void connect() throws InterruptedException, ExecutionException, TimeoutException, SSLException {
-        changeState(ConnectionState.CONNECTING);
-        executeConditionallyOnSshProxy(SshProxy::connect);
-        getLogger().info(MarkerFactory.getMarker(configDTO.getName()), "Connecting to Broker using {}", configDTO.getMqttVersion().getDescription());
-        executeConnect();
+    public ConnectionState getState() {
+        return state.get();
+    }
+
+    /**
+     * Holds no lock while waiting for the broker, so publishing and subscribing on other threads go on. Concurrent
+     * calls are rejected by the state machine.
+     *
+     * @throws IllegalStateException If the client is not disconnected.
+     */
+    @Override
+    public void connect() throws InterruptedException, ExecutionException, TimeoutException, SSLException {
+        ConnectionState current = state.get();
+        if (!current.canChangeTo(ConnectionState.CONNECTING) || !changeState(current, ConnectionState.CONNECTING)) {
+            throw new IllegalStateException("Unable to connect while " + state.get());
+        }
+        try {
+            executeConditionallyOnSshProxy(SshProxy::connect);
+            getLogger().info(MarkerFactory.getMarker(configDTO.getName()), "Connecting to Broker using {}", configDTO.getMqttVersion().getDescription());
+            executeConnect();
+        } catch (Exception e) {
+            // unless the client already reports the failure through onDisconnected
+            changeState(ConnectionState.CONNECTING, ConnectionState.DISCONNECTED_UNGRACEFUL);
+            throw e;
+        }
     }
 
 
@@ -81,6 +252,7 @@ abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisco
         changeState(ConnectionState.DISCONNECTING);
 
         if (context.getSource() == MqttDisconnectSource.USER) {
+            disconnectedAt.set(0);
             executeConditionallyOnSshProxy(sshProxy -> sshProxy.disconnect(context.getSource().toString()));
             changeState(ConnectionState.DISCONNECTED_GRACEFUL);
             getLogger().info("Disconnected by {}", context.getSource());
@@ -91,13 +263,18 @@ abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisco
             getLogger().info(MarkerFactory.getMarker(configDTO.getName()), "Disconnected by {}. Connection to broker lost.", context.getSource());
         }
 
-        if (triedReconnects.get() < MAX_RECONNECTS) {
-            triedReconnects.incrementAndGet();
-            getLogger().info(MarkerFactory.getMarker(configDTO.getName()), "Reconnecting to Broker {}/{}", triedReconnects.get(), MAX_RECONNECTS);
+        int attempt = triedReconnects.get() + 1;
+        if (reconnectSettings.isUnlimited() || attempt <= reconnectSettings.getMaxRetries()) {
+            triedReconnects.set(attempt);
+            disconnectedAt.compareAndSet(0, System.nanoTime());
+            long delay = reconnectDelay(reconnectSettings, attempt, ThreadLocalRandom.current().nextDouble());
+            getLogger().info(MarkerFactory.getMarker(configDTO.getName()), "Reconnecting to Broker {}/{} in {} ms",
+                    attempt, reconnectSettings.isUnlimited() ? "unlimited" : reconnectSettings.getMaxRetries(), delay);
             changeState(ConnectionState.RECONNECTING);
-            doReconnect(context);
+            doReconnect(context, delay);
         } else {
-            getLogger().error(MarkerFactory.getMarker(configDTO.getName()), "Maximum number of reconnects reached {}/{}.", triedReconnects.get(), MAX_RECONNECTS);
+            getLogger().error(MarkerFactory.getMarker(configDTO.getName()), "Maximum number of reconnects reached {}/{}.", triedReconnects.get(), reconnectSettings.getMaxRetries());
+            disconnectedAt.set(0);
             executeConditionallyOnSshProxy(sshProxy -> sshProxy.disconnect(context.getSource().toString()));
             changeState(ConnectionState.DISCONNECTED_UNGRACEFUL);
         }
@@ -105,13 +282,56 @@ abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisco
     }
 
 
+    /**
+     * Exponential backoff: the delay grows by the multiplier per attempt up to the maximum and is shortened by a
+     * random share of up to {@link ReconnectSettingsDTO#getJitter()}.
+     *
+     * @param attempt Starts with 1.
+     * @param random  Between 0 and 1.
+     */
+    static long reconnectDelay(ReconnectSettingsDTO settings, int attempt, double random) {
+        double delay = settings.getInitialDelay() * Math.pow(Math.max(1, settings.getMultiplier()), attempt - 1d);
+        double capped = Math.min(delay, settings.getMaxDelay());
+        double jitter = Math.min(1, Math.max(0, settings.getJitter()));
+        return Math.max(0, Math.round(capped * (1 - jitter * random)));
+    }
+
     @Override
     public void onConnected(MqttClientConnectedContext context) {
-        triedReconnects.set(0);
+        int attempts = triedReconnects.getAndSet(0);
         getLogger().info(MarkerFactory.getMarker(configDTO.getName()), "Successfully connected to broker");
         this.changeState(ConnectionState.CONNECTED);
+        long lostAt = disconnectedAt.getAndSet(0);
+        if (lostAt != 0) {
+            restoreSubscriptions(isSessionPresent(context), attempts, lostAt);
+        }
+        drainOfflineQueue();
     }
 
+    /**
+     * Automatic reconnects keep the session where the broker supports it. Only if the broker did not keep it, the
+     * subscriptions are sent again. Runs on the client's event loop, so nothing here may block.
+     */
+    private void restoreSubscriptions(boolean sessionPresent, int attempts, long lostAt) {
+        List<CompletableFuture<Void>> restored = new ArrayList<>();
+        if (!sessionPresent) {
+            subscriptions.forEach((subscriptionDTO, callback) -> restored.add(doSubscribeAsync(subscriptionDTO, callback)
+                    .whenComplete((result, t) -> {
+                        if (t != null) {
+                            getLogger().warn(MarkerFactory.getMarker(configDTO.getName()), "Failed to restore subscription to {}.", subscriptionDTO.getTopic(), t);
+                        }
+                    })));
+        }
+        CompletableFuture.allOf(restored.toArray(CompletableFuture[]::new)).whenComplete((result, t) -> {
+            Duration timeToRecover = Duration.ofNanos(System.nanoTime() - lostAt);
+            getLogger().info(MarkerFactory.getMarker(configDTO.getName()), "Recovered connection after {} ms and {} attempts. Session {}, re-subscribed {} topics.",
+                    timeToRecover.toMillis(), attempts, sessionPresent ? "resumed" : "lost", restored.size());
+            soyEvents.fireAsync(new ConnectionRecoveredEvent(configDTO.getId(), timeToRecover, attempts, sessionPresent, restored.size()));
+        });
+    }
+
+    abstract boolean isSessionPresent(MqttClientConnectedContext context);
+
     @Override
     public void onProxyFailed() {
         disconnect();
@@ -138,48 +358,452 @@ abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisco
     }
 
     @Override
-    public synchronized void unsubscribe(SubscriptionDTO subscriptionDTO) {
-        doUnsubscribe(subscriptionDTO);
+    public void unsubscribe(SubscriptionDTO subscriptionDTO) {
+        // first, so a reconnect in between does not restore it
         subscriptions.remove(subscriptionDTO);
+        stopRecording(subscriptionDTO);
+        doUnsubscribe(subscriptionDTO);
+        cancelFlowControlledSubscriber(subscriptionDTO);
     }
 
     abstract void doUnsubscribe(SubscriptionDTO subscriptionDTO);
 
     @Override
-    public synchronized void publish(MessageDTO messageDTO) throws InterruptedException, ExecutionException, TimeoutException {
-        doPublish(messageDTO);
+    public void publish(MessageDTO messageDTO) throws InterruptedException, ExecutionException, TimeoutException {
+        publishAsync(messageDTO).get(PUBLISH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues the message instead of sending it, if the connection is enabled for the offline queue and the broker is
+     * not reachable or queued messages are still waiting.
+     *
+     * @return Completes with the message marked as {@link PublishStatus#QUEUED}, if it was queued.
+     */
+    @Override
+    public CompletableFuture<MessageDTO> publishAsync(MessageDTO messageDTO) {
+        if (messageDTO.getSequenceId() == 0) {
+            messageDTO.setSequenceId(nextSequenceId());
+        }
+        ConnectionState current = state.get();
+        if (configDTO.isOfflineQueue() && current != ConnectionState.DISCONNECTED_GRACEFUL) {
+            try {
+                OfflinePublishQueue queue = offlineQueueRegistry.forConnection(configDTO.getId());
+                if (queue.offer(messageDTO, current == ConnectionState.CONNECTED)) {
+                    messageDTO.setPublishStatus(PublishStatus.QUEUED);
+                    updateOfflineQueueMetrics(queue);
+                    return CompletableFuture.completedFuture(messageDTO);
+                }
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return sendAsync(messageDTO);
+    }
+
+    /**
+     * Sends the message, if the publish window has room, or else queues it for a free slot. While the queue is full,
+     * the calling thread waits for room, at most the publish timeout, so producers are slowed down to the rate the
+     * broker acknowledges. The publish timeout of a message starts when it is sent, not while it waits in the queue.
+     */
+    private CompletableFuture<MessageDTO> sendAsync(MessageDTO messageDTO) {
+        if (messageDTO.getQos() == Qos.AT_MOST_ONCE) {
+            return doPublishSafely(messageDTO);
+        }
+        CompletableFuture<MessageDTO> future = new CompletableFuture<>();
+        synchronized (windowQueue) {
+            // keeps the order of messages, a free slot is handed to the waiting messages first
+            if (!windowQueue.isEmpty() || !publishWindow.tryAcquire()) {
+                try {
+                    awaitWindowQueue();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return CompletableFuture.failedFuture(e);
+                } catch (TimeoutException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                windowQueue.add(new WindowedMessage(messageDTO, future));
+                return future;
+            }
+        }
+        if (!send(messageDTO, future)) {
+            releaseWindow();
+        }
+        return future;
+    }
+
+    /**
+     * Waits while the window queue is full. Must hold the lock of the queue.
+     */
+    private void awaitWindowQueue() throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(PUBLISH_TIMEOUT_SECONDS);
+        while (windowQueue.size() >= windowQueueCapacity) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new TimeoutException("Publish window of " + configDTO.getName() + " stayed full for "
+                        + PUBLISH_TIMEOUT_SECONDS + " seconds.");
+            }
+            windowQueue.wait(remaining);
+        }
+    }
+
+    /**
+     * Sends a message holding a slot of the window. The slot is kept until the client completed the send, even if the
+     * caller's future timed out before.
+     *
+     * @return False, if the client completed the send right away, so the slot is free again.
+     */
+    private boolean send(MessageDTO messageDTO, CompletableFuture<MessageDTO> future) {
+        future.orTimeout(PUBLISH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        CompletableFuture<MessageDTO> sent = doPublishSafely(messageDTO);
+        if (sent.isDone()) {
+            sent.whenComplete((result, t) -> complete(future, result, t));
+            return false;
+        }
+        sent.whenComplete((result, t) -> {
+            complete(future, result, t);
+            releaseWindow();
+        });
+        return true;
+    }
+
+    /**
+     * Hands the slot of a completed message to the next waiting message or returns it to the window. Loops instead of
+     * recursing for messages failing immediately, so a long line of them cannot overflow the stack.
+     */
+    private void releaseWindow() {
+        while (true) {
+            WindowedMessage next;
+            synchronized (windowQueue) {
+                do {
+                    next = windowQueue.poll();
+                } while (next != null && next.future().isDone());
+                if (next == null) {
+                    publishWindow.release();
+                    return;
+                }
+                windowQueue.notifyAll();
+            }
+            if (send(next.messageDTO(), next.future())) {
+                return;
+            }
+        }
+    }
+
+    private static void complete(CompletableFuture<MessageDTO> future, MessageDTO result, Throwable t) {
+        if (t == null) {
+            future.complete(result);
+        } else {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private CompletableFuture<MessageDTO> doPublishSafely(MessageDTO messageDTO) {
+        try {
+            return doPublishAsync(messageDTO);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public List<CompletableFuture<MessageDTO>> publishBatch(List<MessageDTO> messages) {
+        List<CompletableFuture<MessageDTO>> futures = new ArrayList<>(messages.size());
+        for (MessageDTO messageDTO : messages) {
+            futures.add(publishAsync(messageDTO));
+        }
+        return futures;
+    }
+
+    abstract CompletableFuture<MessageDTO> doPublishAsync(MessageDTO messageDTO);
+
+    private void drainOfflineQueue() {
+        drainOfflineQueue(0);
+    }
+
+    /**
+     * @param delayNanos Waited before the first message is sent, to retry after a failure.
+     */
+    private void drainOfflineQueue(long delayNanos) {
+        if (!configDTO.isOfflineQueue()) {
+            return;
+        }
+        OfflinePublishQueue queue;
+        try {
+            queue = offlineQueueRegistry.forConnection(configDTO.getId());
+        } catch (UncheckedIOException e) {
+            getLogger().warn(MarkerFactory.getMarker(configDTO.getName()), "Unable to open offline queue.", e);
+            return;
+        }
+        updateOfflineQueueMetrics(queue);
+        if (queue.size() == 0 || !queue.startDraining()) {
+            return;
+        }
+        try {
+            pubSubExecutor.execute(() -> drain(queue, delayNanos));
+        } catch (RejectedExecutionException e) {
+            queue.stopDraining();
+            getLogger().warn(MarkerFactory.getMarker(configDTO.getName()), "Unable to start sending offline queue, executor is busy.");
+        }
     }
 
-    abstract void doPublish(MessageDTO messageDTO) throws InterruptedException, ExecutionException, TimeoutException;
+    /**
+     * Sends the queued messages in order. Sends are pipelined, an entry leaves the queue once the broker acknowledged
+     * it and all entries before it. If the connection is lost again or a message is not acknowledged in time, the
+     * entries not acknowledged yet are sent again on the next drain, so a message may arrive twice.
+     * <p>
+     * Messages published while draining are queued behind the backlog, so they do not overtake it. Only the backlog
+     * found when draining starts is sent at the configured rate, the messages queued meanwhile are sent as fast as the
+     * publish window allows. So live traffic is held up at most until the backlog is sent.
+     */
+    private void drain(OfflinePublishQueue queue, long delayNanos) {
+        Marker marker = MarkerFactory.getMarker(configDTO.getName());
+        ConnectionMetrics metrics = metricsRegistry.forConnection(configDTO.getId());
+        long interval = offlineQueueDrainRate > 0 ? TimeUnit.SECONDS.toNanos(1) / offlineQueueDrainRate : 0;
+        Deque<DrainedMessage> inFlight = new ArrayDeque<>();
+        if (delayNanos > 0) {
+            LockSupport.parkNanos(delayNanos);
+        }
+        long backlog = queue.size();
+        long next = System.nanoTime();
+        getLogger().info(marker, "Sending {} messages from offline queue.", backlog);
+        boolean completed = false;
+        boolean retry = false;
+        try {
+            while (true) {
+                OfflinePublishQueue.Entry entry = getState() == ConnectionState.CONNECTED ? queue.next() : null;
+                if (entry == null) {
+                    while (!inFlight.isEmpty()) {
+                        CommitResult result = commit(queue, metrics, inFlight.poll());
+                        if (result != CommitResult.COMMITTED) {
+                            retry = result == CommitResult.RETRY;
+                            return;
+                        }
+                    }
+                    if (getState() != ConnectionState.CONNECTED) {
+                        return;
+                    }
+                    if (queue.stopDrainingIfEmpty()) {
+                        completed = true;
+                        return;
+                    }
+                    continue;
+                }
+                if (backlog > 0) {
+                    backlog--;
+                    long now = System.nanoTime();
+                    if (next > now) {
+                        LockSupport.parkNanos(next - now);
+                    }
+                    next = Math.max(next, now) + interval;
+                }
+                long start = metrics.publishStarted(entry.messageDTO().getQos());
+                inFlight.add(new DrainedMessage(entry, start, sendAsync(entry.messageDTO())));
+                while (!inFlight.isEmpty() && inFlight.peek().future().isDone()) {
+                    CommitResult result = commit(queue, metrics, inFlight.poll());
+                    if (result != CommitResult.COMMITTED) {
+                        retry = result == CommitResult.RETRY;
+                        return;
+                    }
+                }
+            }
+        } finally {
+            // not committed, so sent again on the next drain, but their metrics must be settled
+            inFlight.forEach(drained -> drained.future().whenComplete((result, t) -> {
+                if (t == null) {
+                    metrics.publishSucceeded(drained.entry().messageDTO(), drained.start());
+                } else {
+                    metrics.publishFailed(drained.entry().messageDTO().getQos());
+                }
+            }));
+            if (completed) {
+                getLogger().info(marker, "Offline queue sent.");
+            } else {
+                queue.stopDraining();
+                getLogger().info(marker, "Stopped sending offline queue with {} messages left.", queue.size());
+                // a reconnect may have happened before draining stopped
+                if (getState() == ConnectionState.CONNECTED) {
+                    drainOfflineQueue(retry ? DRAIN_RETRY_DELAY_NANOS : 0);
+                }
+            }
+        }
+    }
 
+    private CommitResult commit(OfflinePublishQueue queue, ConnectionMetrics metrics, DrainedMessage drained) {
+        MessageDTO messageDTO = drained.entry().messageDTO();
+        try {
+            drained.future().get(PUBLISH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            queue.commit(drained.entry());
+            metrics.publishSucceeded(messageDTO, drained.start());
+            soyEvents.fireAsync(new PublishEvent(configDTO.getId(), messageDTO));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metrics.publishFailed(messageDTO.getQos());
+            return CommitResult.STOP;
+        } catch (TimeoutException e) {
+            metrics.publishFailed(messageDTO.getQos());
+            return CommitResult.RETRY;
+        } catch (ExecutionException e) {
+            metrics.publishFailed(messageDTO.getQos());
+            if (!isRejected(e.getCause())) {
+                // e.g. lost connection or acknowledgement timed out, the message stays queued
+                return getState() == ConnectionState.CONNECTED ? CommitResult.RETRY : CommitResult.STOP;
+            }
+            // retrying would block the queue forever
+            getLogger().warn(MarkerFactory.getMarker(configDTO.getName()), "Dropping queued message to {}.", messageDTO.getTopic(), e.getCause());
+            queue.commit(drained.entry());
+            soyEvents.fireAsync(new PublishFailedEvent(configDTO.getId(), messageDTO));
+        } finally {
+            updateOfflineQueueMetrics(queue);
+        }
+        return CommitResult.COMMITTED;
+    }
 
-    abstract void doSubscribe(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback)
-            throws InterruptedException, ExecutionException, TimeoutException;
+    /**
+     * @return True, if the broker rejected the message with a reason code, or the client refused it as invalid.
+     */
+    private static boolean isRejected(Throwable t) {
+        return t instanceof Mqtt5PubAckException
+                || t instanceof Mqtt5PubRecException
+                || t instanceof IllegalArgumentException;
+    }
 
+    private enum CommitResult {
+        COMMITTED,
+        // the connection is lost, draining starts again on reconnect
+        STOP,
+        // the message was not acknowledged, draining starts again after a delay
+        RETRY
+    }
+
+    private void updateOfflineQueueMetrics(OfflinePublishQueue queue) {
+        metricsRegistry.forConnection(configDTO.getId()).recordOfflineQueue(queue.size(), queue.getOldestTimestamp());
+    }
+
+    private record DrainedMessage(OfflinePublishQueue.Entry entry, long start, CompletableFuture<MessageDTO> future) {
+    }
+
+    private record WindowedMessage(MessageDTO messageDTO, CompletableFuture<MessageDTO> future) {
+    }
+
+
+    /**
+     * @return Completes once the broker granted the subscription, exceptionally if it was rejected.
+     */
+    abstract CompletableFuture<Void> doSubscribeAsync(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback);
+
+    static boolean isFlowControlled(SubscriptionDTO subscriptionDTO) {
+        return subscriptionDTO.getOverflowPolicy() != null
+                && subscriptionDTO.getOverflowPolicy() != SubscriptionOverflowPolicy.UNBUFFERED;
+    }
+
+    /**
+     * Routes the message stream of a subscription through a {@link FlowControlledSubscriber}. The subscriber of an
+     * earlier subscribe to the same filter, e.g. before a reconnect, is cancelled.
+     *
+     * @param subscribe Subscribes the stream with the given subscriber and completes the future with the SUBACK.
+     */
+    CompletableFuture<Void> subscribeFlowControlled(SubscriptionDTO subscriptionDTO,
+                                                    Consumer<MessageDTO> incomingCallback,
+                                                    BiConsumer<FlowControlledSubscriber, CompletableFuture<Void>> subscribe) {
+        // drops are counted for the filter the user subscribed to, not the one of a consumer group member
+        String metricsTopic = CorreoMqttConsumerGroupClient.toPlainFilter(configDTO.getConsumerGroup(), subscriptionDTO.getTopic());
+        FlowControlledSubscriber subscriber = new FlowControlledSubscriber(subscriptionDTO.getOverflowPolicy(),
+                subscriptionBufferSize,
+                pubSubExecutor,
+                incomingCallback,
+                () -> getSubscriptionMetrics().recordDropped(metricsTopic));
+        FlowControlledSubscriber previous = flowControlledSubscribers.put(subscriptionDTO, subscriber);
+        if (previous != null) {
+            previous.cancel();
+        }
+        CompletableFuture<Void> subAck = new CompletableFuture<>();
+        try {
+            subscribe.accept(subscriber, subAck);
+        } catch (RuntimeException e) {
+            subAck.completeExceptionally(e);
+        }
+        return subAck.whenComplete((result, e) -> {
+            if (e != null && flowControlledSubscribers.remove(subscriptionDTO, subscriber)) {
+                subscriber.cancel();
+            }
+        });
+    }
+
+    private void cancelFlowControlledSubscriber(SubscriptionDTO subscriptionDTO) {
+        FlowControlledSubscriber subscriber = flowControlledSubscribers.remove(subscriptionDTO);
+        if (subscriber != null) {
+            subscriber.cancel();
+        }
+    }
+
+    /**
+     * Only the calling thread waits for the SUBACK. The subscription is registered up front, so a second subscribe to
+     * the same topic fails right away, and removed again if the broker rejects it.
+     */
     @Override
-    public synchronized void subscribe(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback)
+    public void subscribe(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback)
             throws InterruptedException, ExecutionException, TimeoutException {
-        if (subscriptions.contains(subscriptionDTO)) {
+        if (subscriptions.putIfAbsent(subscriptionDTO, incomingCallback) != null) {
             throw new CorreoMqttAlreadySubscribedException(getConfigDTO().getId(), subscriptionDTO);
         }
-        doSubscribe(subscriptionDTO, incomingCallback);
-        subscriptions.add(subscriptionDTO);
+        try {
+            doSubscribeAsync(subscriptionDTO, incomingCallback).get(SUBSCRIBE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            startRecording(subscriptionDTO);
+        } catch (ExecutionException e) {
+            subscriptions.remove(subscriptionDTO, incomingCallback);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (InterruptedException | TimeoutException | RuntimeException e) {
+            subscriptions.remove(subscriptionDTO, incomingCallback);
+            throw e;
+        }
     }
 
 
     @Override
-    public synchronized void disconnect() {
+    public void disconnect() {
         doDisconnect();
+        flowControlledSubscribers.keySet().forEach(this::cancelFlowControlledSubscriber);
         executeConditionallyOnSshProxy(sshProxy -> sshProxy.disconnect(MqttDisconnectSource.USER.toString()));
         getLogger().info(MarkerFactory.getMarker(configDTO.getName()), "Disconnected from broker.");
     }
 
-    abstract void doReconnect(MqttClientDisconnectedContext context);
+    abstract void doReconnect(MqttClientDisconnectedContext context, long delayMillis);
 
     abstract void doDisconnect();
 
-    private void changeState(ConnectionState state) {
-        this.state = state;
+    /**
+     * Changes from the current state, if that transition is valid.
+     *
+     * @return False, if the transition is not valid from the current state.
+     */
+    private boolean changeState(ConnectionState newState) {
+        while (true) {
+            ConnectionState current = state.get();
+            if (!current.canChangeTo(newState)) {
+                getLogger().warn(MarkerFactory.getMarker(configDTO.getName()), "Ignoring connection state change from {} to {}", current, newState);
+                return false;
+            }
+            if (changeState(current, newState)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return False, if the state is not the expected one anymore.
+     */
+    private boolean changeState(ConnectionState expected, ConnectionState newState) {
+        if (!state.compareAndSet(expected, newState)) {
+            return false;
+        }
+        fireStateChanged(newState);
+        return true;
+    }
+
+    private void fireStateChanged(ConnectionState state) {
         if (state == ConnectionState.DISCONNECTED_UNGRACEFUL) {
             getLogger().error(MarkerFactory.getMarker(configDTO.getName()), "Connection state changed to {}", state, new RuntimeException());
         } else {
@@ -188,7 +812,7 @@ abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisco
         soyEvents.fireAsync(new ConnectionStateChangedEvent(getConfigDTO().getId(),
                 state,
                 triedReconnects.get(),
-                MAX_RECONNECTS));
+                reconnectSettings.isUnlimited() ? 0 : reconnectSettings.getMaxRetries()));
     }
 
     /* SSH Proxy Helper */
@@ -201,12 +825,8 @@ abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisco
     }
 
     private <T> T getConditionallyOnSshProxy(Function<SshProxy, T> sshProxyCallback, Supplier<T> insteadCallback) {
-        if (!configDTO.getProxy().equals(Proxy.SSH)) {
-            return insteadCallback.get();
-        }
-
         if (proxy == null) {
-            proxy = new SshProxy(this, configDTO);
+            return insteadCallback.get();
         }
 
         return sshProxyCallback.apply(proxy);
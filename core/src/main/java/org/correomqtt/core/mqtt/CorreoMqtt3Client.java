@@ -1,35 +1,41 @@
 package org.correomqtt.core.mqtt;
 
 import com.hivemq.client.mqtt.MqttClient;
+import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
 import com.hivemq.client.mqtt.MqttClientSslConfigBuilder;
+import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedContext;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedContext;
 import com.hivemq.client.mqtt.mqtt3.Mqtt3AsyncClient;
 import com.hivemq.client.mqtt.mqtt3.Mqtt3BlockingClient;
 import com.hivemq.client.mqtt.mqtt3.Mqtt3ClientBuilder;
+import com.hivemq.client.mqtt.mqtt3.lifecycle.Mqtt3ClientConnectedContext;
 import com.hivemq.client.mqtt.mqtt3.message.Mqtt3ReturnCode;
 import com.hivemq.client.mqtt.mqtt3.message.connect.Mqtt3ConnectBuilder;
 import com.hivemq.client.mqtt.mqtt3.message.connect.connack.Mqtt3ConnAck;
-import com.hivemq.client.mqtt.mqtt3.message.subscribe.suback.Mqtt3SubAck;
 import com.hivemq.client.mqtt.mqtt3.message.subscribe.suback.Mqtt3SubAckReturnCode;
 import lombok.Getter;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.di.SoyEvents;
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.exception.CorreoMqtt3SubscriptionFailed;
 import org.correomqtt.core.exception.CorreoMqttConnectionFailedException;
 import org.correomqtt.core.exception.CorreoMqttNotConnectedException;
+import org.correomqtt.core.metrics.MetricsRegistry;
 import org.correomqtt.core.model.ConnectionConfigDTO;
 import org.correomqtt.core.model.Lwt;
 import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.model.SubscriptionDTO;
 import org.correomqtt.core.model.TlsSsl;
+import org.correomqtt.core.offline.OfflineQueueRegistry;
+import org.correomqtt.core.recorder.MessageRecorderRegistry;
+import org.correomqtt.core.settings.SettingsManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.SSLException;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -43,12 +49,18 @@ public class CorreoMqtt3Client extends BaseCorreoMqttClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CorreoMqtt3Client.class);
 
-    private Mqtt3BlockingClient mqtt3BlockingClient;
+    private volatile Mqtt3BlockingClient mqtt3BlockingClient;
 
     @Inject
     CorreoMqtt3Client(SoyEvents soyEvents,
+                      SettingsManager settingsManager,
+                      OfflineQueueRegistry offlineQueueRegistry,
+                      MetricsRegistry metricsRegistry,
+                      MessageRecorderRegistry recorderRegistry,
+                      CorreoExecutors correoExecutors,
                       @Assisted ConnectionConfigDTO configDTO) {
-        super(soyEvents, configDTO);
+        super(soyEvents, configDTO, settingsManager.getSettings(), offlineQueueRegistry, metricsRegistry, recorderRegistry,
+                correoExecutors.get(ExecutorPool.PUBSUB));
     }
 
     @Override
@@ -85,6 +97,9 @@ public class CorreoMqtt3Client extends BaseCorreoMqttClient {
         clientBuilder.addConnectedListener(this);
 
         mqtt3BlockingClient = clientBuilder.buildBlocking();
+        // every PUBLISH once, however many subscriptions it matches
+        mqtt3BlockingClient.toAsync().publishes(MqttGlobalPublishFilter.ALL,
+                mqtt3Publish -> onPublishReceived(mqtt3Publish.getTopic(), () -> new MessageDTO(mqtt3Publish, 0)));
 
         Mqtt3ConnectBuilder.Send<CompletableFuture<Mqtt3ConnAck>> connBuilder = mqtt3BlockingClient
                 .toAsync()
@@ -117,15 +132,23 @@ public class CorreoMqtt3Client extends BaseCorreoMqttClient {
     }
 
     @Override
-    void doReconnect(MqttClientDisconnectedContext context) {
+    void doReconnect(MqttClientDisconnectedContext context, long delayMillis) {
         context.getReconnector()
                 .reconnect(true)
-                .delay(3000, TimeUnit.MILLISECONDS);
+                // subscriptions are restored by the base client, which knows their callbacks
+                .resubscribeIfSessionExpired(false)
+                .delay(delayMillis, TimeUnit.MILLISECONDS);
     }
 
-    private synchronized void closeIfConnectionExists() {
-        if (mqtt3BlockingClient != null && mqtt3BlockingClient.getState().isConnectedOrReconnect()) {
-            mqtt3BlockingClient.disconnect();
+    @Override
+    boolean isSessionPresent(MqttClientConnectedContext context) {
+        return context instanceof Mqtt3ClientConnectedContext mqtt3Context && mqtt3Context.getConnAck().isSessionPresent();
+    }
+
+    private void closeIfConnectionExists() {
+        Mqtt3BlockingClient client = mqtt3BlockingClient;
+        if (client != null && client.getState().isConnectedOrReconnect()) {
+            client.disconnect();
         }
     }
 
@@ -137,35 +160,48 @@ public class CorreoMqtt3Client extends BaseCorreoMqttClient {
     }
 
     @Override
-    void doPublish(MessageDTO messageDTO)
-            throws InterruptedException, ExecutionException, TimeoutException {
-
-        messageDTO.setDateTime(LocalDateTime.now(ZoneOffset.UTC));
-        getCheckedAsyncClient().publishWith()
+    CompletableFuture<MessageDTO> doPublishAsync(MessageDTO messageDTO) {
+        messageDTO.setTimestampNanos(MessageDTO.nowNanos());
+        return getCheckedAsyncClient().publishWith()
                 .topic(messageDTO.getTopic())
-                .payload(messageDTO.getPayload().getBytes())
+                .payload(messageDTO.getPayloadBuffer())
                 .qos(messageDTO.getQos().getMqttQos())
                 .retain(messageDTO.isRetained())
                 .send()
-                .get(10, TimeUnit.SECONDS);
+                .thenApply(ignore -> messageDTO);
     }
 
     @Override
-    void doSubscribe(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback)
-            throws InterruptedException, ExecutionException, TimeoutException {
-
-        Mqtt3SubAck subAck = getCheckedAsyncClient().subscribeWith()
+    CompletableFuture<Void> doSubscribeAsync(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback) {
+        if (isFlowControlled(subscriptionDTO)) {
+            return subscribeFlowControlled(subscriptionDTO, incomingCallback, (subscriber, subAckFuture) -> getCheckedClient().toRx()
+                    .subscribeStreamWith()
+                    .topicFilter(subscriptionDTO.getTopic())
+                    .qos(subscriptionDTO.getQos().getMqttQos())
+                    .applySubscribe()
+                    .doOnSingle(subAck -> {
+                        List<Mqtt3SubAckReturnCode> returnCodes = subAck.getReturnCodes();
+                        if (returnCodes.stream().anyMatch(Mqtt3ReturnCode::isError)) {
+                            subAckFuture.completeExceptionally(new CorreoMqtt3SubscriptionFailed(returnCodes));
+                        } else {
+                            subAckFuture.complete(null);
+                        }
+                    })
+                    .doOnError(subAckFuture::completeExceptionally)
+                    .map(mqtt3Publish -> new MessageDTO(mqtt3Publish, nextSequenceId()))
+                    .subscribe(subscriber));
+        }
+        return getCheckedAsyncClient().subscribeWith()
                 .topicFilter(subscriptionDTO.getTopic())
                 .qos(subscriptionDTO.getQos().getMqttQos())
-                .callback(mqtt3Publish -> incomingCallback.accept(new MessageDTO(mqtt3Publish)))
+                .callback(mqtt3Publish -> incomingCallback.accept(new MessageDTO(mqtt3Publish, nextSequenceId())))
                 .send()
-                .get(10, TimeUnit.SECONDS);
-
-        List<Mqtt3SubAckReturnCode> returnCodes = subAck.getReturnCodes();
-
-        if (returnCodes.stream().anyMatch(Mqtt3ReturnCode::isError)) {
-            throw new CorreoMqtt3SubscriptionFailed(returnCodes);
-        }
+                .thenAccept(subAck -> {
+                    List<Mqtt3SubAckReturnCode> returnCodes = subAck.getReturnCodes();
+                    if (returnCodes.stream().anyMatch(Mqtt3ReturnCode::isError)) {
+                        throw new CorreoMqtt3SubscriptionFailed(returnCodes);
+                    }
+                });
     }
 
     @Override
@@ -178,10 +214,10 @@ public class CorreoMqtt3Client extends BaseCorreoMqttClient {
     }
 
     private Mqtt3BlockingClient getCheckedClient() {
-        if (mqtt3BlockingClient == null) {
+        Mqtt3BlockingClient client = mqtt3BlockingClient;
+        if (client == null) {
             throw new CorreoMqttNotConnectedException();
         }
-
-        return mqtt3BlockingClient;
+        return client;
     }
 }
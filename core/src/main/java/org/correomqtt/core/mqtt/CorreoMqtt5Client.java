@@ -1,36 +1,46 @@
 package org.correomqtt.core.mqtt;
 
 import com.hivemq.client.mqtt.MqttClient;
+import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
 import com.hivemq.client.mqtt.MqttClientSslConfigBuilder;
+import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedContext;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedContext;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClient;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5ClientBuilder;
+import com.hivemq.client.mqtt.mqtt5.lifecycle.Mqtt5ClientConnectedContext;
+import com.hivemq.client.mqtt.mqtt5.lifecycle.Mqtt5ClientDisconnectedContext;
+import com.hivemq.client.mqtt.mqtt5.lifecycle.Mqtt5ClientReconnector;
 import com.hivemq.client.mqtt.mqtt5.message.connect.Mqtt5ConnectBuilder;
 import com.hivemq.client.mqtt.mqtt5.message.connect.connack.Mqtt5ConnAck;
-import com.hivemq.client.mqtt.mqtt5.message.subscribe.suback.Mqtt5SubAck;
 import com.hivemq.client.mqtt.mqtt5.message.subscribe.suback.Mqtt5SubAckReasonCode;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.di.SoyEvents;
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.exception.CorreoMqtt5SubscriptionFailed;
 import org.correomqtt.core.exception.CorreoMqttConnectionFailedException;
 import org.correomqtt.core.exception.CorreoMqttNotConnectedException;
+import org.correomqtt.core.metrics.MetricsRegistry;
 import org.correomqtt.core.model.ConnectionConfigDTO;
 import org.correomqtt.core.model.Lwt;
 import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.model.SubscriptionDTO;
 import org.correomqtt.core.model.TlsSsl;
+import org.correomqtt.core.offline.OfflineQueueRegistry;
+import org.correomqtt.core.recorder.MessageRecorderRegistry;
+import org.correomqtt.core.settings.SettingsManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.SSLException;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -42,14 +52,25 @@ public class CorreoMqtt5Client extends BaseCorreoMqttClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CorreoMqtt5Client.class);
 
-    private Mqtt5BlockingClient mqtt5BlockingClient;
+    private volatile Mqtt5BlockingClient mqtt5BlockingClient;
 
+    @Getter(AccessLevel.NONE)
+    private final TopicAliasTracker topicAliasTracker = new TopicAliasTracker();
 
+    // requested from the broker, 0 disables outgoing topic aliases
+    private final int topicAliasMaximum;
 
     @Inject
     CorreoMqtt5Client(SoyEvents soyEvents,
+                      SettingsManager settingsManager,
+                      OfflineQueueRegistry offlineQueueRegistry,
+                      MetricsRegistry metricsRegistry,
+                      MessageRecorderRegistry recorderRegistry,
+                      CorreoExecutors correoExecutors,
                       @Assisted ConnectionConfigDTO configDTO) {
-        super(soyEvents, configDTO);
+        super(soyEvents, configDTO, settingsManager.getSettings(), offlineQueueRegistry, metricsRegistry, recorderRegistry,
+                correoExecutors.get(ExecutorPool.PUBSUB));
+        this.topicAliasMaximum = configDTO.isTopicAliases() ? Math.max(0, settingsManager.getSettings().getTopicAliasMaximum()) : 0;
     }
 
     @Override
@@ -87,12 +108,19 @@ public class CorreoMqtt5Client extends BaseCorreoMqttClient {
         clientBuilder.addConnectedListener(this);
 
         mqtt5BlockingClient = clientBuilder.buildBlocking();
+        // every PUBLISH once, however many subscriptions it matches
+        mqtt5BlockingClient.toAsync().publishes(MqttGlobalPublishFilter.ALL,
+                mqtt5Publish -> onPublishReceived(mqtt5Publish.getTopic(), () -> new MessageDTO(mqtt5Publish, 0)));
 
         Mqtt5ConnectBuilder.Send<CompletableFuture<Mqtt5ConnAck>> connBuilder = mqtt5BlockingClient
                 .toAsync()
                 .connectWith()
                 .cleanStart(configDTO.isCleanSession())
-                .keepAlive(10000);
+                .sessionExpiryInterval(getReconnectSettings().getSessionExpiryInterval())
+                .keepAlive(10000)
+                .restrictions()
+                .sendTopicAliasMaximum(topicAliasMaximum)
+                .applyRestrictions();
 
         if (configDTO.getLwt().equals(Lwt.ON)) {
             connBuilder.willPublish()
@@ -119,15 +147,41 @@ public class CorreoMqtt5Client extends BaseCorreoMqttClient {
     }
 
     @Override
-    void doReconnect(MqttClientDisconnectedContext context) {
-        context.getReconnector()
+    void doReconnect(MqttClientDisconnectedContext context, long delayMillis) {
+        Mqtt5ClientReconnector reconnector = ((Mqtt5ClientDisconnectedContext) context).getReconnector()
                 .reconnect(true)
-                .delay(3000, TimeUnit.MILLISECONDS);
+                // subscriptions are restored by the base client, which knows their callbacks
+                .resubscribeIfSessionExpired(false)
+                .delay(delayMillis, TimeUnit.MILLISECONDS);
+        if (getReconnectSettings().getSessionExpiryInterval() > 0) {
+            // resume the session the broker kept for us instead of starting a new one
+            reconnector.connectWith()
+                    .cleanStart(false)
+                    .applyConnect();
+        }
+    }
+
+    @Override
+    public void onConnected(MqttClientConnectedContext context) {
+        int negotiated = 0;
+        if (context instanceof Mqtt5ClientConnectedContext mqtt5Context) {
+            // the client uses no more aliases than the broker allows in the CONNACK
+            negotiated = Math.min(topicAliasMaximum, mqtt5Context.getConnAck().getRestrictions().getTopicAliasMaximum());
+        }
+        topicAliasTracker.reset(negotiated);
+        getMetrics().setTopicAliasMaximum(negotiated);
+        super.onConnected(context);
     }
 
-    private synchronized void closeIfConnectionExists() {
-        if (mqtt5BlockingClient != null && mqtt5BlockingClient.getState().isConnectedOrReconnect()) {
-            mqtt5BlockingClient.disconnect();
+    @Override
+    boolean isSessionPresent(MqttClientConnectedContext context) {
+        return context instanceof Mqtt5ClientConnectedContext mqtt5Context && mqtt5Context.getConnAck().isSessionPresent();
+    }
+
+    private void closeIfConnectionExists() {
+        Mqtt5BlockingClient client = mqtt5BlockingClient;
+        if (client != null && client.getState().isConnectedOrReconnect()) {
+            client.disconnect();
         }
     }
 
@@ -139,38 +193,75 @@ public class CorreoMqtt5Client extends BaseCorreoMqttClient {
     }
 
     @Override
-    void doPublish(MessageDTO messageDTO) {
-        messageDTO.setDateTime(LocalDateTime.now(ZoneOffset.UTC));
-        getCheckedClient().publishWith()
+    CompletableFuture<MessageDTO> doPublishAsync(MessageDTO messageDTO) {
+        messageDTO.setTimestampNanos(MessageDTO.nowNanos());
+        Mqtt5AsyncClient client = getCheckedAsyncClient();
+        recordTopicAlias(messageDTO.getTopic());
+        return client.publishWith()
                 .topic(messageDTO.getTopic())
-                .payload(messageDTO.getPayload().getBytes())
+                .payload(messageDTO.getPayloadBuffer())
                 .qos(messageDTO.getQos().getMqttQos())
                 .retain(messageDTO.isRetained())
-                .send();
+                .send()
+                .thenApply(result -> {
+                    // the async client reports failed QoS 1/2 flows through the result instead of the future
+                    result.getError().ifPresent(e -> {
+                        throw new CompletionException(e);
+                    });
+                    return messageDTO;
+                });
     }
 
-    @Override
-    void doSubscribe(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback)
-            throws InterruptedException, ExecutionException, TimeoutException {
+    private void recordTopicAlias(String topic) {
+        if (topicAliasTracker.getMaximum() > 0) {
+            boolean hit = topicAliasTracker.onPublish(topic);
+            getMetrics().recordTopicAlias(hit, TopicAliasTracker.savedBytes(topic, hit), topicAliasTracker.getActive());
+        }
+    }
 
-        Mqtt5SubAck subAck = getCheckedAsyncClient().subscribeWith()
+    @Override
+    CompletableFuture<Void> doSubscribeAsync(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback) {
+        if (isFlowControlled(subscriptionDTO)) {
+            return subscribeFlowControlled(subscriptionDTO, incomingCallback, (subscriber, subAckFuture) -> getCheckedClient().toRx()
+                    .subscribeStreamWith()
+                    .topicFilter(subscriptionDTO.getTopic())
+                    .qos(subscriptionDTO.getQos().getMqttQos())
+                    .applySubscribe()
+                    .doOnSingle(subAck -> {
+                        List<Mqtt5SubAckReasonCode> returnCodes = subAck.getReasonCodes();
+                        if (returnCodes.stream().anyMatch(Mqtt5SubAckReasonCode::isError)) {
+                            subAckFuture.completeExceptionally(new CorreoMqtt5SubscriptionFailed(returnCodes));
+                        } else {
+                            subAckFuture.complete(null);
+                        }
+                    })
+                    .doOnError(subAckFuture::completeExceptionally)
+                    .map(mqtt5Publish -> new MessageDTO(mqtt5Publish, nextSequenceId()))
+                    .subscribe(subscriber));
+        }
+        return getCheckedAsyncClient().subscribeWith()
                 .topicFilter(subscriptionDTO.getTopic())
                 .qos(subscriptionDTO.getQos().getMqttQos())
-                .callback(mqtt5Publish -> incomingCallback.accept(new MessageDTO(mqtt5Publish)))
+                .callback(mqtt5Publish -> incomingCallback.accept(new MessageDTO(mqtt5Publish, nextSequenceId())))
                 .send()
-                .get(10, TimeUnit.SECONDS);
-
-
-        List<Mqtt5SubAckReasonCode> returnCodes = subAck.getReasonCodes();
-
-        if (returnCodes.stream().anyMatch(Mqtt5SubAckReasonCode::isError)) {
-            throw new CorreoMqtt5SubscriptionFailed(returnCodes);
-        }
+                .thenAccept(subAck -> {
+                    List<Mqtt5SubAckReasonCode> returnCodes = subAck.getReasonCodes();
+                    if (returnCodes.stream().anyMatch(Mqtt5SubAckReasonCode::isError)) {
+                        throw new CorreoMqtt5SubscriptionFailed(returnCodes);
+                    }
+                });
     }
 
     @Override
     void doDisconnect() {
-        getCheckedClient().disconnect();
+        if (getReconnectSettings().getSessionExpiryInterval() > 0 && getConfigDTO().isCleanSession()) {
+            // the session is only kept to survive connection losses, not a deliberate disconnect
+            getCheckedClient().disconnectWith()
+                    .sessionExpiryInterval(0)
+                    .send();
+        } else {
+            getCheckedClient().disconnect();
+        }
     }
 
 
@@ -179,9 +270,10 @@ public class CorreoMqtt5Client extends BaseCorreoMqttClient {
     }
 
     private Mqtt5BlockingClient getCheckedClient() {
-        if (mqtt5BlockingClient == null) {
+        Mqtt5BlockingClient client = mqtt5BlockingClient;
+        if (client == null) {
             throw new CorreoMqttNotConnectedException();
         }
-        return mqtt5BlockingClient;
+        return client;
     }
 }
@@ -5,7 +5,9 @@ import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.model.SubscriptionDTO;
 
 import javax.net.ssl.SSLException;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
@@ -18,6 +20,24 @@ public interface CorreoMqttClient {
 
     void publish(MessageDTO messageDTO) throws InterruptedException, ExecutionException, TimeoutException;
 
+    /**
+     * Sends the message without waiting for the broker. QoS 1 and 2 messages beyond the in-flight window are queued,
+     * and only while that queue is full, the calling thread waits for room, at most the publish timeout. So it must
+     * not be called on the FX thread or the client's event loop.
+     *
+     * @return Completes with the sent message once the broker acknowledged it, or once it was written for QoS 0. Fails
+     * if the broker did not acknowledge it within the publish timeout after it was sent.
+     */
+    CompletableFuture<MessageDTO> publishAsync(MessageDTO messageDTO);
+
+    /**
+     * Pipelines all messages over the async client, limited by the same in-flight window as
+     * {@link #publishAsync(MessageDTO)}.
+     *
+     * @return One future per message in the order of {@code messages}.
+     */
+    List<CompletableFuture<MessageDTO>> publishBatch(List<MessageDTO> messages);
+
     void subscribe(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback) throws InterruptedException, ExecutionException, TimeoutException;
 
     void unsubscribe(SubscriptionDTO subscriptionDTO);
@@ -3,6 +3,7 @@ package org.correomqtt.core.mqtt;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.core.exception.CorreoMqttUnsupportedMqttVersionException;
+import org.correomqtt.core.metrics.MetricsRegistry;
 import org.correomqtt.core.model.ConnectionConfigDTO;
 
 @DefaultBean
@@ -10,16 +11,32 @@ public class CorreoMqttClientFactory {
 
     private final CorreoMqtt3ClientFactory correoMqtt3ClientFactory;
     private final CorreoMqtt5ClientFactory correoMqtt5ClientFactory;
+    private final MetricsRegistry metricsRegistry;
 
     @Inject
     public CorreoMqttClientFactory(CorreoMqtt3ClientFactory correoMqtt3ClientFactory,
-                                   CorreoMqtt5ClientFactory correoMqtt5ClientFactory) {
+                                   CorreoMqtt5ClientFactory correoMqtt5ClientFactory,
+                                   MetricsRegistry metricsRegistry) {
         // private constructor
         this.correoMqtt3ClientFactory = correoMqtt3ClientFactory;
         this.correoMqtt5ClientFactory = correoMqtt5ClientFactory;
+        this.metricsRegistry = metricsRegistry;
     }
 
+    /**
+     * @return A {@link CorreoMqttConsumerGroupClient}, if the connection has a consumer group of more than one client.
+     */
     public CorreoMqttClient createClient(ConnectionConfigDTO configDTO) {
+        String consumerGroup = configDTO.getConsumerGroup();
+        if (consumerGroup != null && !consumerGroup.isBlank() && configDTO.getConsumerGroupSize() > 1) {
+            return new CorreoMqttConsumerGroupClient(configDTO,
+                    metricsRegistry.forConnection(configDTO.getId()),
+                    this::createSingleClient);
+        }
+        return createSingleClient(configDTO);
+    }
+
+    private CorreoMqttClient createSingleClient(ConnectionConfigDTO configDTO) {
         return switch (configDTO.getMqttVersion()) {
             case MQTT_3_1_1 -> correoMqtt3ClientFactory.create(configDTO);
             case MQTT_5_0 -> correoMqtt5ClientFactory.create(configDTO);
@@ -0,0 +1,234 @@
+package org.correomqtt.core.mqtt;
+
+import org.correomqtt.core.connection.ConnectionState;
+import org.correomqtt.core.exception.CorreoMqttAlreadySubscribedException;
+import org.correomqtt.core.metrics.ConnectionMetrics;
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.Lwt;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.Proxy;
+import org.correomqtt.core.model.SubscriptionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+
+import javax.net.ssl.SSLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Spreads the incoming messages of a connection over several clients in one shared subscription group. Every member
+ * subscribes to {@code $share/<group>/<filter>}, so the broker hands each message to one of them and each member
+ * receives on its own event loop. The first member uses the configured client id and sends all publishes, the others
+ * use derived client ids.
+ */
+public class CorreoMqttConsumerGroupClient implements CorreoMqttClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CorreoMqttConsumerGroupClient.class);
+
+    private static final String SHARE_PREFIX = "$share/";
+
+    private final ConnectionConfigDTO configDTO;
+    private final ConnectionMetrics metrics;
+    private final List<CorreoMqttClient> members = new ArrayList<>();
+    private final List<String> memberClientIds = new ArrayList<>();
+    private final Map<SubscriptionDTO, Consumer<MessageDTO>> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * @param clientFactory Creates a single client for the config of a member.
+     */
+    CorreoMqttConsumerGroupClient(ConnectionConfigDTO configDTO,
+                                  ConnectionMetrics metrics,
+                                  Function<ConnectionConfigDTO, CorreoMqttClient> clientFactory) {
+        this.configDTO = configDTO;
+        this.metrics = metrics;
+        AtomicLong messageSequence = new AtomicLong();
+        for (int i = 0; i < configDTO.getConsumerGroupSize(); i++) {
+            ConnectionConfigDTO memberConfig = i == 0 ? configDTO : memberConfig(configDTO, i);
+            CorreoMqttClient member = clientFactory.apply(memberConfig);
+            if (member instanceof BaseCorreoMqttClient baseMember) {
+                baseMember.setSubscriptionMetrics(metrics);
+                baseMember.setMessageSequence(messageSequence);
+                baseMember.setRecordingConnectionId(configDTO.getId());
+            }
+            members.add(member);
+            memberClientIds.add(memberConfig.getClientId());
+        }
+    }
+
+    /**
+     * Members after the first one get their own id, so their state changes do not show up as the state of the
+     * connection, and use the SSH tunnel of the first member.
+     */
+    static ConnectionConfigDTO memberConfig(ConnectionConfigDTO configDTO, int index) {
+        ConnectionConfigDTO memberConfig = new ConnectionConfigDTO(configDTO);
+        memberConfig.setId(configDTO.getId() + "-" + index);
+        memberConfig.setClientId(configDTO.getClientId() + "-" + index);
+        memberConfig.setSslHostVerification(configDTO.isSslHostVerification());
+        memberConfig.setLwt(Lwt.OFF);
+        memberConfig.setOfflineQueue(false);
+        // the group name stays for the metrics of the member
+        memberConfig.setConsumerGroupSize(1);
+        if (configDTO.getProxy() == Proxy.SSH) {
+            memberConfig.setProxy(Proxy.OFF);
+            memberConfig.setPort(configDTO.getLocalPort());
+        }
+        return memberConfig;
+    }
+
+    /**
+     * @return The filter the members subscribe to, unchanged if it is a shared subscription already.
+     */
+    static String toSharedFilter(String group, String topicFilter) {
+        if (topicFilter.startsWith(SHARE_PREFIX)) {
+            return topicFilter;
+        }
+        return SHARE_PREFIX + group + "/" + topicFilter;
+    }
+
+    /**
+     * @return The filter without the share prefix of the group.
+     */
+    static String toPlainFilter(String group, String topicFilter) {
+        if (group == null) {
+            return topicFilter;
+        }
+        String prefix = SHARE_PREFIX + group + "/";
+        return topicFilter.startsWith(prefix) ? topicFilter.substring(prefix.length()) : topicFilter;
+    }
+
+    private CorreoMqttClient getPrimary() {
+        return members.get(0);
+    }
+
+    /**
+     * Connects the first member before the others, as it opens the SSH tunnel. If any member fails, all members are
+     * disconnected again.
+     */
+    @Override
+    public void connect() throws InterruptedException, ExecutionException, TimeoutException, SSLException {
+        List<CorreoMqttClient> connected = new ArrayList<>();
+        try {
+            for (CorreoMqttClient member : members) {
+                member.connect();
+                connected.add(member);
+            }
+        } catch (InterruptedException | ExecutionException | TimeoutException | SSLException | RuntimeException e) {
+            disconnectAll(connected);
+            throw e;
+        }
+        LOGGER.info(MarkerFactory.getMarker(configDTO.getName()), "Connected consumer group {} with {} clients.",
+                configDTO.getConsumerGroup(), members.size());
+    }
+
+    @Override
+    public void disconnect() {
+        disconnectAll(members);
+    }
+
+    private void disconnectAll(List<CorreoMqttClient> clients) {
+        // the first member last, it closes the SSH tunnel
+        for (int i = clients.size() - 1; i > 0; i--) {
+            try {
+                clients.get(i).disconnect();
+            } catch (RuntimeException e) {
+                LOGGER.warn(MarkerFactory.getMarker(configDTO.getName()), "Unable to disconnect consumer group client {}.", memberClientIds.get(i), e);
+            }
+        }
+        if (!clients.isEmpty()) {
+            clients.get(0).disconnect();
+        }
+    }
+
+    @Override
+    public void publish(MessageDTO messageDTO) throws InterruptedException, ExecutionException, TimeoutException {
+        getPrimary().publish(messageDTO);
+    }
+
+    @Override
+    public CompletableFuture<MessageDTO> publishAsync(MessageDTO messageDTO) {
+        return getPrimary().publishAsync(messageDTO);
+    }
+
+    @Override
+    public List<CompletableFuture<MessageDTO>> publishBatch(List<MessageDTO> messages) {
+        return getPrimary().publishBatch(messages);
+    }
+
+    /**
+     * Subscribes every member to the shared filter. The callback is called on the event loops of all members, so it
+     * must be thread safe.
+     */
+    @Override
+    public void subscribe(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (subscriptions.putIfAbsent(subscriptionDTO, incomingCallback) != null) {
+            throw new CorreoMqttAlreadySubscribedException(configDTO.getId(), subscriptionDTO);
+        }
+        SubscriptionDTO shared = toShared(subscriptionDTO);
+        List<CorreoMqttClient> subscribed = new ArrayList<>();
+        try {
+            for (int i = 0; i < members.size(); i++) {
+                String memberClientId = memberClientIds.get(i);
+                members.get(i).subscribe(shared, messageDTO -> {
+                    metrics.recordMemberIncoming(memberClientId, messageDTO);
+                    incomingCallback.accept(messageDTO);
+                });
+                subscribed.add(members.get(i));
+            }
+        } catch (InterruptedException | ExecutionException | TimeoutException | RuntimeException e) {
+            subscriptions.remove(subscriptionDTO, incomingCallback);
+            unsubscribeAll(subscribed, shared);
+            throw e;
+        }
+    }
+
+    @Override
+    public void unsubscribe(SubscriptionDTO subscriptionDTO) {
+        subscriptions.remove(subscriptionDTO);
+        unsubscribeAll(members, toShared(subscriptionDTO));
+    }
+
+    private void unsubscribeAll(List<CorreoMqttClient> clients, SubscriptionDTO shared) {
+        for (CorreoMqttClient client : clients) {
+            try {
+                client.unsubscribe(shared);
+            } catch (RuntimeException e) {
+                LOGGER.warn(MarkerFactory.getMarker(configDTO.getName()), "Unable to unsubscribe {} from consumer group client.", shared.getTopic(), e);
+            }
+        }
+    }
+
+    private SubscriptionDTO toShared(SubscriptionDTO subscriptionDTO) {
+        return SubscriptionDTO.builder()
+                .topic(toSharedFilter(configDTO.getConsumerGroup(), subscriptionDTO.getTopic()))
+                .qos(subscriptionDTO.getQos())
+                .hidden(subscriptionDTO.isHidden())
+                .recorded(subscriptionDTO.isRecorded())
+                .overflowPolicy(subscriptionDTO.getOverflowPolicy())
+                .build();
+    }
+
+    @Override
+    public Set<SubscriptionDTO> getSubscriptions() {
+        return new HashSet<>(subscriptions.keySet());
+    }
+
+    /**
+     * The state of the first member, the others reconnect on their own.
+     */
+    @Override
+    public ConnectionState getState() {
+        return getPrimary().getState();
+    }
+}
@@ -0,0 +1,209 @@
+package org.correomqtt.core.mqtt;
+
+import io.reactivex.FlowableSubscriber;
+import org.correomqtt.core.concurrent.BoundedExecutor;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.SubscriptionOverflowPolicy;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Buffers the messages of a reactive subscription stream and hands them to the incoming callback on an executor.
+ * <p>
+ * With {@link SubscriptionOverflowPolicy#BACKPRESSURE} only as many messages are requested from the client as fit into
+ * the buffer, the other policies request everything and drop messages while the buffer is full. Like
+ * {@link org.correomqtt.core.concurrent.SerialEventLanes}, the buffer is drained in batches so one subscription can
+ * not hold a worker forever.
+ */
+class FlowControlledSubscriber implements FlowableSubscriber<MessageDTO>, Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowControlledSubscriber.class);
+    private static final int BATCH_SIZE = 64;
+
+    private final SubscriptionOverflowPolicy overflowPolicy;
+    private final int capacity;
+    private final Executor executor;
+    private final Consumer<MessageDTO> incomingCallback;
+    private final Runnable onDropped;
+    private final ArrayDeque<MessageDTO> queue = new ArrayDeque<>();
+    // latest message per topic, only used to conflate
+    private final LinkedHashMap<String, MessageDTO> latest = new LinkedHashMap<>();
+    private Subscription subscription;
+    private boolean scheduled;
+    private boolean cancelled;
+
+    /**
+     * @param onDropped Called for every message that was dropped or replaced by a newer one.
+     */
+    FlowControlledSubscriber(SubscriptionOverflowPolicy overflowPolicy,
+                             int capacity,
+                             Executor executor,
+                             Consumer<MessageDTO> incomingCallback,
+                             Runnable onDropped) {
+        this.overflowPolicy = overflowPolicy;
+        this.capacity = Math.max(1, capacity);
+        this.executor = executor;
+        this.incomingCallback = incomingCallback;
+        this.onDropped = onDropped;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        synchronized (this) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+        }
+        subscription.request(overflowPolicy == SubscriptionOverflowPolicy.BACKPRESSURE ? capacity : Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(MessageDTO messageDTO) {
+        boolean dropped;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            dropped = enqueue(messageDTO);
+            if (scheduled) {
+                messageDTO = null;
+            } else {
+                scheduled = true;
+            }
+        }
+        if (dropped) {
+            onDropped.run();
+        }
+        if (messageDTO != null) {
+            schedule();
+        }
+    }
+
+    /**
+     * @return True, if a message was dropped to make room or the new one was not taken.
+     */
+    private boolean enqueue(MessageDTO messageDTO) {
+        switch (overflowPolicy) {
+            case CONFLATE -> {
+                // a newer message of a buffered topic takes the place of the older one
+                boolean replaced = latest.put(messageDTO.getTopic(), messageDTO) != null;
+                if (!replaced && latest.size() > capacity) {
+                    Iterator<MessageDTO> eldest = latest.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    return true;
+                }
+                return replaced;
+            }
+            case DROP_NEWEST -> {
+                if (queue.size() >= capacity) {
+                    return true;
+                }
+                queue.add(messageDTO);
+                return false;
+            }
+            case DROP_OLDEST -> {
+                boolean full = queue.size() >= capacity;
+                if (full) {
+                    queue.poll();
+                }
+                queue.add(messageDTO);
+                return full;
+            }
+            default -> {
+                // never more than requested
+                queue.add(messageDTO);
+                return false;
+            }
+        }
+    }
+
+    private MessageDTO poll() {
+        if (overflowPolicy != SubscriptionOverflowPolicy.CONFLATE) {
+            return queue.poll();
+        }
+        Iterator<MessageDTO> eldest = latest.values().iterator();
+        if (!eldest.hasNext()) {
+            return null;
+        }
+        MessageDTO messageDTO = eldest.next();
+        eldest.remove();
+        return messageDTO;
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            MessageDTO messageDTO;
+            synchronized (this) {
+                messageDTO = cancelled ? null : poll();
+                if (messageDTO == null) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            try {
+                incomingCallback.accept(messageDTO);
+            } catch (RuntimeException e) {
+                LOGGER.error("Handling incoming message on {} failed.", messageDTO.getTopic(), e);
+            }
+            if (overflowPolicy == SubscriptionOverflowPolicy.BACKPRESSURE) {
+                subscription.request(1);
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * On a {@link BoundedExecutor} the drainer is scheduled exempt from its capacity and rejection policy, so it never
+     * runs on the client's event loop and is never discarded, which would stop a backpressured stream for good.
+     */
+    private void schedule() {
+        try {
+            if (executor instanceof BoundedExecutor boundedExecutor) {
+                boundedExecutor.executeExempt(this);
+            } else {
+                executor.execute(this);
+            }
+        } catch (RejectedExecutionException e) {
+            // shut down, still the only drainer, so the order is kept
+            run();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        LOGGER.debug("Subscription stream ended with an error.", t);
+    }
+
+    @Override
+    public void onComplete() {
+        LOGGER.debug("Subscription stream completed.");
+    }
+
+    /**
+     * Stops the delivery and drops the buffered messages.
+     */
+    void cancel() {
+        Subscription current;
+        synchronized (this) {
+            cancelled = true;
+            queue.clear();
+            latest.clear();
+            current = subscription;
+        }
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
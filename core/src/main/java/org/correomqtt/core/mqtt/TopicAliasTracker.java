@@ -0,0 +1,67 @@
+package org.correomqtt.core.mqtt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Estimates the outgoing topic aliases of an MQTT 5 connection with a least recently used table of the size negotiated
+ * in the CONNACK. A topic that is in the table counts as sent as an alias only, a new topic takes the alias of the least
+ * recently used one. The MQTT client assigns the aliases on the wire itself and does not expose them, so this is a
+ * model of its behavior, not a record of the packets sent.
+ */
+class TopicAliasTracker {
+
+    // topic alias property: identifier byte and two byte alias
+    static final int ALIAS_PROPERTY_SIZE = 3;
+
+    private final LinkedHashMap<String, Integer> aliases = new LinkedHashMap<>(16, 0.75f, true);
+    private int maximum;
+
+    /**
+     * Starts over with an empty table, aliases are only valid for one network connection.
+     *
+     * @param maximum Aliases the broker accepts, 0 disables them.
+     */
+    synchronized void reset(int maximum) {
+        this.maximum = maximum;
+        aliases.clear();
+    }
+
+    /**
+     * @return True, if the topic already has an alias and is estimated not to be sent.
+     */
+    synchronized boolean onPublish(String topic) {
+        if (maximum == 0) {
+            return false;
+        }
+        if (aliases.get(topic) != null) {
+            return true;
+        }
+        int alias;
+        if (aliases.size() < maximum) {
+            alias = aliases.size() + 1;
+        } else {
+            Iterator<Integer> eldest = aliases.values().iterator();
+            alias = eldest.next();
+            eldest.remove();
+        }
+        aliases.put(topic, alias);
+        return false;
+    }
+
+    synchronized int getMaximum() {
+        return maximum;
+    }
+
+    synchronized int getActive() {
+        return aliases.size();
+    }
+
+    /**
+     * @return Bytes saved on the wire by sending the topic as an alias, negative for assigning a new alias.
+     */
+    static int savedBytes(String topic, boolean hit) {
+        return hit ? topic.getBytes(StandardCharsets.UTF_8).length - ALIAS_PROPERTY_SIZE : -ALIAS_PROPERTY_SIZE;
+    }
+}
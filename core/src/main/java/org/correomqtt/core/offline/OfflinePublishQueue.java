@@ -0,0 +1,308 @@
+package org.correomqtt.core.offline;
+
+import org.correomqtt.core.exception.CorreoMqttOfflineQueueFullException;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.MessageType;
+import org.correomqtt.core.model.Qos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Append-only queue of outgoing messages in a memory-mapped file, so messages published while the broker is not
+ * reachable survive a restart of the application.
+ * <p>
+ * The file starts with a header holding the position of the first unacknowledged entry. Entries are
+ * {@code [int length][long enqueued at][byte qos][byte retained][int topic length][topic][int id length][id][payload]}
+ * and are followed by a zero length, which ends the scan when the file is opened again. The length of an entry is
+ * written last, so a torn write is never read back.
+ * <p>
+ * Entries are handed out for sending with {@link #next()} and removed in the same order with {@link #commit(Entry)}.
+ * Entries that were handed out but not committed are handed out again after {@link #stopDraining()}. Before the file
+ * grows, the committed entries at its start are reclaimed, also while draining.
+ */
+public class OfflinePublishQueue implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OfflinePublishQueue.class);
+
+    private static final int MAGIC = 0x436F5251;
+    private static final int HEADER_SIZE = 16;
+    private static final int HEAD_POSITION = 8;
+    private static final int ENTRY_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final int COMPACT_CHUNK_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final int maxSize;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    // first entry not committed yet
+    private int head;
+    // next entry to hand out by next()
+    private int sendPosition;
+    // end of the last entry
+    private int tail;
+    private int size;
+    private boolean draining;
+    // bytes the entries were moved towards the start of the file, handed out entries carry positions including it
+    private long compacted;
+
+    /**
+     * Opens the queue and restores the entries of a previous run.
+     *
+     * @param maxSize Maximum size of the file in bytes.
+     */
+    public OfflinePublishQueue(Path path, long maxSize) throws IOException {
+        this.path = path;
+        this.maxSize = (int) Math.min(Integer.MAX_VALUE, Math.max(maxSize, INITIAL_CAPACITY));
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(this.maxSize, Math.max(fileSize, INITIAL_CAPACITY)));
+        if (fileSize >= HEADER_SIZE && buffer.getInt(0) == MAGIC) {
+            restore();
+        } else {
+            if (fileSize > 0) {
+                LOGGER.warn("Offline queue {} is not readable, starting with an empty queue.", path);
+            }
+            buffer.putInt(0, MAGIC);
+            reset();
+        }
+    }
+
+    private void restore() {
+        head = (int) buffer.getLong(HEAD_POSITION);
+        int position = head;
+        while (position + ENTRY_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || (long) position + ENTRY_HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            position += ENTRY_HEADER_SIZE + length;
+            size++;
+        }
+        tail = position;
+        sendPosition = head;
+        if (size > 0) {
+            LOGGER.info("Restored {} messages from offline queue {}.", size, path);
+        }
+    }
+
+    private void reset() {
+        head = HEADER_SIZE;
+        sendPosition = HEADER_SIZE;
+        tail = HEADER_SIZE;
+        size = 0;
+        buffer.putLong(HEAD_POSITION, head);
+        buffer.putInt(tail, 0);
+    }
+
+    /**
+     * Queues the message if the connection is down or earlier messages are still waiting, so messages never overtake
+     * each other.
+     *
+     * @return True, if the message was queued and must not be sent directly.
+     * @throws CorreoMqttOfflineQueueFullException If the message does not fit into the maximum size.
+     */
+    public synchronized boolean offer(MessageDTO messageDTO, boolean connected) {
+        if (connected && !draining && size == 0) {
+            return false;
+        }
+        append(messageDTO, System.currentTimeMillis());
+        return true;
+    }
+
+    private void append(MessageDTO messageDTO, long enqueuedAt) {
+        byte[] topic = messageDTO.getTopic().getBytes(StandardCharsets.UTF_8);
+        byte[] messageId = messageDTO.getMessageId() == null ? new byte[0] : messageDTO.getMessageId().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = messageDTO.getPayloadBuffer();
+        int payloadLength = payload == null ? 0 : payload.remaining();
+        long length = 2L + Integer.BYTES + topic.length + Integer.BYTES + messageId.length + payloadLength;
+        // room for the terminating zero length
+        ensureCapacity(ENTRY_HEADER_SIZE + length + Integer.BYTES);
+        long end = tail + ENTRY_HEADER_SIZE + length;
+
+        buffer.putInt((int) end, 0);
+        ByteBuffer entry = buffer.duplicate().position(tail + Integer.BYTES);
+        entry.putLong(enqueuedAt)
+                .put((byte) messageDTO.getQos().ordinal())
+                .put((byte) (messageDTO.isRetained() ? 1 : 0))
+                .putInt(topic.length)
+                .put(topic)
+                .putInt(messageId.length)
+                .put(messageId);
+        if (payload != null) {
+            entry.put(payload);
+        }
+        buffer.putInt(tail, (int) length);
+        tail = (int) end;
+        size++;
+    }
+
+    /**
+     * Makes room for the given number of bytes after the last entry.
+     */
+    private void ensureCapacity(long bytes) {
+        if (tail + bytes <= buffer.capacity()) {
+            return;
+        }
+        if (head > HEADER_SIZE) {
+            compact();
+            if (tail + bytes <= buffer.capacity()) {
+                return;
+            }
+        }
+        long required = tail + bytes;
+        if (required > maxSize) {
+            throw new CorreoMqttOfflineQueueFullException(size);
+        }
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(maxSize, Math.max(required, 2L * buffer.capacity())));
+        } catch (IOException e) {
+            throw new CorreoMqttOfflineQueueFullException(size, e);
+        }
+    }
+
+    /**
+     * Moves the entries to the start of the file. Only committed entries are overwritten, as the head is never behind
+     * the send position.
+     */
+    private void compact() {
+        int shift = head - HEADER_SIZE;
+        byte[] chunk = new byte[Math.min(COMPACT_CHUNK_SIZE, tail - head)];
+        // the target is before the source, so copying front to back never overwrites unread bytes
+        for (int position = head; position < tail; position += chunk.length) {
+            int length = Math.min(chunk.length, tail - position);
+            buffer.get(position, chunk, 0, length);
+            buffer.put(position - shift, chunk, 0, length);
+        }
+        tail -= shift;
+        buffer.putInt(tail, 0);
+        head = HEADER_SIZE;
+        sendPosition -= shift;
+        compacted += shift;
+        buffer.putLong(HEAD_POSITION, head);
+    }
+
+    /**
+     * @return False, if the queue is drained already.
+     */
+    public synchronized boolean startDraining() {
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    /**
+     * Ends draining if there is nothing left, otherwise draining goes on.
+     *
+     * @return True, if draining ended.
+     */
+    public synchronized boolean stopDrainingIfEmpty() {
+        if (size > 0) {
+            return false;
+        }
+        draining = false;
+        return true;
+    }
+
+    /**
+     * Ends draining. Entries handed out but not committed are handed out again on the next drain.
+     */
+    public synchronized void stopDraining() {
+        draining = false;
+        sendPosition = head;
+    }
+
+    /**
+     * @return The next entry to send or null, if all entries are handed out.
+     */
+    public synchronized Entry next() {
+        if (sendPosition >= tail) {
+            return null;
+        }
+        int position = sendPosition;
+        ByteBuffer entry = buffer.duplicate().position(position);
+        int length = entry.getInt();
+        long enqueuedAt = entry.getLong();
+        Qos qos = Qos.values()[entry.get()];
+        boolean retained = entry.get() == 1;
+        byte[] topic = new byte[entry.getInt()];
+        entry.get(topic);
+        byte[] messageId = new byte[entry.getInt()];
+        entry.get(messageId);
+        int end = position + ENTRY_HEADER_SIZE + length;
+        byte[] payload = new byte[end - entry.position()];
+        entry.get(payload);
+        sendPosition = end;
+
+        MessageDTO messageDTO = MessageDTO.builder()
+                .topic(new String(topic, StandardCharsets.UTF_8))
+                .qos(qos)
+                .isRetained(retained)
+                .messageId(messageId.length == 0 ? null : new String(messageId, StandardCharsets.UTF_8))
+                .messageType(MessageType.OUTGOING)
+                .dateTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(enqueuedAt), ZoneOffset.UTC))
+                .build();
+        messageDTO.setPayloadBytes(payload);
+        return new Entry(messageDTO, compacted + position, compacted + end);
+    }
+
+    /**
+     * Removes the oldest entry, which must be the given one.
+     */
+    public synchronized void commit(Entry entry) {
+        long position = entry.position() - compacted;
+        if (position != head) {
+            throw new IllegalStateException("Entries must be committed in order, expected " + head + " but was " + position);
+        }
+        size--;
+        if (size == 0 && sendPosition == tail) {
+            reset();
+        } else {
+            head = (int) (entry.end() - compacted);
+            buffer.putLong(HEAD_POSITION, head);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return Epoch millis when the oldest entry was queued or 0, if the queue is empty.
+     */
+    public synchronized long getOldestTimestamp() {
+        return size == 0 ? 0 : buffer.getLong(head + Integer.BYTES);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to close offline queue {}", path, e);
+        }
+    }
+
+    /**
+     * A queued message and its place in the queue, which stays valid when the file is compacted.
+     */
+    public record Entry(MessageDTO messageDTO, long position, long end) {
+    }
+}
@@ -0,0 +1,59 @@
+package org.correomqtt.core.offline;
+
+import org.correomqtt.core.applifecycle.ShutdownEvent;
+import org.correomqtt.core.model.SettingsDTO;
+import org.correomqtt.core.settings.SettingsManager;
+import org.correomqtt.core.utils.DirectoryUtils;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.Observes;
+import org.correomqtt.di.SingletonBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opens one {@link OfflinePublishQueue} per connection in the folder {@value #QUEUE_FOLDER_NAME} of the config
+ * directory. The queues outlive the clients of a connection, so a reconnect with a new client continues the queue.
+ */
+@SingletonBean
+public class OfflineQueueRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OfflineQueueRegistry.class);
+
+    private static final String QUEUE_FOLDER_NAME = "queues";
+
+    private final Map<String, OfflinePublishQueue> queues = new HashMap<>();
+    private final SettingsManager settingsManager;
+
+    @Inject
+    public OfflineQueueRegistry(SettingsManager settingsManager) {
+        this.settingsManager = settingsManager;
+    }
+
+    /**
+     * @throws UncheckedIOException If the queue file can not be opened.
+     */
+    public synchronized OfflinePublishQueue forConnection(String connectionId) {
+        return queues.computeIfAbsent(connectionId, id -> {
+            Path path = Path.of(DirectoryUtils.getTargetDirectoryPath(), QUEUE_FOLDER_NAME, id + ".queue");
+            SettingsDTO settings = settingsManager.getSettings();
+            try {
+                return new OfflinePublishQueue(path, settings.getOfflineQueueMaxSize());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to open offline queue " + path, e);
+            }
+        });
+    }
+
+    @Observes(ShutdownEvent.class)
+    public synchronized void onShutdown() {
+        queues.values().forEach(OfflinePublishQueue::close);
+        queues.clear();
+        LOGGER.info("Closed offline queues.");
+    }
+}
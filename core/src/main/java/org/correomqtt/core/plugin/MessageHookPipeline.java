@@ -0,0 +1,195 @@
+package org.correomqtt.core.plugin;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.plugin.model.MessageExtensionDTO;
+import org.correomqtt.core.plugin.spi.IncomingMessageHook;
+import org.correomqtt.core.plugin.spi.IncomingMessageHookDTO;
+import org.correomqtt.core.plugin.spi.OutgoingMessageHook;
+import org.correomqtt.core.plugin.spi.OutgoingMessageHookDTO;
+import org.correomqtt.core.transformer.MessageExtensionTransformer;
+import org.correomqtt.core.utils.TopicFilterTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Precompiled chain of incoming and outgoing message hooks.
+ * <p>
+ * Extensions are resolved, configured and their topic filters are parsed exactly once when the pipeline is built.
+ * Executing the pipeline for a message only looks up the matching hooks in a topic filter trie and calls them.
+ */
+public class MessageHookPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageHookPipeline.class);
+
+    private static final MessageHookPipeline EMPTY = compile(List.of(), List.of());
+
+    private final HookChain<IncomingMessageHook<?>> incomingHooks;
+    private final HookChain<OutgoingMessageHook<?>> outgoingHooks;
+
+    /**
+     * Hooks of one direction in configured order. Hooks without topic filter match every topic, all others are
+     * indexed by their position in a {@link TopicFilterTrie}, so finding the matching hooks does not depend on the
+     * number of filters. The trie returns the positions in ascending order, as they are added in that order.
+     */
+    private record HookChain<H>(List<H> hooks,
+                                List<H> unfilteredHooks,
+                                int[] unfilteredPositions,
+                                TopicFilterTrie<Integer> filteredPositions) {
+
+        static <H> HookChain<H> of(List<H> hooks, Function<H, List<String>> topicFilters) {
+            List<H> unfilteredHooks = new ArrayList<>();
+            List<Integer> unfilteredPositions = new ArrayList<>();
+            TopicFilterTrie<Integer> filteredPositions = new TopicFilterTrie<>();
+            for (int position = 0; position < hooks.size(); position++) {
+                H hook = hooks.get(position);
+                List<String> filters = topicFilters.apply(hook);
+                if (filters == null) {
+                    unfilteredHooks.add(hook);
+                    unfilteredPositions.add(position);
+                } else {
+                    for (String filter : filters) {
+                        filteredPositions.add(filter, position);
+                    }
+                }
+            }
+            return new HookChain<>(hooks,
+                    unfilteredHooks,
+                    unfilteredPositions.stream().mapToInt(Integer::intValue).toArray(),
+                    filteredPositions);
+        }
+
+        boolean isEmpty() {
+            return hooks.isEmpty();
+        }
+
+        /**
+         * Merges the positions of the unfiltered and the matching filtered hooks, which are both ascending.
+         */
+        List<H> match(String topic) {
+            List<Integer> filtered = filteredPositions.match(topic);
+            if (filtered.isEmpty()) {
+                return unfilteredHooks;
+            }
+            List<H> matched = new ArrayList<>(unfilteredPositions.length + filtered.size());
+            int unfiltered = 0;
+            int next = 0;
+            while (unfiltered < unfilteredPositions.length || next < filtered.size()) {
+                if (next == filtered.size()
+                        || (unfiltered < unfilteredPositions.length && unfilteredPositions[unfiltered] < filtered.get(next))) {
+                    matched.add(hooks.get(unfilteredPositions[unfiltered++]));
+                } else {
+                    matched.add(hooks.get(filtered.get(next++)));
+                }
+            }
+            return matched;
+        }
+    }
+
+    MessageHookPipeline(HookChain<IncomingMessageHook<?>> incomingHooks,
+                        HookChain<OutgoingMessageHook<?>> outgoingHooks) {
+        this.incomingHooks = incomingHooks;
+        this.outgoingHooks = outgoingHooks;
+    }
+
+    public static MessageHookPipeline empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles the given hooks. Hooks that are disabled by their config are dropped here, so they cost nothing later on.
+     */
+    public static MessageHookPipeline compile(List<? extends IncomingMessageHook<?>> incomingHooks,
+                                              List<? extends OutgoingMessageHook<?>> outgoingHooks) {
+        List<IncomingMessageHook<?>> enabledIncoming = incomingHooks.stream()
+                .filter(hook -> {
+                    IncomingMessageHookDTO config = hook.getConfig();
+                    return config != null && config.isEnableIncoming();
+                })
+                .collect(Collectors.toList());
+        List<OutgoingMessageHook<?>> enabledOutgoing = outgoingHooks.stream()
+                .filter(hook -> {
+                    OutgoingMessageHookDTO config = hook.getConfig();
+                    return config != null && config.isEnableOutgoing();
+                })
+                .collect(Collectors.toList());
+        return new MessageHookPipeline(
+                HookChain.of(enabledIncoming, hook -> hook.getConfig().getIncomingTopicFilter()),
+                HookChain.of(enabledOutgoing, hook -> hook.getConfig().getOutgoingTopicFilter()));
+    }
+
+    public MessageDTO executeIncoming(String connectionId, MessageDTO messageDTO, Marker marker) {
+        if (incomingHooks.isEmpty()) {
+            return messageDTO;
+        }
+        return execute(incomingHooks, messageDTO, marker, "incoming",
+                (hook, message) -> hook.onMessageIncoming(connectionId, message));
+    }
+
+    public MessageDTO executeOutgoing(String connectionId, MessageDTO messageDTO, Marker marker) {
+        if (outgoingHooks.isEmpty()) {
+            return messageDTO;
+        }
+        return execute(outgoingHooks, messageDTO, marker, "outgoing",
+                (hook, message) -> hook.onPublishMessage(connectionId, message));
+    }
+
+    /**
+     * Runs the outgoing hooks for a batch of messages. Matching hooks are looked up once per distinct topic and
+     * logged once for the whole batch.
+     */
+    public List<MessageDTO> executeOutgoing(String connectionId, List<MessageDTO> messages, Marker marker) {
+        if (outgoingHooks.isEmpty()) {
+            return messages;
+        }
+        Map<String, List<OutgoingMessageHook<?>>> hooksByTopic = new HashMap<>();
+        List<MessageDTO> result = new ArrayList<>(messages.size());
+        int manipulated = 0;
+        for (MessageDTO messageDTO : messages) {
+            List<OutgoingMessageHook<?>> matchingHooks = hooksByTopic.computeIfAbsent(messageDTO.getTopic(), outgoingHooks::match);
+            if (matchingHooks.isEmpty()) {
+                result.add(messageDTO);
+            } else {
+                manipulated++;
+                result.add(apply(matchingHooks, messageDTO, (hook, message) -> hook.onPublishMessage(connectionId, message)));
+            }
+        }
+        if (manipulated > 0) {
+            LOGGER.info(marker, "[HOOK] Manipulated {} of {} outgoing messages on {} topics", manipulated, messages.size(), hooksByTopic.size());
+        }
+        return result;
+    }
+
+    private static <H> MessageDTO execute(HookChain<H> hooks,
+                                          MessageDTO messageDTO,
+                                          Marker marker,
+                                          String direction,
+                                          BiFunction<H, MessageExtensionDTO, MessageExtensionDTO> invoker) {
+        List<H> matchingHooks = hooks.match(messageDTO.getTopic());
+        if (matchingHooks.isEmpty()) {
+            return messageDTO;
+        }
+        for (H hook : matchingHooks) {
+            LOGGER.info(marker, "[HOOK] Manipulated {} message on {} with {}", direction, messageDTO.getTopic(), hook.getClass().getName());
+        }
+        return apply(matchingHooks, messageDTO, invoker);
+    }
+
+    private static <H> MessageDTO apply(List<H> matchingHooks,
+                                        MessageDTO messageDTO,
+                                        BiFunction<H, MessageExtensionDTO, MessageExtensionDTO> invoker) {
+        MessageExtensionDTO messageExtensionDTO = new MessageExtensionDTO(messageDTO);
+        for (H hook : matchingHooks) {
+            messageExtensionDTO = invoker.apply(hook, messageExtensionDTO);
+        }
+        return MessageExtensionTransformer.mergeDTO(messageExtensionDTO, messageDTO);
+    }
+}
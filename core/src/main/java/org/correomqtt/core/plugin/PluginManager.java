@@ -16,6 +16,7 @@ import org.correomqtt.core.plugin.spi.MessageValidatorHook;
 import org.correomqtt.core.plugin.spi.OutgoingMessageHook;
 import org.correomqtt.core.plugin.transformer.PluginInfoTransformer;
 import org.correomqtt.core.settings.SettingsManager;
+import org.correomqtt.core.utils.TopicFilterTrie;
 import org.correomqtt.core.utils.VendorConstants;
 import org.correomqtt.core.utils.VersionUtils;
 import org.correomqtt.di.Inject;
@@ -24,6 +25,7 @@ import org.pf4j.DefaultExtensionFactory;
 import org.pf4j.ExtensionFactory;
 import org.pf4j.JarPluginManager;
 import org.pf4j.PluginState;
+import org.pf4j.PluginStateEvent;
 import org.pf4j.PluginWrapper;
 import org.pf4j.update.UpdateManager;
 import org.pf4j.update.UpdateRepository;
@@ -49,9 +51,20 @@ public class PluginManager extends JarPluginManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PluginManager.class);
     public static final String DEFAULT_REPO_ID = "default";
+    private static final ObjectMapper CONFIG_MAPPER = new ObjectMapper();
     private final SettingsManager settings;
     private final PluginConfigProvider pluginConfigProvider;
     private BundledPluginList.BundledPlugins bundledPlugins;
+    private volatile CompiledPipeline compiledPipeline;
+    private volatile long pluginsRevision;
+
+    private volatile ValidatorIndex validatorIndex;
+
+    private record CompiledPipeline(MessageHookPipeline pipeline, long hooksRevision, long pluginsRevision) {
+    }
+
+    private record ValidatorIndex(TopicFilterTrie<HooksDTO.MessageValidator> validators, long hooksRevision) {
+    }
 
 
     @Inject
@@ -157,6 +170,52 @@ public class PluginManager extends JarPluginManager {
         return new UpdateManager(this, repos);
     }
 
+    /**
+     * Returns the compiled hook pipeline. The pipeline is built once and reused for every message until the hooks
+     * configuration is reloaded or the set of plugins changes.
+     */
+    public MessageHookPipeline getMessageHookPipeline() {
+        CompiledPipeline compiled = compiledPipeline;
+        if (compiled != null && isCurrent(compiled)) {
+            return compiled.pipeline();
+        }
+        return compileMessageHookPipeline();
+    }
+
+    private boolean isCurrent(CompiledPipeline compiled) {
+        return compiled.hooksRevision() == pluginConfigProvider.getHooksRevision()
+                && compiled.pluginsRevision() == pluginsRevision;
+    }
+
+    private synchronized MessageHookPipeline compileMessageHookPipeline() {
+        CompiledPipeline compiled = compiledPipeline;
+        if (compiled != null && isCurrent(compiled)) {
+            return compiled.pipeline();
+        }
+        long hooksRevision = pluginConfigProvider.getHooksRevision();
+        long currentPluginsRevision = pluginsRevision;
+        LOGGER.debug("Compile message hook pipeline (hooks revision {}, plugins revision {})", hooksRevision, currentPluginsRevision);
+        MessageHookPipeline pipeline = MessageHookPipeline.compile(getIncomingMessageHooks(), getOutgoingMessageHooks());
+        compiledPipeline = new CompiledPipeline(pipeline, hooksRevision, currentPluginsRevision);
+        return pipeline;
+    }
+
+    public synchronized void invalidateMessageHookPipeline() {
+        pluginsRevision++;
+    }
+
+    @Override
+    protected synchronized void firePluginStateEvent(PluginStateEvent event) {
+        invalidateMessageHookPipeline();
+        super.firePluginStateEvent(event);
+    }
+
+    @Override
+    protected boolean unloadPlugin(String pluginId, boolean unloadDependents) {
+        invalidateMessageHookPipeline();
+        return super.unloadPlugin(pluginId, unloadDependents);
+    }
+
     public List<? extends OutgoingMessageHook<?>> getOutgoingMessageHooks() {
         return pluginConfigProvider.getOutgoingMessageHooks()
                 .stream()
@@ -194,10 +253,13 @@ public class PluginManager extends JarPluginManager {
     }
 
 
+    /**
+     * Returns the validators whose configured topic matches the given topic. Validator topics may contain wildcards.
+     */
     public List<MessageValidatorHook<?>> getMessageValidators(String topic) {
-        return pluginConfigProvider.getMessageValidators()
+        return getValidatorIndex().validators()
+                .match(topic)
                 .stream()
-                .filter(validatorDefinition -> validatorDefinition.getTopic().equals(topic))
                 .map(validatorDefinition -> validatorDefinition.getExtensions().stream()
                         .map(extensionDefinition -> {
                             String pluginId = extensionDefinition.getPluginId();
@@ -215,11 +277,30 @@ public class PluginManager extends JarPluginManager {
                 .collect(Collectors.toList());
     }
 
+    private ValidatorIndex getValidatorIndex() {
+        ValidatorIndex index = validatorIndex;
+        long hooksRevision = pluginConfigProvider.getHooksRevision();
+        if (index != null && index.hooksRevision() == hooksRevision) {
+            return index;
+        }
+        TopicFilterTrie<HooksDTO.MessageValidator> validators = new TopicFilterTrie<>();
+        for (HooksDTO.MessageValidator validatorDefinition : pluginConfigProvider.getMessageValidators()) {
+            try {
+                validators.add(validatorDefinition.getTopic(), validatorDefinition);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Topic {} in messageValidators is not a valid topic filter: {}", validatorDefinition.getTopic(), e.getMessage());
+            }
+        }
+        index = new ValidatorIndex(validators, hooksRevision);
+        validatorIndex = index;
+        return index;
+    }
+
     public <T> void enrichExtensionWithConfig(BaseExtensionPoint<T> extension, JsonNode configNode) {
         try {
             Class<T> configClass = extension.getConfigClass();
             if (configClass != null) {
-                extension.onConfigReceived(new ObjectMapper().treeToValue(configNode, configClass));
+                extension.onConfigReceived(CONFIG_MAPPER.treeToValue(configNode, configClass));
             }
         } catch (JsonProcessingException e) {
             LOGGER.error("Exception parsing plugin configuration object for {}", extension.getConfigClass());
@@ -1,5 +1,6 @@
 package org.correomqtt.core.plugin.marketplace;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -21,9 +22,10 @@ public class PluginInstallTask extends SimpleTask {
     @Inject
     public PluginInstallTask(PluginManager pluginManager,
                              SoyEvents soyEvents,
+                             CorreoExecutors executors,
                              @Assisted("pluginId") String pluginId,
                              @Assisted("version") String version) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.pluginManager = pluginManager;
         this.soyEvents = soyEvents;
         this.pluginId = pluginId;
@@ -1,5 +1,6 @@
 package org.correomqtt.core.plugin.marketplace;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -20,8 +21,9 @@ public class PluginUninstallTask extends SimpleTask {
     @Inject
     public PluginUninstallTask(PluginManager pluginManager,
                                SoyEvents soyEvents,
+                               CorreoExecutors executors,
                                @Assisted String pluginId) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.pluginManager = pluginManager;
         this.soyEvents = soyEvents;
         this.pluginId = pluginId;
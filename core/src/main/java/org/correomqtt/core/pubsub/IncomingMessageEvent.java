@@ -2,7 +2,7 @@ package org.correomqtt.core.pubsub;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import org.correomqtt.di.Event;
+import org.correomqtt.di.DroppableEvent;
 import org.correomqtt.di.ObservesFilter;
 import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.model.SubscriptionDTO;
@@ -11,7 +11,7 @@ import static org.correomqtt.core.events.ObservesFilterNames.CONNECTION_ID;
 
 @AllArgsConstructor
 @Getter
-public class IncomingMessageEvent implements Event {
+public class IncomingMessageEvent implements DroppableEvent {
     private String connectionId;
     private MessageDTO messageDTO;
     private SubscriptionDTO subscriptionDTO;
@@ -9,14 +9,17 @@ import org.correomqtt.di.Inject;
 public class PubSubTaskFactories {
 
     private final PublishTaskFactory publishFactory;
+    private final PublishBatchTaskFactory publishBatchFactory;
     private final SubscribeTaskFactory subscribeFactory;
     private final UnsubscribeTaskFactory unsubscribeFactory;
 
     @Inject
     public PubSubTaskFactories(PublishTaskFactory publishFactory,
+                               PublishBatchTaskFactory publishBatchFactory,
                                SubscribeTaskFactory subscribeFactory,
                                UnsubscribeTaskFactory unsubscribeFactory) {
         this.publishFactory = publishFactory;
+        this.publishBatchFactory = publishBatchFactory;
         this.subscribeFactory = subscribeFactory;
         this.unsubscribeFactory = unsubscribeFactory;
     }
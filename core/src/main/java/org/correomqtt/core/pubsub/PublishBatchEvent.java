@@ -0,0 +1,26 @@
+package org.correomqtt.core.pubsub;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.di.Event;
+import org.correomqtt.di.ObservesFilter;
+
+import java.util.List;
+
+import static org.correomqtt.core.events.ObservesFilterNames.CONNECTION_ID;
+
+/**
+ * Published messages of a {@link PublishBatchTask}, fired once instead of a {@link PublishEvent} per message.
+ */
+@AllArgsConstructor
+@Getter
+public class PublishBatchEvent implements Event {
+    private String connectionId;
+    private List<MessageDTO> messages;
+
+    @ObservesFilter(CONNECTION_ID)
+    public String getConnectionId() {
+        return connectionId;
+    }
+}
@@ -0,0 +1,172 @@
+package org.correomqtt.core.pubsub;
+
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
+import org.correomqtt.core.concurrent.SimpleTask;
+import org.correomqtt.core.concurrent.SimpleTaskErrorResult;
+import org.correomqtt.core.concurrent.TaskException;
+import org.correomqtt.core.metrics.ConnectionMetrics;
+import org.correomqtt.core.metrics.MetricsRegistry;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.PublishStatus;
+import org.correomqtt.core.mqtt.CorreoMqttClient;
+import org.correomqtt.core.plugin.PluginManager;
+import org.correomqtt.core.utils.ConnectionManager;
+import org.correomqtt.core.utils.LoggerUtils;
+import org.correomqtt.di.Assisted;
+import org.correomqtt.di.DefaultBean;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.SoyEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes many messages at once. Outgoing hooks are resolved once for the batch, the messages are pipelined over
+ * the async client and all messages acknowledged in time are reported with a single {@link PublishBatchEvent}. Messages
+ * still in flight after the timeout are reported on their own once they complete.
+ */
+@DefaultBean
+public class PublishBatchTask extends SimpleTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PublishBatchTask.class);
+
+    // maximum time to wait for a message, before the rest of the batch is reported as it completes
+    private static final int PROGRESS_TIMEOUT_SECONDS = 10;
+
+    private final PluginManager pluginManager;
+    private final ConnectionManager connectionManager;
+    private final LoggerUtils loggerUtils;
+    private final SoyEvents soyEvents;
+    private final ConnectionMetrics metrics;
+    private final String connectionId;
+    private final List<MessageDTO> messages;
+    private boolean failuresReported;
+
+    @Inject
+    PublishBatchTask(PluginManager pluginManager,
+                     ConnectionManager connectionManager,
+                     LoggerUtils loggerUtils,
+                     SoyEvents soyEvents,
+                     CorreoExecutors executors,
+                     MetricsRegistry metricsRegistry,
+                     @Assisted String connectionId,
+                     @Assisted List<MessageDTO> messages) {
+        super(soyEvents, executors);
+        this.pluginManager = pluginManager;
+        this.connectionManager = connectionManager;
+        this.loggerUtils = loggerUtils;
+        this.soyEvents = soyEvents;
+        this.connectionId = connectionId;
+        this.messages = messages;
+        this.metrics = metricsRegistry.forConnection(connectionId);
+    }
+
+    @Override
+    protected void execute() {
+        Marker marker = loggerUtils.getConnectionMarker(connectionId);
+        LOGGER.info(marker, "Start publishing batch of {} messages.", messages.size());
+        CorreoMqttClient client = connectionManager.getClient(connectionId);
+        long hookStart = System.nanoTime();
+        List<MessageDTO> manipulatedMessages = pluginManager.getMessageHookPipeline()
+                .executeOutgoing(connectionId, messages, marker);
+        metrics.recordHookTime(System.nanoTime() - hookStart);
+        long publishStart = System.nanoTime();
+        manipulatedMessages.forEach(messageDTO -> metrics.publishStarted(messageDTO.getQos()));
+        List<CompletableFuture<MessageDTO>> futures = client.publishBatch(manipulatedMessages);
+        for (int i = 0; i < futures.size(); i++) {
+            MessageDTO messageDTO = manipulatedMessages.get(i);
+            futures.get(i).whenComplete((result, t) -> {
+                if (t == null && result.getPublishStatus() == PublishStatus.QUEUED) {
+                    metrics.publishQueued(messageDTO.getQos());
+                } else if (t == null) {
+                    metrics.publishSucceeded(messageDTO, publishStart);
+                } else {
+                    metrics.publishFailed(messageDTO.getQos());
+                }
+            });
+        }
+
+        List<MessageDTO> published = new ArrayList<>(futures.size());
+        List<MessageDTO> queued = new ArrayList<>();
+        List<MessageDTO> failed = new ArrayList<>();
+        int pending = 0;
+        Exception firstError = null;
+        boolean stalled = false;
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<MessageDTO> future = futures.get(i);
+            MessageDTO messageDTO = manipulatedMessages.get(i);
+            if (stalled && !future.isDone()) {
+                reportWhenDone(messageDTO, future);
+                pending++;
+                continue;
+            }
+            try {
+                MessageDTO result = future.get(PROGRESS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (result.getPublishStatus() == PublishStatus.QUEUED) {
+                    queued.add(result);
+                } else {
+                    published.add(result);
+                }
+            } catch (InterruptedException | TimeoutException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                // not failed, the broker may still acknowledge it
+                stalled = true;
+                reportWhenDone(messageDTO, future);
+                pending++;
+            } catch (ExecutionException e) {
+                failed.add(messageDTO);
+                if (firstError == null) {
+                    firstError = e;
+                }
+            }
+        }
+
+        if (!published.isEmpty()) {
+            soyEvents.fireAsync(new PublishBatchEvent(connectionId, published));
+        }
+        queued.forEach(messageDTO -> soyEvents.fireAsync(new PublishQueuedEvent(connectionId, messageDTO)));
+        failed.forEach(messageDTO -> soyEvents.fireAsync(new PublishFailedEvent(connectionId, messageDTO)));
+        failuresReported = true;
+        LOGGER.info(marker, "Published {}, queued {} and still waiting for {} of {} messages.", published.size(), queued.size(), pending, messages.size());
+        if (firstError != null) {
+            throw new TaskException(firstError);
+        }
+    }
+
+    /**
+     * Reports a message still in flight once its outcome is known, instead of holding up the batch.
+     */
+    private void reportWhenDone(MessageDTO messageDTO, CompletableFuture<MessageDTO> future) {
+        future.whenComplete((result, t) -> {
+            if (t != null) {
+                soyEvents.fireAsync(new PublishFailedEvent(connectionId, messageDTO));
+            } else if (result.getPublishStatus() == PublishStatus.QUEUED) {
+                soyEvents.fireAsync(new PublishQueuedEvent(connectionId, result));
+            } else {
+                soyEvents.fireAsync(new PublishEvent(connectionId, result));
+            }
+        });
+    }
+
+    @Override
+    protected void errorHook(SimpleTaskErrorResult ignore) {
+        if (!failuresReported) {
+            messages.forEach(messageDTO -> soyEvents.fireAsync(new PublishFailedEvent(connectionId, messageDTO)));
+        }
+    }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.PUBSUB;
+    }
+}
@@ -0,0 +1,24 @@
+package org.correomqtt.core.pubsub;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.correomqtt.di.Event;
+import org.correomqtt.di.ObservesFilter;
+import org.correomqtt.core.model.MessageDTO;
+
+import static org.correomqtt.core.events.ObservesFilterNames.CONNECTION_ID;
+
+/**
+ * The message went to the offline queue. A {@link PublishEvent} follows once it was sent after the reconnect.
+ */
+@AllArgsConstructor
+@Getter
+public class PublishQueuedEvent implements Event {
+    private String connectionId;
+    private MessageDTO messageDTO;
+
+    @ObservesFilter(CONNECTION_ID)
+    public String getConnectionId(){
+        return connectionId;
+    }
+}
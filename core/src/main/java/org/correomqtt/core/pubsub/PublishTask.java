@@ -1,21 +1,20 @@
 package org.correomqtt.core.pubsub;
 
-import com.hivemq.client.mqtt.datatypes.MqttTopic;
-import com.hivemq.client.mqtt.datatypes.MqttTopicFilter;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.concurrent.SimpleTask;
 import org.correomqtt.core.concurrent.SimpleTaskErrorResult;
 import org.correomqtt.core.concurrent.TaskException;
+import org.correomqtt.core.metrics.ConnectionMetrics;
+import org.correomqtt.core.metrics.MetricsRegistry;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.PublishStatus;
 import org.correomqtt.core.mqtt.CorreoMqttClient;
 import org.correomqtt.core.plugin.PluginManager;
-import org.correomqtt.core.plugin.model.MessageExtensionDTO;
-import org.correomqtt.core.plugin.spi.OutgoingMessageHook;
-import org.correomqtt.core.plugin.spi.OutgoingMessageHookDTO;
-import org.correomqtt.core.transformer.MessageExtensionTransformer;
 import org.correomqtt.core.utils.ConnectionManager;
 import org.correomqtt.core.utils.LoggerUtils;
 import org.slf4j.Logger;
@@ -34,6 +33,7 @@ public class PublishTask extends SimpleTask {
     private final ConnectionManager connectionManager;
     private final LoggerUtils loggerUtils;
     private final SoyEvents soyEvents;
+    private final ConnectionMetrics metrics;
     private final String connectionId;
     private final MessageDTO messageDTO;
 
@@ -42,30 +42,48 @@ public class PublishTask extends SimpleTask {
                 ConnectionManager connectionManager,
                 LoggerUtils loggerUtils,
                 SoyEvents soyEvents,
+                CorreoExecutors executors,
+                MetricsRegistry metricsRegistry,
                 @Assisted String connectionId,
                 @Assisted MessageDTO messageDTO) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.pluginManager = pluginManager;
         this.connectionManager = connectionManager;
         this.loggerUtils = loggerUtils;
         this.soyEvents = soyEvents;
         this.connectionId = connectionId;
         this.messageDTO = messageDTO;
+        this.metrics = metricsRegistry.forConnection(connectionId);
     }
 
     @Override
     protected void execute() {
         LOGGER.info(loggerUtils.getConnectionMarker(connectionId), "Start publishing to topic: {}", messageDTO.getTopic());
         CorreoMqttClient client = connectionManager.getClient(connectionId);
+        long hookStart = System.nanoTime();
         MessageDTO manipulatedMessageDTO = executeOnPublishMessageExtensions(connectionId, messageDTO);
+        metrics.recordHookTime(System.nanoTime() - hookStart);
+        long publishStart = metrics.publishStarted(manipulatedMessageDTO.getQos());
         try {
             client.publish(manipulatedMessageDTO);
+            if (manipulatedMessageDTO.getPublishStatus() == PublishStatus.QUEUED) {
+                LOGGER.info(loggerUtils.getConnectionMarker(connectionId), "Queued message to topic {} until the broker is reachable.", messageDTO.getTopic());
+                metrics.publishQueued(manipulatedMessageDTO.getQos());
+                soyEvents.fireAsync(new PublishQueuedEvent(connectionId, manipulatedMessageDTO));
+                return;
+            }
+            metrics.publishSucceeded(manipulatedMessageDTO, publishStart);
             soyEvents.fireAsync(new PublishEvent(connectionId, manipulatedMessageDTO));
         } catch (InterruptedException e) {
+            metrics.publishFailed(manipulatedMessageDTO.getQos());
             Thread.currentThread().interrupt();
             throw new TaskException(e);
         } catch (ExecutionException | TimeoutException e) {
+            metrics.publishFailed(manipulatedMessageDTO.getQos());
             throw new TaskException(e);
+        } catch (RuntimeException e) {
+            metrics.publishFailed(manipulatedMessageDTO.getQos());
+            throw e;
         }
     }
 
@@ -75,20 +93,12 @@ public class PublishTask extends SimpleTask {
     }
 
     private MessageDTO executeOnPublishMessageExtensions(String connectionId, MessageDTO messageDTO) {
-        MessageExtensionDTO messageExtensionDTO = new MessageExtensionDTO(messageDTO);
-        for (OutgoingMessageHook<?> p : pluginManager.getOutgoingMessageHooks()) {
-            OutgoingMessageHookDTO config = p.getConfig();
-            if (config != null && config.isEnableOutgoing() && (config.getOutgoingTopicFilter() == null ||
-                    config.getOutgoingTopicFilter()
-                            .stream()
-                            .anyMatch(tp -> MqttTopicFilter.of(tp)
-                                    .matches(MqttTopic.of(messageDTO.getTopic()))
-                            )
-            )) {
-                LOGGER.info(loggerUtils.getConnectionMarker(connectionId), "[HOOK] Manipulated outgoing message on {} with {}", messageDTO.getTopic(), p.getClass().getName());
-                messageExtensionDTO = p.onPublishMessage(connectionId, messageExtensionDTO);
-            }
-        }
-        return MessageExtensionTransformer.mergeDTO(messageExtensionDTO, messageDTO);
+        return pluginManager.getMessageHookPipeline()
+                .executeOutgoing(connectionId, messageDTO, loggerUtils.getConnectionMarker(connectionId));
+    }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.PUBSUB;
     }
 }
@@ -1,26 +1,22 @@
 package org.correomqtt.core.pubsub;
 
-import com.hivemq.client.mqtt.datatypes.MqttTopic;
-import com.hivemq.client.mqtt.datatypes.MqttTopicFilter;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.concurrent.SimpleTask;
 import org.correomqtt.core.concurrent.SimpleTaskErrorResult;
 import org.correomqtt.core.concurrent.TaskException;
+import org.correomqtt.core.metrics.ConnectionMetrics;
+import org.correomqtt.core.metrics.MetricsRegistry;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.model.SubscriptionDTO;
 import org.correomqtt.core.mqtt.CorreoMqttClient;
 import org.correomqtt.core.plugin.PluginManager;
-import org.correomqtt.core.plugin.model.MessageExtensionDTO;
-import org.correomqtt.core.plugin.spi.IncomingMessageHook;
-import org.correomqtt.core.plugin.spi.IncomingMessageHookDTO;
-import org.correomqtt.core.transformer.MessageExtensionTransformer;
 import org.correomqtt.core.utils.ConnectionManager;
 import org.correomqtt.core.utils.LoggerUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
@@ -29,13 +25,11 @@ import java.util.concurrent.TimeoutException;
 @DefaultBean
 public class SubscribeTask extends SimpleTask {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(SubscribeTask.class);
-
-
     private final PluginManager pluginManager;
     private final LoggerUtils loggerUtils;
     private final ConnectionManager connectionManager;
     private final SoyEvents soyEvents;
+    private final ConnectionMetrics metrics;
     private final String connectionId;
     private final SubscriptionDTO subscriptionDTO;
 
@@ -44,15 +38,18 @@ public class SubscribeTask extends SimpleTask {
                   ConnectionManager connectionManager,
                   LoggerUtils loggerUtils,
                   SoyEvents soyEvents,
+                  CorreoExecutors executors,
+                  MetricsRegistry metricsRegistry,
                   @Assisted String connectionId,
                   @Assisted SubscriptionDTO subscriptionDTO) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.pluginManager = pluginManager;
         this.loggerUtils = loggerUtils;
         this.connectionManager = connectionManager;
         this.soyEvents = soyEvents;
         this.connectionId = connectionId;
         this.subscriptionDTO = subscriptionDTO;
+        this.metrics = metricsRegistry.forConnection(connectionId);
     }
 
     @Override
@@ -76,28 +73,21 @@ public class SubscribeTask extends SimpleTask {
     }
 
     private void onIncomingMessage(MessageDTO messageDTO) {
-
+        metrics.recordIncoming(subscriptionDTO.getTopic(), messageDTO);
+        long hookStart = System.nanoTime();
         MessageDTO manipulatedMessageDTO = executeOnMessageIncomingExtensions(messageDTO);
+        metrics.recordHookTime(System.nanoTime() - hookStart);
         soyEvents.fireAsync(new IncomingMessageEvent(connectionId, manipulatedMessageDTO, subscriptionDTO));
     }
 
     private MessageDTO executeOnMessageIncomingExtensions(MessageDTO messageDTO) {
-
         //TODO plugin stuff in business ... bäääh ... solve via EventBus
-        MessageExtensionDTO messageExtensionDTO = new MessageExtensionDTO(messageDTO);
-        for (IncomingMessageHook<?> p : pluginManager.getIncomingMessageHooks()) {
-            IncomingMessageHookDTO config = p.getConfig();
-            if (config != null && config.isEnableIncoming() && (config.getIncomingTopicFilter() == null ||
-                    config.getIncomingTopicFilter()
-                            .stream()
-                            .anyMatch(tp -> MqttTopicFilter.of(tp)
-                                    .matches(MqttTopic.of(messageDTO.getTopic()))
-                            )
-            )) {
-                LOGGER.info(loggerUtils.getConnectionMarker(connectionId), "[HOOK] Manipulated incoming message on {} with {}", messageDTO.getTopic(), p.getClass().getName());
-                messageExtensionDTO = p.onMessageIncoming(connectionId, messageExtensionDTO);
-            }
-        }
-        return MessageExtensionTransformer.mergeDTO(messageExtensionDTO, messageDTO);
+        return pluginManager.getMessageHookPipeline()
+                .executeIncoming(connectionId, messageDTO, loggerUtils.getConnectionMarker(connectionId));
+    }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.PUBSUB;
     }
 }
@@ -1,8 +1,10 @@
 package org.correomqtt.core.pubsub;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.concurrent.SimpleTask;
 import org.correomqtt.core.concurrent.SimpleTaskErrorResult;
 import org.correomqtt.di.SoyEvents;
@@ -21,9 +23,10 @@ public class UnsubscribeTask extends SimpleTask {
     @Inject
     public UnsubscribeTask(ConnectionManager connectionManager,
                            SoyEvents soyEvents,
+                           CorreoExecutors executors,
                            @Assisted String connectionId,
                            @Assisted SubscriptionDTO subscriptionDTO) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.connectionManager = connectionManager;
         this.soyEvents = soyEvents;
         this.connectionId = connectionId;
@@ -42,4 +45,8 @@ public class UnsubscribeTask extends SimpleTask {
         soyEvents.fireAsync(new UnsubscribeFailedEvent(connectionId, subscriptionDTO));
     }
 
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.PUBSUB;
+    }
 }
@@ -0,0 +1,269 @@
+package org.correomqtt.core.recorder;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records incoming messages into rolling, memory-mapped segment files of a directory.
+ * <p>
+ * A segment starts with {@code [int magic][int version]} and holds records
+ * {@code [int length][long received at epoch nanos][int topic id][byte qos][byte retained][payload]}, followed by a
+ * zero length. The length is written last, so a torn record is never read back. Topics are stored once in
+ * {@value #TOPICS_FILE_NAME} as {@code [int id][int length][topic]}.
+ * <p>
+ * When a segment is full, a sparse time index and the number of records per topic are written next to it, see
+ * {@link MessageRecording}, and the next segment is started. The oldest segments are deleted beyond the maximum number
+ * of segments. Recording a message allocates nothing but the view of its payload, apart from the first message of a
+ * topic.
+ */
+public class MessageRecorder implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageRecorder.class);
+
+    static final int SEGMENT_MAGIC = 0x436F5253;
+    static final int INDEX_MAGIC = 0x436F5249;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 2 * Integer.BYTES;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES + 2;
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+    static final String TOPICS_FILE_NAME = "topics.dict";
+    // bytes of a segment per entry of the time index
+    static final int INDEX_INTERVAL = 64 * 1024;
+    private static final int MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final FileChannel topicsChannel;
+    private final Map<String, Integer> topicIds = new HashMap<>();
+    private final Deque<Long> segments = new ArrayDeque<>();
+    private MappedByteBuffer segment;
+    private int position;
+    // state of the active segment, written to its index when it is full
+    private long[] indexTimestamps = new long[64];
+    private int[] indexOffsets = new int[64];
+    private int indexSize;
+    private int nextIndexOffset;
+    private int[] topicCounts = new int[64];
+    private long firstTimestamp;
+    private long maxTimestamp;
+    private int count;
+    private long rejected;
+    private boolean closed;
+
+    /**
+     * Continues the recording in the directory with a new segment.
+     *
+     * @param segmentSize Size of a segment file in bytes.
+     * @param maxSegments Number of segments to keep, 0 keeps all.
+     */
+    public MessageRecorder(Path directory, long segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_SEGMENT_SIZE, segmentSize));
+        this.maxSegments = Math.max(0, maxSegments);
+        Files.createDirectories(directory);
+        segments.addAll(MessageRecording.listSegments(directory));
+        List<String> topics = MessageRecording.readTopics(directory.resolve(TOPICS_FILE_NAME));
+        for (int i = 0; i < topics.size(); i++) {
+            topicIds.put(topics.get(i), i);
+        }
+        topicsChannel = FileChannel.open(directory.resolve(TOPICS_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // drops a torn entry of a previous run
+        topicsChannel.truncate(MessageRecording.topicsLength(topics));
+        topicsChannel.position(topicsChannel.size());
+    }
+
+    /**
+     * Appends the message. Messages larger than a segment are not recorded.
+     */
+    public synchronized void record(MessageDTO messageDTO) {
+        if (closed) {
+            return;
+        }
+        ByteBuffer payload = messageDTO.getPayloadBuffer();
+        int payloadLength = payload == null ? 0 : payload.remaining();
+        // the record and the terminating zero length
+        long required = (long) RECORD_HEADER_SIZE + payloadLength + Integer.BYTES;
+        if (SEGMENT_HEADER_SIZE + required > segmentSize) {
+            if (rejected++ == 0) {
+                LOGGER.warn("Message on {} is too large to be recorded in {}.", messageDTO.getTopic(), directory);
+            }
+            return;
+        }
+        try {
+            int topicId = getTopicId(messageDTO.getTopic());
+            if (segment == null || position + required > segmentSize) {
+                roll();
+            }
+            long timestamp = messageDTO.getTimestampNanos() == 0 ? MessageDTO.nowNanos() : messageDTO.getTimestampNanos();
+            int start = position;
+            int end = start + RECORD_HEADER_SIZE + payloadLength;
+            segment.putInt(end, 0);
+            segment.putLong(start + Integer.BYTES, timestamp);
+            segment.putInt(start + Integer.BYTES + Long.BYTES, topicId);
+            segment.put(start + Integer.BYTES + Long.BYTES + Integer.BYTES, (byte) (messageDTO.getQos() == null ? 0 : messageDTO.getQos().ordinal()));
+            segment.put(start + Integer.BYTES + Long.BYTES + Integer.BYTES + 1, (byte) (messageDTO.isRetained() ? 1 : 0));
+            if (payload != null) {
+                segment.put(start + RECORD_HEADER_SIZE, payload, payload.position(), payloadLength);
+            }
+            segment.putInt(start, end - start - Integer.BYTES);
+            position = end;
+            addToIndex(start, timestamp, topicId);
+        } catch (IOException e) {
+            LOGGER.error("Stopped recording to {}.", directory, e);
+            closed = true;
+        }
+    }
+
+    private int getTopicId(String topic) throws IOException {
+        Integer topicId = topicIds.get(topic);
+        if (topicId != null) {
+            return topicId;
+        }
+        int id = topicIds.size();
+        byte[] bytes = topic.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(2 * Integer.BYTES + bytes.length)
+                .putInt(id)
+                .putInt(bytes.length)
+                .put(bytes)
+                .flip();
+        while (entry.hasRemaining()) {
+            topicsChannel.write(entry);
+        }
+        topicIds.put(topic, id);
+        return id;
+    }
+
+    private void addToIndex(int offset, long timestamp, int topicId) {
+        if (count == 0) {
+            firstTimestamp = timestamp;
+        }
+        // the maximum so far, messages received on several threads may be slightly out of order
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        if (offset >= nextIndexOffset) {
+            if (indexSize == indexTimestamps.length) {
+                indexTimestamps = Arrays.copyOf(indexTimestamps, indexSize * 2);
+                indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+            }
+            indexTimestamps[indexSize] = maxTimestamp;
+            indexOffsets[indexSize] = offset;
+            indexSize++;
+            nextIndexOffset = offset + INDEX_INTERVAL;
+        }
+        if (topicId >= topicCounts.length) {
+            topicCounts = Arrays.copyOf(topicCounts, Math.max(topicId + 1, topicCounts.length * 2));
+        }
+        topicCounts[topicId]++;
+        count++;
+    }
+
+    private void roll() throws IOException {
+        seal();
+        while (maxSegments > 0 && segments.size() >= maxSegments) {
+            deleteSegment(segments.removeFirst());
+        }
+        long number = segments.isEmpty() ? 1 : segments.getLast() + 1;
+        try (FileChannel channel = FileChannel.open(directory.resolve(MessageRecording.segmentFileName(number, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segments.addLast(number);
+        segment.putInt(0, SEGMENT_MAGIC);
+        segment.putInt(Integer.BYTES, VERSION);
+        segment.putInt(SEGMENT_HEADER_SIZE, 0);
+        position = SEGMENT_HEADER_SIZE;
+        indexSize = 0;
+        nextIndexOffset = 0;
+        Arrays.fill(topicCounts, 0);
+        firstTimestamp = 0;
+        maxTimestamp = 0;
+        count = 0;
+    }
+
+    private void deleteSegment(long number) {
+        try {
+            Files.deleteIfExists(directory.resolve(MessageRecording.segmentFileName(number, INDEX_SUFFIX)));
+            Files.deleteIfExists(directory.resolve(MessageRecording.segmentFileName(number, SEGMENT_SUFFIX)));
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete recording segment {} in {}.", number, directory, e);
+        }
+    }
+
+    /**
+     * Writes the index of the active segment: {@code [int magic][int count][long first timestamp][long max timestamp]
+     * [int entries]([long max timestamp][int offset])* [int topics]([int topic id][int count])*}.
+     */
+    private void seal() throws IOException {
+        if (segment == null) {
+            return;
+        }
+        segment.force();
+        int topics = 0;
+        for (int topicCount : topicCounts) {
+            if (topicCount > 0) {
+                topics++;
+            }
+        }
+        ByteBuffer index = ByteBuffer.allocate(4 * Integer.BYTES + 2 * Long.BYTES
+                + indexSize * (Long.BYTES + Integer.BYTES)
+                + topics * 2 * Integer.BYTES);
+        index.putInt(INDEX_MAGIC)
+                .putInt(count)
+                .putLong(firstTimestamp)
+                .putLong(maxTimestamp)
+                .putInt(indexSize);
+        for (int i = 0; i < indexSize; i++) {
+            index.putLong(indexTimestamps[i]).putInt(indexOffsets[i]);
+        }
+        index.putInt(topics);
+        for (int topicId = 0; topicId < topicCounts.length; topicId++) {
+            if (topicCounts[topicId] > 0) {
+                index.putInt(topicId).putInt(topicCounts[topicId]);
+            }
+        }
+        Files.write(directory.resolve(MessageRecording.segmentFileName(segments.getLast(), INDEX_SUFFIX)), index.array());
+        segment = null;
+    }
+
+    /**
+     * @return Number of messages not recorded, as they did not fit into a segment.
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (!closed) {
+                seal();
+            }
+            topicsChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to close recording {}.", directory, e);
+        }
+        closed = true;
+    }
+}
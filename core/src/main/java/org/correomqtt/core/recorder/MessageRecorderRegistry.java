@@ -0,0 +1,89 @@
+package org.correomqtt.core.recorder;
+
+import org.correomqtt.core.applifecycle.ShutdownEvent;
+import org.correomqtt.core.model.SettingsDTO;
+import org.correomqtt.core.model.SubscriptionDTO;
+import org.correomqtt.core.settings.SettingsManager;
+import org.correomqtt.core.utils.DirectoryUtils;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.Observes;
+import org.correomqtt.di.SingletonBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opens one {@link MessageRecorder} per connection in the folder {@value #RECORDING_FOLDER_NAME} of the config
+ * directory. Messages are recorded if recording is switched on for the connection or for the subscription.
+ */
+@SingletonBean
+public class MessageRecorderRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageRecorderRegistry.class);
+
+    private static final String RECORDING_FOLDER_NAME = "recordings";
+
+    private final Map<String, MessageRecorder> recorders = new HashMap<>();
+    private final SettingsManager settingsManager;
+
+    @Inject
+    public MessageRecorderRegistry(SettingsManager settingsManager) {
+        this.settingsManager = settingsManager;
+    }
+
+    private static Path getDirectory(String connectionId) {
+        return Path.of(DirectoryUtils.getTargetDirectoryPath(), RECORDING_FOLDER_NAME, connectionId);
+    }
+
+    /**
+     * @throws UncheckedIOException If the recording can not be opened.
+     */
+    public synchronized MessageRecorder forConnection(String connectionId) {
+        return recorders.computeIfAbsent(connectionId, id -> {
+            Path directory = getDirectory(id);
+            SettingsDTO settings = settingsManager.getSettings();
+            try {
+                return new MessageRecorder(directory, settings.getRecorderSegmentSize(), settings.getRecorderMaxSegments());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to open recording " + directory, e);
+            }
+        });
+    }
+
+    /**
+     * @return The recorder for the messages of the subscription or null, if they are not recorded.
+     */
+    public MessageRecorder forSubscription(String connectionId, SubscriptionDTO subscriptionDTO) {
+        boolean recordConnection = settingsManager.getConnectionConfigs()
+                .stream()
+                .anyMatch(c -> c.getId().equals(connectionId) && c.isRecordMessages());
+        if (!recordConnection && !subscriptionDTO.isRecorded()) {
+            return null;
+        }
+        try {
+            return forConnection(connectionId);
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Not recording messages of {}.", subscriptionDTO.getTopic(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return The recorded messages of the connection, also while it is recording.
+     */
+    public MessageRecording getRecording(String connectionId) {
+        return new MessageRecording(getDirectory(connectionId));
+    }
+
+    @Observes(ShutdownEvent.class)
+    public synchronized void onShutdown() {
+        recorders.values().forEach(MessageRecorder::close);
+        recorders.clear();
+        LOGGER.info("Closed message recorders.");
+    }
+}
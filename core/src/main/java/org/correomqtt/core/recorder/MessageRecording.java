@@ -0,0 +1,222 @@
+package org.correomqtt.core.recorder;
+
+import org.correomqtt.core.model.Qos;
+import org.correomqtt.core.utils.TopicFilterTrie;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.correomqtt.core.recorder.MessageRecorder.INDEX_MAGIC;
+import static org.correomqtt.core.recorder.MessageRecorder.INDEX_SUFFIX;
+import static org.correomqtt.core.recorder.MessageRecorder.RECORD_HEADER_SIZE;
+import static org.correomqtt.core.recorder.MessageRecorder.SEGMENT_HEADER_SIZE;
+import static org.correomqtt.core.recorder.MessageRecorder.SEGMENT_MAGIC;
+import static org.correomqtt.core.recorder.MessageRecorder.SEGMENT_SUFFIX;
+import static org.correomqtt.core.recorder.MessageRecorder.TOPICS_FILE_NAME;
+
+/**
+ * Reads the messages written by a {@link MessageRecorder}, also while it is still recording. Segments with an index are
+ * skipped if they hold no message of the requested time range or topics, within a segment the sparse time index is
+ * used to seek to the start of the time range. The segment being recorded is scanned from its start.
+ */
+public class MessageRecording {
+
+    private static final int SEGMENT_NUMBER_DIGITS = 12;
+
+    private final Path directory;
+
+    public MessageRecording(Path directory) {
+        this.directory = directory;
+    }
+
+    static String segmentFileName(long number, String suffix) {
+        String digits = Long.toString(number);
+        return "0".repeat(Math.max(0, SEGMENT_NUMBER_DIGITS - digits.length())) + digits + suffix;
+    }
+
+    static List<Long> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(n -> n.endsWith(SEGMENT_SUFFIX))
+                    .map(n -> n.substring(0, n.length() - SEGMENT_SUFFIX.length()))
+                    .filter(n -> !n.isEmpty() && n.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * @return The topics by id, a torn last entry is ignored.
+     */
+    static List<String> readTopics(Path path) throws IOException {
+        List<String> topics = new ArrayList<>();
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (NoSuchFileException e) {
+            return topics;
+        }
+        while (buffer.remaining() >= 2 * Integer.BYTES) {
+            int id = buffer.getInt();
+            int length = buffer.getInt();
+            if (id != topics.size() || length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            byte[] topic = new byte[length];
+            buffer.get(topic);
+            topics.add(new String(topic, StandardCharsets.UTF_8));
+        }
+        return topics;
+    }
+
+    static long topicsLength(List<String> topics) {
+        long length = 0;
+        for (String topic : topics) {
+            length += 2 * Integer.BYTES + topic.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return length;
+    }
+
+    /**
+     * @return All topics recorded so far.
+     */
+    public List<String> getTopics() throws IOException {
+        return readTopics(directory.resolve(TOPICS_FILE_NAME));
+    }
+
+    /**
+     * Reads the recorded messages in the order they were recorded. The message passed to the consumer is reused, it is
+     * only valid within the call, see {@link RecordedMessage#toMessageDTO()}.
+     *
+     * @param fromNanos   First epoch nanos to read, inclusive.
+     * @param toNanos     Last epoch nanos to read, exclusive.
+     * @param topicFilter Topic filter with wildcards, null reads all topics.
+     * @return The number of messages read.
+     */
+    public long read(long fromNanos, long toNanos, String topicFilter, Consumer<RecordedMessage> consumer) throws IOException {
+        List<String> topics = getTopics();
+        boolean[] matching = new boolean[topics.size()];
+        TopicFilterTrie<Boolean> filter = new TopicFilterTrie<>();
+        if (topicFilter != null) {
+            filter.add(topicFilter, true);
+        }
+        for (int i = 0; i < topics.size(); i++) {
+            matching[i] = topicFilter == null || filter.matches(topics.get(i));
+        }
+        RecordedMessage message = new RecordedMessage();
+        long read = 0;
+        for (long number : listSegments(directory)) {
+            read += readSegment(number, fromNanos, toNanos, topics, matching, message, consumer);
+        }
+        return read;
+    }
+
+    private long readSegment(long number,
+                             long fromNanos,
+                             long toNanos,
+                             List<String> topics,
+                             boolean[] matching,
+                             RecordedMessage message,
+                             Consumer<RecordedMessage> consumer) throws IOException {
+        int start = SEGMENT_HEADER_SIZE;
+        ByteBuffer index = readIndex(number);
+        if (index != null) {
+            index.getInt();
+            long firstTimestamp = index.getLong();
+            long maxTimestamp = index.getLong();
+            int entries = index.getInt();
+            int entriesPosition = index.position();
+            index.position(entriesPosition + entries * (Long.BYTES + Integer.BYTES));
+            if (firstTimestamp >= toNanos || maxTimestamp < fromNanos || !containsTopic(index, matching)) {
+                return 0;
+            }
+            // the last entry before the time range, all records before it are older
+            for (int i = 0; i < entries; i++) {
+                int entry = entriesPosition + i * (Long.BYTES + Integer.BYTES);
+                if (index.getLong(entry) >= fromNanos) {
+                    break;
+                }
+                start = index.getInt(entry + Long.BYTES);
+            }
+        }
+
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(directory.resolve(segmentFileName(number, SEGMENT_SUFFIX)), StandardOpenOption.READ)) {
+            if (channel.size() < SEGMENT_HEADER_SIZE + Integer.BYTES) {
+                return 0;
+            }
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            // deleted by the recorder meanwhile
+            return 0;
+        }
+        if (segment.getInt(0) != SEGMENT_MAGIC) {
+            return 0;
+        }
+        ByteBuffer payload = segment.duplicate();
+        long read = 0;
+        int position = start;
+        while (position + RECORD_HEADER_SIZE <= segment.capacity()) {
+            int length = segment.getInt(position);
+            int end = position + Integer.BYTES + length;
+            if (length < RECORD_HEADER_SIZE - Integer.BYTES || end > segment.capacity() || end < 0) {
+                break;
+            }
+            long timestamp = segment.getLong(position + Integer.BYTES);
+            int topicId = segment.getInt(position + Integer.BYTES + Long.BYTES);
+            if (timestamp >= fromNanos && timestamp < toNanos && topicId < matching.length && matching[topicId]) {
+                payload.limit(end).position(position + RECORD_HEADER_SIZE);
+                message.set(timestamp,
+                        topics.get(topicId),
+                        Qos.values()[segment.get(position + Integer.BYTES + Long.BYTES + Integer.BYTES)],
+                        segment.get(position + Integer.BYTES + Long.BYTES + Integer.BYTES + 1) == 1,
+                        payload);
+                consumer.accept(message);
+                read++;
+            }
+            position = end;
+        }
+        return read;
+    }
+
+    private ByteBuffer readIndex(long number) throws IOException {
+        try {
+            ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(segmentFileName(number, INDEX_SUFFIX))));
+            return index.remaining() >= 3 * Integer.BYTES + 2 * Long.BYTES && index.getInt() == INDEX_MAGIC ? index : null;
+        } catch (NoSuchFileException e) {
+            // the segment being recorded or a segment of a crashed run
+            return null;
+        }
+    }
+
+    private static boolean containsTopic(ByteBuffer index, boolean[] matching) {
+        int topics = index.getInt();
+        for (int i = 0; i < topics; i++) {
+            int topicId = index.getInt();
+            index.getInt();
+            if (topicId < matching.length && matching[topicId]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
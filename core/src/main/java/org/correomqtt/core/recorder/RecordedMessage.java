@@ -0,0 +1,54 @@
+package org.correomqtt.core.recorder;
+
+import lombok.Getter;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.MessageType;
+import org.correomqtt.core.model.Qos;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A message read from a {@link MessageRecording}. Instances are reused while reading, the payload is a view of the
+ * segment file.
+ */
+@Getter
+public class RecordedMessage {
+
+    private long receivedAtNanos;
+    private String topic;
+    private Qos qos;
+    private boolean retained;
+    private ByteBuffer payload;
+
+    void set(long receivedAtNanos, String topic, Qos qos, boolean retained, ByteBuffer payload) {
+        this.receivedAtNanos = receivedAtNanos;
+        this.topic = topic;
+        this.qos = qos;
+        this.retained = retained;
+        this.payload = payload;
+    }
+
+    /**
+     * @return Read only view of the payload, only valid until the next message is read.
+     */
+    public ByteBuffer getPayload() {
+        return payload.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return A copy, which stays valid after reading.
+     */
+    public MessageDTO toMessageDTO() {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(payload.position(), bytes);
+        MessageDTO messageDTO = MessageDTO.builder()
+                .topic(topic)
+                .qos(qos)
+                .isRetained(retained)
+                .messageType(MessageType.INCOMING)
+                .build();
+        messageDTO.setTimestampNanos(receivedAtNanos);
+        messageDTO.setPayloadBytes(bytes);
+        return messageDTO;
+    }
+}
@@ -0,0 +1,84 @@
+package org.correomqtt.core.replay;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.correomqtt.core.recorder.MessageRecording;
+
+import java.util.List;
+
+/**
+ * Parameters of a replay. Without a time range or topic filter the whole recording is replayed.
+ */
+@Getter
+@Builder
+public class ReplayConfig {
+
+    public static final double MIN_SPEED = 0.1;
+    public static final double MAX_SPEED = 100;
+    /**
+     * Publishes as fast as the broker acknowledges the messages, limited by {@link #getMaxOutstanding()}.
+     */
+    public static final double MAXIMUM_SPEED = 0;
+
+    private final MessageRecording recording;
+    /**
+     * First epoch nanos to replay, inclusive.
+     */
+    @Builder.Default
+    private final long fromNanos = Long.MIN_VALUE;
+    /**
+     * Last epoch nanos to replay, exclusive.
+     */
+    @Builder.Default
+    private final long toNanos = Long.MAX_VALUE;
+    /**
+     * Topic filter with wildcards, null replays all topics.
+     */
+    private final String topicFilter;
+    /**
+     * Multiplier of the recorded timing between {@value #MIN_SPEED} and {@value #MAX_SPEED}, or
+     * {@link #MAXIMUM_SPEED}.
+     */
+    @Builder.Default
+    private final double speed = 1;
+    /**
+     * The first matching rule rewrites the topic, topics without a matching rule are replayed unchanged.
+     */
+    @Builder.Default
+    private final List<TopicRewriteRule> rewriteRules = List.of();
+    /**
+     * Starts over after the last message until the replay is stopped.
+     */
+    private final boolean loop;
+    /**
+     * Messages published but not completed yet. Further messages wait, so a replay falling behind its schedule
+     * does not pile up messages in the client.
+     */
+    @Builder.Default
+    private final int maxOutstanding = 1000;
+
+    void validate() {
+        if (recording == null) {
+            throw new IllegalArgumentException("Replay needs a recording.");
+        }
+        if (speed != MAXIMUM_SPEED && (speed < MIN_SPEED || speed > MAX_SPEED)) {
+            throw new IllegalArgumentException("Speed must be between " + MIN_SPEED + " and " + MAX_SPEED + ".");
+        }
+        if (maxOutstanding < 1) {
+            throw new IllegalArgumentException("At least one message must be allowed to be outstanding.");
+        }
+        if (fromNanos >= toNanos) {
+            throw new IllegalArgumentException("Time range of the replay is empty.");
+        }
+    }
+
+    String rewrite(String topic) {
+        for (TopicRewriteRule rule : rewriteRules) {
+            String rewritten = rule.apply(topic);
+            if (rewritten != null) {
+                return rewritten;
+            }
+        }
+        return topic;
+    }
+}
@@ -0,0 +1,214 @@
+package org.correomqtt.core.replay;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.MessageType;
+import org.correomqtt.core.mqtt.CorreoMqttClient;
+import org.correomqtt.core.recorder.RecordedMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes the messages of a recording through a client, keeping the recorded time between them scaled by the speed
+ * of the {@link ReplayConfig}.
+ * <p>
+ * Every message is scheduled relative to the start of its pass, not to the previous message, so delays of single
+ * messages do not add up. The last part of a wait is spun instead of parked, as parking overshoots by up to a
+ * millisecond. At most {@link ReplayConfig#getMaxOutstanding()} messages are published but not completed, the next
+ * message waits for a completion and the wait counts as lag.
+ */
+public class ReplayEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayEngine.class);
+
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final long OUTSTANDING_POLL_MILLIS = 10;
+    private static final long COMPLETION_TIMEOUT_SECONDS = 30;
+
+    private final CorreoMqttClient client;
+    private final ReplayConfig config;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final AtomicLong lastCompleted = new AtomicLong();
+    private final Semaphore outstanding;
+    private volatile boolean stopped;
+    // state of the running pass
+    private boolean passStarted;
+    private long passStart;
+    private long firstTimestamp;
+    private long firstScheduled;
+    private long lastScheduled;
+    private long firstPublished;
+    private long lastPublished;
+    private long maxLag;
+
+    public ReplayEngine(CorreoMqttClient client, ReplayConfig config) {
+        config.validate();
+        this.client = client;
+        this.config = config;
+        this.outstanding = new Semaphore(config.getMaxOutstanding());
+    }
+
+    /**
+     * Stops the replay after the current message.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Replays on the calling thread until the recording ends, or until it is stopped when looping.
+     */
+    public ReplayResult run() throws IOException {
+        int passes = 0;
+        lastScheduled = Long.MIN_VALUE;
+        try {
+            do {
+                passes++;
+                passStarted = false;
+                long read = config.getRecording().read(config.getFromNanos(), config.getToNanos(), config.getTopicFilter(), this::replay);
+                if (read == 0) {
+                    break;
+                }
+            } while (config.isLoop() && !stopped);
+        } catch (ReplayStoppedException e) {
+            LOGGER.info("Replay stopped.");
+        }
+        awaitCompletions();
+        return createResult(passes);
+    }
+
+    private void replay(RecordedMessage message) {
+        if (stopped || Thread.currentThread().isInterrupted()) {
+            throw new ReplayStoppedException();
+        }
+        if (!passStarted) {
+            passStarted = true;
+            // a loop continues right after the last message of the previous pass
+            passStart = Math.max(lastScheduled, System.nanoTime());
+            firstTimestamp = message.getReceivedAtNanos();
+        }
+        long scheduled;
+        if (config.getSpeed() == ReplayConfig.MAXIMUM_SPEED) {
+            scheduled = System.nanoTime();
+        } else {
+            // messages recorded on several threads may be a few microseconds out of order
+            scheduled = Math.max(lastScheduled,
+                    passStart + (long) ((message.getReceivedAtNanos() - firstTimestamp) / config.getSpeed()));
+            awaitNanos(scheduled);
+        }
+        lastScheduled = scheduled;
+
+        MessageDTO messageDTO = message.toMessageDTO();
+        messageDTO.setTopic(config.rewrite(message.getTopic()));
+        messageDTO.setMessageType(MessageType.OUTGOING);
+        acquireOutstanding();
+        long now = System.nanoTime();
+        if (sent.sum() == 0) {
+            firstScheduled = scheduled;
+            firstPublished = now;
+        }
+        lastPublished = now;
+        maxLag = Math.max(maxLag, now - scheduled);
+        sent.increment();
+        try {
+            client.publishAsync(messageDTO).whenComplete((result, throwable) -> onCompleted(throwable));
+        } catch (RuntimeException e) {
+            LOGGER.debug("Failed to replay message on {}.", messageDTO.getTopic(), e);
+            onCompleted(e);
+        }
+    }
+
+    private void onCompleted(Throwable throwable) {
+        if (throwable != null) {
+            failed.increment();
+        }
+        completed.increment();
+        lastCompleted.accumulateAndGet(System.nanoTime(), Math::max);
+        outstanding.release();
+    }
+
+    private void acquireOutstanding() {
+        try {
+            while (!outstanding.tryAcquire(OUTSTANDING_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    throw new ReplayStoppedException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReplayStoppedException();
+        }
+    }
+
+    /**
+     * Waits for the outstanding messages, so the result covers all of them.
+     */
+    private void awaitCompletions() {
+        int permits = config.getMaxOutstanding();
+        try {
+            if (outstanding.tryAcquire(permits, COMPLETION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                outstanding.release(permits);
+            } else {
+                LOGGER.warn("Replayed messages did not complete within {} s.", COMPLETION_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitNanos(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            if (wait > SPIN_NANOS) {
+                LockSupport.parkNanos(wait - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            if (stopped || Thread.currentThread().isInterrupted()) {
+                throw new ReplayStoppedException();
+            }
+        }
+    }
+
+    private ReplayResult createResult(int passes) {
+        long count = sent.sum();
+        if (count == 0) {
+            return new ReplayResult(0, 0, passes, Duration.ZERO, 0, 0, Duration.ZERO);
+        }
+        // the target rate between the first and the last message, the achieved one until the last completion
+        double seconds = (lastCompleted.get() - firstPublished) / NANOS_PER_SECOND;
+        double scheduledSeconds = (lastScheduled - firstScheduled) / NANOS_PER_SECOND;
+        boolean paced = config.getSpeed() != ReplayConfig.MAXIMUM_SPEED;
+        return new ReplayResult(count,
+                failed.sum(),
+                passes,
+                Duration.ofNanos(lastPublished - firstPublished),
+                paced && scheduledSeconds > 0 ? (count - 1) / scheduledSeconds : 0,
+                seconds > 0 ? completed.sum() / seconds : 0,
+                Duration.ofNanos(maxLag));
+    }
+
+    /**
+     * @return Messages handed to the client so far.
+     */
+    public long getSent() {
+        return sent.sum();
+    }
+
+    private static class ReplayStoppedException extends RuntimeException {
+
+        ReplayStoppedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.correomqtt.core.replay;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a replay.
+ *
+ * @param sent         Messages handed to the client.
+ * @param failed       Messages that could not be published.
+ * @param passes       Number of times the recording was replayed, the last one may be incomplete.
+ * @param duration     Time from the first until the last message was handed to the client.
+ * @param targetRate   Messages per second the scaled recording asks for, 0 at maximum speed.
+ * @param achievedRate Messages per second completed by the client, from the first publish until the last completion.
+ * @param maxLag       Largest delay of a message behind its scheduled time.
+ */
+public record ReplayResult(long sent,
+                           long failed,
+                           int passes,
+                           Duration duration,
+                           double targetRate,
+                           double achievedRate,
+                           Duration maxLag) {
+
+    @Override
+    public String toString() {
+        return String.format("sent %d, failed %d in %d passes and %.1f s, %.0f msg/s of target %.0f msg/s, max lag %.3f ms",
+                sent, failed, passes, duration.toMillis() / 1000d, achievedRate, targetRate, maxLag.toNanos() / 1_000_000d);
+    }
+}
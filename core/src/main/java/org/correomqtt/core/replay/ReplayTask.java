@@ -0,0 +1,57 @@
+package org.correomqtt.core.replay;
+
+import org.correomqtt.core.concurrent.CorreoExecutors;
+import org.correomqtt.core.concurrent.ExecutorPool;
+import org.correomqtt.core.concurrent.SimpleResultTask;
+import org.correomqtt.core.concurrent.TaskException;
+import org.correomqtt.core.utils.ConnectionManager;
+import org.correomqtt.di.Assisted;
+import org.correomqtt.di.DefaultBean;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.SoyEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Runs a {@link ReplayEngine} through the client of a connection on the long running pool, as it blocks for the whole
+ * replay.
+ */
+@DefaultBean
+public class ReplayTask extends SimpleResultTask<ReplayResult> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayTask.class);
+
+    private final ReplayEngine replayEngine;
+
+    @Inject
+    public ReplayTask(ConnectionManager connectionManager,
+                      SoyEvents soyEvents,
+                      CorreoExecutors executors,
+                      @Assisted String connectionId,
+                      @Assisted ReplayConfig config) {
+        super(soyEvents, executors);
+        this.replayEngine = new ReplayEngine(connectionManager.getClient(connectionId), config);
+    }
+
+    public void stop() {
+        replayEngine.stop();
+    }
+
+    @Override
+    protected ReplayResult execute() {
+        try {
+            ReplayResult result = replayEngine.run();
+            LOGGER.info("Replay finished: {}", result);
+            return result;
+        } catch (IOException e) {
+            throw new TaskException(e);
+        }
+    }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.LONG_RUNNING;
+    }
+}
@@ -0,0 +1,25 @@
+package org.correomqtt.core.replay;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites the topics of replayed messages, e.g. {@code ^plant/(\d+)/} to {@code test/plant/$1/}.
+ *
+ * @param pattern     Regular expression searched in the topic.
+ * @param replacement Replacement of all matches, may refer to groups with {@code $n}.
+ */
+public record TopicRewriteRule(Pattern pattern, String replacement) {
+
+    public static TopicRewriteRule of(String regex, String replacement) {
+        return new TopicRewriteRule(Pattern.compile(regex), replacement);
+    }
+
+    /**
+     * @return The rewritten topic or null, if the rule does not match.
+     */
+    String apply(String topic) {
+        Matcher matcher = pattern.matcher(topic);
+        return matcher.find() ? matcher.replaceAll(replacement) : null;
+    }
+}
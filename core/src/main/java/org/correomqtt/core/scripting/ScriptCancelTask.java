@@ -1,8 +1,10 @@
 package org.correomqtt.core.scripting;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.concurrent.SimpleTask;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.core.fileprovider.ScriptingProvider;
@@ -16,8 +18,9 @@ public class ScriptCancelTask extends SimpleTask {
     @Inject
     ScriptCancelTask(ScriptingProvider scriptingProvider,
                             SoyEvents soyEvents,
+                            CorreoExecutors executors,
                             @Assisted String executionId) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptingProvider = scriptingProvider;
         this.executionId = executionId;
     }
@@ -31,4 +34,9 @@ public class ScriptCancelTask extends SimpleTask {
         task.cancel();
         ScriptingBackend.removeExecutionTask(executionId);
     }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.SCRIPTING;
+    }
 }
@@ -1,5 +1,6 @@
 package org.correomqtt.core.scripting;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -32,8 +33,9 @@ public class ScriptDeleteExecutionsTask extends SimpleErrorTask<ScriptDeleteExec
     @Inject
     public ScriptDeleteExecutionsTask(ScriptingProvider scriptingProvider,
                                       SoyEvents soyEvents,
+                                      CorreoExecutors executors,
                                       @Assisted String filename) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptingProvider = scriptingProvider;
         this.soyEvents = soyEvents;
         this.filename = filename;
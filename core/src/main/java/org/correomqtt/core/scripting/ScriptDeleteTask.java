@@ -1,5 +1,6 @@
 package org.correomqtt.core.scripting;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -33,8 +34,9 @@ public class ScriptDeleteTask extends SimpleErrorTask<ScriptDeleteTask.Error> {
     @Inject
     public ScriptDeleteTask(ScriptingProvider scriptingProvider,
                             SoyEvents soyEvents,
+                            CorreoExecutors executors,
                             @Assisted ScriptFileDTO dto) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptingProvider = scriptingProvider;
         this.dto = dto;
     }
@@ -1,9 +1,11 @@
 package org.correomqtt.core.scripting;
 
 import lombok.Getter;
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
+import org.correomqtt.core.concurrent.ExecutorPool;
 import org.correomqtt.core.concurrent.FullTask;
 import org.correomqtt.core.concurrent.TaskException;
 import org.correomqtt.di.SoyEvents;
@@ -39,8 +41,9 @@ public class ScriptExecutionTask extends FullTask<ExecutionDTO, ExecutionDTO, Ex
             ScriptingProvider scriptingProvider,
             JsContextBuilderFactory jsContextBuilderFactory,
             SoyEvents soyEvents,
+            CorreoExecutors executors,
             @Assisted ExecutionDTO executionDTO) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptLoggerContextFactory = scriptLoggerContextFactory;
         this.scriptingProvider = scriptingProvider;
         this.jsContextBuilderFactory = jsContextBuilderFactory;
@@ -122,4 +125,9 @@ public class ScriptExecutionTask extends FullTask<ExecutionDTO, ExecutionDTO, Ex
         dto.setCancelled(true);
         this.context.close(true);
     }
+
+    @Override
+    protected ExecutorPool getExecutorPool() {
+        return ExecutorPool.SCRIPTING;
+    }
 }
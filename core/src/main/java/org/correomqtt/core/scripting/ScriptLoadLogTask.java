@@ -1,5 +1,6 @@
 package org.correomqtt.core.scripting;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -32,8 +33,9 @@ public class ScriptLoadLogTask extends NoProgressTask<String, ScriptLoadLogTask.
     @Inject
     public ScriptLoadLogTask(ScriptingProvider scriptingProvider,
                              SoyEvents soyEvents,
+                             CorreoExecutors executors,
                              @Assisted ExecutionDTO dto) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptingProvider = scriptingProvider;
         this.dto = dto;
     }
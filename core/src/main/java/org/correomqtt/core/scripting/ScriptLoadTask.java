@@ -1,5 +1,6 @@
 package org.correomqtt.core.scripting;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -26,8 +27,9 @@ public class ScriptLoadTask extends NoProgressTask<String, ScriptLoadTask.Error>
     @Inject
     public ScriptLoadTask(ScriptingProvider scriptingProvider,
                           SoyEvents soyEvents,
+                          CorreoExecutors executors,
                           @Assisted ScriptFileDTO scriptFileDTO) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptingProvider = scriptingProvider;
         this.scriptFileDTO = scriptFileDTO;
     }
@@ -1,5 +1,6 @@
 package org.correomqtt.core.scripting;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -37,8 +38,9 @@ public class ScriptNewTask extends NoProgressTask<Path, ScriptNewTask.Error> {
     @Inject
     public ScriptNewTask(ScriptingProvider scriptingProvider,
                          SoyEvents soyEvents,
+                         CorreoExecutors executors,
                          @Assisted String filename) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptingProvider = scriptingProvider;
         this.filename = filename;
     }
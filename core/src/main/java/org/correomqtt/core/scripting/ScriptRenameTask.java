@@ -1,5 +1,6 @@
 package org.correomqtt.core.scripting;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -44,9 +45,10 @@ public class ScriptRenameTask extends NoProgressTask<Path, ScriptRenameTask.Erro
     @Inject
     public ScriptRenameTask(ScriptingProvider scriptingProvider,
                             SoyEvents soyEvents,
+                            CorreoExecutors executors,
                             @Assisted ScriptFileDTO dto,
                             @Assisted String filename) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptingProvider = scriptingProvider;
         this.dto = dto;
         this.filename = filename;
@@ -1,5 +1,6 @@
 package org.correomqtt.core.scripting;
 
+import org.correomqtt.core.concurrent.CorreoExecutors;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -27,9 +28,10 @@ public class ScriptSaveTask extends SimpleErrorTask<ScriptSaveTask.Error> {
     @Inject
     public ScriptSaveTask(ScriptingProvider scriptingProvider,
                           SoyEvents soyEvents,
+                          CorreoExecutors executors,
                           @Assisted ScriptFileDTO scriptFileDTO,
                           @Assisted String content) {
-        super(soyEvents);
+        super(soyEvents, executors);
         this.scriptingProvider = scriptingProvider;
         this.scriptFileDTO = scriptFileDTO;
         this.content = content;
@@ -1,8 +1,12 @@
 package org.correomqtt.core.scripting.binding;
 
+import org.correomqtt.core.loadtest.LoadGeneratorResult;
 import org.graalvm.polyglot.HostAccess.Export;
 import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyObject;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
@@ -71,6 +75,20 @@ public class BlockingClient {
                 }));
     }
 
+    /**
+     * Publishes an array of messages as one batch and blocks until the broker acknowledged them. Each message is an
+     * object with a {@code topic} and the optional members {@code qos, retained, payload}.
+     */
+    @Export
+    public void publishBatch(Value messages) throws Throwable {
+        blockify((q, t) -> client.publishBatch(messages,
+                () -> q.add(true),
+                ex -> {
+                    t.set(ex);
+                    q.add(false);
+                }));
+    }
+
     @Export
     public void subscribe(String topic, Integer qos, Value onIncomingMessage) throws Throwable {
         blockify((q, t) -> client.subscribe(topic, qos,
@@ -103,6 +121,40 @@ public class BlockingClient {
                 }));
     }
 
+    /**
+     * Runs a load test against the broker of this connection and blocks until it is finished. All options are
+     * optional: {@code clients, topicPattern, topicsPerClient, payloadSize, qos, rate, durationMs, messages}.
+     *
+     * @return The counters, the throughput in msg/s and the latency percentiles in ms.
+     */
+    @Export
+    public ProxyObject loadTest(Value options) throws Throwable {
+        AtomicReference<LoadGeneratorResult> result = new AtomicReference<>();
+        blockify((q, t) -> client.loadTest(options,
+                r -> {
+                    result.set(r);
+                    q.add(true);
+                },
+                ex -> {
+                    t.set(ex);
+                    q.add(false);
+                }));
+        LoadGeneratorResult r = result.get();
+        Map<String, Object> values = new HashMap<>();
+        values.put("sent", r.sent());
+        values.put("received", r.received());
+        values.put("failed", r.failed());
+        values.put("lost", r.lost());
+        values.put("unsent", r.unsent());
+        values.put("durationMs", r.duration().toMillis());
+        values.put("throughput", r.throughput());
+        values.put("p50", r.p50().toNanos() / 1_000_000d);
+        values.put("p99", r.p99().toNanos() / 1_000_000d);
+        values.put("p999", r.p999().toNanos() / 1_000_000d);
+        values.put("max", r.max().toNanos() / 1_000_000d);
+        return ProxyObject.fromMap(values);
+    }
+
     private void blockify(BiConsumer<LinkedBlockingDeque<Boolean>, AtomicReference<Throwable>> callback) throws Throwable {
         LinkedBlockingDeque<Boolean> q = new LinkedBlockingDeque<>();
         AtomicReference<Throwable> t = new AtomicReference<>();
@@ -2,22 +2,30 @@ package org.correomqtt.core.scripting.binding;
 
 import lombok.Getter;
 import org.correomqtt.core.connection.ConnectionLifecycleTaskFactories;
+import org.correomqtt.core.loadtest.LoadGeneratorConfig;
+import org.correomqtt.core.loadtest.LoadGeneratorResult;
+import org.correomqtt.core.loadtest.LoadGeneratorTaskFactory;
 import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.model.MessageType;
 import org.correomqtt.core.model.Qos;
 import org.correomqtt.core.model.SubscriptionDTO;
 import org.correomqtt.core.pubsub.IncomingMessageEvent;
 import org.correomqtt.core.pubsub.PubSubTaskFactories;
+import org.correomqtt.core.utils.ConnectionManager;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.di.Observes;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.HostAccess.Export;
+import org.graalvm.polyglot.Value;
 import org.slf4j.Logger;
 import org.slf4j.Marker;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -36,6 +44,8 @@ public class ClientImpl {
 
     private final ConnectionLifecycleTaskFactories connectionLifecycleTaskFactories;
     private final PubSubTaskFactories pubSubTaskFactories;
+    private final LoadGeneratorTaskFactory loadGeneratorTaskFactory;
+    private final ConnectionManager connectionManager;
     private String connectionId;
     private Logger scriptLogger;
     private Queue queue;
@@ -50,9 +60,13 @@ public class ClientImpl {
 
     @Inject
     ClientImpl(ConnectionLifecycleTaskFactories connectionLifecycleTaskFactories,
-               PubSubTaskFactories pubSubTaskFactories) {
+               PubSubTaskFactories pubSubTaskFactories,
+               LoadGeneratorTaskFactory loadGeneratorTaskFactory,
+               ConnectionManager connectionManager) {
         this.connectionLifecycleTaskFactories = connectionLifecycleTaskFactories;
         this.pubSubTaskFactories = pubSubTaskFactories;
+        this.loadGeneratorTaskFactory = loadGeneratorTaskFactory;
+        this.connectionManager = connectionManager;
     }
 
     public void setContext(Context context) {
@@ -136,6 +150,51 @@ public class ClientImpl {
         }).run();
     }
 
+    void publishBatch(Value messages, Runnable onSuccess, Consumer<Throwable> onError) {
+        List<MessageDTO> messageDTOs;
+        try {
+            messageDTOs = toMessages(messages);
+        } catch (RuntimeException e) {
+            scriptLogger.error(marker, "Invalid batch of messages: {}", e.getMessage());
+            onError.accept(e);
+            return;
+        }
+        pubSubTaskFactories.getPublishBatchFactory().create(connectionId, messageDTOs).onSuccess(() -> {
+            scriptLogger.info(marker, "Published batch of {} messages.", messageDTOs.size());
+            onSuccess.run();
+        }).onError(r -> {
+            scriptLogger.error(marker, "Failed to publish batch of {} messages: {}", messageDTOs.size(), r.getUnexpectedError().getMessage());
+            onError.accept(r.getUnexpectedError());
+        }).run();
+    }
+
+    private static List<MessageDTO> toMessages(Value messages) {
+        if (messages == null || !messages.hasArrayElements()) {
+            throw new IllegalArgumentException("Expected an array of messages.");
+        }
+        List<MessageDTO> messageDTOs = new ArrayList<>((int) messages.getArraySize());
+        for (long i = 0; i < messages.getArraySize(); i++) {
+            Value message = messages.getArrayElement(i);
+            if (!message.hasMember("topic")) {
+                throw new IllegalArgumentException("Message " + i + " has no topic.");
+            }
+            Qos qos = Qos.fromJsonValue(message.hasMember("qos") ? message.getMember("qos").asInt() : 0);
+            if (qos == null) {
+                throw new IllegalArgumentException("Message " + i + " has an invalid qos.");
+            }
+            messageDTOs.add(MessageDTO.builder()
+                    .topic(message.getMember("topic").asString())
+                    .qos(qos)
+                    .payload(message.hasMember("payload") ? message.getMember("payload").asString() : null)
+                    .isRetained(message.hasMember("retained") && message.getMember("retained").asBoolean())
+                    .messageId(UUID.randomUUID().toString())
+                    .messageType(MessageType.OUTGOING)
+                    .dateTime(LocalDateTime.now())
+                    .build());
+        }
+        return messageDTOs;
+    }
+
     void subscribe(String topic, Integer qos, Runnable onSuccess, Consumer<Throwable> onError, Consumer<String> onIncomingMessage) {
         subscriptions.put(topic, onIncomingMessage);
         pubSubTaskFactories.getSubscribeFactory().create(connectionId, SubscriptionDTO.builder().topic(topic).qos(Qos.fromJsonValue(qos)).build()).onSuccess(() -> {
@@ -182,6 +241,58 @@ public class ClientImpl {
         }
     }
 
+    void loadTest(Value options, Consumer<LoadGeneratorResult> onSuccess, Consumer<Throwable> onError) {
+        LoadGeneratorConfig config;
+        try {
+            config = toLoadGeneratorConfig(options);
+        } catch (RuntimeException e) {
+            scriptLogger.error(marker, "Invalid load test options: {}", e.getMessage());
+            onError.accept(e);
+            return;
+        }
+        scriptLogger.info(marker, "Starting load test with {} clients at {} msg/s.", config.getClientCount(), config.getMessagesPerSecond());
+        loadGeneratorTaskFactory.create(config).onSuccess(result -> {
+            scriptLogger.info(marker, "Load test finished: {}", result);
+            onSuccess.accept(result);
+        }).onError(r -> {
+            scriptLogger.error(marker, "Load test failed: {}", r.getUnexpectedError().getMessage());
+            onError.accept(r.getUnexpectedError());
+        }).run();
+    }
+
+    private LoadGeneratorConfig toLoadGeneratorConfig(Value options) {
+        LoadGeneratorConfig.LoadGeneratorConfigBuilder builder = LoadGeneratorConfig.builder()
+                .connection(connectionManager.getConfig(connectionId));
+        if (options == null || options.isNull()) {
+            return builder.build();
+        }
+        if (options.hasMember("clients")) {
+            builder.clientCount(options.getMember("clients").asInt());
+        }
+        if (options.hasMember("topicPattern")) {
+            builder.topicPattern(options.getMember("topicPattern").asString());
+        }
+        if (options.hasMember("topicsPerClient")) {
+            builder.topicsPerClient(options.getMember("topicsPerClient").asInt());
+        }
+        if (options.hasMember("payloadSize")) {
+            builder.payloadSize(options.getMember("payloadSize").asInt());
+        }
+        if (options.hasMember("qos")) {
+            builder.qos(Qos.fromJsonValue(options.getMember("qos").asInt()));
+        }
+        if (options.hasMember("rate")) {
+            builder.messagesPerSecond(options.getMember("rate").asInt());
+        }
+        if (options.hasMember("durationMs")) {
+            builder.duration(Duration.ofMillis(options.getMember("durationMs").asLong()));
+        }
+        if (options.hasMember("messages")) {
+            builder.maxMessages(options.getMember("messages").asLong());
+        }
+        return builder.build();
+    }
+
     @SuppressWarnings("unused")
     public void onSubscribe(@Observes IncomingMessageEvent event) {
         queue.add(new QueueEvent(() -> {
@@ -1,6 +1,5 @@
 package org.correomqtt.core.settings;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.core.exception.CorreoMqttConfigurationMissingException;
 import org.correomqtt.core.fileprovider.BaseUserFileProvider;
@@ -11,6 +10,7 @@ import org.correomqtt.core.fileprovider.InvalidConfigFileEvent;
 import org.correomqtt.core.fileprovider.SecretStoreProvider;
 import org.correomqtt.core.fileprovider.SettingsUpdatedEvent;
 import org.correomqtt.core.fileprovider.UnaccessibleConfigFileEvent;
+import org.correomqtt.core.fileprovider.UserFilePersistence;
 import org.correomqtt.core.model.ConfigDTO;
 import org.correomqtt.core.model.ConnectionConfigDTO;
 import org.correomqtt.core.model.MessageListViewConfig;
@@ -46,8 +46,9 @@ public class SettingsManager extends BaseUserFileProvider {
 
     @Inject
     public SettingsManager(SoyEvents soyEvents,
+                           UserFilePersistence persistence,
                            SecretStoreProvider secretStoreProvider) {
-        super(soyEvents);
+        super(soyEvents, persistence);
         this.secretStoreProvider = secretStoreProvider;
 
         try {
@@ -58,7 +59,7 @@ public class SettingsManager extends BaseUserFileProvider {
         }
 
         try {
-            configDTO = new ObjectMapper().readValue(getFile(), ConfigDTO.class);
+            configDTO = persistence.read(getFile(), ConfigDTO.class);
         } catch (IOException e) {
             LOGGER.error("Exception parsing config file {}.", CONFIG_FILE_NAME, e);
             soyEvents.fire(new InvalidConfigFileEvent(e));
@@ -106,10 +107,12 @@ public class SettingsManager extends BaseUserFileProvider {
         soyEvents.fire(new SettingsUpdatedEvent(false));
     }
 
+    /**
+     * Serializes the config on the calling thread, it is written in the background.
+     */
     private void saveDTO() {
-
         try {
-            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(getFile(), configDTO);
+            persistence.saveLater(getFile().toPath(), persistence.toJson(configDTO), e -> soyEvents.fireAsync(new ConfigSaveFailedEvent(e)));
         } catch (IOException e) {
             soyEvents.fire(new ConfigSaveFailedEvent(e));
         }
@@ -3,6 +3,8 @@ package org.correomqtt.core.transformer;
 import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.plugin.model.MessageExtensionDTO;
 
+import java.util.Objects;
+
 public class MessageExtensionTransformer {
 
     private MessageExtensionTransformer() {
@@ -11,7 +13,10 @@ public class MessageExtensionTransformer {
 
     public static MessageDTO mergeDTO(MessageExtensionDTO from, MessageDTO to) {
         to.setTopic(from.getTopic());
-        to.setPayload(from.getPayload());
+        // keep the raw payload, unless it was changed, so binary payloads survive hooks that leave it untouched
+        if (!Objects.equals(from.getPayload(), to.getPayload())) {
+            to.setPayload(from.getPayload());
+        }
         to.setRetained(from.isRetained());
         to.setQos(from.getQos());
         to.setDateTime(from.getDateTime());
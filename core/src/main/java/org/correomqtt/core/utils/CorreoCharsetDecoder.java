@@ -13,24 +13,45 @@ public class CorreoCharsetDecoder {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CorreoCharsetDecoder.class);
 
+    // Decoders are stateful, but expensive enough to not create them for every message.
+    private static final ThreadLocal<CharsetDecoder> LENIENT_DECODER = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .replaceWith("?"));
+
+    private static final ThreadLocal<CharsetDecoder> STRICT_DECODER = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT));
+
     private CorreoCharsetDecoder() {
         // private Constructor
     }
 
     public static String decode(byte[] input) {
+        return decode(ByteBuffer.wrap(input));
+    }
 
-        // Currently only UTF-8 is supported. Later we may provide support for other charsets via UI.
+    public static String decode(ByteBuffer input) {
 
-        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
-        decoder.onMalformedInput(CodingErrorAction.REPLACE)
-               .onUnmappableCharacter(CodingErrorAction.REPLACE)
-               .replaceWith("?");
+        // Currently only UTF-8 is supported. Later we may provide support for other charsets via UI.
 
         try {
-            return decoder.decode(ByteBuffer.wrap(input)).toString();
+            return LENIENT_DECODER.get().decode(input.duplicate()).toString();
         } catch (CharacterCodingException e) {
             LOGGER.warn("Unable to decode input byte array to string.");
             return "?";
         }
     }
+
+    /**
+     * @return True, if the input is valid text and {@link #decode(ByteBuffer)} does not lose information.
+     */
+    public static boolean isDecodable(ByteBuffer input) {
+        try {
+            STRICT_DECODER.get().decode(input.duplicate());
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package org.correomqtt.core.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only temporary file for records that do not fit into memory anymore.
+ * <p>
+ * Records are addressed by index in the order they were appended. A second file holds a fixed size entry
+ * (offset, length) per record, so nothing but the number of records is kept in memory.
+ * Both files are deleted on {@link #close()}. The class is not thread safe.
+ */
+public class SpillFile implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillFile.class);
+
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int SHIFT_CHUNK_ENTRIES = 4096;
+
+    private final Path dataPath;
+    private final Path indexPath;
+    private final FileChannel data;
+    private final FileChannel index;
+    private long dataSize;
+    private long size;
+
+    private SpillFile(Path dataPath, Path indexPath) throws IOException {
+        this.dataPath = dataPath;
+        this.indexPath = indexPath;
+        this.data = FileChannel.open(dataPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public static SpillFile createTemp(String prefix) throws IOException {
+        Path dataPath = Files.createTempFile(prefix, ".data");
+        Path indexPath = Files.createTempFile(prefix, ".index");
+        dataPath.toFile().deleteOnExit();
+        indexPath.toFile().deleteOnExit();
+        return new SpillFile(dataPath, indexPath);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Appends the records with one write to each file.
+     */
+    public void append(List<byte[]> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        int totalLength = records.stream().mapToInt(r -> r.length).sum();
+        ByteBuffer dataBuffer = ByteBuffer.allocate(totalLength);
+        ByteBuffer indexBuffer = ByteBuffer.allocate(records.size() * INDEX_ENTRY_SIZE);
+        long offset = dataSize;
+        for (byte[] record : records) {
+            dataBuffer.put(record);
+            indexBuffer.putLong(offset).putInt(record.length);
+            offset += record.length;
+        }
+        writeFully(data, dataBuffer.flip(), dataSize);
+        writeFully(index, indexBuffer.flip(), size * INDEX_ENTRY_SIZE);
+        dataSize = offset;
+        size += records.size();
+    }
+
+    /**
+     * Reads up to count records starting at the given index. Records are contiguous on disk, so this costs
+     * one read per file.
+     */
+    public List<byte[]> read(long from, int count) throws IOException {
+        int available = (int) Math.min(count, size - from);
+        if (from < 0 || available <= 0) {
+            return List.of();
+        }
+        ByteBuffer indexBuffer = readFully(index, from * INDEX_ENTRY_SIZE, available * INDEX_ENTRY_SIZE);
+        long firstOffset = indexBuffer.getLong(0);
+        long lastEntry = (long) (available - 1) * INDEX_ENTRY_SIZE;
+        long end = indexBuffer.getLong((int) lastEntry) + indexBuffer.getInt((int) lastEntry + Long.BYTES);
+        ByteBuffer dataBuffer = readFully(data, firstOffset, (int) (end - firstOffset));
+
+        List<byte[]> records = new ArrayList<>(available);
+        for (int i = 0; i < available; i++) {
+            long offset = indexBuffer.getLong();
+            byte[] record = new byte[indexBuffer.getInt()];
+            dataBuffer.get((int) (offset - firstOffset), record);
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Removes a single record by shifting the following index entries. The data itself stays in place.
+     */
+    public void remove(long recordIndex) throws IOException {
+        if (recordIndex < 0 || recordIndex >= size) {
+            throw new IndexOutOfBoundsException("Index: " + recordIndex + ", Size: " + size);
+        }
+        long position = recordIndex;
+        while (position < size - 1) {
+            int entries = (int) Math.min(SHIFT_CHUNK_ENTRIES, size - 1 - position);
+            ByteBuffer chunk = readFully(index, (position + 1) * INDEX_ENTRY_SIZE, entries * INDEX_ENTRY_SIZE);
+            writeFully(index, chunk, position * INDEX_ENTRY_SIZE);
+            position += entries;
+        }
+        size--;
+        index.truncate(size * INDEX_ENTRY_SIZE);
+    }
+
+    public void clear() throws IOException {
+        data.truncate(0);
+        index.truncate(0);
+        dataSize = 0;
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        try {
+            data.close();
+            index.close();
+            Files.deleteIfExists(dataPath);
+            Files.deleteIfExists(indexPath);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete spill file {}", dataPath, e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of spill file at " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,240 @@
+package org.correomqtt.core.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wildcard aware index of MQTT topic filters.
+ * <p>
+ * Matching a topic against all filters costs O(topic levels) and does not depend on the number of stored filters.
+ * The MQTT rules are applied:
+ * <ul>
+ *     <li>{@code +} matches exactly one level, {@code #} matches the parent level and any number of child levels.</li>
+ *     <li>Topics starting with {@code $} (e.g. {@code $SYS/...}) are not matched by filters starting with a wildcard.</li>
+ *     <li>Shared subscriptions {@code $share/<group>/<filter>} match like {@code <filter>}.</li>
+ * </ul>
+ * Matches are returned in the order the values were added, without duplicates.
+ * The trie is not thread safe. Build it once and publish it, or guard it externally.
+ *
+ * @param <T> Type of the values attached to the filters.
+ */
+public class TopicFilterTrie<T> {
+
+    public static final String SHARED_SUBSCRIPTION_PREFIX = "$share/";
+
+    private static final char LEVEL_SEPARATOR = '/';
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private final Node<T> root = new Node<>();
+    private long sequence;
+    private int size;
+
+    private static class Node<T> {
+        private Map<String, Node<T>> children;
+        private Node<T> singleLevel;
+        private Node<T> multiLevel;
+        private List<Entry<T>> entries;
+
+        boolean isEmpty() {
+            return (children == null || children.isEmpty())
+                    && singleLevel == null
+                    && multiLevel == null
+                    && (entries == null || entries.isEmpty());
+        }
+    }
+
+    private record Entry<T>(long sequence, T value) {
+    }
+
+    public void add(String topicFilter, T value) {
+        Node<T> node = root;
+        for (String level : toLevels(topicFilter)) {
+            node = switch (level) {
+                case SINGLE_LEVEL_WILDCARD -> {
+                    if (node.singleLevel == null) {
+                        node.singleLevel = new Node<>();
+                    }
+                    yield node.singleLevel;
+                }
+                case MULTI_LEVEL_WILDCARD -> {
+                    if (node.multiLevel == null) {
+                        node.multiLevel = new Node<>();
+                    }
+                    yield node.multiLevel;
+                }
+                default -> {
+                    if (node.children == null) {
+                        node.children = new HashMap<>();
+                    }
+                    yield node.children.computeIfAbsent(level, l -> new Node<>());
+                }
+            };
+        }
+        if (node.entries == null) {
+            node.entries = new ArrayList<>(1);
+        }
+        node.entries.add(new Entry<>(sequence++, value));
+        size++;
+    }
+
+    /**
+     * Removes all entries of the value under the filter.
+     *
+     * @return True, if at least one entry was removed.
+     */
+    public boolean remove(String topicFilter, T value) {
+        List<String> levels = toLevels(topicFilter);
+        int removed = remove(root, levels, 0, value);
+        size -= removed;
+        return removed > 0;
+    }
+
+    /**
+     * @return Number of removed entries.
+     */
+    private int remove(Node<T> node, List<String> levels, int index, T value) {
+        if (index == levels.size()) {
+            if (node.entries == null) {
+                return 0;
+            }
+            int before = node.entries.size();
+            node.entries.removeIf(e -> e.value().equals(value));
+            return before - node.entries.size();
+        }
+        String level = levels.get(index);
+        Node<T> child = switch (level) {
+            case SINGLE_LEVEL_WILDCARD -> node.singleLevel;
+            case MULTI_LEVEL_WILDCARD -> node.multiLevel;
+            default -> node.children == null ? null : node.children.get(level);
+        };
+        if (child == null) {
+            return 0;
+        }
+        int removed = remove(child, levels, index + 1, value);
+        if (removed > 0 && child.isEmpty()) {
+            switch (level) {
+                case SINGLE_LEVEL_WILDCARD -> node.singleLevel = null;
+                case MULTI_LEVEL_WILDCARD -> node.multiLevel = null;
+                default -> node.children.remove(level);
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        root.children = null;
+        root.singleLevel = null;
+        root.multiLevel = null;
+        root.entries = null;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return All values whose filter matches the given topic name in the order they were added.
+     */
+    public List<T> match(String topic) {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<Entry<T>> matches = new ArrayList<>();
+        boolean systemTopic = !topic.isEmpty() && topic.charAt(0) == '$';
+        collect(root, topic, 0, systemTopic, matches);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (matches.size() == 1) {
+            return List.of(matches.get(0).value());
+        }
+        matches.sort(Comparator.comparingLong(Entry::sequence));
+        LinkedHashSet<T> values = new LinkedHashSet<>();
+        for (Entry<T> entry : matches) {
+            values.add(entry.value());
+        }
+        return new ArrayList<>(values);
+    }
+
+    public boolean matches(String topic) {
+        return !match(topic).isEmpty();
+    }
+
+    /**
+     * Walks the trie along the topic levels. {@code start} points to the first char of the current level,
+     * or is {@code topic.length() + 1} if all levels have been consumed.
+     */
+    private void collect(Node<T> node, String topic, int start, boolean systemTopic, List<Entry<T>> matches) {
+        boolean wildcardsAllowed = start != 0 || !systemTopic;
+        if (wildcardsAllowed && node.multiLevel != null && node.multiLevel.entries != null) {
+            matches.addAll(node.multiLevel.entries);
+        }
+        if (start > topic.length()) {
+            if (node.entries != null) {
+                matches.addAll(node.entries);
+            }
+            return;
+        }
+        int end = topic.indexOf(LEVEL_SEPARATOR, start);
+        if (end < 0) {
+            end = topic.length();
+        }
+        if (node.children != null) {
+            Node<T> child = node.children.get(topic.substring(start, end));
+            if (child != null) {
+                collect(child, topic, end + 1, systemTopic, matches);
+            }
+        }
+        if (wildcardsAllowed && node.singleLevel != null) {
+            collect(node.singleLevel, topic, end + 1, systemTopic, matches);
+        }
+    }
+
+    private static List<String> toLevels(String topicFilter) {
+        if (topicFilter == null || topicFilter.isEmpty()) {
+            throw new IllegalArgumentException("Topic filter must not be empty.");
+        }
+        String filter = stripSharedSubscription(topicFilter);
+        List<String> levels = new ArrayList<>();
+        int start = 0;
+        while (start <= filter.length()) {
+            int end = filter.indexOf(LEVEL_SEPARATOR, start);
+            if (end < 0) {
+                end = filter.length();
+            }
+            String level = filter.substring(start, end);
+            if (!level.equals(SINGLE_LEVEL_WILDCARD) && !level.equals(MULTI_LEVEL_WILDCARD)
+                    && (level.contains(SINGLE_LEVEL_WILDCARD) || level.contains(MULTI_LEVEL_WILDCARD))) {
+                throw new IllegalArgumentException("Wildcards must occupy an entire level: " + topicFilter);
+            }
+            if (level.equals(MULTI_LEVEL_WILDCARD) && end != filter.length()) {
+                throw new IllegalArgumentException("Multi level wildcard must be the last level: " + topicFilter);
+            }
+            levels.add(level);
+            start = end + 1;
+        }
+        return levels;
+    }
+
+    private static String stripSharedSubscription(String topicFilter) {
+        if (!topicFilter.startsWith(SHARED_SUBSCRIPTION_PREFIX)) {
+            return topicFilter;
+        }
+        int groupEnd = topicFilter.indexOf(LEVEL_SEPARATOR, SHARED_SUBSCRIPTION_PREFIX.length());
+        if (groupEnd <= SHARED_SUBSCRIPTION_PREFIX.length() || groupEnd == topicFilter.length() - 1) {
+            throw new IllegalArgumentException("Shared subscription requires a group and a topic filter: " + topicFilter);
+        }
+        return topicFilter.substring(groupEnd + 1);
+    }
+}
@@ -0,0 +1,147 @@
+package org.correomqtt.core.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerialEventLanesTests {
+
+    @Test
+    void testOrderPerLane() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            SerialEventLanes lanes = new SerialEventLanes(executor, 100, LaneOverflowPolicy.BLOCK);
+            List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+            List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(2000);
+            for (int i = 0; i < 1000; i++) {
+                int value = i;
+                lanes.execute("first", () -> {
+                    first.add(value);
+                    done.countDown();
+                }, true);
+                lanes.execute("second", () -> {
+                    second.add(value);
+                    done.countDown();
+                }, true);
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            List<Integer> expected = IntStream.range(0, 1000).boxed().toList();
+            assertEquals(expected, first);
+            assertEquals(expected, second);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testDropNewest() {
+        List<Runnable> scheduled = new ArrayList<>();
+        SerialEventLanes lanes = new SerialEventLanes(scheduled::add, 2, LaneOverflowPolicy.DROP_NEWEST);
+        List<Integer> delivered = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            lanes.execute("lane", () -> delivered.add(value), true);
+        }
+        assertEquals(1, scheduled.size());
+        scheduled.get(0).run();
+
+        assertEquals(List.of(0, 1), delivered);
+        LaneStats stats = lanes.getStats().get(0);
+        assertEquals(2, stats.delivered());
+        assertEquals(3, stats.dropped());
+    }
+
+    @Test
+    void testOnlyDroppableDeliveriesAreDropped() {
+        List<Runnable> scheduled = new ArrayList<>();
+        SerialEventLanes lanes = new SerialEventLanes(scheduled::add, 2, LaneOverflowPolicy.DROP_OLDEST);
+        List<String> delivered = new ArrayList<>();
+        lanes.execute("lane", () -> delivered.add("state"), false);
+        for (int i = 0; i < 4; i++) {
+            int value = i;
+            lanes.execute("lane", () -> delivered.add("message " + value), true);
+        }
+        lanes.execute("lane", () -> delivered.add("result"), false);
+        scheduled.get(0).run();
+
+        assertEquals(List.of("state", "message 2", "message 3", "result"), delivered);
+        assertEquals(2, lanes.getStats("lane").dropped());
+    }
+
+    @Test
+    void testBlockWaitsBounded() {
+        List<Runnable> scheduled = new ArrayList<>();
+        SerialEventLanes lanes = new SerialEventLanes(scheduled::add, 1, LaneOverflowPolicy.BLOCK);
+        long start = System.nanoTime();
+
+        lanes.execute("lane", () -> {
+        }, true);
+        lanes.execute("lane", () -> {
+        }, true);
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= SerialEventLanes.MAX_BLOCK_MILLIS - 10);
+        assertTrue(elapsedMillis < 5_000);
+        assertEquals(1, lanes.getStats("lane").dropped());
+    }
+
+    @Test
+    void testDrainerIsNotDiscarded() throws InterruptedException {
+        BoundedExecutor executor = new BoundedExecutor(ExecutorPool.EVENTS, 1, 1, RejectionPolicy.DISCARD_OLDEST, false);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> awaitQuietly(release));
+            SerialEventLanes lanes = new SerialEventLanes(executor, 10, LaneOverflowPolicy.DROP_NEWEST);
+            CountDownLatch delivered = new CountDownLatch(1);
+            lanes.execute("lane", delivered::countDown, true);
+            for (int i = 0; i < 5; i++) {
+                executor.execute(() -> {
+                });
+            }
+            release.countDown();
+
+            assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testRetainLanes() {
+        List<Runnable> scheduled = new ArrayList<>();
+        SerialEventLanes lanes = new SerialEventLanes(scheduled::add, 10, LaneOverflowPolicy.DROP_NEWEST);
+        lanes.execute("kept", () -> {
+        }, true);
+        lanes.execute("deleted", () -> {
+        }, true);
+        lanes.execute("busy", () -> {
+        }, true);
+        scheduled.get(0).run();
+        scheduled.get(1).run();
+
+        lanes.retainLanes(Set.of("kept"));
+
+        assertEquals(Set.of("kept", "busy"), lanes.getStats().stream().map(LaneStats::laneKey).collect(Collectors.toSet()));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.correomqtt.core.connection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionStateTests {
+
+    @Test
+    void testConnectOnlyWhileDisconnected() {
+        for (ConnectionState state : ConnectionState.values()) {
+            boolean disconnected = state == ConnectionState.DISCONNECTED_GRACEFUL
+                    || state == ConnectionState.DISCONNECTED_UNGRACEFUL;
+            assertTrue(disconnected == state.canChangeTo(ConnectionState.CONNECTING), state::name);
+        }
+    }
+
+    @Test
+    void testReconnectCycle() {
+        assertTrue(ConnectionState.CONNECTED.canChangeTo(ConnectionState.DISCONNECTING));
+        assertTrue(ConnectionState.DISCONNECTING.canChangeTo(ConnectionState.RECONNECTING));
+        assertTrue(ConnectionState.RECONNECTING.canChangeTo(ConnectionState.DISCONNECTING));
+        assertTrue(ConnectionState.RECONNECTING.canChangeTo(ConnectionState.CONNECTED));
+        assertFalse(ConnectionState.CONNECTED.canChangeTo(ConnectionState.CONNECTED));
+        assertFalse(ConnectionState.DISCONNECTED_GRACEFUL.canChangeTo(ConnectionState.CONNECTED));
+    }
+}
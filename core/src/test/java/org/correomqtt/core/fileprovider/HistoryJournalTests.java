@@ -0,0 +1,96 @@
+package org.correomqtt.core.fileprovider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryJournalTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<IOException> writeErrors = new ArrayList<>();
+
+    private HistoryJournal<String> open(Path path, boolean unique, boolean newestFirst, int capacity) throws IOException {
+        HistoryJournal<String> journal = new HistoryJournal<>(path, "topics", String.class, unique, newestFirst, capacity, null, writeErrors::add);
+        journal.load();
+        return journal;
+    }
+
+    @Test
+    void testReadsFormerHistoryFile() throws IOException {
+        Path path = tempDir.resolve("history.json");
+        Files.writeString(path, "{\"topics\":[\"c\",\"b\",\"a\"]}");
+        HistoryJournal<String> journal = open(path, false, true, 2);
+        assertEquals(List.of("b", "c"), journal.getEntries());
+        journal.close();
+    }
+
+    @Test
+    void testReplaysJournalWithoutCompaction() throws IOException {
+        Path path = tempDir.resolve("history.json");
+        HistoryJournal<String> journal = open(path, true, false, 10);
+        journal.add(List.of("a", "b", "c"));
+        journal.remove("b");
+        journal.add(List.of("a"));
+        // simulates a crash, nothing was compacted yet
+        assertTrue(Files.notExists(path));
+
+        HistoryJournal<String> reloaded = open(path, true, false, 10);
+        assertEquals(List.of("c", "a"), reloaded.getEntries());
+        assertEquals(List.of("G 1"), Files.readAllLines(journal.getJournalPath()));
+        assertTrue(writeErrors.isEmpty());
+        reloaded.close();
+        journal.close();
+    }
+
+    @Test
+    void testCompactWritesNewestFirstSnapshot() throws IOException {
+        Path path = tempDir.resolve("history.json");
+        HistoryJournal<String> journal = open(path, false, true, 3);
+        journal.add(List.of("a", "b", "c", "d"));
+        journal.clear();
+        journal.add(List.of("e", "f"));
+        journal.close();
+
+        assertEquals("{\"journalGeneration\":1,\"topics\":[\"f\",\"e\"]}", Files.readString(path));
+        assertEquals(List.of("e", "f"), open(path, false, true, 3).getEntries());
+    }
+
+    @Test
+    void testSkipsJournalOfFormerGeneration() throws IOException {
+        Path path = tempDir.resolve("history.json");
+        HistoryJournal<String> journal = open(path, true, false, 10);
+        journal.add(List.of("a"));
+        journal.close();
+        // crash after the snapshot was replaced, but before the journal was reset
+        Files.writeString(journal.getJournalPath(), "G 0\nA \"a\"\nA \"b\"\n");
+
+        assertEquals(List.of("a"), open(path, true, false, 10).getEntries());
+    }
+
+    @Test
+    void testStopsAtTornEntry() throws IOException {
+        Path path = tempDir.resolve("history.json");
+        HistoryJournal<String> journal = open(path, true, false, 10);
+        journal.add(List.of("a", "b"));
+        Files.writeString(journal.getJournalPath(), "A \"c", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        HistoryJournal<String> reloaded = open(path, true, false, 10);
+        assertEquals(List.of("a", "b"), reloaded.getEntries());
+        reloaded.add(List.of("d"));
+        reloaded.close();
+        assertEquals(List.of("a", "b", "d"), open(path, true, false, 10).getEntries());
+        journal.close();
+    }
+}
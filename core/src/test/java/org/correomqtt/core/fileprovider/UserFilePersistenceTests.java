@@ -0,0 +1,66 @@
+package org.correomqtt.core.fileprovider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserFilePersistenceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<IOException> failures = new ArrayList<>();
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testCoalescesSavesUntilShutdown() throws IOException {
+        UserFilePersistence persistence = new UserFilePersistence();
+        Path target = tempDir.resolve("config.json");
+        Files.writeString(target, "0");
+
+        persistence.saveLater(target, bytes("1"), failures::add);
+        persistence.saveLater(target, bytes("2"), failures::add);
+        // still within the debounce window
+        assertEquals("0", Files.readString(target));
+
+        persistence.onShutdown();
+        assertEquals("2", Files.readString(target));
+        assertFalse(Files.exists(tempDir.resolve("config.json.tmp")));
+
+        persistence.saveLater(target, bytes("3"), failures::add);
+        assertEquals("3", Files.readString(target));
+        assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    void testSaveDropsPendingSave() throws IOException {
+        UserFilePersistence persistence = new UserFilePersistence();
+        Path target = tempDir.resolve("passwords.json");
+
+        persistence.saveLater(target, bytes("stale"), failures::add);
+        persistence.save(target, bytes("current"));
+        persistence.onShutdown();
+        assertEquals("current", Files.readString(target));
+    }
+
+    @Test
+    void testReportsFailedWrite() {
+        UserFilePersistence persistence = new UserFilePersistence();
+        persistence.saveLater(tempDir.resolve("missing").resolve("config.json"), bytes("1"), failures::add);
+        persistence.onShutdown();
+        assertEquals(1, failures.size());
+    }
+}
@@ -0,0 +1,181 @@
+package org.correomqtt.core.importexport.messages;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.correomqtt.core.concurrent.TaskException;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.Qos;
+import org.correomqtt.di.SoyEvents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportMessagesTaskTests {
+
+    private static final byte[] BINARY = {(byte) 0xC3, 0x28, 0x00, (byte) 0xFF};
+
+    @TempDir
+    Path directory;
+
+    private static List<MessageDTO> createMessages(int count) {
+        List<MessageDTO> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MessageDTO messageDTO = MessageDTO.builder()
+                    .topic("correo/" + i % 10)
+                    .qos(Qos.AT_LEAST_ONCE)
+                    .payload("message, \"" + i + "\"")
+                    .build();
+            messageDTO.setTimestampNanos(1_700_000_000_000_000_000L + i);
+            messages.add(messageDTO);
+        }
+        return messages;
+    }
+
+    private static ExportMessagesTask createTask(ExportMessagesConfig config) {
+        // executed directly, so no executors are needed
+        return new ExportMessagesTask(new SoyEvents(), null, config);
+    }
+
+    @Test
+    void testGzipJsonLines() throws Exception {
+        List<MessageDTO> messages = createMessages(10_000);
+        MessageDTO binary = MessageDTO.builder().topic("correo/binary").qos(Qos.AT_MOST_ONCE).build();
+        binary.setPayloadBytes(BINARY);
+        messages.add(binary);
+        File file = directory.resolve("messages.jsonl.gz").toFile();
+
+        long exported = createTask(ExportMessagesConfig.builder()
+                .file(file)
+                .messages(messages)
+                .filter(m -> !m.getTopic().equals("correo/1"))
+                .gzip(true)
+                .build()).execute();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file.toPath())), StandardCharsets.UTF_8))) {
+            reader.lines().forEach(l -> lines.add(readTree(objectMapper, l)));
+        }
+        assertEquals(9001, exported);
+        assertEquals(9001, lines.size());
+        assertEquals("correo/0", lines.get(0).get("topic").asText());
+        assertEquals(1, lines.get(0).get("qos").asInt());
+        assertEquals("message, \"0\"", lines.get(0).get("payload").asText());
+        assertEquals(messages.get(0).getDateTime().toString(), lines.get(0).get("dateTime").asText());
+        JsonNode last = lines.get(lines.size() - 1);
+        assertFalse(last.has("payload"));
+        assertArrayEquals(BINARY, last.get("payloadBase64").binaryValue());
+    }
+
+    private static JsonNode readTree(ObjectMapper objectMapper, String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testCsv() throws Exception {
+        File file = directory.resolve("messages.csv").toFile();
+
+        createTask(ExportMessagesConfig.builder()
+                .file(file)
+                .messages(createMessages(2))
+                .format(ExportMessagesFormat.CSV)
+                .build()).execute();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(3, lines.size());
+        assertEquals("messageId,topic,qos,retained,dateTime,payload", lines.get(0));
+        assertTrue(lines.get(1).startsWith(",correo/0,1,false,"));
+        assertTrue(lines.get(1).endsWith(",\"message, \"\"0\"\"\""));
+    }
+
+    @Test
+    void testCsvBase64() throws Exception {
+        File file = directory.resolve("messages.csv").toFile();
+        MessageDTO binary = MessageDTO.builder().topic("correo/binary").build();
+        binary.setPayloadBytes(BINARY);
+
+        createTask(ExportMessagesConfig.builder()
+                .file(file)
+                .messages(List.of(binary))
+                .format(ExportMessagesFormat.CSV)
+                .base64Payloads(true)
+                .build()).execute();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals("messageId,topic,qos,retained,dateTime,payloadBase64", lines.get(0));
+        assertEquals(",correo/binary,,false,," + Base64.getEncoder().encodeToString(BINARY), lines.get(1));
+    }
+
+    @Test
+    void testCancelDeletesFile() {
+        File file = directory.resolve("messages.jsonl").toFile();
+        ExportMessagesTask task = createTask(ExportMessagesConfig.builder()
+                .file(file)
+                .messages(createMessages(10))
+                .build());
+        task.cancel();
+
+        TaskException exception = assertThrows(TaskException.class, task::execute);
+
+        assertEquals(ExportMessagesTask.Error.CANCELLED, exception.getError());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void testExportsMessagesProducedWhileIterating() throws Exception {
+        File file = directory.resolve("messages.csv").toFile();
+        int count = 100_000;
+        Iterable<MessageDTO> messages = () -> new Iterator<>() {
+
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public MessageDTO next() {
+                return MessageDTO.builder()
+                        .topic("correo/" + next++)
+                        .payload("message")
+                        .build();
+            }
+        };
+
+        long exported = createTask(ExportMessagesConfig.builder()
+                .file(file)
+                .messages(messages)
+                .total(count)
+                .format(ExportMessagesFormat.CSV)
+                .build())
+                .execute();
+
+        assertEquals(count, exported);
+        try (Stream<String> lines = Files.lines(file.toPath())) {
+            assertEquals(count + 1, lines.count());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.correomqtt.core.loadtest;
+
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.Qos;
+import org.correomqtt.core.mqtt.LoopbackBroker;
+import org.correomqtt.core.mqtt.SimulatedBrokerClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTests {
+
+    @Test
+    void testAllMessagesReceived() throws Exception {
+        try (LoopbackBroker broker = new LoopbackBroker()) {
+            LoadGeneratorConfig config = LoadGeneratorConfig.builder()
+                    .connection(ConnectionConfigDTO.builder().name("test").clientId("test").build())
+                    .clientCount(3)
+                    .topicsPerClient(2)
+                    .qos(Qos.AT_LEAST_ONCE)
+                    .messagesPerSecond(5000)
+                    .maxMessages(600)
+                    .duration(Duration.ofSeconds(10))
+                    .build();
+
+            LoadGeneratorResult result = new LoadGenerator(broker::createClient, config).run();
+
+            assertEquals(600, result.sent());
+            assertEquals(600, result.received());
+            assertEquals(0, result.failed());
+            assertEquals(0, result.lost());
+            assertEquals(0, broker.getConnected());
+            assertTrue(result.throughput() > 0);
+            assertTrue(result.p50().compareTo(result.p99()) <= 0);
+            assertTrue(result.p999().compareTo(result.max()) <= 0);
+        }
+    }
+
+    @Test
+    void testSharedTopicsReceivedOnce() throws Exception {
+        try (LoopbackBroker broker = new LoopbackBroker()) {
+            LoadGeneratorConfig config = LoadGeneratorConfig.builder()
+                    .connection(ConnectionConfigDTO.builder().name("test").build())
+                    .clientCount(4)
+                    .topicPattern("correo/load/shared")
+                    .messagesPerSecond(10_000)
+                    .maxMessages(100)
+                    .build();
+
+            LoadGeneratorResult result = new LoadGenerator(broker::createClient, config).run();
+
+            assertEquals(100, result.sent());
+            assertEquals(100, result.received());
+        }
+    }
+
+    @Test
+    void testSlowClientDelayCountsAsLatency() throws Exception {
+        List<SimulatedBrokerClient> clients = new CopyOnWriteArrayList<>();
+        LoadGeneratorConfig config = LoadGeneratorConfig.builder()
+                .connection(ConnectionConfigDTO.builder().name("test").build())
+                .clientCount(2)
+                .qos(Qos.AT_LEAST_ONCE)
+                .messagesPerSecond(10_000)
+                .maxMessages(200)
+                .maxOutstandingPerClient(3)
+                .build();
+
+        LoadGeneratorResult result = new LoadGenerator(c -> {
+            SimulatedBrokerClient client = new SimulatedBrokerClient(2, 4, 5);
+            clients.add(client);
+            return client;
+        }, config).run();
+        clients.forEach(SimulatedBrokerClient::close);
+
+        assertEquals(200, result.sent());
+        assertEquals(200, result.received());
+        assertEquals(0, result.failed());
+        assertTrue(clients.stream().allMatch(c -> c.getMaxInFlight() <= 2));
+        // scheduled within 20 ms, but a window of two with 5 ms round trips needs 250 ms per client
+        assertTrue(result.max().compareTo(Duration.ofMillis(150)) > 0, () -> "max latency " + result.max());
+    }
+
+    @Test
+    void testInvalidConfig() {
+        LoadGeneratorConfig wildcard = LoadGeneratorConfig.builder()
+                .connection(new ConnectionConfigDTO())
+                .topicPattern("correo/+/{client}")
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator(c -> null, wildcard));
+
+        LoadGeneratorConfig tinyPayload = LoadGeneratorConfig.builder()
+                .connection(new ConnectionConfigDTO())
+                .payloadSize(4)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator(c -> null, tinyPayload));
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(10_000, histogram.getTotalCount());
+        assertWithinOnePercent(5_000_000, histogram.getValueAtPercentile(50));
+        assertWithinOnePercent(9_900_000, histogram.getValueAtPercentile(99));
+        assertWithinOnePercent(9_990_000, histogram.getValueAtPercentile(99.9));
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100).toNanos());
+        assertEquals(10_000_000, histogram.getMax().toNanos());
+    }
+
+    @Test
+    void testHistogramBuckets() {
+        for (long value : new long[]{0, 1, 127, 128, 255, 256, 1_000_000, 1L << 40, (1L << 42) - 1}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+        }
+    }
+
+    private static void assertWithinOnePercent(long expectedNanos, Duration actual) {
+        long delta = Math.abs(actual.toNanos() - expectedNanos);
+        assertTrue(delta <= expectedNanos / 100, () -> "expected about " + expectedNanos + " but was " + actual.toNanos());
+    }
+}
@@ -0,0 +1,82 @@
+package org.correomqtt.core.metrics;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.Qos;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionMetricsTests {
+
+    private static MessageDTO message(Qos qos, int size) {
+        return MessageDTO.builder()
+                .topic("a/b")
+                .qos(qos)
+                .payload(ByteBuffer.allocate(size))
+                .build();
+    }
+
+    @Test
+    void testRatesPerInterval() {
+        ConnectionMetrics metrics = new ConnectionMetrics("connection");
+        long start = System.nanoTime();
+        metrics.snapshot(start);
+
+        for (int i = 0; i < 10; i++) {
+            metrics.recordIncoming("a/#", message(Qos.AT_MOST_ONCE, 100));
+        }
+        MetricsSnapshot first = metrics.snapshot(start + TimeUnit.SECONDS.toNanos(2));
+        assertEquals(5, first.incoming().messagesPerSecond(), 0.001);
+        assertEquals(500, first.incoming().bytesPerSecond(), 0.001);
+        assertEquals(10, first.incoming().totalMessages());
+        assertEquals(1, first.subscriptions().size());
+        assertEquals(10, first.subscriptions().get(0).incoming().totalMessages());
+
+        MetricsSnapshot second = metrics.snapshot(start + TimeUnit.SECONDS.toNanos(3));
+        assertEquals(0, second.incoming().messagesPerSecond(), 0.001);
+        assertEquals(10, second.incoming().totalMessages());
+    }
+
+    @Test
+    void testUiBatchSizePerInterval() {
+        ConnectionMetrics metrics = new ConnectionMetrics("connection");
+        metrics.addUiQueue(() -> 3);
+        metrics.recordUiUpdate(10);
+        metrics.recordUiUpdate(30);
+
+        MetricsSnapshot first = metrics.snapshot(System.nanoTime());
+        assertEquals(3, first.uiQueueDepth());
+        assertEquals(20, first.uiBatchSize(), 0.001);
+
+        MetricsSnapshot second = metrics.snapshot(System.nanoTime());
+        assertEquals(0, second.uiBatchSize(), 0.001);
+    }
+
+    @Test
+    void testInFlightAndAckLatency() {
+        ConnectionMetrics metrics = new ConnectionMetrics("connection");
+        MessageDTO acknowledged = message(Qos.AT_LEAST_ONCE, 10);
+        MessageDTO failed = message(Qos.EXACTLY_ONCE, 10);
+        MessageDTO fireAndForget = message(Qos.AT_MOST_ONCE, 10);
+
+        long ackStart = metrics.publishStarted(acknowledged.getQos());
+        metrics.publishStarted(failed.getQos());
+        long qos0Start = metrics.publishStarted(fireAndForget.getQos());
+        assertEquals(2, metrics.snapshot(System.nanoTime()).inFlight());
+
+        metrics.publishSucceeded(acknowledged, ackStart);
+        metrics.publishFailed(failed.getQos());
+        metrics.publishSucceeded(fireAndForget, qos0Start);
+        MetricsSnapshot snapshot = metrics.snapshot(System.nanoTime());
+
+        assertEquals(0, snapshot.inFlight());
+        assertEquals(1, snapshot.failedPublishes());
+        assertEquals(2, snapshot.outgoing().totalMessages());
+        assertEquals(1, snapshot.ackLatency().samples());
+        assertTrue(snapshot.ackLatency().max().compareTo(snapshot.ackLatency().mean()) >= 0);
+    }
+}
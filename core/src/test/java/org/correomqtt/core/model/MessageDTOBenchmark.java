@@ -0,0 +1,80 @@
+package org.correomqtt.core.model;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the former construction of an incoming message (random UUID, LocalDateTime) with the sequence id and epoch
+ * nanos timestamp. Runs on several threads, as the messages of a consumer group are built on several event loops.
+ * <p>
+ * Run with {@code mvn -pl core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.correomqtt.core.model.MessageDTOBenchmark} or directly from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MessageDTOBenchmark {
+
+    private final AtomicLong messageSequence = new AtomicLong();
+    private Mqtt5Publish publish;
+
+    @Setup
+    public void setUp() {
+        publish = Mqtt5Publish.builder()
+                .topic("plant/3/line/17/cell/4/telemetry/vibration")
+                .qos(MqttQos.AT_LEAST_ONCE)
+                .payload("{\"value\":42}".getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    @Benchmark
+    public MessageDTO uuidAndLocalDateTime() {
+        MessageDTO messageDTO = new MessageDTO();
+        messageDTO.setTopic(publish.getTopic().toString());
+        messageDTO.setQos(Qos.valueOf(publish.getQos()));
+        messageDTO.setRetained(publish.isRetain());
+        messageDTO.setPayloadBuffer(publish.getPayload().orElse(ByteBuffer.allocate(0)));
+        messageDTO.setDateTime(LocalDateTime.now(ZoneOffset.UTC));
+        messageDTO.setMessageId(UUID.randomUUID().toString());
+        messageDTO.setMessageType(MessageType.INCOMING);
+        return messageDTO;
+    }
+
+    @Benchmark
+    public MessageDTO sequenceIdAndTimestamp() {
+        return new MessageDTO(publish, messageSequence.incrementAndGet());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageDTOBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,81 @@
+package org.correomqtt.core.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageDTOTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void testTextPayloadJson() throws IOException {
+        MessageDTO messageDTO = MessageDTO.builder()
+                .topic("a/b")
+                .payload("äöü")
+                .build();
+
+        String json = objectMapper.writeValueAsString(messageDTO);
+        assertTrue(json.contains("\"payload\":\"äöü\""));
+        assertFalse(json.contains("payloadBase64"));
+
+        MessageDTO read = objectMapper.readValue(json, MessageDTO.class);
+        assertEquals("äöü", read.getPayload());
+    }
+
+    @Test
+    void testBinaryPayloadJson() throws IOException {
+        byte[] binary = {(byte) 0xff, 0x00, (byte) 0xc3, 0x28};
+        MessageDTO messageDTO = MessageDTO.builder()
+                .topic("a/b")
+                .payload(ByteBuffer.wrap(binary))
+                .build();
+
+        assertFalse(messageDTO.isTextPayload());
+
+        String json = objectMapper.writeValueAsString(messageDTO);
+        assertFalse(json.contains("\"payload\""));
+
+        MessageDTO read = objectMapper.readValue(json, MessageDTO.class);
+        assertArrayEquals(binary, read.getPayloadBytes());
+        assertEquals(messageDTO, read);
+    }
+
+    @Test
+    void testIdentityDerivedFromSequenceAndTimestamp() throws IOException {
+        MessageDTO messageDTO = MessageDTO.builder()
+                .topic("a/b")
+                .payload("x")
+                .sequenceId(42)
+                .build();
+        messageDTO.setTimestampNanos(1_700_000_000_123_456_789L);
+
+        assertEquals(LocalDateTime.of(2023, 11, 14, 22, 13, 20, 123_456_789), messageDTO.getDateTime());
+        String messageId = messageDTO.getMessageId();
+        assertTrue(messageId.endsWith("-" + Long.toString(42, Character.MAX_RADIX)));
+        assertNotEquals(messageId, MessageDTO.builder().sequenceId(43).build().getMessageId());
+        assertNull(MessageDTO.builder().build().getMessageId());
+
+        MessageDTO read = objectMapper.readValue(objectMapper.writeValueAsString(messageDTO), MessageDTO.class);
+        assertEquals(messageId, read.getMessageId());
+        // persisted with millisecond precision
+        assertEquals(messageDTO.getDateTime().truncatedTo(ChronoUnit.MILLIS), read.getDateTime());
+        assertEquals(0, read.getSequenceId());
+
+        messageDTO.setDateTime(LocalDateTime.of(2020, 1, 1, 0, 0));
+        assertEquals(0, messageDTO.getTimestampNanos());
+        assertEquals(LocalDateTime.of(2020, 1, 1, 0, 0), messageDTO.getDateTime());
+    }
+}
@@ -0,0 +1,47 @@
+package org.correomqtt.core.mqtt;
+
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.Lwt;
+import org.correomqtt.core.model.Proxy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class CorreoMqttConsumerGroupClientTests {
+
+    @Test
+    void testSharedFilter() {
+        assertEquals("$share/g/a/+/b", CorreoMqttConsumerGroupClient.toSharedFilter("g", "a/+/b"));
+        assertEquals("$share/other/#", CorreoMqttConsumerGroupClient.toSharedFilter("g", "$share/other/#"));
+        assertEquals("a/+/b", CorreoMqttConsumerGroupClient.toPlainFilter("g", "$share/g/a/+/b"));
+        assertEquals("$share/other/#", CorreoMqttConsumerGroupClient.toPlainFilter("g", "$share/other/#"));
+        assertEquals("$share/g/a", CorreoMqttConsumerGroupClient.toPlainFilter(null, "$share/g/a"));
+    }
+
+    @Test
+    void testMemberConfigUsesTunnelOfFirstMember() {
+        ConnectionConfigDTO configDTO = ConnectionConfigDTO.builder()
+                .id("connection")
+                .clientId("client")
+                .url("localhost")
+                .port(1883)
+                .proxy(Proxy.SSH)
+                .localPort(31883)
+                .lwt(Lwt.ON)
+                .offlineQueue(true)
+                .consumerGroup("g")
+                .consumerGroupSize(4)
+                .build();
+
+        ConnectionConfigDTO member = CorreoMqttConsumerGroupClient.memberConfig(configDTO, 2);
+
+        assertEquals("connection-2", member.getId());
+        assertEquals("client-2", member.getClientId());
+        assertEquals(Proxy.OFF, member.getProxy());
+        assertEquals(31883, member.getPort());
+        assertEquals(Lwt.OFF, member.getLwt());
+        assertFalse(member.isOfflineQueue());
+        assertEquals(1, member.getConsumerGroupSize());
+    }
+}
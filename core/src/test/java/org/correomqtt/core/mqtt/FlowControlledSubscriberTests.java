@@ -0,0 +1,119 @@
+package org.correomqtt.core.mqtt;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.SubscriptionOverflowPolicy;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlowControlledSubscriberTests {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final List<String> received = new ArrayList<>();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final FakeSubscription subscription = new FakeSubscription();
+
+    private FlowControlledSubscriber subscribe(SubscriptionOverflowPolicy policy, int capacity) {
+        FlowControlledSubscriber subscriber = new FlowControlledSubscriber(policy,
+                capacity,
+                tasks::add,
+                messageDTO -> received.add(messageDTO.getTopic() + ":" + messageDTO.getPayload()),
+                dropped::incrementAndGet);
+        subscriber.onSubscribe(subscription);
+        return subscriber;
+    }
+
+    private static MessageDTO message(String topic, String payload) {
+        return MessageDTO.builder()
+                .topic(topic)
+                .payloadText(payload)
+                .build();
+    }
+
+    private void drain() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    @Test
+    void testDropNewestKeepsBufferedMessages() {
+        FlowControlledSubscriber subscriber = subscribe(SubscriptionOverflowPolicy.DROP_NEWEST, 2);
+        for (int i = 0; i < 4; i++) {
+            subscriber.onNext(message("a", String.valueOf(i)));
+        }
+        drain();
+        assertEquals(List.of("a:0", "a:1"), received);
+        assertEquals(2, dropped.get());
+        assertEquals(Long.MAX_VALUE, subscription.requested);
+    }
+
+    @Test
+    void testDropOldestKeepsLatestMessages() {
+        FlowControlledSubscriber subscriber = subscribe(SubscriptionOverflowPolicy.DROP_OLDEST, 2);
+        for (int i = 0; i < 4; i++) {
+            subscriber.onNext(message("a", String.valueOf(i)));
+        }
+        drain();
+        assertEquals(List.of("a:2", "a:3"), received);
+        assertEquals(2, dropped.get());
+    }
+
+    @Test
+    void testConflateKeepsLatestPerTopic() {
+        FlowControlledSubscriber subscriber = subscribe(SubscriptionOverflowPolicy.CONFLATE, 10);
+        subscriber.onNext(message("a", "0"));
+        subscriber.onNext(message("b", "0"));
+        subscriber.onNext(message("a", "1"));
+        drain();
+        assertEquals(List.of("a:1", "b:0"), received);
+        assertEquals(1, dropped.get());
+    }
+
+    @Test
+    void testBackpressureRequestsOnlyWhatWasHandled() {
+        FlowControlledSubscriber subscriber = subscribe(SubscriptionOverflowPolicy.BACKPRESSURE, 3);
+        assertEquals(3, subscription.requested);
+        for (int i = 0; i < 3; i++) {
+            subscriber.onNext(message("a", String.valueOf(i)));
+        }
+        drain();
+        assertEquals(3, received.size());
+        assertEquals(6, subscription.requested);
+        assertEquals(0, dropped.get());
+    }
+
+    @Test
+    void testCancelDropsBufferedMessages() {
+        FlowControlledSubscriber subscriber = subscribe(SubscriptionOverflowPolicy.DROP_OLDEST, 10);
+        subscriber.onNext(message("a", "0"));
+        subscriber.cancel();
+        drain();
+        assertTrue(received.isEmpty());
+        assertTrue(subscription.cancelled);
+    }
+
+    private static class FakeSubscription implements Subscription {
+
+        private long requested;
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested = n == Long.MAX_VALUE ? n : requested + n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
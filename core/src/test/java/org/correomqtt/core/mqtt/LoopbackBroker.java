@@ -0,0 +1,136 @@
+package org.correomqtt.core.mqtt;
+
+import org.correomqtt.core.connection.ConnectionState;
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.SubscriptionDTO;
+import org.correomqtt.core.utils.TopicFilterTrie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Embedded broker stand-in for tests: routes published messages to the matching subscriptions of all its clients on a
+ * single delivery thread.
+ */
+public class LoopbackBroker implements AutoCloseable {
+
+    private final TopicFilterTrie<Consumer<MessageDTO>> subscriptions = new TopicFilterTrie<>();
+    private final ExecutorService delivery = Executors.newSingleThreadExecutor();
+    private final AtomicInteger connected = new AtomicInteger();
+
+    public LoopbackClient createClient(ConnectionConfigDTO ignore) {
+        return new LoopbackClient();
+    }
+
+    /**
+     * @return Clients connected right now.
+     */
+    public int getConnected() {
+        return connected.get();
+    }
+
+    private synchronized List<Consumer<MessageDTO>> match(String topic) {
+        return subscriptions.match(topic);
+    }
+
+    @Override
+    public void close() {
+        delivery.shutdownNow();
+    }
+
+    /**
+     * Remembers every message it publishes and when, before it is delivered.
+     */
+    public class LoopbackClient implements CorreoMqttClient {
+
+        private final Set<SubscriptionDTO> own = new HashSet<>();
+        private final List<MessageDTO> published = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> publishedAt = Collections.synchronizedList(new ArrayList<>());
+        private volatile Consumer<MessageDTO> onPublish = m -> {
+        };
+        private ConnectionState state = ConnectionState.DISCONNECTED_GRACEFUL;
+
+        public List<MessageDTO> getPublished() {
+            return published;
+        }
+
+        /**
+         * @return {@link System#nanoTime()} of each publish.
+         */
+        public List<Long> getPublishedAt() {
+            return publishedAt;
+        }
+
+        /**
+         * @param onPublish Called on the publishing thread for each message.
+         */
+        public void setOnPublish(Consumer<MessageDTO> onPublish) {
+            this.onPublish = onPublish;
+        }
+
+        @Override
+        public void connect() {
+            state = ConnectionState.CONNECTED;
+            connected.incrementAndGet();
+        }
+
+        @Override
+        public void disconnect() {
+            state = ConnectionState.DISCONNECTED_GRACEFUL;
+            connected.decrementAndGet();
+        }
+
+        @Override
+        public void publish(MessageDTO messageDTO) {
+            publishAsync(messageDTO).join();
+        }
+
+        @Override
+        public CompletableFuture<MessageDTO> publishAsync(MessageDTO messageDTO) {
+            publishedAt.add(System.nanoTime());
+            published.add(messageDTO);
+            onPublish.accept(messageDTO);
+            return CompletableFuture.supplyAsync(() -> {
+                match(messageDTO.getTopic()).forEach(c -> c.accept(messageDTO));
+                return messageDTO;
+            }, delivery);
+        }
+
+        @Override
+        public List<CompletableFuture<MessageDTO>> publishBatch(List<MessageDTO> messages) {
+            return messages.stream().map(this::publishAsync).toList();
+        }
+
+        @Override
+        public void subscribe(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback) {
+            synchronized (LoopbackBroker.this) {
+                subscriptions.add(subscriptionDTO.getTopic(), incomingCallback);
+            }
+            own.add(subscriptionDTO);
+        }
+
+        @Override
+        public void unsubscribe(SubscriptionDTO subscriptionDTO) {
+            own.remove(subscriptionDTO);
+        }
+
+        @Override
+        public Set<SubscriptionDTO> getSubscriptions() {
+            return own;
+        }
+
+        @Override
+        public ConnectionState getState() {
+            return state;
+        }
+    }
+}
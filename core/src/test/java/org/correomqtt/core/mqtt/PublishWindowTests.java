@@ -0,0 +1,46 @@
+package org.correomqtt.core.mqtt;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.Qos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PublishWindowTests {
+
+    private static MessageDTO message(int i) {
+        return MessageDTO.builder()
+                .topic("correo/window")
+                .qos(Qos.AT_LEAST_ONCE)
+                .payload(String.valueOf(i))
+                .build();
+    }
+
+    @Test
+    void testFullQueueSlowsDownProducer() throws Exception {
+        int window = 4;
+        int queueCapacity = 8;
+        try (SimulatedBrokerClient client = new SimulatedBrokerClient(window, queueCapacity, 5)) {
+            client.connect();
+            List<CompletableFuture<MessageDTO>> futures = new ArrayList<>();
+            int maxWaiting = 0;
+            for (int i = 0; i < 200; i++) {
+                futures.add(client.publishAsync(message(i)));
+                maxWaiting = Math.max(maxWaiting, futures.size() - client.getSent().size());
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+            assertTrue(maxWaiting <= queueCapacity + 1, "waiting " + maxWaiting);
+            assertTrue(client.getMaxInFlight() <= window, "in flight " + client.getMaxInFlight());
+            for (int i = 0; i < 200; i++) {
+                assertEquals(String.valueOf(i), client.getSent().get(i).getPayload());
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.correomqtt.core.mqtt;
+
+import org.correomqtt.core.model.ReconnectSettingsDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReconnectDelayTests {
+
+    private static final ReconnectSettingsDTO SETTINGS = ReconnectSettingsDTO.builder()
+            .initialDelay(1000)
+            .maxDelay(10_000)
+            .multiplier(2)
+            .jitter(0.5)
+            .build();
+
+    @Test
+    void testExponentialGrowthUpToMaximum() {
+        assertEquals(1000, BaseCorreoMqttClient.reconnectDelay(SETTINGS, 1, 0));
+        assertEquals(2000, BaseCorreoMqttClient.reconnectDelay(SETTINGS, 2, 0));
+        assertEquals(8000, BaseCorreoMqttClient.reconnectDelay(SETTINGS, 4, 0));
+        assertEquals(10_000, BaseCorreoMqttClient.reconnectDelay(SETTINGS, 5, 0));
+        assertEquals(10_000, BaseCorreoMqttClient.reconnectDelay(SETTINGS, Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    void testJitterShortensDelay() {
+        assertEquals(500, BaseCorreoMqttClient.reconnectDelay(SETTINGS, 1, 1));
+        assertEquals(5000, BaseCorreoMqttClient.reconnectDelay(SETTINGS, 10, 1));
+        assertEquals(7500, BaseCorreoMqttClient.reconnectDelay(SETTINGS, 10, 0.5));
+    }
+}
@@ -0,0 +1,137 @@
+package org.correomqtt.core.mqtt;
+
+import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedContext;
+import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedContext;
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.SettingsDTO;
+import org.correomqtt.core.model.SubscriptionDTO;
+import org.correomqtt.core.recorder.MessageRecorder;
+import org.correomqtt.core.recorder.MessageRecorderRegistry;
+import org.correomqtt.di.SoyEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Client for tests, which goes through the publish window and queue of {@link BaseCorreoMqttClient} and acknowledges
+ * every sent message after a fixed round trip time. Acknowledged messages are delivered to a subscription with the
+ * same topic.
+ */
+public class SimulatedBrokerClient extends BaseCorreoMqttClient implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulatedBrokerClient.class);
+
+    private final ScheduledExecutorService broker = Executors.newSingleThreadScheduledExecutor();
+    private final long rttMillis;
+    private final List<MessageDTO> sent = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Map<String, Consumer<MessageDTO>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * @param publishWindow        Unacknowledged QoS 1 and 2 messages.
+     * @param publishQueueCapacity Messages waiting for the window.
+     */
+    public SimulatedBrokerClient(int publishWindow, int publishQueueCapacity, long rttMillis) {
+        super(new SoyEvents(),
+                ConnectionConfigDTO.builder().id("simulated").name("simulated").build(),
+                SettingsDTO.builder().publishWindow(publishWindow).publishQueueCapacity(publishQueueCapacity).build(),
+                null,
+                null,
+                new NotRecording(),
+                Runnable::run);
+        this.rttMillis = rttMillis;
+    }
+
+    /**
+     * @return Messages in the order they were sent to the broker.
+     */
+    public List<MessageDTO> getSent() {
+        return sent;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    Logger getLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    void executeConnect() {
+        onConnected(null);
+    }
+
+    @Override
+    boolean isSessionPresent(MqttClientConnectedContext context) {
+        return false;
+    }
+
+    @Override
+    void doUnsubscribe(SubscriptionDTO subscriptionDTO) {
+        subscribers.remove(subscriptionDTO.getTopic());
+    }
+
+    @Override
+    CompletableFuture<MessageDTO> doPublishAsync(MessageDTO messageDTO) {
+        sent.add(messageDTO);
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        CompletableFuture<MessageDTO> acknowledged = new CompletableFuture<>();
+        broker.schedule(() -> {
+            inFlight.decrementAndGet();
+            acknowledged.complete(messageDTO);
+            Consumer<MessageDTO> subscriber = subscribers.get(messageDTO.getTopic());
+            if (subscriber != null) {
+                subscriber.accept(messageDTO);
+            }
+        }, rttMillis, TimeUnit.MILLISECONDS);
+        return acknowledged;
+    }
+
+    @Override
+    CompletableFuture<Void> doSubscribeAsync(SubscriptionDTO subscriptionDTO, Consumer<MessageDTO> incomingCallback) {
+        subscribers.put(subscriptionDTO.getTopic(), incomingCallback);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    void doReconnect(MqttClientDisconnectedContext context, long delayMillis) {
+        // never disconnected by the broker
+    }
+
+    @Override
+    void doDisconnect() {
+        broker.shutdownNow();
+    }
+
+    @Override
+    public void close() {
+        broker.shutdownNow();
+    }
+
+    private static class NotRecording extends MessageRecorderRegistry {
+
+        NotRecording() {
+            super(null);
+        }
+
+        @Override
+        public MessageRecorder forSubscription(String connectionId, SubscriptionDTO subscriptionDTO) {
+            return null;
+        }
+    }
+}
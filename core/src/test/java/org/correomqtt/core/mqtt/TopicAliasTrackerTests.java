@@ -0,0 +1,45 @@
+package org.correomqtt.core.mqtt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicAliasTrackerTests {
+
+    @Test
+    void testEvictsLeastRecentlyUsedTopic() {
+        TopicAliasTracker tracker = new TopicAliasTracker();
+        tracker.reset(2);
+
+        assertFalse(tracker.onPublish("a"));
+        assertFalse(tracker.onPublish("b"));
+        assertTrue(tracker.onPublish("a"));
+        // takes the alias of b
+        assertFalse(tracker.onPublish("c"));
+        assertTrue(tracker.onPublish("a"));
+        assertFalse(tracker.onPublish("b"));
+        assertEquals(2, tracker.getActive());
+    }
+
+    @Test
+    void testDisabledAndResetPerConnection() {
+        TopicAliasTracker tracker = new TopicAliasTracker();
+        assertFalse(tracker.onPublish("a"));
+        assertFalse(tracker.onPublish("a"));
+        assertEquals(0, tracker.getActive());
+
+        tracker.reset(1);
+        tracker.onPublish("a");
+        tracker.reset(1);
+        assertFalse(tracker.onPublish("a"));
+    }
+
+    @Test
+    void testSavedBytes() {
+        String topic = "plant/3/line/17/cell/4/telemetry/vibration";
+        assertEquals(topic.length() - TopicAliasTracker.ALIAS_PROPERTY_SIZE, TopicAliasTracker.savedBytes(topic, true));
+        assertEquals(-TopicAliasTracker.ALIAS_PROPERTY_SIZE, TopicAliasTracker.savedBytes(topic, false));
+    }
+}
@@ -0,0 +1,140 @@
+package org.correomqtt.core.offline;
+
+import org.correomqtt.core.exception.CorreoMqttOfflineQueueFullException;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.Qos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfflinePublishQueueTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static MessageDTO message(String topic, int payloadSize) {
+        MessageDTO messageDTO = MessageDTO.builder()
+                .topic(topic)
+                .qos(Qos.AT_LEAST_ONCE)
+                .isRetained(true)
+                .messageId(topic + "-id")
+                .build();
+        byte[] payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) i;
+        }
+        messageDTO.setPayloadBytes(payload);
+        return messageDTO;
+    }
+
+    @Test
+    void testQueuesOnlyWhileOfflineOrPending() throws IOException {
+        try (OfflinePublishQueue queue = new OfflinePublishQueue(tempDir.resolve("q.queue"), 1 << 20)) {
+            assertFalse(queue.offer(message("a", 1), true));
+            assertTrue(queue.offer(message("a", 1), false));
+            // must not overtake the queued message
+            assertTrue(queue.offer(message("a", 2), true));
+            assertEquals(2, queue.size());
+            assertTrue(queue.getOldestTimestamp() > 0);
+        }
+    }
+
+    @Test
+    void testRestoresUncommittedEntriesInOrder() throws IOException {
+        Path path = tempDir.resolve("q.queue");
+        try (OfflinePublishQueue queue = new OfflinePublishQueue(path, 1 << 20)) {
+            for (int i = 0; i < 3; i++) {
+                queue.offer(message("topic/" + i, 10 + i), false);
+            }
+            assertTrue(queue.startDraining());
+            queue.commit(queue.next());
+            // handed out but not acknowledged
+            queue.next();
+        }
+
+        try (OfflinePublishQueue queue = new OfflinePublishQueue(path, 1 << 20)) {
+            assertEquals(2, queue.size());
+            OfflinePublishQueue.Entry first = queue.next();
+            assertEquals("topic/1", first.messageDTO().getTopic());
+            assertEquals("topic/1-id", first.messageDTO().getMessageId());
+            assertEquals(Qos.AT_LEAST_ONCE, first.messageDTO().getQos());
+            assertTrue(first.messageDTO().isRetained());
+            assertArrayEquals(message("x", 11).getPayloadBytes(), first.messageDTO().getPayloadBytes());
+            assertEquals("topic/2", queue.next().messageDTO().getTopic());
+            assertNull(queue.next());
+        }
+    }
+
+    @Test
+    void testStopDrainingHandsOutUncommittedEntriesAgain() throws IOException {
+        try (OfflinePublishQueue queue = new OfflinePublishQueue(tempDir.resolve("q.queue"), 1 << 20)) {
+            queue.offer(message("a", 1), false);
+            queue.offer(message("b", 1), false);
+            queue.startDraining();
+            queue.commit(queue.next());
+            queue.next();
+            queue.stopDraining();
+
+            queue.startDraining();
+            OfflinePublishQueue.Entry entry = queue.next();
+            assertEquals("b", entry.messageDTO().getTopic());
+            assertFalse(queue.stopDrainingIfEmpty());
+            queue.commit(entry);
+            assertTrue(queue.stopDrainingIfEmpty());
+            assertEquals(0, queue.getOldestTimestamp());
+        }
+    }
+
+    @Test
+    void testGrowsAndRejectsBeyondMaximum() throws IOException {
+        try (OfflinePublishQueue queue = new OfflinePublishQueue(tempDir.resolve("q.queue"), 256 * 1024)) {
+            for (int i = 0; i < 6; i++) {
+                queue.offer(message("big/" + i, 40 * 1024), false);
+            }
+            assertEquals(6, queue.size());
+            assertThrows(CorreoMqttOfflineQueueFullException.class, () -> queue.offer(message("big", 40 * 1024), false));
+
+            // draining a part frees room at the start of the file
+            queue.startDraining();
+            queue.commit(queue.next());
+            queue.commit(queue.next());
+            queue.stopDraining();
+            queue.offer(message("big/6", 40 * 1024), false);
+
+            queue.startDraining();
+            assertEquals("big/2", queue.next().messageDTO().getTopic());
+            assertEquals(5, queue.size());
+        }
+    }
+
+    @Test
+    void testReclaimsCommittedEntriesWhileDraining() throws IOException {
+        try (OfflinePublishQueue queue = new OfflinePublishQueue(tempDir.resolve("q.queue"), 256 * 1024)) {
+            queue.offer(message("big/0", 40 * 1024), false);
+            queue.startDraining();
+            OfflinePublishQueue.Entry inFlight = queue.next();
+            // a connected producer keeps queueing behind the entries being sent, far beyond the maximum size
+            for (int i = 1; i <= 30; i++) {
+                assertTrue(queue.offer(message("big/" + i, 40 * 1024), true));
+                OfflinePublishQueue.Entry following = queue.next();
+                // handed out before the file was compacted
+                queue.commit(inFlight);
+                inFlight = following;
+            }
+
+            assertEquals(1, queue.size());
+            assertEquals("big/30", inFlight.messageDTO().getTopic());
+            queue.commit(inFlight);
+            assertTrue(queue.stopDrainingIfEmpty());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.correomqtt.core.plugin;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hivemq.client.mqtt.datatypes.MqttTopic;
+import com.hivemq.client.mqtt.datatypes.MqttTopicFilter;
+import lombok.Getter;
+import lombok.Setter;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.MessageType;
+import org.correomqtt.core.model.Qos;
+import org.correomqtt.core.plugin.model.MessageExtensionDTO;
+import org.correomqtt.core.plugin.spi.IncomingMessageHook;
+import org.correomqtt.core.plugin.spi.IncomingMessageHookDTO;
+import org.correomqtt.core.transformer.MessageExtensionTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.MarkerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former per message hook resolution (parse config, parse topic filters) with the compiled pipeline.
+ * The cost of {@link #compiledPipeline()} must stay flat for growing {@link #configSize}.
+ * <p>
+ * Run with {@code mvn -pl core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.correomqtt.core.plugin.MessageHookPipelineBenchmark} or directly from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageHookPipelineBenchmark {
+
+    private static final String CONNECTION_ID = "benchmark";
+
+    @Param({"1", "10", "100"})
+    private int configSize;
+
+    private JsonNode configNode;
+    private MessageHookPipeline pipeline;
+    private MessageDTO messageDTO;
+
+    @Getter
+    @Setter
+    public static class HookConfig implements IncomingMessageHookDTO {
+        private boolean enableIncoming;
+        private List<String> incomingTopicFilter;
+    }
+
+    public static class NoopHook implements IncomingMessageHook<HookConfig> {
+
+        private HookConfig config;
+
+        @Override
+        public MessageExtensionDTO onMessageIncoming(String connectionId, MessageExtensionDTO messagePropertiesDTO) {
+            return messagePropertiesDTO;
+        }
+
+        @Override
+        public Class<HookConfig> getConfigClass() {
+            return HookConfig.class;
+        }
+
+        @Override
+        public HookConfig getConfig() {
+            return config;
+        }
+
+        @Override
+        public void onConfigReceived(HookConfig config) {
+            this.config = config;
+        }
+    }
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        List<String> filters = new ArrayList<>();
+        filters.add("plant/#");
+        for (int i = 1; i < configSize; i++) {
+            filters.add("plant/" + i + "/+/telemetry/#");
+        }
+
+        HookConfig config = new HookConfig();
+        config.setEnableIncoming(true);
+        config.setIncomingTopicFilter(filters);
+        configNode = new ObjectMapper().valueToTree(config);
+
+        NoopHook hook = new NoopHook();
+        hook.onConfigReceived(new ObjectMapper().treeToValue(configNode, HookConfig.class));
+        pipeline = MessageHookPipeline.compile(List.of(hook), List.of());
+
+        messageDTO = MessageDTO.builder()
+                .topic("plant/3/line/17/cell/4/telemetry/vibration")
+                .payload("{\"value\":42}")
+                .qos(Qos.AT_LEAST_ONCE)
+                .messageType(MessageType.INCOMING)
+                .build();
+    }
+
+    @Benchmark
+    public MessageDTO perMessageResolution() throws JsonProcessingException {
+        NoopHook hook = new NoopHook();
+        hook.onConfigReceived(new ObjectMapper().treeToValue(configNode, HookConfig.class));
+        MessageExtensionDTO messageExtensionDTO = new MessageExtensionDTO(messageDTO);
+        HookConfig config = hook.getConfig();
+        if (config.isEnableIncoming() && config.getIncomingTopicFilter()
+                .stream()
+                .anyMatch(tp -> MqttTopicFilter.of(tp).matches(MqttTopic.of(messageDTO.getTopic())))) {
+            messageExtensionDTO = hook.onMessageIncoming(CONNECTION_ID, messageExtensionDTO);
+        }
+        return MessageExtensionTransformer.mergeDTO(messageExtensionDTO, messageDTO);
+    }
+
+    @Benchmark
+    public MessageDTO compiledPipeline() {
+        return pipeline.executeIncoming(CONNECTION_ID, messageDTO, MarkerFactory.getMarker(CONNECTION_ID));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageHookPipelineBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
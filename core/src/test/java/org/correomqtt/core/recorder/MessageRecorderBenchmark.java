@@ -0,0 +1,86 @@
+package org.correomqtt.core.recorder;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.Qos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Records messages of 1000 topics with a payload of 200 bytes, which has to stay well above 50k messages per second.
+ * Run with {@code -prof gc} to see the allocations per message.
+ * <p>
+ * Run with {@code mvn -pl core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.correomqtt.core.recorder.MessageRecorderBenchmark} or directly from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageRecorderBenchmark {
+
+    private static final int TOPICS = 1000;
+
+    private final MessageDTO[] messages = new MessageDTO[TOPICS];
+    private Path directory;
+    private MessageRecorder recorder;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("correo-recorder-benchmark");
+        recorder = new MessageRecorder(directory, 64L * 1024 * 1024, 4);
+        byte[] payload = "x".repeat(200).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < TOPICS; i++) {
+            messages[i] = MessageDTO.builder()
+                    .topic("plant/" + i / 100 + "/line/" + i % 100 + "/telemetry")
+                    .qos(Qos.AT_MOST_ONCE)
+                    .build();
+            messages[i].setPayloadBytes(payload);
+            messages[i].setTimestampNanos(MessageDTO.nowNanos());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        recorder.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        recorder.record(messages[next++ % TOPICS]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageRecorderBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,115 @@
+package org.correomqtt.core.recorder;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.Qos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageRecorderTests {
+
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private static MessageDTO message(String topic, long timestampNanos, int payloadSize) {
+        MessageDTO messageDTO = MessageDTO.builder()
+                .topic(topic)
+                .qos(Qos.AT_LEAST_ONCE)
+                .isRetained(true)
+                .build();
+        byte[] payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) i;
+        }
+        messageDTO.setPayloadBytes(payload);
+        messageDTO.setTimestampNanos(timestampNanos);
+        return messageDTO;
+    }
+
+    private static List<MessageDTO> read(MessageRecording recording, long from, long to, String topicFilter) throws IOException {
+        List<MessageDTO> messages = new ArrayList<>();
+        recording.read(from, to, topicFilter, m -> messages.add(m.toMessageDTO()));
+        return messages;
+    }
+
+    @Test
+    void testReadsWhileRecording() throws IOException {
+        try (MessageRecorder recorder = new MessageRecorder(tempDir, SEGMENT_SIZE, 0)) {
+            recorder.record(message("a/1", 10, 3));
+            recorder.record(message("b/1", 20, 0));
+
+            List<MessageDTO> messages = read(new MessageRecording(tempDir), 0, Long.MAX_VALUE, null);
+            assertEquals(2, messages.size());
+            MessageDTO first = messages.get(0);
+            assertEquals("a/1", first.getTopic());
+            assertEquals(Qos.AT_LEAST_ONCE, first.getQos());
+            assertTrue(first.isRetained());
+            assertEquals(10, first.getTimestampNanos());
+            assertArrayEquals(new byte[]{0, 1, 2}, first.getPayloadBytes());
+            assertEquals(0, messages.get(1).getPayloadBytes().length);
+        }
+    }
+
+    @Test
+    void testRollsSegmentsAndUsesIndex() throws IOException {
+        try (MessageRecorder recorder = new MessageRecorder(tempDir, SEGMENT_SIZE, 0)) {
+            for (int i = 0; i < 1000; i++) {
+                recorder.record(message(i % 2 == 0 ? "plant/1/temp" : "plant/2/temp", i, 10_000));
+            }
+        }
+        assertTrue(MessageRecording.listSegments(tempDir).size() > 5);
+        assertTrue(Files.exists(tempDir.resolve(MessageRecording.segmentFileName(1, MessageRecorder.INDEX_SUFFIX))));
+
+        MessageRecording recording = new MessageRecording(tempDir);
+        List<MessageDTO> messages = read(recording, 500, 600, "plant/+/temp");
+        assertEquals(100, messages.size());
+        assertEquals(500, messages.get(0).getTimestampNanos());
+        assertEquals(599, messages.get(99).getTimestampNanos());
+
+        List<MessageDTO> second = read(recording, 0, Long.MAX_VALUE, "plant/2/#");
+        assertEquals(500, second.size());
+        assertTrue(second.stream().allMatch(m -> m.getTopic().equals("plant/2/temp")));
+        assertEquals(0, read(recording, 0, Long.MAX_VALUE, "plant/3/temp").size());
+    }
+
+    @Test
+    void testDeletesOldestSegments() throws IOException {
+        try (MessageRecorder recorder = new MessageRecorder(tempDir, SEGMENT_SIZE, 2)) {
+            for (int i = 0; i < 1000; i++) {
+                recorder.record(message("a", i, 10_000));
+            }
+        }
+        assertEquals(2, MessageRecording.listSegments(tempDir).size());
+        List<MessageDTO> messages = read(new MessageRecording(tempDir), 0, Long.MAX_VALUE, null);
+        assertFalse(messages.isEmpty());
+        assertEquals(999, messages.get(messages.size() - 1).getTimestampNanos());
+    }
+
+    @Test
+    void testContinuesRecordingAfterReopen() throws IOException {
+        try (MessageRecorder recorder = new MessageRecorder(tempDir, SEGMENT_SIZE, 0)) {
+            recorder.record(message("a", 1, 1));
+        }
+        try (MessageRecorder recorder = new MessageRecorder(tempDir, SEGMENT_SIZE, 0)) {
+            recorder.record(message("b", 2, 1));
+            recorder.record(message("a", 3, 1));
+            recorder.record(message("too/large", 4, SEGMENT_SIZE));
+            assertEquals(1, recorder.getRejected());
+        }
+        MessageRecording recording = new MessageRecording(tempDir);
+        assertEquals(List.of("a", "b"), recording.getTopics());
+        assertEquals(List.of(1L, 3L), read(recording, 0, Long.MAX_VALUE, "a").stream().map(MessageDTO::getTimestampNanos).toList());
+    }
+}
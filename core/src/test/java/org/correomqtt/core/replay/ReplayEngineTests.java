@@ -0,0 +1,164 @@
+package org.correomqtt.core.replay;
+
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.MessageType;
+import org.correomqtt.core.model.Qos;
+import org.correomqtt.core.mqtt.LoopbackBroker;
+import org.correomqtt.core.mqtt.LoopbackBroker.LoopbackClient;
+import org.correomqtt.core.mqtt.SimulatedBrokerClient;
+import org.correomqtt.core.recorder.MessageRecorder;
+import org.correomqtt.core.recorder.MessageRecording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayEngineTests {
+
+    private static final long START = 1_700_000_000_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    private final LoopbackBroker broker = new LoopbackBroker();
+
+    @AfterEach
+    void closeBroker() {
+        broker.close();
+    }
+
+    private LoopbackClient connectedClient() {
+        LoopbackClient client = broker.createClient(null);
+        client.connect();
+        return client;
+    }
+
+    private MessageRecording record(int count, long intervalNanos, String... topics) throws Exception {
+        try (MessageRecorder recorder = new MessageRecorder(directory, 1024 * 1024, 0)) {
+            for (int i = 0; i < count; i++) {
+                MessageDTO messageDTO = MessageDTO.builder()
+                        .topic(topics[i % topics.length])
+                        .qos(Qos.AT_LEAST_ONCE)
+                        .payload("message " + i)
+                        .messageType(MessageType.INCOMING)
+                        .build();
+                messageDTO.setTimestampNanos(START + i * intervalNanos);
+                recorder.record(messageDTO);
+            }
+        }
+        return new MessageRecording(directory);
+    }
+
+    @Test
+    void testScaledTiming() throws Exception {
+        MessageRecording recording = record(11, TimeUnit.MILLISECONDS.toNanos(20), "correo/a");
+        LoopbackClient client = connectedClient();
+
+        ReplayResult result = new ReplayEngine(client, ReplayConfig.builder()
+                .recording(recording)
+                .speed(4)
+                .build()).run();
+
+        assertEquals(11, result.sent());
+        assertEquals(0, result.failed());
+        assertEquals(1, result.passes());
+        // 200 ms recorded, 50 ms at four times the speed
+        long elapsed = client.getPublishedAt().get(10) - client.getPublishedAt().get(0);
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(49), () -> "replayed too fast: " + elapsed);
+        assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(500), () -> "replayed too slow: " + elapsed);
+        assertEquals(200, result.targetRate(), 1);
+        assertTrue(result.achievedRate() > 0);
+        assertEquals("correo/a", client.getPublished().get(0).getTopic());
+        assertEquals(MessageType.OUTGOING, client.getPublished().get(0).getMessageType());
+        assertEquals("message 0", new String(client.getPublished().get(0).getPayloadBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLoopAtMaximumSpeedWithRewrite() throws Exception {
+        // an hour recorded, replayed without waiting
+        MessageRecording recording = record(10, TimeUnit.MINUTES.toNanos(6), "sensors/1/temp", "sensors/2/temp", "other");
+        LoopbackClient client = connectedClient();
+        ReplayEngine engine = new ReplayEngine(client, ReplayConfig.builder()
+                .recording(recording)
+                .speed(ReplayConfig.MAXIMUM_SPEED)
+                .topicFilter("sensors/#")
+                .rewriteRules(List.of(TopicRewriteRule.of("^sensors/(\\d+)/(.*)$", "replay/$1/$2")))
+                .loop(true)
+                .build());
+        client.setOnPublish(m -> {
+            if (engine.getSent() >= 100) {
+                engine.stop();
+            }
+        });
+
+        ReplayResult result = engine.run();
+
+        assertEquals(100, result.sent());
+        assertTrue(result.passes() > 1);
+        assertEquals(0, result.targetRate());
+        assertTrue(result.duration().compareTo(Duration.ofSeconds(10)) < 0);
+        assertTrue(client.getPublished().stream().allMatch(m -> m.getTopic().matches("replay/[12]/temp")));
+    }
+
+    @Test
+    void testMaximumSpeedThroughPublishWindow() throws Exception {
+        MessageRecording recording = record(200, 1000, "correo/a");
+        int window = 4;
+        try (SimulatedBrokerClient client = new SimulatedBrokerClient(window, 8, 2)) {
+            client.connect();
+
+            ReplayResult result = new ReplayEngine(client, ReplayConfig.builder()
+                    .recording(recording)
+                    .speed(ReplayConfig.MAXIMUM_SPEED)
+                    .maxOutstanding(6)
+                    .build()).run();
+
+            assertEquals(200, result.sent());
+            assertEquals(0, result.failed());
+            assertEquals(200, client.getSent().size());
+            assertTrue(client.getMaxInFlight() <= window, () -> "in flight " + client.getMaxInFlight());
+            // a window of four with 2 ms round trips acknowledges at most 2000 messages per second
+            assertTrue(result.achievedRate() > 0 && result.achievedRate() < 2500, () -> "rate " + result.achievedRate());
+        }
+    }
+
+    @Test
+    void testEmptyLoopEnds() throws Exception {
+        MessageRecording recording = record(5, 1000, "correo/a");
+
+        ReplayResult result = new ReplayEngine(connectedClient(), ReplayConfig.builder()
+                .recording(recording)
+                .topicFilter("nothing/#")
+                .loop(true)
+                .build()).run();
+
+        assertEquals(0, result.sent());
+        assertEquals(1, result.passes());
+    }
+
+    @Test
+    void testInvalidConfig() throws Exception {
+        MessageRecording recording = record(1, 1000, "correo/a");
+        LoopbackClient client = connectedClient();
+
+        assertThrows(IllegalArgumentException.class, () -> new ReplayEngine(client, ReplayConfig.builder()
+                .recording(recording)
+                .speed(0.05)
+                .build()));
+        assertThrows(IllegalArgumentException.class, () -> new ReplayEngine(client, ReplayConfig.builder()
+                .recording(recording)
+                .speed(200)
+                .build()));
+        assertThrows(IllegalArgumentException.class, () -> new ReplayEngine(client, ReplayConfig.builder()
+                .build()));
+    }
+}
@@ -0,0 +1,84 @@
+package org.correomqtt.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicFilterTrieTests {
+
+    @Test
+    void testWildcards() {
+        TopicFilterTrie<String> trie = new TopicFilterTrie<>();
+        trie.add("sport/tennis/+", "single");
+        trie.add("sport/#", "multi");
+        trie.add("sport/tennis/player1", "exact");
+        trie.add("#", "all");
+
+        assertEquals(List.of("single", "multi", "exact", "all"), trie.match("sport/tennis/player1"));
+        assertEquals(List.of("multi", "all"), trie.match("sport"));
+        assertEquals(List.of("multi", "all"), trie.match("sport/tennis/player1/ranking"));
+        assertEquals(List.of("single", "multi", "all"), trie.match("sport/tennis/"));
+        assertEquals(List.of("all"), trie.match("news"));
+    }
+
+    @Test
+    void testSystemTopics() {
+        TopicFilterTrie<String> trie = new TopicFilterTrie<>();
+        trie.add("#", "all");
+        trie.add("+/monitor/clients", "single");
+        trie.add("$SYS/#", "sys");
+
+        assertEquals(List.of("sys"), trie.match("$SYS/monitor/clients"));
+        assertEquals(List.of("all", "single"), trie.match("broker/monitor/clients"));
+    }
+
+    @Test
+    void testSharedSubscriptions() {
+        TopicFilterTrie<String> trie = new TopicFilterTrie<>();
+        trie.add("$share/group/sensors/+/temperature", "shared");
+
+        assertTrue(trie.matches("sensors/kitchen/temperature"));
+        assertFalse(trie.matches("$share/group/sensors/kitchen/temperature"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("$share/group", "invalid"));
+    }
+
+    @Test
+    void testDuplicatesAndRemove() {
+        TopicFilterTrie<String> trie = new TopicFilterTrie<>();
+        trie.add("a/+", "value");
+        trie.add("a/b", "value");
+
+        assertEquals(List.of("value"), trie.match("a/b"));
+        assertTrue(trie.remove("a/+", "value"));
+        assertFalse(trie.matches("a/c"));
+        assertTrue(trie.matches("a/b"));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void testRemoveEqualEntries() {
+        TopicFilterTrie<String> trie = new TopicFilterTrie<>();
+        trie.add("a/#", "value");
+        trie.add("a/#", "value");
+        trie.add("a/#", "other");
+
+        assertTrue(trie.remove("a/#", "value"));
+        assertEquals(1, trie.size());
+        assertFalse(trie.remove("a/#", "value"));
+        assertTrue(trie.remove("a/#", "other"));
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    void testInvalidFilters() {
+        TopicFilterTrie<String> trie = new TopicFilterTrie<>();
+        assertThrows(IllegalArgumentException.class, () -> trie.add("a/#/b", "value"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("a/b+", "value"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("", "value"));
+    }
+}
@@ -0,0 +1,8 @@
+package org.correomqtt.di;
+
+/**
+ * Marks events fired in high volume, e.g. per incoming message, whose deliveries {@link EventLanes} may drop when a
+ * lane is full. Deliveries of all other events, like state changes and results, are never dropped.
+ */
+public interface DroppableEvent extends Event {
+}
@@ -3,62 +3,94 @@ package org.correomqtt.di;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.ref.Reference;
-import java.lang.ref.WeakReference;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
+/**
+ * Dispatches events to observers through dispatch tables built once per event class.
+ * <p>
+ * Observer methods and filter getters are resolved to method handles on registration. Filter values of observers are
+ * read once when an instance registers and refreshed with {@link #updateFilters(Object)}, so firing an event only
+ * reads the filters of the event itself. Instances are indexed by their filter values, so events carrying a filter
+ * value like a connection id only visit the observers registered for that value.
+ */
 @Slf4j
 class EventBus {
 
-    // event class -> observer class : observer info (same as in OBSERVERS_TO_EVENT)
-    private static final Map<Class<Event>, HashMap<Class<?>, ObserverInfo>> EVENT_TO_OBSERVERS = new HashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Event.class);
+    private static final MethodType OBSERVER_FILTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType EVENT_FILTER_TYPE = MethodType.methodType(Object.class, Event.class);
 
-    // observer class -> event class : observer info (same as in EVENT_TO_OBSERVERS)
-    private static final Map<Class<?>, HashMap<Class<Event>, ObserverInfo>> OBSERVERS_TO_EVENT = new HashMap<>();
+    private static final Object LOCK = new Object();
 
-    // listener class -> filter identifier : filter method of observer
-    private static final Map<Class<?>, HashMap<String, Method>> OBSERVERS_TO_FILTER = new HashMap<>();
+    private static final Map<Class<?>, EventType> EVENT_TYPES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObserverType> OBSERVER_TYPES = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Object> COLLECTED = new ReferenceQueue<>();
 
-    // event class -> filter identifier : filter method of event
-    private static final Map<Class<Event>, HashMap<String, Method>> EVENT_TO_FILTER = new HashMap<>();
+    private static volatile Executor asyncExecutor = ForkJoinPool.commonPool();
+    private static volatile LaneBinding laneBinding;
 
     private record EventObservers(Class<Event> event, boolean sync, boolean autocreate) {
     }
 
+    private record Delivery(ObserverMethod observer, Object instance) {
+    }
+
+    private record LaneBinding(String filter, EventLanes lanes) {
+    }
+
     EventBus() {
         // private constructor
     }
 
     public static void registerClass(Class<?> clazz) {
-        log.debug("SoyEvents: Register class {} for events.", clazz);
-        Arrays.stream(clazz.getDeclaredMethods())
-                .forEach(m -> {
-                    List<EventObservers> annotationInfoFromMethod = getEventType(m);
-                    EventObservers annotationInfoFromParameter = getEventTypeFromParameter(m);
-                    List<EventObservers> eventObservers;
-                    if (annotationInfoFromMethod.isEmpty() && annotationInfoFromParameter == null) {
-                        return;
-                    } else if (!annotationInfoFromMethod.isEmpty()) {
-                        eventObservers = annotationInfoFromMethod;
-                    } else {
-                        eventObservers = List.of(annotationInfoFromParameter);
-                    }
-                    eventObservers.forEach(es -> {
-                        registerObservers(es, clazz, m);
-                        registerEventType(es.event);
-                    });
-                    registerObserverFilter(clazz, m);
-                });
+        synchronized (LOCK) {
+            if (OBSERVER_TYPES.containsKey(clazz)) {
+                return;
+            }
+            log.debug("SoyEvents: Register class {} for events.", clazz);
+            ObserverType observerType = null;
+            for (Method m : clazz.getDeclaredMethods()) {
+                List<EventObservers> annotationInfoFromMethod = getEventType(m);
+                EventObservers annotationInfoFromParameter = getEventTypeFromParameter(m);
+                List<EventObservers> eventObservers;
+                if (annotationInfoFromMethod.isEmpty() && annotationInfoFromParameter == null) {
+                    continue;
+                } else if (!annotationInfoFromMethod.isEmpty()) {
+                    eventObservers = annotationInfoFromMethod;
+                } else {
+                    eventObservers = List.of(annotationInfoFromParameter);
+                }
+                if (observerType == null) {
+                    observerType = createObserverType(clazz);
+                }
+                MethodHandle invoker = createInvoker(m);
+                for (EventObservers es : eventObservers) {
+                    registerObserver(es, observerType, m, invoker);
+                }
+            }
+            if (observerType != null) {
+                OBSERVER_TYPES.put(clazz, observerType);
+            }
+        }
     }
 
     private static List<EventObservers> getEventType(Method m) {
@@ -101,46 +133,6 @@ class EventBus {
         return new EventObservers((Class<Event>) params[0].getType(), annotation.sync(), annotation.autocreate());
     }
 
-    private static void registerObservers(EventObservers es, Class<?> listenerClass, Method m) {
-        log.debug("SoyEvents:  -> {} -> {}:{}", es.event, listenerClass, m);
-        //TODO error if someone use autocreate with assisted constructor
-        ObserverInfo observerInfo = new ObserverInfo(new HashSet<>(),
-                m,
-                m.getParameters().length > 0,
-                es.sync,
-                es.autocreate);
-        EVENT_TO_OBSERVERS.computeIfAbsent(es.event, k -> new HashMap<>())
-                .put(listenerClass, observerInfo);
-        OBSERVERS_TO_EVENT.computeIfAbsent(listenerClass, k -> new HashMap<>())
-                .put(es.event, observerInfo);
-    }
-
-    private static void registerEventType(Class<Event> eventType) {
-        if (EVENT_TO_FILTER.containsKey(eventType))
-            return;
-        Arrays.stream(eventType.getDeclaredMethods())
-                .forEach(m -> {
-                    // is filter
-                    if (m.isAnnotationPresent(ObservesFilter.class)) {
-                        ObservesFilter annotation = m.getAnnotation(ObservesFilter.class);
-                        String[] name = annotation.value();
-                        Arrays.stream(name).forEach(n -> EVENT_TO_FILTER
-                                .computeIfAbsent(eventType, k -> new HashMap<>())
-                                .put(n, m));
-                    }
-                });
-    }
-
-    private static void registerObserverFilter(Class<?> listenerClass, Method m) {
-        if (m.isAnnotationPresent(ObservesFilter.class)) {
-            ObservesFilter annotation = m.getAnnotation(ObservesFilter.class);
-            String[] name = annotation.value();
-            Arrays.stream(name).forEach(n -> OBSERVERS_TO_FILTER
-                    .computeIfAbsent(listenerClass, k -> new HashMap<>())
-                    .put(n, m));
-        }
-    }
-
     private static List<Class<?>> getEventTypesFromMethodAndAnnotation(Method m, Observes annotation) {
         Parameter[] params = m.getParameters();
         List<Class<?>> types;
@@ -158,105 +150,236 @@ class EventBus {
         return types;
     }
 
+    private static ObserverType createObserverType(Class<?> clazz) {
+        Map<String, MethodHandle> filters = collectFilters(clazz, OBSERVER_FILTER_TYPE);
+        return new ObserverType(clazz,
+                filters.keySet().toArray(String[]::new),
+                filters.values().toArray(MethodHandle[]::new));
+    }
+
+    private static EventType createEventType(Class<?> eventClass) {
+        Map<String, MethodHandle> filters = collectFilters(eventClass, EVENT_FILTER_TYPE);
+        return new EventType(eventClass,
+                filters.keySet().toArray(String[]::new),
+                filters.values().toArray(MethodHandle[]::new));
+    }
+
+    private static Map<String, MethodHandle> collectFilters(Class<?> clazz, MethodType type) {
+        // filters declared in super classes apply as well, the most specific declaration wins
+        Map<String, MethodHandle> filters = new LinkedHashMap<>();
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                ObservesFilter annotation = m.getAnnotation(ObservesFilter.class);
+                if (annotation == null) {
+                    continue;
+                }
+                if (m.getParameterCount() != 0 || Modifier.isStatic(m.getModifiers())) {
+                    throw new IllegalArgumentException("@ObservesFilter must be used on instance methods without parameters: " + m);
+                }
+                MethodHandle getter = unreflect(m).asType(type);
+                Arrays.stream(annotation.value()).forEach(n -> filters.putIfAbsent(n, getter));
+            }
+        }
+        return filters;
+    }
+
+    private static MethodHandle createInvoker(Method m) {
+        MethodHandle handle = unreflect(m);
+        if (Modifier.isStatic(m.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        if (m.getParameterCount() == 0) {
+            handle = MethodHandles.dropArguments(handle, 1, Event.class);
+        }
+        return handle.asType(INVOKER_TYPE);
+    }
+
+    private static MethodHandle unreflect(Method m) {
+        try {
+            m.setAccessible(true);
+            return LOOKUP.unreflect(m);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Can not access " + m, e);
+        }
+    }
+
+    private static void registerObserver(EventObservers es, ObserverType observerType, Method m, MethodHandle invoker) {
+        log.debug("SoyEvents:  -> {} -> {}:{}", es.event, observerType.getType(), m);
+        //TODO error if someone use autocreate with assisted constructor
+        EventType eventType = EVENT_TYPES.computeIfAbsent(es.event, EventBus::createEventType);
+        String[] eventFilters = eventType.getFilterNames();
+        int[] filterMapping = new int[eventFilters.length];
+        for (int i = 0; i < eventFilters.length; i++) {
+            filterMapping[i] = observerType.indexOfFilter(eventFilters[i]);
+        }
+        eventType.addObserver(new ObserverMethod(observerType, m, invoker, es.sync, es.autocreate, filterMapping));
+    }
+
+    static void setAsyncExecutor(Executor executor) {
+        asyncExecutor = executor == null ? ForkJoinPool.commonPool() : executor;
+    }
+
+    static void setEventLanes(String filter, EventLanes lanes) {
+        laneBinding = lanes == null ? null : new LaneBinding(filter, lanes);
+    }
+
     public static <T> void registerInstance(T instance) {
         log.debug("SoyEvents: Register instance for events {}", instance);
-        Class<?> clazz = instance.getClass();
-        if (!OBSERVERS_TO_EVENT.containsKey(clazz)) {
+        expungeCollected();
+        ObserverType observerType = OBSERVER_TYPES.get(instance.getClass());
+        if (observerType == null) {
+            return;
+        }
+        ObserverInstance observerInstance = new ObserverInstance(instance, observerType, COLLECTED);
+        synchronized (LOCK) {
+            observerType.addInstance(observerInstance);
+        }
+    }
+
+    /**
+     * Reads the filter values of an observer again. Must be called whenever a value returned by one of its
+     * {@link ObservesFilter} methods changes.
+     */
+    public static <T> void updateFilters(T instance) {
+        ObserverType observerType = OBSERVER_TYPES.get(instance.getClass());
+        if (observerType == null) {
             return;
         }
-        HashMap<Class<Event>, ObserverInfo> observers = OBSERVERS_TO_EVENT.get(clazz);
-        observers.values().forEach(oi -> oi.getClasses().add(new WeakReference<>(instance)));
+        Object[] filterValues = observerType.readFilterValues(instance);
+        synchronized (LOCK) {
+            for (ObserverInstance observerInstance : observerType.getInstances()) {
+                if (observerInstance.get() == instance) {
+                    observerType.updateFilterValues(observerInstance, filterValues);
+                }
+            }
+        }
     }
 
     public static int fire(Event event) {
         if (event.isLogable()) {
             log.debug("SoyEvents: Fire event {}", event.getClass());
         }
-        List<ObserverInfo> observerInfos = getCallbacksToExecute(event);
-        executeFire(event, observerInfos);
-        return observerInfos.size();
+        EventType eventType = EVENT_TYPES.get(event.getClass());
+        if (eventType == null) {
+            return 0;
+        }
+        ObserverMethod[] observers = prepareObservers(eventType);
+        Object[] filterValues = eventType.readFilterValues(event);
+        for (ObserverMethod observer : observers) {
+            forEachMatch(observer, filterValues, instance -> deliver(observer, instance, event));
+        }
+        return observers.length;
     }
 
     public static int fireAsync(Event event) {
         if (event.isLogable()) {
             log.debug("SoyEvents: Fire async event {}", event.getClass());
         }
-        List<ObserverInfo> observerInfos = getCallbacksToExecute(event);
-        CompletableFuture.runAsync(() -> executeFire(event, observerInfos));
-        return observerInfos.size();
+        EventType eventType = EVENT_TYPES.get(event.getClass());
+        if (eventType == null) {
+            return 0;
+        }
+        ObserverMethod[] observers = prepareObservers(eventType);
+        Object[] filterValues = eventType.readFilterValues(event);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (ObserverMethod observer : observers) {
+            forEachMatch(observer, filterValues, instance -> deliveries.add(new Delivery(observer, instance)));
+        }
+        if (!deliveries.isEmpty()) {
+            Runnable delivery = () -> deliveries.forEach(d -> deliver(d.observer, d.instance, event));
+            LaneBinding lanes = laneBinding;
+            Object laneKey = lanes == null ? null : getLaneKey(eventType, filterValues, lanes.filter);
+            if (laneKey == null) {
+                asyncExecutor.execute(delivery);
+            } else {
+                lanes.lanes.execute(laneKey, delivery, event instanceof DroppableEvent);
+            }
+        }
+        return observers.length;
     }
 
-    private static List<ObserverInfo> getCallbacksToExecute(Event event) {
-        Class<? extends Event> eventClass = event.getClass();
-        if (!EVENT_TO_OBSERVERS.containsKey(eventClass)) {
-            return Collections.emptyList();
+    private static void forEachMatch(ObserverMethod observer, Object[] eventFilterValues, Consumer<Object> action) {
+        ObserverType observerType = observer.getObserverType();
+        int routingFilter = observer.getRoutingFilter();
+        if (routingFilter < 0) {
+            forEachMatch(observer, observerType.getInstances(), eventFilterValues, action);
+            return;
         }
-        HashMap<Class<?>, ObserverInfo> observerInfos = EVENT_TO_OBSERVERS.get(eventClass);
-        // autocreate instances
-        observerInfos.forEach((key, oi) -> {
-            if (oi.getClasses().isEmpty() && oi.isAutocreate()) {
-                SoyDi.inject(key);
+        int observerFilter = observer.getFilterMapping()[routingFilter];
+        forEachMatch(observer,
+                observerType.getInstances(observerFilter, eventFilterValues[routingFilter]),
+                eventFilterValues,
+                action);
+        forEachMatch(observer, observerType.getUnfilteredInstances(observerFilter), eventFilterValues, action);
+    }
+
+    private static void forEachMatch(ObserverMethod observer,
+                                     ObserverInstance[] candidates,
+                                     Object[] eventFilterValues,
+                                     Consumer<Object> action) {
+        for (ObserverInstance observerInstance : candidates) {
+            Object instance = observerInstance.get();
+            if (instance != null && observer.matches(observerInstance, eventFilterValues)) {
+                action.accept(instance);
             }
-        });
-        // collect observers
-        return observerInfos.entrySet().stream()
-                .filter(oiEntry -> isValidEvent(event, oiEntry.getKey()))
-                .map(Map.Entry::getValue)
-                .toList();
+        }
     }
 
-    private static void executeFire(Event event, List<ObserverInfo> observerInfos) {
-        observerInfos.forEach(oi -> {
-            if (oi.isSync()) {
-                executeMethod(oi, event);
-            } else {
-                FrontendBinding.pushToFrontend(() -> executeMethod(oi, event)); // TODO use interceptor
+    private static Object getLaneKey(EventType eventType, Object[] filterValues, String filter) {
+        String[] filterNames = eventType.getFilterNames();
+        for (int i = 0; i < filterNames.length; i++) {
+            if (filterNames[i].equals(filter)) {
+                return filterValues[i];
             }
-        });
+        }
+        return null;
     }
 
-    private static boolean isValidEvent(Event event, Class<?> observer) {
-        HashMap<String, Method> listenerFilter = OBSERVERS_TO_FILTER.get(observer);
-        HashMap<String, Method> eventFilter = EVENT_TO_FILTER.get(event.getClass());
-        // Either listener or event does not have filter -> is valid for sure
-        if (listenerFilter == null || eventFilter == null)
-            return true;
-        // Iterate listener filter
-        return listenerFilter.entrySet().stream().allMatch(lf -> {
-            Method eventMethod = eventFilter.get(lf.getKey());
-            // Event has filters, but no corresponding to this listener filter
-            if (eventMethod == null)
-                return true;
-            // Event has a corresponding filter -> check if it matches.
-            // The only way to invalidate an event is when both have the same filter but the content does not match.
-            Method listenerMethod = lf.getValue();
-            try {
-                return eventMethod.invoke(event).equals(listenerMethod.invoke(observer));
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new EventCallbackExecutionException(e);
+    private static ObserverMethod[] prepareObservers(EventType eventType) {
+        expungeCollected();
+        ObserverMethod[] observers = eventType.getObservers();
+        for (ObserverMethod observer : observers) {
+            if (observer.isAutocreate() && !hasLiveInstance(observer.getObserverType())) {
+                SoyDi.inject(observer.getObserverType().getType());
             }
-        });
+        }
+        return observers;
     }
 
-    private static void executeMethod(ObserverInfo oi, Event event) {
-        oi.getClasses()
-                .stream()
-                .map(Reference::get)
-                .filter(Objects::nonNull)
-                .forEach(c -> {
-                    try {
-                        if (oi.isWithPayload()) {
-                            oi.getMethod().invoke(c, event);
-                        } else {
-                            oi.getMethod().invoke(c);
-                        }
-                        if (event.isLogable()) {
-                            log.debug("SoyEvents: Sent {} to {}:{}", event.getClass(), c, oi.getMethod());
-                        }
-                    } catch (Exception e) {
-                        log.error("Unexpected Exception firing event. ", e);
-                        throw new EventCallbackExecutionException(e);
-                    }
-                });
+    private static boolean hasLiveInstance(ObserverType observerType) {
+        return Arrays.stream(observerType.getInstances()).anyMatch(i -> i.get() != null);
+    }
+
+    private static void expungeCollected() {
+        Reference<?> ref;
+        while ((ref = COLLECTED.poll()) != null) {
+            ObserverInstance observerInstance = (ObserverInstance) ref;
+            synchronized (LOCK) {
+                observerInstance.getType().removeInstance(observerInstance);
+            }
+        }
+    }
+
+    private static void deliver(ObserverMethod observer, Object instance, Event event) {
+        if (observer.isSync()) {
+            executeMethod(observer, instance, event);
+        } else {
+            FrontendBinding.pushToFrontend(() -> executeMethod(observer, instance, event)); // TODO use interceptor
+        }
+    }
+
+    private static void executeMethod(ObserverMethod observer, Object instance, Event event) {
+        try {
+            observer.invoke(instance, event);
+            if (event.isLogable() && log.isDebugEnabled()) {
+                log.debug("SoyEvents: Sent {} to {}:{}", event.getClass(), instance, observer.getMethod());
+            }
+        } catch (EventCallbackExecutionException e) {
+            log.error("Unexpected Exception firing event. ", e.getException());
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected Exception firing event. ", e);
+            throw new EventCallbackExecutionException(e);
+        }
     }
 }
@@ -0,0 +1,13 @@
+package org.correomqtt.di;
+
+/**
+ * Runs async deliveries of events carrying a lane key, e.g. a connection id. Deliveries with the same key must run
+ * in the order they were submitted.
+ */
+public interface EventLanes {
+
+    /**
+     * @param droppable True, if the delivery may be dropped when the lane is full, see {@link DroppableEvent}.
+     */
+    void execute(Object laneKey, Runnable delivery, boolean droppable);
+}
@@ -0,0 +1,52 @@
+package org.correomqtt.di;
+
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+
+/**
+ * Dispatch table of an event class: its filter getters and all observer methods listening to it.
+ */
+@Getter
+class EventType {
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final Class<?> type;
+    private final String[] filterNames;
+    // (Event)Object
+    private final MethodHandle[] filterGetters;
+    // copy on write, guarded by the event bus
+    private volatile ObserverMethod[] observers = new ObserverMethod[0];
+
+    EventType(Class<?> type, String[] filterNames, MethodHandle[] filterGetters) {
+        this.type = type;
+        this.filterNames = filterNames;
+        this.filterGetters = filterGetters;
+    }
+
+    Object[] readFilterValues(Event event) {
+        if (filterGetters.length == 0) {
+            return NO_VALUES;
+        }
+        Object[] values = new Object[filterGetters.length];
+        for (int i = 0; i < filterGetters.length; i++) {
+            try {
+                values[i] = filterGetters[i].invokeExact(event);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new EventCallbackExecutionException(new Exception(e));
+            }
+        }
+        return values;
+    }
+
+    void addObserver(ObserverMethod observer) {
+        ObserverMethod[] current = observers;
+        ObserverMethod[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = observer;
+        observers = updated;
+    }
+}
@@ -0,0 +1,28 @@
+package org.correomqtt.di;
+
+import lombok.Getter;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Weakly referenced observer instance with its filter values read once on registration.
+ * Dead instances are enqueued and removed from their {@link ObserverType} by the event bus.
+ */
+@Getter
+class ObserverInstance extends WeakReference<Object> {
+
+    private final ObserverType type;
+    // aligned with ObserverType#getFilterNames
+    private volatile Object[] filterValues;
+
+    ObserverInstance(Object instance, ObserverType type, ReferenceQueue<Object> queue) {
+        super(instance, queue);
+        this.type = type;
+        this.filterValues = type.readFilterValues(instance);
+    }
+
+    void setFilterValues(Object[] filterValues) {
+        this.filterValues = filterValues;
+    }
+}
@@ -0,0 +1,70 @@
+package org.correomqtt.di;
+
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * An observer method bound to one event type.
+ */
+@Getter
+class ObserverMethod {
+    private final ObserverType observerType;
+    private final Method method;
+    // (Object,Event)void, also for methods without the event parameter
+    private final MethodHandle invoker;
+    private final boolean sync;
+    private final boolean autocreate;
+    // for each filter of the event the index of the same filter on the observer or -1
+    private final int[] filterMapping;
+    // event filter used to look up candidates in the filter index of the observer type or -1
+    private final int routingFilter;
+
+    ObserverMethod(ObserverType observerType,
+                   Method method,
+                   MethodHandle invoker,
+                   boolean sync,
+                   boolean autocreate,
+                   int[] filterMapping) {
+        this.observerType = observerType;
+        this.method = method;
+        this.invoker = invoker;
+        this.sync = sync;
+        this.autocreate = autocreate;
+        this.filterMapping = filterMapping;
+        int routing = -1;
+        for (int i = 0; i < filterMapping.length && routing < 0; i++) {
+            if (filterMapping[i] >= 0) {
+                routing = i;
+            }
+        }
+        this.routingFilter = routing;
+    }
+
+    boolean matches(ObserverInstance instance, Object[] eventFilterValues) {
+        Object[] observerFilterValues = instance.getFilterValues();
+        for (int i = 0; i < filterMapping.length; i++) {
+            int observerIndex = filterMapping[i];
+            if (observerIndex < 0) {
+                continue;
+            }
+            Object observerValue = observerFilterValues[observerIndex];
+            // observers without a value for a filter are not restricted by it
+            if (observerValue != null && !observerValue.equals(eventFilterValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void invoke(Object instance, Event event) {
+        try {
+            invoker.invokeExact(instance, event);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new EventCallbackExecutionException(e instanceof Exception ex ? ex : new Exception(e));
+        }
+    }
+}
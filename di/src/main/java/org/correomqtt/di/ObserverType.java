@@ -0,0 +1,131 @@
+package org.correomqtt.di;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class with at least one observer method, its filter getters and its live instances.
+ * <p>
+ * Instances are additionally indexed by the value of each filter, so an event carrying e.g. a connection id only
+ * visits the instances of that connection and those without a value for the filter.
+ */
+@Getter
+class ObserverType {
+
+    private static final Object NO_VALUE = new Object();
+    private static final ObserverInstance[] NO_INSTANCES = new ObserverInstance[0];
+
+    private final Class<?> type;
+    private final String[] filterNames;
+    // (Object)Object
+    private final MethodHandle[] filterGetters;
+    // copy on write, guarded by the event bus
+    private volatile ObserverInstance[] instances = new ObserverInstance[0];
+    // per filter: filter value -> instances, copy on write, guarded by the event bus
+    @Getter(AccessLevel.NONE)
+    private final Map<Object, ObserverInstance[]>[] filterIndex;
+
+    @SuppressWarnings("unchecked")
+    ObserverType(Class<?> type, String[] filterNames, MethodHandle[] filterGetters) {
+        this.type = type;
+        this.filterNames = filterNames;
+        this.filterGetters = filterGetters;
+        this.filterIndex = new Map[filterNames.length];
+        for (int i = 0; i < filterIndex.length; i++) {
+            filterIndex[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    int indexOfFilter(String name) {
+        for (int i = 0; i < filterNames.length; i++) {
+            if (filterNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    Object[] readFilterValues(Object instance) {
+        Object[] values = new Object[filterGetters.length];
+        for (int i = 0; i < filterGetters.length; i++) {
+            try {
+                values[i] = filterGetters[i].invokeExact(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new EventCallbackExecutionException(new Exception(e));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return Instances whose filter at {@code filter} has the given value.
+     */
+    ObserverInstance[] getInstances(int filter, Object value) {
+        if (value == null) {
+            return NO_INSTANCES;
+        }
+        return filterIndex[filter].getOrDefault(value, NO_INSTANCES);
+    }
+
+    /**
+     * @return Instances without a value for the filter at {@code filter}, they are not restricted by it.
+     */
+    ObserverInstance[] getUnfilteredInstances(int filter) {
+        return filterIndex[filter].getOrDefault(NO_VALUE, NO_INSTANCES);
+    }
+
+    void addInstance(ObserverInstance instance) {
+        ObserverInstance[] current = instances;
+        ObserverInstance[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = instance;
+        instances = updated;
+        index(instance, instance.getFilterValues());
+    }
+
+    void removeInstance(ObserverInstance instance) {
+        instances = without(instances, instance);
+        unindex(instance, instance.getFilterValues());
+    }
+
+    void updateFilterValues(ObserverInstance instance, Object[] filterValues) {
+        unindex(instance, instance.getFilterValues());
+        instance.setFilterValues(filterValues);
+        index(instance, filterValues);
+    }
+
+    private void index(ObserverInstance instance, Object[] filterValues) {
+        for (int i = 0; i < filterIndex.length; i++) {
+            filterIndex[i].merge(keyOf(filterValues[i]), new ObserverInstance[]{instance}, (current, added) -> {
+                ObserverInstance[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = added[0];
+                return updated;
+            });
+        }
+    }
+
+    private void unindex(ObserverInstance instance, Object[] filterValues) {
+        for (int i = 0; i < filterIndex.length; i++) {
+            filterIndex[i].computeIfPresent(keyOf(filterValues[i]), (key, current) -> {
+                ObserverInstance[] updated = without(current, instance);
+                return updated.length == 0 ? null : updated;
+            });
+        }
+    }
+
+    private static Object keyOf(Object filterValue) {
+        return filterValue == null ? NO_VALUE : filterValue;
+    }
+
+    private static ObserverInstance[] without(ObserverInstance[] instances, ObserverInstance instance) {
+        return Arrays.stream(instances)
+                .filter(i -> i != instance)
+                .toArray(ObserverInstance[]::new);
+    }
+}
@@ -1,5 +1,7 @@
 package org.correomqtt.di;
 
+import java.util.concurrent.Executor;
+
 @SingletonBean
 public class SoyEvents {
 
@@ -14,4 +16,23 @@ public class SoyEvents {
     public static <T> void registerInstance(T instance) {
         EventBus.registerInstance(instance);
     }
+
+    /**
+     * Executor for {@link #fireAsync(Event)}. {@code null} restores the default.
+     */
+    public static void setAsyncExecutor(Executor executor) {
+        EventBus.setAsyncExecutor(executor);
+    }
+
+    /**
+     * Async events with a value for {@code filter} are delivered through {@code lanes} instead of the async executor.
+     * {@code null} disables lanes.
+     */
+    public static void setEventLanes(String filter, EventLanes lanes) {
+        EventBus.setEventLanes(filter, lanes);
+    }
+
+    public static <T> void updateFilters(T instance) {
+        EventBus.updateFilters(instance);
+    }
 }
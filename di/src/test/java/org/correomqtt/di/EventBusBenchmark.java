@@ -0,0 +1,123 @@
+package org.correomqtt.di;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former reflective dispatch (filter getters and observer method called with {@link Method#invoke} for
+ * every event) with the dispatch tables of the {@link EventBus}. Only one of {@link #observerCount} observers matches
+ * the connection of the event, like a message event among many open connections.
+ * <p>
+ * Run with {@code mvn -pl di test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.correomqtt.di.EventBusBenchmark} or directly from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int observerCount;
+
+    private final List<BenchmarkObserver> observers = new ArrayList<>();
+    private BenchmarkEvent event;
+    private Method eventFilter;
+    private Method observerFilter;
+    private Method observerMethod;
+
+    public static class BenchmarkEvent implements Event {
+        private final String connectionId;
+
+        BenchmarkEvent(String connectionId) {
+            this.connectionId = connectionId;
+        }
+
+        @ObservesFilter("connectionId")
+        public String getConnectionId() {
+            return connectionId;
+        }
+
+        @Override
+        public boolean isLogable() {
+            return false;
+        }
+    }
+
+    public static class BenchmarkObserver {
+        private final String connectionId;
+        private long received;
+
+        BenchmarkObserver(String connectionId) {
+            this.connectionId = connectionId;
+        }
+
+        @ObservesFilter("connectionId")
+        public String getConnectionId() {
+            return connectionId;
+        }
+
+        @SuppressWarnings("unused")
+        public void onEvent(@Observes(sync = true) BenchmarkEvent event) {
+            received++;
+        }
+    }
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        EventBus.registerClass(BenchmarkObserver.class);
+        for (int i = 0; i < observerCount; i++) {
+            BenchmarkObserver observer = new BenchmarkObserver("connection-" + i);
+            observers.add(observer);
+            EventBus.registerInstance(observer);
+        }
+        event = new BenchmarkEvent("connection-0");
+        eventFilter = BenchmarkEvent.class.getMethod("getConnectionId");
+        observerFilter = BenchmarkObserver.class.getMethod("getConnectionId");
+        observerMethod = BenchmarkObserver.class.getMethod("onEvent", BenchmarkEvent.class);
+    }
+
+    @Benchmark
+    public int reflectiveDispatch() throws InvocationTargetException, IllegalAccessException {
+        int delivered = 0;
+        for (BenchmarkObserver observer : observers) {
+            if (eventFilter.invoke(event).equals(observerFilter.invoke(observer))) {
+                observerMethod.invoke(observer, event);
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    @Benchmark
+    public int dispatchTable() {
+        return EventBus.fire(event);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventBusBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,78 @@
+package org.correomqtt.di;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventBusTests {
+
+    public static class ConnectionEvent implements Event {
+        private final String connectionId;
+
+        ConnectionEvent(String connectionId) {
+            this.connectionId = connectionId;
+        }
+
+        @ObservesFilter("connectionId")
+        public String getConnectionId() {
+            return connectionId;
+        }
+    }
+
+    public abstract static class BaseObserver {
+        protected String connectionId;
+
+        @ObservesFilter("connectionId")
+        public String getConnectionId() {
+            return connectionId;
+        }
+    }
+
+    public static class ConnectionObserver extends BaseObserver {
+        private final List<String> received = new ArrayList<>();
+
+        ConnectionObserver(String connectionId) {
+            this.connectionId = connectionId;
+        }
+
+        void setConnectionId(String connectionId) {
+            this.connectionId = connectionId;
+            EventBus.updateFilters(this);
+        }
+
+        @Observes(sync = true)
+        public void onEvent(ConnectionEvent event) {
+            received.add(event.getConnectionId());
+        }
+    }
+
+    @Test
+    void testRoutingByConnection() {
+        EventBus.registerClass(ConnectionObserver.class);
+        ConnectionObserver first = new ConnectionObserver("first");
+        ConnectionObserver second = new ConnectionObserver("second");
+        ConnectionObserver unassigned = new ConnectionObserver(null);
+        EventBus.registerInstance(first);
+        EventBus.registerInstance(second);
+        EventBus.registerInstance(unassigned);
+
+        EventBus.fire(new ConnectionEvent("first"));
+        EventBus.fire(new ConnectionEvent("third"));
+
+        assertEquals(List.of("first"), first.received);
+        assertEquals(List.of(), second.received);
+        assertEquals(List.of("first", "third"), unassigned.received);
+
+        unassigned.setConnectionId("third");
+        second.setConnectionId("first");
+        EventBus.fire(new ConnectionEvent("third"));
+        EventBus.fire(new ConnectionEvent("first"));
+
+        assertEquals(List.of("first", "first"), first.received);
+        assertEquals(List.of("first"), second.received);
+        assertEquals(List.of("first", "third", "third"), unassigned.received);
+    }
+}
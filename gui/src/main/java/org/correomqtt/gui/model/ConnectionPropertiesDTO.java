@@ -58,6 +58,11 @@ public class ConnectionPropertiesDTO {
     private final Property<Qos> lwtQoSProperty;
     private final BooleanProperty lwtRetainedProperty;
     private final StringProperty lwtPayloadProperty;
+    private final BooleanProperty offlineQueueProperty;
+    private final BooleanProperty topicAliasesProperty;
+    private final StringProperty consumerGroupProperty;
+    private final IntegerProperty consumerGroupSizeProperty;
+    private final BooleanProperty recordMessagesProperty;
     private final Property<ConnectionUISettings> connectionUISettingsProperty;
     private final BooleanProperty dirtyProperty;
     private final BooleanProperty newProperty;
@@ -92,6 +97,11 @@ public class ConnectionPropertiesDTO {
                 c.lwtQoSProperty,
                 c.lwtRetainedProperty,
                 c.lwtPayloadProperty,
+                c.offlineQueueProperty,
+                c.topicAliasesProperty,
+                c.consumerGroupProperty,
+                c.consumerGroupSizeProperty,
+                c.recordMessagesProperty,
                 c.connectionUISettingsProperty,
                 c.dirtyProperty,
                 c.newProperty,
@@ -204,6 +214,26 @@ public class ConnectionPropertiesDTO {
         return lwtPayloadProperty.getValue();
     }
 
+    public boolean isOfflineQueue() {
+        return offlineQueueProperty.getValue();
+    }
+
+    public boolean isTopicAliases() {
+        return topicAliasesProperty.getValue();
+    }
+
+    public String getConsumerGroup() {
+        return consumerGroupProperty.getValue();
+    }
+
+    public int getConsumerGroupSize() {
+        return consumerGroupSizeProperty.getValue();
+    }
+
+    public boolean isRecordMessages() {
+        return recordMessagesProperty.getValue();
+    }
+
     public ConnectionUISettings getConnectionUISettings() {
         return connectionUISettingsProperty.getValue();
     }
@@ -264,6 +294,11 @@ public class ConnectionPropertiesDTO {
         private BooleanProperty lwtAnswerExpectedProperty = new SimpleBooleanProperty();
         private BooleanProperty lwtRetainedProperty = new SimpleBooleanProperty();
         private StringProperty lwtPayloadProperty = new SimpleStringProperty();
+        private BooleanProperty offlineQueueProperty = new SimpleBooleanProperty();
+        private BooleanProperty topicAliasesProperty = new SimpleBooleanProperty(true);
+        private StringProperty consumerGroupProperty = new SimpleStringProperty();
+        private IntegerProperty consumerGroupSizeProperty = new SimpleIntegerProperty(1);
+        private BooleanProperty recordMessagesProperty = new SimpleBooleanProperty();
         private Property<ConnectionUISettings> connectionUISettingsProperty = new SimpleObjectProperty<>();
         private BooleanProperty dirtyProperty = new SimpleBooleanProperty(false);
         private BooleanProperty newProperty = new SimpleBooleanProperty(false);
@@ -410,6 +445,31 @@ public class ConnectionPropertiesDTO {
             return this;
         }
 
+        public ConnectionPropertiesDTOBuilder offlineQueue(boolean offlineQueue) {
+            this.offlineQueueProperty.setValue(offlineQueue);
+            return this;
+        }
+
+        public ConnectionPropertiesDTOBuilder topicAliases(boolean topicAliases) {
+            this.topicAliasesProperty.setValue(topicAliases);
+            return this;
+        }
+
+        public ConnectionPropertiesDTOBuilder consumerGroup(String consumerGroup) {
+            this.consumerGroupProperty.setValue(consumerGroup);
+            return this;
+        }
+
+        public ConnectionPropertiesDTOBuilder consumerGroupSize(int consumerGroupSize) {
+            this.consumerGroupSizeProperty.set(consumerGroupSize);
+            return this;
+        }
+
+        public ConnectionPropertiesDTOBuilder recordMessages(boolean recordMessages) {
+            this.recordMessagesProperty.setValue(recordMessages);
+            return this;
+        }
+
         public ConnectionPropertiesDTOBuilder connectionUISettings(ConnectionUISettings connectionUISettings) {
             this.connectionUISettingsProperty.setValue(connectionUISettings);
             return this;
@@ -462,6 +522,11 @@ public class ConnectionPropertiesDTO {
                     lwtQoSProperty,
                     lwtRetainedProperty,
                     lwtPayloadProperty,
+                    offlineQueueProperty,
+                    topicAliasesProperty,
+                    consumerGroupProperty,
+                    consumerGroupSizeProperty,
+                    recordMessagesProperty,
                     connectionUISettingsProperty,
                     dirtyProperty,
                     newProperty,
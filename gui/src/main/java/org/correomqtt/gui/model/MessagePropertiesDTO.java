@@ -10,6 +10,7 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.util.Callback;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,8 +19,10 @@ import org.correomqtt.core.model.PublishStatus;
 import org.correomqtt.core.model.Qos;
 import org.correomqtt.core.utils.MessageDateTimeFormatter;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Objects;
 
 @Getter
 @AllArgsConstructor
@@ -36,6 +39,13 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
     private final Property<MessageType> messageTypeProperty;
     private final Property<PublishStatus> publishStatusProperty;
     private final MapProperty<String, Object> extraProperties;
+    // identity within the connection, 0 if the message was not sent or received in this session
+    private final long sequenceId;
+    // raw payload as received and its decoded text; the raw payload is only valid until the text is changed
+    @Getter(AccessLevel.NONE)
+    private ByteBuffer rawPayload;
+    @Getter(AccessLevel.NONE)
+    private String rawPayloadText;
 
     public static Callback<MessagePropertiesDTO, Observable[]> extractor() {
         return (MessagePropertiesDTO m) -> new Observable[]{
@@ -68,6 +78,16 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
         payloadProperty.set(payload);
     }
 
+    /**
+     * @return The payload as received, as long as the text payload has not been changed, otherwise null.
+     */
+    public ByteBuffer getRawPayload() {
+        if (rawPayload == null || !Objects.equals(rawPayloadText, getPayload())) {
+            return null;
+        }
+        return rawPayload.duplicate();
+    }
+
     public StringProperty getTopicProperty() {
         return topicProperty;
     }
@@ -154,6 +174,8 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
         this.publishStatusProperty.setValue(messageDTO.getPublishStatus());
         this.subscriptionDTOProperty.setValue(messageDTO.getSubscription());
         this.extraProperties.setValue(messageDTO.getExtraProperties());
+        this.rawPayload = messageDTO.rawPayload;
+        this.rawPayloadText = messageDTO.rawPayloadText;
     }
 
     @SuppressWarnings({"FieldCanBeLocal", "unused"})
@@ -169,6 +191,9 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
         private Property<MessageType> messageTypeProperty = new SimpleObjectProperty<>();
         private Property<PublishStatus> publishStatusProperty = new SimpleObjectProperty<>();
         private SimpleMapProperty<String, Object> extraProperties = new SimpleMapProperty<>();
+        private long sequenceId;
+        private ByteBuffer rawPayload;
+        private String rawPayloadText;
 
         public MessagePropertiesDTOBuilder topic(String topic) {
             this.topicProperty.set(topic);
@@ -180,6 +205,13 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
             return this;
         }
 
+        public MessagePropertiesDTOBuilder payload(ByteBuffer rawPayload, String payload) {
+            this.payloadProperty.set(payload);
+            this.rawPayload = rawPayload;
+            this.rawPayloadText = payload;
+            return this;
+        }
+
         public MessagePropertiesDTOBuilder isRetained(boolean isRetained) {
             this.isRetainedProperty.set(isRetained);
             return this;
@@ -205,6 +237,11 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
             return this;
         }
 
+        public MessagePropertiesDTOBuilder sequenceId(long sequenceId) {
+            this.sequenceId = sequenceId;
+            return this;
+        }
+
         public MessagePropertiesDTOBuilder messageType(MessageType messageType) {
             this.messageTypeProperty.setValue(messageType);
             return this;
@@ -230,7 +267,10 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
                     messageIdProperty,
                     messageTypeProperty,
                     publishStatusProperty,
-                    extraProperties);
+                    extraProperties,
+                    sequenceId,
+                    rawPayload,
+                    rawPayloadText);
         }
     }
 }
@@ -0,0 +1,524 @@
+package org.correomqtt.gui.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.SubscriptionDTO;
+import org.correomqtt.core.utils.SpillFile;
+import org.correomqtt.gui.transformer.MessageTransformer;
+import org.correomqtt.gui.transformer.SubscriptionTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Observable list of messages, newest first, with a bounded memory footprint.
+ * <p>
+ * The newest messages are held in a ring buffer of fixed capacity, so adding a message is O(1). If the ring buffer
+ * is full, the oldest messages are moved in batches to a {@link SpillFile}. They stay part of the list and are paged
+ * back in, when the list view scrolls to them. {@link #inMemory()} views only the messages in the ring buffer, e.g.
+ * for filtering without reading spilled pages. Must only be used from the FX thread, except for a {@link Snapshot}.
+ */
+public class MessageStore extends ObservableListBase<MessagePropertiesDTO> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageStore.class);
+    private static final ObjectMapper SPILL_MAPPER = new ObjectMapper();
+
+    private static final int PAGE_SIZE = 64;
+    private static final int MAX_CACHED_PAGES = 16;
+
+    private final String connectionId;
+    private final int capacity;
+    private final InMemoryView inMemoryView = new InMemoryView();
+    private Storage storage;
+
+    private record SpilledMessage(MessageDTO message, SubscriptionDTO subscription) {
+    }
+
+    /**
+     * Messages that left the ring buffer, newest first. Dropped if they could not be spilled.
+     */
+    private record Eviction(List<MessagePropertiesDTO> messages, boolean dropped) {
+    }
+
+    public MessageStore(String connectionId, int capacity) {
+        this.connectionId = connectionId;
+        this.capacity = Math.max(1, capacity);
+        this.storage = new Storage();
+    }
+
+    @Override
+    public MessagePropertiesDTO get(int index) {
+        return storage.get(index);
+    }
+
+    /**
+     * @return The newest messages, which are held in memory, newest first. Changes when the store changes.
+     */
+    public ObservableList<MessagePropertiesDTO> inMemory() {
+        return inMemoryView;
+    }
+
+    @Override
+    public int size() {
+        return storage.size();
+    }
+
+    /**
+     * Adds the message to the top of the list.
+     */
+    public void addFirst(MessagePropertiesDTO messageDTO) {
+        addAllFirst(List.of(messageDTO));
+    }
+
+    /**
+     * Adds the messages in the given order to the top of the list, so that the last one ends up as the first element.
+     * Fires a single change, which also removes the oldest messages held in memory, if they could not be spilled.
+     */
+    public void addAllFirst(List<MessagePropertiesDTO> messageDTOs) {
+        if (messageDTOs.isEmpty()) {
+            return;
+        }
+        beginChange();
+        inMemoryView.begin();
+        for (MessagePropertiesDTO messageDTO : messageDTOs) {
+            Eviction eviction = storage.push(messageDTO);
+            if (eviction != null) {
+                // the oldest messages in memory, right before the spilled ones
+                int from = capacity - eviction.messages().size();
+                inMemoryView.removed(from, eviction.messages());
+                if (eviction.dropped()) {
+                    nextRemove(from, eviction.messages());
+                }
+            }
+            nextAdd(0, 1);
+            inMemoryView.added(0, 1);
+        }
+        inMemoryView.end();
+        endChange();
+    }
+
+    /**
+     * Looks up a message that is still held in memory. Spilled messages are not considered.
+     */
+    public Optional<MessagePropertiesDTO> findInMemory(String messageId) {
+        return storage.findInMemory(0, messageId);
+    }
+
+    /**
+     * Looks up another state of the given message, by its sequence id if it has one, by its message id otherwise.
+     */
+    public Optional<MessagePropertiesDTO> findInMemory(MessagePropertiesDTO messageDTO) {
+        return storage.findInMemory(messageDTO.getSequenceId(), messageDTO.getMessageId());
+    }
+
+    /**
+     * Takes a snapshot of all messages, which may be iterated on any thread. The messages held in memory are copied,
+     * the spilled ones are read from disk while iterating, so memory use does not depend on the number of messages.
+     */
+    public Snapshot snapshot() {
+        return storage.snapshot();
+    }
+
+    /**
+     * Notifies listeners, that the given message has been changed.
+     */
+    public void fireUpdated(MessagePropertiesDTO messageDTO) {
+        int index = indexOf(messageDTO);
+        if (index >= 0) {
+            beginChange();
+            nextUpdate(index);
+            endChange();
+        }
+        if (index >= 0 && index < storage.inMemory) {
+            inMemoryView.updated(index);
+        }
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int index = storage.indexOfIdentity(o);
+        return index >= 0 ? index : super.indexOf(o);
+    }
+
+    @Override
+    public MessagePropertiesDTO remove(int index) {
+        boolean inMemory = index < storage.inMemory;
+        MessagePropertiesDTO removed = storage.remove(index);
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+        if (inMemory) {
+            inMemoryView.removed(index, List.of(removed));
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Storage removed = storage;
+        storage = new Storage();
+        if (!removed.isEmpty()) {
+            beginChange();
+            nextRemove(0, removed);
+            endChange();
+            inMemoryView.removed(0, new ArrayList<>(removed.subList(0, removed.inMemory)));
+        }
+        removed.close();
+    }
+
+    /**
+     * Deletes the spill file. The store stays usable.
+     */
+    public void close() {
+        storage.close();
+    }
+
+    /**
+     * The messages of the store at the time the snapshot was taken, oldest first. Adding messages to the store
+     * meanwhile does not affect it. Removing a spilled message or clearing the store makes its iterators fail with a
+     * {@link ConcurrentModificationException}.
+     */
+    public static final class Snapshot implements Iterable<MessageDTO> {
+
+        private final Storage storage;
+        private final long spilled;
+        private final int spillModCount;
+        private final List<MessageDTO> inMemory;
+
+        private Snapshot(Storage storage, long spilled, int spillModCount, List<MessageDTO> inMemory) {
+            this.storage = storage;
+            this.spilled = spilled;
+            this.spillModCount = spillModCount;
+            this.inMemory = inMemory;
+        }
+
+        public long size() {
+            return spilled + inMemory.size();
+        }
+
+        @Override
+        public Iterator<MessageDTO> iterator() {
+            return new Iterator<>() {
+
+                private long next;
+                private Iterator<MessageDTO> page = List.<MessageDTO>of().iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return next < size();
+                }
+
+                @Override
+                public MessageDTO next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    long index = next++;
+                    if (index >= spilled) {
+                        return inMemory.get((int) (index - spilled));
+                    }
+                    if (!page.hasNext()) {
+                        page = storage.readSpilled(index, (int) Math.min(PAGE_SIZE, spilled - index), spillModCount).iterator();
+                    }
+                    return page.next();
+                }
+            };
+        }
+    }
+
+    /**
+     * The changes are fired by the store, along with its own.
+     */
+    private class InMemoryView extends ObservableListBase<MessagePropertiesDTO> {
+
+        @Override
+        public MessagePropertiesDTO get(int index) {
+            Objects.checkIndex(index, size());
+            return storage.get(index);
+        }
+
+        @Override
+        public int size() {
+            return storage.inMemory;
+        }
+
+        // changes nest, so these may be called between begin and end to fire them as one
+
+        void begin() {
+            beginChange();
+        }
+
+        void end() {
+            endChange();
+        }
+
+        void added(int from, int to) {
+            beginChange();
+            nextAdd(from, to);
+            endChange();
+        }
+
+        void removed(int from, List<MessagePropertiesDTO> removed) {
+            beginChange();
+            nextRemove(from, removed);
+            endChange();
+        }
+
+        void updated(int index) {
+            beginChange();
+            nextUpdate(index);
+            endChange();
+        }
+    }
+
+    private class Storage extends AbstractList<MessagePropertiesDTO> {
+
+        private final MessagePropertiesDTO[] ring = new MessagePropertiesDTO[capacity];
+        private final Map<Long, List<MessagePropertiesDTO>> pages = new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<MessagePropertiesDTO>> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
+        // guards the spill file, which snapshots read from other threads
+        private final Object spillLock = new Object();
+        private int oldest;
+        private int inMemory;
+        private SpillFile spillFile;
+        // changed whenever spilled records are removed, guarded by the spill lock
+        private int spillModCount;
+
+        @Override
+        public int size() {
+            return inMemory + (int) spilled();
+        }
+
+        @Override
+        public MessagePropertiesDTO get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            if (index < inMemory) {
+                return ring[slot(index)];
+            }
+            long recordIndex = toRecordIndex(index);
+            List<MessagePropertiesDTO> page = pages.computeIfAbsent(recordIndex / PAGE_SIZE, this::readPage);
+            int offset = (int) (recordIndex % PAGE_SIZE);
+            return offset < page.size() ? page.get(offset) : null;
+        }
+
+        /**
+         * @return The oldest messages in memory, if they had to make room, null otherwise.
+         */
+        Eviction push(MessagePropertiesDTO messageDTO) {
+            Eviction eviction = inMemory == capacity ? spillOldest() : null;
+            ring[(oldest + inMemory) % capacity] = messageDTO;
+            inMemory++;
+            return eviction;
+        }
+
+        Optional<MessagePropertiesDTO> findInMemory(long sequenceId, String messageId) {
+            for (int i = 0; i < inMemory; i++) {
+                MessagePropertiesDTO messageDTO = ring[slot(i)];
+                if (sequenceId != 0 ? messageDTO.getSequenceId() == sequenceId : Objects.equals(messageId, messageDTO.getMessageId())) {
+                    return Optional.of(messageDTO);
+                }
+            }
+            return Optional.empty();
+        }
+
+        int indexOfIdentity(Object o) {
+            for (int i = 0; i < inMemory; i++) {
+                if (ring[slot(i)] == o) {
+                    return i;
+                }
+            }
+            for (Map.Entry<Long, List<MessagePropertiesDTO>> page : pages.entrySet()) {
+                List<MessagePropertiesDTO> messages = page.getValue();
+                for (int i = 0; i < messages.size(); i++) {
+                    if (messages.get(i) == o) {
+                        return inMemory + (int) (spilled() - 1 - (page.getKey() * PAGE_SIZE + i));
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public MessagePropertiesDTO remove(int index) {
+            MessagePropertiesDTO removed = get(index);
+            if (index < inMemory) {
+                // close the gap by moving the newer messages one slot towards the oldest
+                for (int i = index; i > 0; i--) {
+                    ring[slot(i)] = ring[slot(i - 1)];
+                }
+                ring[slot(0)] = null;
+                inMemory--;
+            } else {
+                synchronized (spillLock) {
+                    spillModCount++;
+                    try {
+                        spillFile.remove(toRecordIndex(index));
+                    } catch (IOException e) {
+                        LOGGER.error("Unable to remove spilled message: {}", connectionId, e);
+                    }
+                }
+                pages.clear();
+            }
+            return removed;
+        }
+
+        Snapshot snapshot() {
+            List<MessageDTO> messages = new ArrayList<>(inMemory);
+            for (int i = inMemory - 1; i >= 0; i--) {
+                messages.add(MessageTransformer.propsToDTO(ring[slot(i)]));
+            }
+            synchronized (spillLock) {
+                return new Snapshot(this, spilled(), spillModCount, messages);
+            }
+        }
+
+        /**
+         * Called by snapshots from any thread.
+         */
+        List<MessageDTO> readSpilled(long from, int count, int expectedModCount) {
+            synchronized (spillLock) {
+                if (spillModCount != expectedModCount || spillFile == null) {
+                    throw new ConcurrentModificationException("Spilled messages changed: " + connectionId);
+                }
+                try {
+                    List<MessageDTO> messages = new ArrayList<>(count);
+                    for (byte[] record : spillFile.read(from, count)) {
+                        messages.add(SPILL_MAPPER.readValue(record, SpilledMessage.class).message());
+                    }
+                    return messages;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        void close() {
+            synchronized (spillLock) {
+                spillModCount++;
+                if (spillFile != null) {
+                    spillFile.close();
+                    spillFile = null;
+                }
+            }
+            pages.clear();
+        }
+
+        private long spilled() {
+            return spillFile == null ? 0 : spillFile.size();
+        }
+
+        /**
+         * Maps a list index, newest first, to a ring slot.
+         */
+        private int slot(int index) {
+            return (oldest + inMemory - 1 - index) % capacity;
+        }
+
+        /**
+         * Maps a list index of a spilled message to its record in the spill file, oldest first.
+         */
+        private long toRecordIndex(int index) {
+            return spilled() - 1 - (index - inMemory);
+        }
+
+        /**
+         * Moves the oldest messages from memory to the spill file. The messages leave the ring buffer in any case,
+         * but they are only part of the list afterwards, if they were written.
+         */
+        private Eviction spillOldest() {
+            int batchSize = Math.max(1, capacity / 8);
+            List<byte[]> records = new ArrayList<>(batchSize);
+            List<MessagePropertiesDTO> evicted = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                records.add(serialize(ring[(oldest + i) % capacity]));
+                evicted.add(0, ring[(oldest + i) % capacity]);
+            }
+            boolean dropped = false;
+            try {
+                synchronized (spillLock) {
+                    if (spillFile == null) {
+                        spillFile = SpillFile.createTemp("correomqtt-messages-");
+                    }
+                    // the former last page is incomplete, so it must be read again
+                    pages.remove(spillFile.size() / PAGE_SIZE);
+                    spillFile.append(records);
+                }
+            } catch (IOException e) {
+                LOGGER.error("Unable to spill {} messages to disk, dropping them: {}", batchSize, connectionId, e);
+                dropped = true;
+            }
+            for (int i = 0; i < batchSize; i++) {
+                ring[oldest] = null;
+                oldest = (oldest + 1) % capacity;
+            }
+            inMemory -= batchSize;
+            return new Eviction(evicted, dropped);
+        }
+
+        private List<MessagePropertiesDTO> readPage(long page) {
+            try {
+                List<MessagePropertiesDTO> messages = new ArrayList<>(PAGE_SIZE);
+                List<byte[]> records;
+                synchronized (spillLock) {
+                    records = spillFile.read(page * PAGE_SIZE, PAGE_SIZE);
+                }
+                for (byte[] record : records) {
+                    messages.add(deserialize(record));
+                }
+                return messages;
+            } catch (IOException e) {
+                LOGGER.error("Unable to read spilled messages: {}", connectionId, e);
+                return List.of();
+            }
+        }
+
+        private byte[] serialize(MessagePropertiesDTO messageDTO) {
+            SubscriptionPropertiesDTO subscription = messageDTO.getSubscription();
+            try {
+                return SPILL_MAPPER.writeValueAsBytes(new SpilledMessage(MessageTransformer.propsToDTO(messageDTO),
+                        subscription == null ? null : SubscriptionTransformer.propsToDTO(subscription)));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private MessagePropertiesDTO deserialize(byte[] record) throws IOException {
+            SpilledMessage spilledMessage = SPILL_MAPPER.readValue(record, SpilledMessage.class);
+            MessagePropertiesDTO messageDTO = MessageTransformer.dtoToProps(spilledMessage.message());
+            if (spilledMessage.subscription() != null) {
+                messageDTO.getSubscriptionDTOProperty().setValue(SubscriptionTransformer.dtoToProps(spilledMessage.subscription()));
+            }
+            return messageDTO;
+        }
+    }
+}
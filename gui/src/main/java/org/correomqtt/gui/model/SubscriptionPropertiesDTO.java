@@ -2,8 +2,10 @@ package org.correomqtt.gui.model;
 
 import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -12,6 +14,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import org.correomqtt.core.model.Qos;
+import org.correomqtt.core.model.SubscriptionOverflowPolicy;
 
 @Getter
 @AllArgsConstructor
@@ -22,13 +25,19 @@ public class SubscriptionPropertiesDTO {
     private final Property<Qos> qosProperty;
     private final BooleanProperty filteredProperty;
     private final BooleanProperty hiddenProperty;
+    private final Property<SubscriptionOverflowPolicy> overflowPolicyProperty;
+    private final LongProperty droppedProperty;
+    private final BooleanProperty recordedProperty;
 
     public static Callback<SubscriptionPropertiesDTO, Observable[]> extractor() {
         return (SubscriptionPropertiesDTO m) -> new Observable[]{
                 m.topicProperty,
                 m.qosProperty,
                 m.filteredProperty,
-                m.hiddenProperty
+                m.hiddenProperty,
+                m.overflowPolicyProperty,
+                m.droppedProperty,
+                m.recordedProperty
         };
     }
 
@@ -64,6 +73,30 @@ public class SubscriptionPropertiesDTO {
         this.filteredProperty.set(hidden);
     }
 
+    public SubscriptionOverflowPolicy getOverflowPolicy() {
+        return overflowPolicyProperty.getValue();
+    }
+
+    public void setOverflowPolicy(SubscriptionOverflowPolicy overflowPolicy) {
+        overflowPolicyProperty.setValue(overflowPolicy);
+    }
+
+    public long getDropped() {
+        return droppedProperty.get();
+    }
+
+    public void setDropped(long dropped) {
+        droppedProperty.set(dropped);
+    }
+
+    public boolean isRecorded() {
+        return recordedProperty.get();
+    }
+
+    public void setRecorded(boolean recorded) {
+        recordedProperty.set(recorded);
+    }
+
     @Override
     public int hashCode() {
         return topicProperty.hashCode() + qosProperty.hashCode() + filteredProperty.hashCode() + hiddenProperty.hashCode();
@@ -89,6 +122,9 @@ public class SubscriptionPropertiesDTO {
         private Property<Qos> qosProperty = new SimpleObjectProperty<>();
         private BooleanProperty filteredProperty = new SimpleBooleanProperty(true);
         private BooleanProperty hiddenProperty = new SimpleBooleanProperty(false);
+        private Property<SubscriptionOverflowPolicy> overflowPolicyProperty = new SimpleObjectProperty<>(SubscriptionOverflowPolicy.UNBUFFERED);
+        private LongProperty droppedProperty = new SimpleLongProperty();
+        private BooleanProperty recordedProperty = new SimpleBooleanProperty(false);
 
         public SubscriptionPropertiesDTOBuilder topic(String topic) {
             this.topicProperty.set(topic);
@@ -110,11 +146,24 @@ public class SubscriptionPropertiesDTO {
             return this;
         }
 
+        public SubscriptionPropertiesDTOBuilder overflowPolicy(SubscriptionOverflowPolicy overflowPolicy) {
+            this.overflowPolicyProperty.setValue(overflowPolicy);
+            return this;
+        }
+
+        public SubscriptionPropertiesDTOBuilder recorded(boolean recorded) {
+            this.recordedProperty.set(recorded);
+            return this;
+        }
+
         public SubscriptionPropertiesDTO build() {
             return new SubscriptionPropertiesDTO(topicProperty,
                                                  qosProperty,
                                                  filteredProperty,
-                                                 hiddenProperty);
+                                                 hiddenProperty,
+                                                 overflowPolicyProperty,
+                                                 droppedProperty,
+                                                 recordedProperty);
         }
     }
 
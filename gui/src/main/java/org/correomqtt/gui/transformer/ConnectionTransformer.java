@@ -48,6 +48,11 @@ public class ConnectionTransformer {
                 .lwtQoS(dto.getLwtQoS())
                 .lwtRetained(dto.isLwtRetained())
                 .lwtPayload(dto.getLwtPayload())
+                .offlineQueue(dto.isOfflineQueue())
+                .topicAliases(dto.isTopicAliases())
+                .consumerGroup(dto.getConsumerGroup())
+                .consumerGroupSize(dto.getConsumerGroupSize())
+                .recordMessages(dto.isRecordMessages())
                 .connectionUISettings(dto.getConnectionUISettings())
                 .dirty(false)
                 .unpersisted(false)
@@ -88,6 +93,11 @@ public class ConnectionTransformer {
                 .lwtQoS(props.getLwtQos())
                 .lwtRetained(props.isLwtRetained())
                 .lwtPayload(props.getLwtPayload())
+                .offlineQueue(props.isOfflineQueue())
+                .topicAliases(props.isTopicAliases())
+                .consumerGroup(props.getConsumerGroup())
+                .consumerGroupSize(props.getConsumerGroupSize())
+                .recordMessages(props.isRecordMessages())
                 .connectionUISettings(props.getConnectionUISettings())
                 .build();
     }
@@ -5,7 +5,9 @@ import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
 import org.correomqtt.core.plugin.model.MessageExtensionDTO;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.Objects;
 
 public class MessageTransformer {
 
@@ -16,11 +18,12 @@ public class MessageTransformer {
     public static MessagePropertiesDTO dtoToProps(MessageDTO messageDTO) {
         return MessagePropertiesDTO.builder()
                 .topic(messageDTO.getTopic())
-                .payload(messageDTO.getPayload())
+                .payload(messageDTO.getPayloadBuffer(), messageDTO.getPayload())
                 .isRetained(messageDTO.isRetained())
                 .qos(messageDTO.getQos())
                 .dateTime(messageDTO.getDateTime())
                 .messageId(messageDTO.getMessageId())
+                .sequenceId(messageDTO.getSequenceId())
                 .messageType(messageDTO.getMessageType())
                 .publishStatus(messageDTO.getPublishStatus())
                 .build();
@@ -28,7 +31,9 @@ public class MessageTransformer {
 
     public static MessageDTO mergeDTO(MessageExtensionDTO from, MessageDTO to) {
         to.setTopic(from.getTopic());
-        to.setPayload(from.getPayload());
+        if (!Objects.equals(from.getPayload(), to.getPayload())) {
+            to.setPayload(from.getPayload());
+        }
         to.setRetained(from.isRetained());
         to.setQos(from.getQos());
         to.setDateTime(from.getDateTime());
@@ -66,15 +71,21 @@ public class MessageTransformer {
     }
 
     public static MessageDTO propsToDTO(MessagePropertiesDTO messageDTO) {
-        return MessageDTO.builder()
+        MessageDTO dto = MessageDTO.builder()
                 .topic(messageDTO.getTopic())
                 .payload(messageDTO.getPayload())
                 .isRetained(messageDTO.isRetained())
                 .qos(messageDTO.getQos())
                 .dateTime(messageDTO.getDateTime())
                 .messageId(messageDTO.getMessageId())
+                .sequenceId(messageDTO.getSequenceId())
                 .messageType(messageDTO.getMessageType())
                 .publishStatus(messageDTO.getPublishStatus())
                 .build();
+        ByteBuffer rawPayload = messageDTO.getRawPayload();
+        if (rawPayload != null) {
+            dto.setPayloadBuffer(rawPayload);
+        }
+        return dto;
     }
 }
@@ -14,6 +14,8 @@ public class SubscriptionTransformer {
                               .topic(props.getTopic())
                               .qos(props.getQos())
                               .hidden(props.isHidden())
+                              .overflowPolicy(props.getOverflowPolicy())
+                              .recorded(props.isRecorded())
                               .build();
     }
 
@@ -22,6 +24,8 @@ public class SubscriptionTransformer {
                                         .topic(dto.getTopic())
                                         .qos(dto.getQos())
                                         .hidden((dto.isHidden()))
+                                        .overflowPolicy(dto.getOverflowPolicy())
+                                        .recorded(dto.isRecorded())
                                         .build();
     }
 }
@@ -0,0 +1,119 @@
+package org.correomqtt.gui.utils;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Collects items from any thread and hands them to the FX thread in batches.
+ * <p>
+ * Instead of one {@code Platform.runLater} per item, the queue is drained once per animation pulse, or less often if
+ * a flush interval is configured. The consumer gets all items queued since the last flush in arrival order. The
+ * animation timer only runs while items are queued, an idle batcher does not take part in the pulses.
+ */
+public class PulseBatcher<T> {
+
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    // size() of the queue is not constant time
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Consumer<List<T>> consumer;
+    private final long flushIntervalNanos;
+    private final AnimationTimer timer;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private long lastFlush;
+    private volatile boolean stopped;
+
+    /**
+     * @param flushIntervalMillis Minimum time between two flushes. 0 flushes on every pulse.
+     */
+    public PulseBatcher(long flushIntervalMillis, Consumer<List<T>> consumer) {
+        this.consumer = consumer;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, flushIntervalMillis));
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (now - lastFlush >= flushIntervalNanos) {
+                    lastFlush = now;
+                    flush();
+                    stopIfIdle();
+                }
+            }
+        };
+    }
+
+    /**
+     * Discards the queued items and ignores further ones.
+     */
+    public void stop() {
+        stopped = true;
+        timer.stop();
+        queue.clear();
+        queueDepth.set(0);
+    }
+
+    /**
+     * May be called from any thread. Starts the animation timer, if it is not running.
+     */
+    public void add(T item) {
+        if (stopped) {
+            return;
+        }
+        queue.add(item);
+        queueDepth.incrementAndGet();
+        if (running.compareAndSet(false, true)) {
+            if (Platform.isFxApplicationThread()) {
+                timer.start();
+            } else {
+                Platform.runLater(this::startTimer);
+            }
+        }
+    }
+
+    private void startTimer() {
+        if (!stopped) {
+            timer.start();
+        }
+    }
+
+    private void stopIfIdle() {
+        if (!queue.isEmpty()) {
+            return;
+        }
+        timer.stop();
+        running.set(false);
+        // an item added in between did not start the timer, as it was still running
+        if (!queue.isEmpty() && running.compareAndSet(false, true)) {
+            startTimer();
+        }
+    }
+
+    /**
+     * Delivers all queued items. Must be called on the FX thread.
+     */
+    public void flush() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        List<T> batch = new ArrayList<>();
+        T item;
+        while ((item = queue.poll()) != null) {
+            batch.add(item);
+        }
+        queueDepth.addAndGet(-batch.size());
+        consumer.accept(batch);
+    }
+
+    /**
+     * @return Number of items waiting for the next flush.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+}
@@ -18,6 +18,7 @@ import org.correomqtt.GuiCore;
 import org.correomqtt.core.applifecycle.ShutdownRequestEvent;
 import org.correomqtt.core.connection.ConnectionState;
 import org.correomqtt.core.connection.ConnectionStateChangedEvent;
+import org.correomqtt.core.model.ConnectionConfigDTO;
 import org.correomqtt.di.SoyEvents;
 import org.correomqtt.di.Observes;
 import org.correomqtt.core.exception.CorreoMqttUnableToCheckVersionException;
@@ -235,8 +236,13 @@ public class MainViewController implements ConnectionOnboardingDelegate, Connect
                 event.getState() == ConnectionState.DISCONNECTING) {
             return;
         }
+        ConnectionConfigDTO config = connectionManager.getConfig(event.getConnectionId());
+        if (config == null) {
+            // not a configured connection, e.g. a load test client
+            return;
+        }
         if (connectionViewControllers.values().stream().noneMatch(ctrl -> ctrl.getConnectionId().equals(event.getConnectionId()))) {
-            getConnectionViewControllerLoaderResult(ConnectionTransformer.dtoToProps(connectionManager.getConfig(event.getConnectionId())));
+            getConnectionViewControllerLoaderResult(ConnectionTransformer.dtoToProps(config));
         }
     }
 
@@ -3,6 +3,7 @@ package org.correomqtt.gui.views.connections;
 import lombok.Getter;
 import org.correomqtt.core.CoreManager;
 import org.correomqtt.di.ObservesFilter;
+import org.correomqtt.di.SoyEvents;
 import org.correomqtt.gui.theme.ThemeManager;
 import org.correomqtt.gui.views.LoaderResult;
 import org.correomqtt.gui.views.base.BaseControllerImpl;
@@ -40,6 +41,7 @@ public abstract class BaseConnectionController extends BaseControllerImpl {
 
     public void setConnectionId(String controllerUUID) {
         this.connectionId = controllerUUID;
+        SoyEvents.updateFilters(this);
     }
 
     Marker getConnectionMarker() {
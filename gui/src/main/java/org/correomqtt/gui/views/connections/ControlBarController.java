@@ -1,16 +1,25 @@
 package org.correomqtt.gui.views.connections;
 
 import javafx.fxml.FXML;
+import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
 import org.correomqtt.core.CoreManager;
 import org.correomqtt.core.connection.ConnectionLifecycleTaskFactories;
 import org.correomqtt.core.connection.ConnectionState;
 import org.correomqtt.core.connection.ConnectionStateChangedEvent;
+import org.correomqtt.core.loadtest.LoadGeneratorConfig;
+import org.correomqtt.core.loadtest.LoadGeneratorTask;
+import org.correomqtt.core.loadtest.LoadGeneratorTaskFactory;
 import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.recorder.MessageRecorderRegistry;
+import org.correomqtt.core.replay.ReplayConfig;
+import org.correomqtt.core.replay.ReplayTask;
+import org.correomqtt.core.replay.ReplayTaskFactory;
 import org.correomqtt.di.Assisted;
 import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
@@ -19,10 +28,12 @@ import org.correomqtt.gui.controls.IconLabel;
 import org.correomqtt.gui.model.GuiConnectionState;
 import org.correomqtt.gui.plugin.spi.MainToolbarHook;
 import org.correomqtt.gui.theme.ThemeManager;
+import org.correomqtt.gui.utils.AlertHelper;
 import org.correomqtt.gui.views.LoaderResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
 import java.util.ResourceBundle;
 
 import static org.correomqtt.core.connection.ConnectionState.CONNECTED;
@@ -33,6 +44,15 @@ public class ControlBarController extends BaseConnectionController {
 
     private final ConnectionLifecycleTaskFactories connectionLifecycleTaskFactories;
     private final ControlBarDelegate delegate;
+    private final LoadGeneratorTaskFactory loadGeneratorTaskFactory;
+    private final LoadTestDialog loadTestDialog;
+    private final ReplayTaskFactory replayTaskFactory;
+    private final ReplayDialog replayDialog;
+    private final MessageRecorderRegistry recorderRegistry;
+    private final AlertHelper alertHelper;
+    private final MetricsPanelControllerFactory metricsPanelControllerFactory;
+    private LoadGeneratorTask runningLoadTest;
+    private ReplayTask runningReplay;
 
     @FXML
     private AnchorPane mainViewHBoxAnchorPane;
@@ -49,6 +69,12 @@ public class ControlBarController extends BaseConnectionController {
     @FXML
     private Button reconnectBtn;
 
+    @FXML
+    private Button loadTestBtn;
+
+    @FXML
+    private Button replayBtn;
+
     @FXML
     private ToggleButton controlViewPButton;
 
@@ -77,11 +103,25 @@ public class ControlBarController extends BaseConnectionController {
     @Inject
     public ControlBarController(CoreManager coreManager,
                                 ConnectionLifecycleTaskFactories connectionLifecycleTaskFactories,
+                                LoadGeneratorTaskFactory loadGeneratorTaskFactory,
+                                LoadTestDialog loadTestDialog,
+                                ReplayTaskFactory replayTaskFactory,
+                                ReplayDialog replayDialog,
+                                MessageRecorderRegistry recorderRegistry,
+                                AlertHelper alertHelper,
+                                MetricsPanelControllerFactory metricsPanelControllerFactory,
                                 ThemeManager themeManager,
                                 @Assisted String connectionId,
                                 @Assisted ControlBarDelegate delegate) {
         super(coreManager, themeManager, connectionId);
         this.connectionLifecycleTaskFactories = connectionLifecycleTaskFactories;
+        this.loadGeneratorTaskFactory = loadGeneratorTaskFactory;
+        this.loadTestDialog = loadTestDialog;
+        this.replayTaskFactory = replayTaskFactory;
+        this.replayDialog = replayDialog;
+        this.recorderRegistry = recorderRegistry;
+        this.alertHelper = alertHelper;
+        this.metricsPanelControllerFactory = metricsPanelControllerFactory;
         this.delegate = delegate;
     }
 
@@ -111,10 +151,18 @@ public class ControlBarController extends BaseConnectionController {
         disconnectBtn.setManaged(false);
         reconnectBtn.setVisible(false);
         reconnectBtn.setManaged(false);
+        loadTestBtn.setVisible(false);
+        loadTestBtn.setManaged(false);
+        replayBtn.setVisible(false);
+        replayBtn.setManaged(false);
 
         int indexToInsert = controllViewButtonHBox.getChildrenUnmodifiable().indexOf(controlViewSButton) + 1;
 
         coreManager.getPluginManager().getExtensions(MainToolbarHook.class).forEach(p -> p.onInstantiateMainToolbar(getConnectionId(), controllViewButtonHBox, indexToInsert));
+
+        Region metricsPanel = metricsPanelControllerFactory.create(getConnectionId()).load().getMainRegion();
+        HBox.setMargin(metricsPanel, new Insets(0, 10, 0, 10));
+        controllViewButtonHBox.getChildren().add(controllViewButtonHBox.getChildren().indexOf(brokerInfo.getParent()), metricsPanel);
     }
 
     @FXML
@@ -141,6 +189,66 @@ public class ControlBarController extends BaseConnectionController {
         connectionLifecycleTaskFactories.getDisconnectFactory().create(getConnectionId()).run();
     }
 
+    @FXML
+    private void onClickLoadTest() {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Load test in control bar clicked for connection: {}", getConnectionId());
+        }
+        if (runningLoadTest != null) {
+            runningLoadTest.stop();
+            return;
+        }
+        ConnectionConfigDTO config = coreManager.getConnectionManager().getConfig(getConnectionId());
+        Optional<LoadGeneratorConfig> loadTestConfig = loadTestDialog.show(config, resources);
+        if (loadTestConfig.isEmpty()) {
+            return;
+        }
+        try {
+            runningLoadTest = loadGeneratorTaskFactory.create(loadTestConfig.get());
+        } catch (IllegalArgumentException e) {
+            alertHelper.warn(resources.getString("loadTestDialogTitle"), e.getMessage());
+            return;
+        }
+        loadTestBtn.setText(resources.getString("controlBarLoadTestStopButton"));
+        runningLoadTest.onSuccess(result -> alertHelper.info(resources.getString("loadTestDialogTitle"), result.toString()))
+                .onError(r -> alertHelper.unexpectedAlert(r.getUnexpectedError()))
+                .onFinally(() -> {
+                    runningLoadTest = null;
+                    loadTestBtn.setText(resources.getString("controlBarLoadTestButton"));
+                })
+                .run();
+    }
+
+    @FXML
+    private void onClickReplay() {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Replay in control bar clicked for connection: {}", getConnectionId());
+        }
+        if (runningReplay != null) {
+            runningReplay.stop();
+            return;
+        }
+        ConnectionConfigDTO config = coreManager.getConnectionManager().getConfig(getConnectionId());
+        Optional<ReplayConfig> replayConfig = replayDialog.show(config, recorderRegistry.getRecording(getConnectionId()), resources);
+        if (replayConfig.isEmpty()) {
+            return;
+        }
+        try {
+            runningReplay = replayTaskFactory.create(getConnectionId(), replayConfig.get());
+        } catch (IllegalArgumentException e) {
+            alertHelper.warn(resources.getString("replayDialogTitle"), e.getMessage());
+            return;
+        }
+        replayBtn.setText(resources.getString("controlBarReplayStopButton"));
+        runningReplay.onSuccess(result -> alertHelper.info(resources.getString("replayDialogTitle"), result.toString()))
+                .onError(r -> alertHelper.unexpectedAlert(r.getUnexpectedError()))
+                .onFinally(() -> {
+                    runningReplay = null;
+                    replayBtn.setText(resources.getString("controlBarReplayButton"));
+                })
+                .run();
+    }
+
     @FXML
     private void onClickP() {
         if (LOGGER.isDebugEnabled()) {
@@ -225,6 +333,10 @@ public class ControlBarController extends BaseConnectionController {
         connectBtn.setVisible(false);
         connectBtn.setManaged(false);
         connectBtn.setDisable(true);
+        loadTestBtn.setVisible(state == CONNECTED);
+        loadTestBtn.setManaged(state == CONNECTED);
+        replayBtn.setVisible(state == CONNECTED);
+        replayBtn.setManaged(state == CONNECTED);
 
         switch (state) {
             case CONNECTED -> {
@@ -243,7 +355,9 @@ public class ControlBarController extends BaseConnectionController {
                 reconnectBtn.setVisible(true);
                 reconnectBtn.setManaged(true);
                 reconnectBtn.setDisable(true);
-                statusInfo.setText(resources.getString("controlBarControllerReconnecting") + " " + event.getRetries() + "/" + event.getMaxRetries());
+                // max retries of 0 means retrying until the broker is back
+                statusInfo.setText(resources.getString("controlBarControllerReconnecting") + " " + event.getRetries()
+                        + (event.getMaxRetries() > 0 ? "/" + event.getMaxRetries() : ""));
             }
             case DISCONNECTING -> {
                 disconnectBtn.setVisible(true);
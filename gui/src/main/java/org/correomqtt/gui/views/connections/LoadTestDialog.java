@@ -0,0 +1,98 @@
+package org.correomqtt.gui.views.connections;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.DialogPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+import javafx.stage.Window;
+import org.correomqtt.core.loadtest.LoadGeneratorConfig;
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.model.Qos;
+import org.correomqtt.di.DefaultBean;
+import org.correomqtt.di.Inject;
+import org.correomqtt.gui.theme.ThemeManager;
+import org.correomqtt.gui.window.StageHelper;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.ResourceBundle;
+
+/**
+ * Asks for the parameters of a load test against the broker of a connection.
+ */
+@DefaultBean
+public class LoadTestDialog {
+
+    private final ThemeManager themeManager;
+
+    @Inject
+    LoadTestDialog(ThemeManager themeManager) {
+        this.themeManager = themeManager;
+    }
+
+    Optional<LoadGeneratorConfig> show(ConnectionConfigDTO connection, ResourceBundle resources) {
+        LoadGeneratorConfig defaults = LoadGeneratorConfig.builder().build();
+
+        Dialog<LoadGeneratorConfig> dialog = new Dialog<>();
+        StageHelper.enforceFloatingWindow(dialog);
+        dialog.initOwner(Window.getWindows().stream().filter(Window::isShowing).findFirst().orElse(null));
+        DialogPane dialogPane = dialog.getDialogPane();
+        dialogPane.setMinHeight(Region.USE_PREF_SIZE);
+        String cssPath = themeManager.getCssPath();
+        if (cssPath != null) {
+            dialogPane.getStylesheets().add(cssPath);
+        }
+        dialog.setTitle(resources.getString("loadTestDialogTitle"));
+        dialog.setHeaderText(connection.getName());
+        dialogPane.getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        Spinner<Integer> clients = new Spinner<>(1, 1000, defaults.getClientCount());
+        TextField topicPattern = new TextField(defaults.getTopicPattern());
+        Spinner<Integer> topicsPerClient = new Spinner<>(1, 10_000, defaults.getTopicsPerClient());
+        Spinner<Integer> payloadSize = new Spinner<>(LoadGeneratorConfig.MIN_PAYLOAD_SIZE, 256 * 1024 * 1024, defaults.getPayloadSize());
+        ComboBox<Qos> qos = new ComboBox<>(FXCollections.observableArrayList(Qos.values()));
+        qos.getSelectionModel().select(defaults.getQos());
+        Spinner<Integer> rate = new Spinner<>(1, 1_000_000, defaults.getMessagesPerSecond());
+        Spinner<Integer> duration = new Spinner<>(1, 3600, (int) defaults.getDuration().toSeconds());
+        clients.setEditable(true);
+        topicsPerClient.setEditable(true);
+        payloadSize.setEditable(true);
+        rate.setEditable(true);
+        duration.setEditable(true);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.addRow(0, new Label(resources.getString("loadTestDialogClients")), clients);
+        grid.addRow(1, new Label(resources.getString("loadTestDialogTopicPattern")), topicPattern);
+        grid.addRow(2, new Label(resources.getString("loadTestDialogTopicsPerClient")), topicsPerClient);
+        grid.addRow(3, new Label(resources.getString("loadTestDialogPayloadSize")), payloadSize);
+        grid.addRow(4, new Label(resources.getString("loadTestDialogQos")), qos);
+        grid.addRow(5, new Label(resources.getString("loadTestDialogRate")), rate);
+        grid.addRow(6, new Label(resources.getString("loadTestDialogDuration")), duration);
+        dialogPane.setContent(grid);
+
+        dialog.setResultConverter(button -> {
+            if (button != ButtonType.OK) {
+                return null;
+            }
+            return LoadGeneratorConfig.builder()
+                    .connection(connection)
+                    .clientCount(clients.getValue())
+                    .topicPattern(topicPattern.getText())
+                    .topicsPerClient(topicsPerClient.getValue())
+                    .payloadSize(payloadSize.getValue())
+                    .qos(qos.getValue())
+                    .messagesPerSecond(rate.getValue())
+                    .duration(Duration.ofSeconds(duration.getValue()))
+                    .build();
+        });
+        return dialog.showAndWait();
+    }
+}
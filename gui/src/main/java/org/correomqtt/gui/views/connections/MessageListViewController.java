@@ -1,8 +1,6 @@
 package org.correomqtt.gui.views.connections;
 
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -20,10 +18,14 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.controlsfx.control.textfield.TextFields;
 import org.correomqtt.core.CoreManager;
 import org.correomqtt.core.connection.ConnectionStateChangedEvent;
+import org.correomqtt.core.importexport.messages.ExportMessagesConfig;
+import org.correomqtt.core.importexport.messages.ExportMessagesFormat;
+import org.correomqtt.core.importexport.messages.ExportMessagesTaskFactory;
 import org.correomqtt.core.model.ControllerType;
 import org.correomqtt.core.model.LabelType;
 import org.correomqtt.core.model.MessageListViewConfig;
@@ -38,13 +40,22 @@ import org.correomqtt.gui.contextmenu.MessageListContextMenuDelegate;
 import org.correomqtt.gui.contextmenu.MessageListContextMenuFactory;
 import org.correomqtt.gui.controls.IconCheckMenuItem;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.gui.model.MessageStore;
 import org.correomqtt.gui.theme.ThemeManager;
 import org.correomqtt.gui.transformer.MessageTransformer;
+import org.correomqtt.gui.utils.AlertHelper;
 import org.correomqtt.gui.utils.MessageUtils;
+import org.correomqtt.gui.utils.PulseBatcher;
 import org.correomqtt.gui.views.LoaderResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.function.IntSupplier;
 import java.util.function.Predicate;
 
 import static org.correomqtt.core.connection.ConnectionState.CONNECTED;
@@ -61,6 +72,8 @@ public class MessageListViewController extends BaseConnectionController implemen
     private final MessageViewCellFactory messageViewCellFactory;
     private final MessageListContextMenuFactory messageListContextMenuFactory;
     private final MessageUtils messageUtils;
+    private final ExportMessagesTaskFactory exportMessagesTaskFactory;
+    private final AlertHelper alertHelper;
     @FXML
     protected SplitPane splitPane;
     @FXML
@@ -79,6 +92,8 @@ public class MessageListViewController extends BaseConnectionController implemen
     @FXML
     Button clearMessagesButton;
     @FXML
+    Button exportMessagesButton;
+    @FXML
     Button copyToFormButton;
     @FXML
     ListView<MessagePropertiesDTO> listView;
@@ -86,8 +101,13 @@ public class MessageListViewController extends BaseConnectionController implemen
     Button showDetailsButton;
     @FXML
     private VBox messagesVBox;
-    private ObservableList<MessagePropertiesDTO> messages;
-    private FilteredList<MessagePropertiesDTO> filteredMessages;
+    @FXML
+    private ResourceBundle resources;
+    private MessageStore messages;
+    private Predicate<MessagePropertiesDTO> searchPredicate;
+    private Predicate<MessagePropertiesDTO> filterPredicate;
+    private PulseBatcher<MessagePropertiesDTO> messageBatcher;
+    private final IntSupplier uiQueueDepth = () -> messageBatcher.getQueueDepth();
     private DetailViewController detailViewController;
 
 
@@ -99,6 +119,8 @@ public class MessageListViewController extends BaseConnectionController implemen
                                      MessageViewCellFactory messageViewCellFactory,
                                      MessageListContextMenuFactory messageListContextMenuFactory,
                                      MessageUtils messageUtils,
+                                     ExportMessagesTaskFactory exportMessagesTaskFactory,
+                                     AlertHelper alertHelper,
                                      @Assisted String connectionId,
                                      @Assisted MessageListViewDelegate delegate) {
         super(coreManager, themeManager, connectionId);
@@ -106,6 +128,8 @@ public class MessageListViewController extends BaseConnectionController implemen
         this.messageViewCellFactory = messageViewCellFactory;
         this.messageListContextMenuFactory = messageListContextMenuFactory;
         this.messageUtils = messageUtils;
+        this.exportMessagesTaskFactory = exportMessagesTaskFactory;
+        this.alertHelper = alertHelper;
         this.delegate = delegate;
     }
 
@@ -131,6 +155,7 @@ public class MessageListViewController extends BaseConnectionController implemen
         copyToFormButton.setDisable(true);
         showDetailsButton.setDisable(true);
         clearMessagesButton.setDisable(true);
+        exportMessagesButton.setDisable(true);
 
         MessageListViewConfig config = delegate.produceListViewConfig().get();
 
@@ -146,12 +171,15 @@ public class MessageListViewController extends BaseConnectionController implemen
             changeDisplayTimestamp.setSelected(true);
         }
 
-        messages = FXCollections.observableArrayList(MessagePropertiesDTO.extractor());
-        filteredMessages = new FilteredList<>(messages, s -> true);
+        messages = new MessageStore(getConnectionId(), coreManager.getSettingsManager().getSettings().getMessageListCapacity());
 
-        listView.setItems(filteredMessages);
+        listView.setItems(messages);
         listView.setCellFactory(this::createCell);
 
+        messageBatcher = new PulseBatcher<>(coreManager.getSettingsManager().getSettings().getMessageListFlushInterval(),
+                this::deliverMessages);
+        coreManager.getMetricsRegistry().forConnection(getConnectionId()).addUiQueue(uiQueueDepth);
+
         splitPane.widthProperty().addListener((observable, oldValue, newValue) -> Platform.runLater(() -> calculateDetailView(newValue)));
 
         messageSearchTextField.textProperty().addListener((observable, oldValue, newValue) -> searchInMessages(newValue));
@@ -193,13 +221,34 @@ public class MessageListViewController extends BaseConnectionController implemen
             LOGGER.debug("Search for {} in messages: {}", newValue, getConnectionId());
         }
 
-        filteredMessages.setPredicate(message -> {
-            if (newValue == null || newValue.isEmpty()) {
-                return true;
-            }
+        if (newValue == null || newValue.isEmpty()) {
+            searchPredicate = null;
+        } else {
+            searchPredicate = message -> message.getTopic().contains(newValue);
+        }
+        applyPredicates();
+    }
+
+    /**
+     * A filtered list has to visit every message and shifts its index on every new message. So it is only put in
+     * between, while a filter is active, and only covers the messages held in memory. Spilled messages would be read
+     * from disk on the FX thread.
+     */
+    private void applyPredicates() {
+        Predicate<MessagePropertiesDTO> predicate;
+        if (searchPredicate == null) {
+            predicate = filterPredicate;
+        } else if (filterPredicate == null) {
+            predicate = searchPredicate;
+        } else {
+            predicate = searchPredicate.and(filterPredicate);
+        }
 
-            return message.getTopic().contains(newValue);
-        });
+        if (predicate == null) {
+            listView.setItems(messages);
+        } else {
+            listView.setItems(new FilteredList<>(messages.inMemory(), predicate));
+        }
     }
 
     private void onCellClicked(MouseEvent event, MessagePropertiesDTO messageDTO) {
@@ -270,6 +319,7 @@ public class MessageListViewController extends BaseConnectionController implemen
         copyToFormButton.setDisable(true);
         showDetailsButton.setDisable(true);
         clearMessagesButton.setDisable(true);
+        exportMessagesButton.setDisable(true);
 
         delegate.clearMessages();
 
@@ -278,6 +328,49 @@ public class MessageListViewController extends BaseConnectionController implemen
         }
     }
 
+    /**
+     * Exports all messages of the list, including the spilled ones, oldest first. The export reads a snapshot on the
+     * IO executor, so new messages keep coming in meanwhile.
+     */
+    @FXML
+    private void exportMessages() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(resources.getString("messageListViewExportTitle"));
+        FileChooser.ExtensionFilter jsonLines = new FileChooser.ExtensionFilter(
+                resources.getString("messageListViewExportJsonLines"), "*.jsonl", "*.jsonl.gz");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter(
+                resources.getString("messageListViewExportCsv"), "*.csv", "*.csv.gz");
+        fileChooser.getExtensionFilters().addAll(jsonLines, csv);
+
+        File file = fileChooser.showSaveDialog(messagesVBox.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        String fileName = file.getName().toLowerCase();
+        boolean isCsv = fileChooser.getSelectedExtensionFilter() == csv
+                ? !fileName.endsWith(".jsonl") && !fileName.endsWith(".jsonl.gz")
+                : fileName.endsWith(".csv") || fileName.endsWith(".csv.gz");
+
+        MessageStore.Snapshot snapshot = messages.snapshot();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Export {} messages to {}: {}", snapshot.size(), file, getConnectionId());
+        }
+
+        exportMessagesButton.setDisable(true);
+        exportMessagesTaskFactory.create(ExportMessagesConfig.builder()
+                        .file(file)
+                        .messages(snapshot)
+                        .total(snapshot.size())
+                        .format(isCsv ? ExportMessagesFormat.CSV : ExportMessagesFormat.JSONL)
+                        .gzip(fileName.endsWith(".gz"))
+                        .build())
+                .onSuccess(exported -> alertHelper.info(resources.getString("messageListViewExportTitle"),
+                        MessageFormat.format(resources.getString("messageListViewExportSucceeded"), exported, file.getName())))
+                .onError(r -> alertHelper.unexpectedAlert(r.getUnexpectedError()))
+                .onFinally(() -> exportMessagesButton.setDisable(messages.isEmpty()))
+                .run();
+    }
+
     @Override
     public void removeMessage(MessagePropertiesDTO messageDTO) {
         messages.remove(messageDTO);
@@ -294,14 +387,21 @@ public class MessageListViewController extends BaseConnectionController implemen
         messageUtils.saveMessage(messageDTO, stage);
     }
 
+    /**
+     * @param filterPredicate Predicate to filter the messages or null to show all messages.
+     */
     void setFilterPredicate(Predicate<MessagePropertiesDTO> filterPredicate) {
-        filteredMessages.setPredicate(filterPredicate);
+        this.filterPredicate = filterPredicate;
+        applyPredicates();
     }
 
     Node getMainNode() {
         return splitPane;
     }
 
+    /**
+     * May be called from any thread. The message is shown with the next flush of the message batcher.
+     */
     void onNewMessage(MessagePropertiesDTO messageDTO) {
 
         if (messageDTO.getSubscription() != null && messageDTO.getSubscription().isHidden()) {
@@ -312,49 +412,41 @@ public class MessageListViewController extends BaseConnectionController implemen
             return;
         }
 
+        messageBatcher.add(messageDTO);
+    }
+
+    private void deliverMessages(List<MessagePropertiesDTO> batch) {
+
         delegate.setTabDirty();
 
-        if (messageDTO.getPublishStatus() != null && messageDTO.getPublishStatus().equals(PublishStatus.PUBLISHED)) {
-            messages.stream()
-                    .filter(m -> m.getMessageId().equals(messageDTO.getMessageId()))
-                    .findFirst()
-                    .ifPresentOrElse(m -> {
-                        m.update(messageDTO);
-                        m.setPublishStatus(PublishStatus.PUBLISHED);
-                    }, () -> addMessage(messageDTO));
-            return;
-        } else if (messageDTO.getPublishStatus() != null &&
-                messageDTO.getPublishStatus().equals(PublishStatus.SUCCEEDED)) {
-            messages.stream()
-                    .filter(m -> m.getMessageId().equals(messageDTO.getMessageId()))
-                    .findFirst()
-                    .ifPresentOrElse(m -> {
-                        m.update(messageDTO);
-                        m.setPublishStatus(PublishStatus.SUCCEEDED);
-                    }, () -> addMessage(messageDTO));
-            return;
-        } else if (messageDTO.getPublishStatus() != null &&
-                messageDTO.getPublishStatus().equals(PublishStatus.FAILED)) {
-            messages.stream()
-                    .filter(m -> m.getMessageId().equals(messageDTO.getMessageId()))
-                    .findFirst()
-                    .ifPresentOrElse(m -> {
-                        m.update(messageDTO);
-                        m.setPublishStatus(PublishStatus.FAILED);
-                    }, () -> addMessage(messageDTO));
-            return;
+        List<MessagePropertiesDTO> newMessages = new ArrayList<>(batch.size());
+        for (MessagePropertiesDTO messageDTO : batch) {
+            PublishStatus publishStatus = messageDTO.getPublishStatus();
+            if (publishStatus == PublishStatus.PUBLISHED
+                    || publishStatus == PublishStatus.QUEUED
+                    || publishStatus == PublishStatus.SUCCEEDED
+                    || publishStatus == PublishStatus.FAILED) {
+                // the message to update may be part of this batch
+                messages.addAllFirst(newMessages);
+                newMessages.clear();
+                messages.findInMemory(messageDTO)
+                        .ifPresentOrElse(m -> {
+                            m.update(messageDTO);
+                            m.setPublishStatus(publishStatus);
+                            messages.fireUpdated(m);
+                        }, () -> newMessages.add(messageDTO));
+            } else if (messageDTO.getMessageType().equals(MessageType.INCOMING)) {
+                newMessages.add(messageDTO);
+            }
         }
+        messages.addAllFirst(newMessages);
 
-        if (messageDTO.getMessageType().equals(MessageType.INCOMING)) {
-            addMessage(messageDTO);
+        if (!messages.isEmpty()) {
+            clearMessagesButton.setDisable(false);
+            exportMessagesButton.setDisable(false);
         }
-    }
 
-    private void addMessage(MessagePropertiesDTO messageDTO) {
-        Platform.runLater(() -> {
-            messages.add(0, messageDTO);
-            clearMessagesButton.setDisable(false);
-        });
+        coreManager.getMetricsRegistry().forConnection(getConnectionId()).recordUiUpdate(batch.size());
     }
 
     @FXML
@@ -425,6 +517,9 @@ public class MessageListViewController extends BaseConnectionController implemen
         if (this.detailViewController != null) {
             detailViewController.cleanUp();
         }
+        coreManager.getMetricsRegistry().forConnection(getConnectionId()).removeUiQueue(uiQueueDepth);
+        messageBatcher.stop();
+        messages.close();
     }
 
     @Override
@@ -132,13 +132,16 @@ public class MessageViewCell extends ListCell<MessagePropertiesDTO> {
     }
 
     private void setUpMessage(MessagePropertiesDTO messageDTO) {
-        topicLabel.getStyleClass().removeAll("published", "succeeded", "failed");
+        topicLabel.getStyleClass().removeAll("published", "queued", "succeeded", "failed");
 
         if (messageDTO.getPublishStatus() != null) {
             switch (messageDTO.getPublishStatus()) {
                 case PUBLISHED:
                     topicLabel.getStyleClass().add("published");
                     break;
+                case QUEUED:
+                    topicLabel.getStyleClass().add("queued");
+                    break;
                 case SUCCEEDED:
                     topicLabel.getStyleClass().add("succeeded");
                     break;
@@ -0,0 +1,139 @@
+package org.correomqtt.gui.views.connections;
+
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import org.correomqtt.core.CoreManager;
+import org.correomqtt.core.concurrent.ExecutorStats;
+import org.correomqtt.core.concurrent.LaneStats;
+import org.correomqtt.core.metrics.MetricsSnapshot;
+import org.correomqtt.core.metrics.MetricsSnapshotEvent;
+import org.correomqtt.di.Assisted;
+import org.correomqtt.di.DefaultBean;
+import org.correomqtt.di.Inject;
+import org.correomqtt.di.Observes;
+import org.correomqtt.gui.theme.ThemeManager;
+import org.correomqtt.gui.views.LoaderResult;
+
+import java.time.Duration;
+import java.util.ResourceBundle;
+import java.util.stream.Collectors;
+
+/**
+ * Shows the live metrics of a connection in the control bar.
+ */
+@DefaultBean
+public class MetricsPanelController extends BaseConnectionController {
+
+    @FXML
+    private Label throughputInfo;
+
+    @FXML
+    private Label detailsInfo;
+
+    @FXML
+    private ResourceBundle resources;
+
+    @Inject
+    public MetricsPanelController(CoreManager coreManager,
+                                  ThemeManager themeManager,
+                                  @Assisted String connectionId) {
+        super(coreManager, themeManager, connectionId);
+    }
+
+    LoaderResult<MetricsPanelController> load() {
+        return load(MetricsPanelController.class, "metricsPanelView.fxml",
+                () -> this
+        );
+    }
+
+    @FXML
+    private void initialize() {
+        throughputInfo.setText("");
+        detailsInfo.setText("");
+    }
+
+    @SuppressWarnings("unused")
+    public void onMetricsSnapshot(@Observes MetricsSnapshotEvent event) {
+        MetricsSnapshot snapshot = event.getSnapshot();
+        throughputInfo.setText(String.format(resources.getString("metricsPanelThroughput"),
+                snapshot.incoming().messagesPerSecond(),
+                formatBytes(snapshot.incoming().bytesPerSecond()),
+                snapshot.outgoing().messagesPerSecond(),
+                formatBytes(snapshot.outgoing().bytesPerSecond())));
+        detailsInfo.setText(String.format(resources.getString("metricsPanelDetails"),
+                snapshot.inFlight(),
+                millis(snapshot.ackLatency().mean()),
+                millis(snapshot.hookTime().mean()),
+                snapshot.uiQueueDepth(),
+                snapshot.uiBatchSize()));
+        String subscriptions = snapshot.subscriptions()
+                .stream()
+                .map(s -> String.format(resources.getString("metricsPanelSubscription"),
+                        s.topic(),
+                        s.incoming().messagesPerSecond(),
+                        formatBytes(s.incoming().bytesPerSecond()),
+                        s.incoming().totalMessages()))
+                .collect(Collectors.joining("\n"));
+        String tooltip = String.format(resources.getString("metricsPanelTooltip"),
+                snapshot.incoming().totalMessages(),
+                snapshot.outgoing().totalMessages(),
+                snapshot.failedPublishes(),
+                millis(snapshot.ackLatency().max()));
+        if (snapshot.offlineQueued() > 0) {
+            detailsInfo.setText(detailsInfo.getText() + String.format(resources.getString("metricsPanelOfflineQueue"),
+                    snapshot.offlineQueued(),
+                    snapshot.offlineQueueAge().toSeconds()));
+        }
+        for (MetricsSnapshot.Member member : snapshot.members()) {
+            tooltip += "\n" + String.format(resources.getString("metricsPanelMember"),
+                    member.clientId(),
+                    member.incoming().messagesPerSecond(),
+                    formatBytes(member.incoming().bytesPerSecond()),
+                    member.incoming().totalMessages());
+        }
+        MetricsSnapshot.TopicAliasEstimate topicAliases = snapshot.topicAliasEstimate();
+        if (topicAliases.maximum() > 0) {
+            tooltip += "\n" + String.format(resources.getString("metricsPanelTopicAliasEstimate"),
+                    topicAliases.active(),
+                    topicAliases.maximum(),
+                    topicAliases.hits(),
+                    topicAliases.misses(),
+                    formatBytes(Math.max(0, topicAliases.bytesSaved())));
+        }
+        LaneStats laneStats = coreManager.getExecutors().getEventLanes().getStats(getConnectionId());
+        if (laneStats != null) {
+            tooltip += "\n" + String.format(resources.getString("metricsPanelEventLane"),
+                    laneStats.queueDepth(),
+                    laneStats.delivered(),
+                    laneStats.dropped());
+        }
+        for (ExecutorStats executorStats : coreManager.getExecutors().getStats()) {
+            tooltip += "\n" + String.format(resources.getString("metricsPanelExecutor"),
+                    executorStats.pool(),
+                    executorStats.activeCount(),
+                    executorStats.threads(),
+                    executorStats.queueDepth(),
+                    executorStats.queueCapacity(),
+                    executorStats.rejectedTasks());
+        }
+        if (snapshot.lastRecovery() != null) {
+            tooltip += "\n" + String.format(resources.getString("metricsPanelLastRecovery"), millis(snapshot.lastRecovery()));
+        }
+        throughputInfo.setTooltip(new Tooltip(subscriptions.isEmpty() ? tooltip : tooltip + "\n" + subscriptions));
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000d;
+    }
+
+    private static String formatBytes(double bytes) {
+        if (bytes < 1024) {
+            return String.format("%.0f B", bytes);
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KiB", bytes / 1024);
+        }
+        return String.format("%.1f MiB", bytes / (1024 * 1024));
+    }
+}
@@ -33,7 +33,9 @@ import org.correomqtt.core.model.MessageListViewConfig;
 import org.correomqtt.core.model.MessageType;
 import org.correomqtt.core.model.PublishStatus;
 import org.correomqtt.core.model.Qos;
+import org.correomqtt.core.pubsub.PublishBatchEvent;
 import org.correomqtt.core.pubsub.PublishEvent;
+import org.correomqtt.core.pubsub.PublishQueuedEvent;
 import org.correomqtt.core.pubsub.PublishListClearEvent;
 import org.correomqtt.core.pubsub.PublishListRemovedEvent;
 import org.correomqtt.core.pubsub.PublishTaskFactory;
@@ -203,7 +205,7 @@ public class PublishViewController extends BaseMessageBasedViewController {
     }
 
     private void initTopicComboBox() {
-        List<String> topics = coreManager.getHistoryManager().activatePublishHistory(getConnectionId()).getTopics(getConnectionId());
+        List<String> topics = coreManager.getHistoryManager().activatePublishHistory(getConnectionId()).getTopics();
         topicComboBox.setItems(FXCollections.observableArrayList(topics));
         topicComboBox.setCellFactory(topicCellFactory::create);
     }
@@ -286,7 +288,7 @@ public class PublishViewController extends BaseMessageBasedViewController {
         if (event.getState() == CONNECTED) {
             // reverse order, because first message in history must be last one to add
             new LinkedList<>(coreManager.getHistoryManager().activatePublishMessageHistory(getConnectionId())
-                    .getMessages(getConnectionId()))
+                    .getMessages())
                     .descendingIterator()
                     .forEachRemaining(messageDTO -> messageListViewController.onNewMessage(MessageTransformer.dtoToProps(messageDTO)));
         }
@@ -298,6 +300,20 @@ public class PublishViewController extends BaseMessageBasedViewController {
         messageListViewController.onNewMessage(MessageTransformer.dtoToProps(event.getMessageDTO()));
     }
 
+    @SuppressWarnings("unused")
+    public void onPublishQueued(@Observes PublishQueuedEvent event) {
+        event.getMessageDTO().setPublishStatus(PublishStatus.QUEUED);
+        messageListViewController.onNewMessage(MessageTransformer.dtoToProps(event.getMessageDTO()));
+    }
+
+    @SuppressWarnings("unused")
+    public void onPublishBatchSucceeded(@Observes PublishBatchEvent event) {
+        event.getMessages().forEach(messageDTO -> {
+            messageDTO.setPublishStatus(PublishStatus.SUCCEEDED);
+            messageListViewController.onNewMessage(MessageTransformer.dtoToProps(messageDTO));
+        });
+    }
+
     @SuppressWarnings("unused")
     public void onImportStarted(@Observes ImportMessageStartedEvent event) {
         Platform.runLater(() -> {
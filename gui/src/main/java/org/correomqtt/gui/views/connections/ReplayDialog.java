@@ -0,0 +1,81 @@
+package org.correomqtt.gui.views.connections;
+
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.DialogPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+import javafx.stage.Window;
+import org.correomqtt.core.model.ConnectionConfigDTO;
+import org.correomqtt.core.recorder.MessageRecording;
+import org.correomqtt.core.replay.ReplayConfig;
+import org.correomqtt.di.DefaultBean;
+import org.correomqtt.di.Inject;
+import org.correomqtt.gui.theme.ThemeManager;
+import org.correomqtt.gui.window.StageHelper;
+
+import java.util.Optional;
+import java.util.ResourceBundle;
+
+/**
+ * Asks for the parameters of a replay of the recording of a connection.
+ */
+@DefaultBean
+public class ReplayDialog {
+
+    private final ThemeManager themeManager;
+
+    @Inject
+    ReplayDialog(ThemeManager themeManager) {
+        this.themeManager = themeManager;
+    }
+
+    Optional<ReplayConfig> show(ConnectionConfigDTO connection, MessageRecording recording, ResourceBundle resources) {
+        Dialog<ReplayConfig> dialog = new Dialog<>();
+        StageHelper.enforceFloatingWindow(dialog);
+        dialog.initOwner(Window.getWindows().stream().filter(Window::isShowing).findFirst().orElse(null));
+        DialogPane dialogPane = dialog.getDialogPane();
+        dialogPane.setMinHeight(Region.USE_PREF_SIZE);
+        String cssPath = themeManager.getCssPath();
+        if (cssPath != null) {
+            dialogPane.getStylesheets().add(cssPath);
+        }
+        dialog.setTitle(resources.getString("replayDialogTitle"));
+        dialog.setHeaderText(connection.getName());
+        dialogPane.getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        TextField topicFilter = new TextField();
+        Spinner<Double> speed = new Spinner<>(ReplayConfig.MIN_SPEED, ReplayConfig.MAX_SPEED, 1, 0.5);
+        CheckBox maximumSpeed = new CheckBox(resources.getString("replayDialogMaximumSpeed"));
+        CheckBox loop = new CheckBox(resources.getString("replayDialogLoop"));
+        speed.setEditable(true);
+        speed.disableProperty().bind(maximumSpeed.selectedProperty());
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.addRow(0, new Label(resources.getString("replayDialogTopicFilter")), topicFilter);
+        grid.addRow(1, new Label(resources.getString("replayDialogSpeed")), speed);
+        grid.add(maximumSpeed, 1, 2);
+        grid.add(loop, 1, 3);
+        dialogPane.setContent(grid);
+
+        dialog.setResultConverter(button -> {
+            if (button != ButtonType.OK) {
+                return null;
+            }
+            String filter = topicFilter.getText();
+            return ReplayConfig.builder()
+                    .recording(recording)
+                    .topicFilter(filter == null || filter.isBlank() ? null : filter.trim())
+                    .speed(maximumSpeed.isSelected() ? ReplayConfig.MAXIMUM_SPEED : speed.getValue())
+                    .loop(loop.isSelected())
+                    .build();
+        });
+        return dialog.showAndWait();
+    }
+}
@@ -11,6 +11,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.Pane;
+import org.correomqtt.core.model.SubscriptionOverflowPolicy;
 import org.correomqtt.core.settings.SettingsManager;
 import org.correomqtt.gui.model.SubscriptionPropertiesDTO;
 import org.slf4j.Logger;
@@ -35,6 +36,14 @@ public class SubscriptionViewCell extends ListCell<SubscriptionPropertiesDTO> {
     @FXML
     private Label qosTag;
 
+    @SuppressWarnings("unused")
+    @FXML
+    private Label overflowPolicyTag;
+
+    @SuppressWarnings("unused")
+    @FXML
+    private Label droppedTag;
+
     @SuppressWarnings("unused")
     @FXML
     private CheckBox filterCheckbox;
@@ -94,6 +103,19 @@ public class SubscriptionViewCell extends ListCell<SubscriptionPropertiesDTO> {
     private void setUpSubscription(SubscriptionPropertiesDTO subscriptionDTO) {
         topicLabel.setText(subscriptionDTO.getTopic());
         qosTag.setText(subscriptionDTO.getQos().toString());
+        SubscriptionOverflowPolicy overflowPolicy = subscriptionDTO.getOverflowPolicy();
+        boolean flowControlled = overflowPolicy != null && overflowPolicy != SubscriptionOverflowPolicy.UNBUFFERED;
+        overflowPolicyTag.setVisible(flowControlled);
+        overflowPolicyTag.setManaged(flowControlled);
+        if (flowControlled) {
+            overflowPolicyTag.setText(resources.getString(overflowPolicy.getLabelTranslationKey()));
+        }
+        boolean dropped = subscriptionDTO.getDropped() > 0;
+        droppedTag.setVisible(dropped);
+        droppedTag.setManaged(dropped);
+        if (dropped) {
+            droppedTag.setText(String.format(resources.getString("subscriptionViewDropped"), subscriptionDTO.getDropped()));
+        }
         filterCheckbox.setSelected(subscriptionDTO.isFiltered());
     }
 
@@ -10,9 +10,12 @@ import javafx.scene.control.ListView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.AnchorPane;
+import javafx.util.StringConverter;
 import org.correomqtt.core.CoreManager;
 import org.correomqtt.core.concurrent.SimpleTaskErrorResult;
 import org.correomqtt.core.connection.ConnectionStateChangedEvent;
+import org.correomqtt.core.metrics.MetricsSnapshot;
+import org.correomqtt.core.metrics.MetricsSnapshotEvent;
 import org.correomqtt.core.fileprovider.PersistSubscribeHistoryUpdateEvent;
 import org.correomqtt.core.model.ConnectionConfigDTO;
 import org.correomqtt.core.model.ControllerType;
@@ -20,6 +23,7 @@ import org.correomqtt.core.model.MessageDTO;
 import org.correomqtt.core.model.MessageListViewConfig;
 import org.correomqtt.core.model.Qos;
 import org.correomqtt.core.model.SubscriptionDTO;
+import org.correomqtt.core.model.SubscriptionOverflowPolicy;
 import org.correomqtt.core.pubsub.IncomingMessageEvent;
 import org.correomqtt.core.pubsub.PubSubTaskFactories;
 import org.correomqtt.core.pubsub.SubscribeEvent;
@@ -31,6 +35,7 @@ import org.correomqtt.di.Observes;
 import org.correomqtt.gui.contextmenu.SubscriptionListMessageContextMenu;
 import org.correomqtt.gui.contextmenu.SubscriptionListMessageContextMenuDelegate;
 import org.correomqtt.gui.contextmenu.SubscriptionListMessageContextMenuFactory;
+import org.correomqtt.gui.controls.IconToggleButton;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
 import org.correomqtt.gui.model.SubscriptionPropertiesDTO;
 import org.correomqtt.gui.theme.ThemeManager;
@@ -39,11 +44,13 @@ import org.correomqtt.gui.transformer.SubscriptionTransformer;
 import org.correomqtt.gui.utils.AlertHelper;
 import org.correomqtt.gui.utils.CheckTopicHelper;
 import org.correomqtt.gui.views.LoaderResult;
+import org.correomqtt.gui.views.cell.GenericCellFactory;
 import org.correomqtt.gui.views.cell.QosCellFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
 import java.util.Set;
@@ -60,6 +67,7 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
     private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionViewController.class);
 
     private final QosCellFactory qosCellFactory;
+    private final GenericCellFactory<SubscriptionOverflowPolicy> overflowPolicyCellFactory;
     private final SubscriptionViewCellFactory subscriptionViewCellFactory;
     private final TopicCellFactory topicCellFactory;
     private final AlertHelper alertHelper;
@@ -73,6 +81,12 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
     @FXML
     private ComboBox<Qos> qosComboBox;
 
+    @FXML
+    private ComboBox<SubscriptionOverflowPolicy> overflowPolicyComboBox;
+
+    @FXML
+    private IconToggleButton recordToggleButton;
+
     @FXML
     private ComboBox<String> subscribeTopicComboBox;
 
@@ -100,6 +114,7 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
                                       ThemeManager themeManager,
                                       MessageListViewControllerFactory messageListViewControllerFactory,
                                       QosCellFactory qosCellFactory,
+                                      GenericCellFactory<SubscriptionOverflowPolicy> overflowPolicyCellFactory,
                                       SubscriptionViewCellFactory subscriptionViewCellFactory,
                                       TopicCellFactory topicCellFactory,
                                       AlertHelper alertHelper,
@@ -109,6 +124,7 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
         super(coreManager, themeManager, messageListViewControllerFactory, connectionId);
         this.pubSubTaskFactories = pubSubTaskFactories;
         this.qosCellFactory = qosCellFactory;
+        this.overflowPolicyCellFactory = overflowPolicyCellFactory;
         this.subscriptionViewCellFactory = subscriptionViewCellFactory;
         this.topicCellFactory = topicCellFactory;
         this.alertHelper = alertHelper;
@@ -133,6 +149,11 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
         qosComboBox.getSelectionModel().selectFirst();
         qosComboBox.setCellFactory(qosCellFactory::create);
 
+        overflowPolicyComboBox.setItems(FXCollections.observableArrayList(SubscriptionOverflowPolicy.values()));
+        overflowPolicyComboBox.getSelectionModel().select(SubscriptionOverflowPolicy.UNBUFFERED);
+        overflowPolicyComboBox.setCellFactory(overflowPolicyCellFactory::create);
+        overflowPolicyComboBox.setConverter(getStringConverter());
+
 
         subscriptionListView.setItems(FXCollections.observableArrayList(SubscriptionPropertiesDTO.extractor()));
         subscriptionListView.setCellFactory(this::createCell);
@@ -170,6 +191,20 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
 
     }
 
+    private StringConverter<SubscriptionOverflowPolicy> getStringConverter() {
+        return new StringConverter<>() {
+            @Override
+            public String toString(SubscriptionOverflowPolicy object) {
+                return object == null ? null : resources.getString(object.getLabelTranslationKey());
+            }
+
+            @Override
+            public SubscriptionOverflowPolicy fromString(String string) {
+                return null;
+            }
+        };
+    }
+
     private ListCell<SubscriptionPropertiesDTO> createCell(ListView<SubscriptionPropertiesDTO> listView) {
         SubscriptionViewCell cell = subscriptionViewCellFactory.create(listView);
         SubscriptionListMessageContextMenu contextMenu = subscriptionListMessageContextMenuFactory.create(this);
@@ -184,7 +219,7 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
     }
 
     private void initTopicComboBox() {
-        List<String> topics = coreManager.getHistoryManager().activateSubscriptionHistory(getConnectionId()).getTopics(getConnectionId());
+        List<String> topics = coreManager.getHistoryManager().activateSubscriptionHistory(getConnectionId()).getTopics();
         subscribeTopicComboBox.setItems(FXCollections.observableArrayList(topics));
         subscribeTopicComboBox.setCellFactory(topicCellFactory::create);
 
@@ -293,6 +328,8 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
         pubSubTaskFactories.getSubscribeFactory().create(getConnectionId(), SubscriptionDTO.builder()
                         .topic(topic)
                         .qos(selectedQos)
+                        .overflowPolicy(overflowPolicyComboBox.getSelectionModel().getSelectedItem())
+                        .recorded(recordToggleButton.isSelected())
                         .build())
                 .onError(this::onSubscribedFailed)
                 .run();
@@ -321,8 +358,9 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
     }
 
     @SuppressWarnings("unused")
-    @Observes
+    @Observes(sync = true)
     public void onMessageIncoming(IncomingMessageEvent event) {
+        // runs on the publishing thread, the message list hands the message to the FX thread in batches
         MessagePropertiesDTO messagePropertiesDTO = MessageTransformer.dtoToProps(event.getMessageDTO());
         messagePropertiesDTO.getSubscriptionDTOProperty().setValue(SubscriptionTransformer.dtoToProps(event.getSubscriptionDTO()));
         messageListViewController.onNewMessage(messagePropertiesDTO);
@@ -359,6 +397,12 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
                 .map(dto -> dto.getTopicProperty().getValue())
                 .collect(Collectors.toSet());
 
+        if (filteredTopics.size() == subscriptionListView.getItems().size()) {
+            // nothing is filtered out, so no filtered list is needed
+            messageListViewController.setFilterPredicate(null);
+            return;
+        }
+
         messageListViewController.setFilterPredicate(m -> {
             SubscriptionPropertiesDTO subscription = m.getSubscription();
             if (subscription == null) {
@@ -373,6 +417,20 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
         }
     }
 
+    @SuppressWarnings("unused")
+    public void onMetricsSnapshot(@Observes MetricsSnapshotEvent event) {
+        Map<String, Long> dropped = event.getSnapshot()
+                .subscriptions()
+                .stream()
+                .collect(Collectors.toMap(MetricsSnapshot.Subscription::topic, MetricsSnapshot.Subscription::dropped, Long::sum));
+        subscriptionListView.getItems().forEach(item -> {
+            long count = dropped.getOrDefault(item.getTopic(), 0L);
+            if (item.getDropped() != count) {
+                item.setDropped(count);
+            }
+        });
+    }
+
     @SuppressWarnings("unused")
     public void onConnectionChangedEvent(@Observes ConnectionStateChangedEvent event) {
         if (event.getState() == DISCONNECTED_GRACEFUL || event.getState() == DISCONNECTED_UNGRACEFUL) {
@@ -57,6 +57,7 @@ public class MqttSettingsViewController extends BaseControllerImpl
     private static final Logger LOGGER = LoggerFactory.getLogger(MqttSettingsViewController.class);
 
     private static final int CLIENT_ID_MAX_SIZE = 64;
+    private static final int CONSUMER_GROUP_MAX_SIZE = 64;
 
     public static final String EXCLAMATION_CIRCLE_SOLID = "exclamationCircleSolid";
 
@@ -97,6 +98,21 @@ public class MqttSettingsViewController extends BaseControllerImpl
     @FXML
     private ComboBox<CorreoMqttVersion> mqttVersionComboBox;
 
+    @FXML
+    private CheckBox offlineQueueCheckBox;
+
+    @FXML
+    private CheckBox topicAliasesCheckBox;
+
+    @FXML
+    private CustomTextField consumerGroupTextField;
+
+    @FXML
+    private CustomTextField consumerGroupSizeTextField;
+
+    @FXML
+    private CheckBox recordMessagesCheckBox;
+
     @FXML
     private Label internalIdLabel;
 
@@ -231,7 +247,22 @@ public class MqttSettingsViewController extends BaseControllerImpl
         passwordField.textProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
         usernameTextField.textProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
         cleanSessionCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
-        mqttVersionComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
+        offlineQueueCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
+        topicAliasesCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
+        recordMessagesCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
+        consumerGroupTextField.textProperty().addListener((observable, oldValue, newValue) -> {
+            setDirty(true);
+            checkConsumerGroup(consumerGroupTextField, false);
+        });
+        consumerGroupSizeTextField.textProperty().addListener((observable, oldValue, newValue) -> {
+            setDirty(true);
+            checkConsumerGroupSize(consumerGroupSizeTextField, false);
+        });
+        mqttVersionComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+            setDirty(true);
+            // topic aliases were introduced with MQTT 5
+            topicAliasesCheckBox.setDisable(newValue != CorreoMqttVersion.MQTT_5_0);
+        });
         tlsComboBox.getSelectionModel().selectedItemProperty().addListener(((observable, oldValue, newValue) -> {
             setDirty(true);
             if (newValue.equals(TlsSsl.OFF)) {
@@ -320,6 +351,8 @@ public class MqttSettingsViewController extends BaseControllerImpl
         checksPassed |= !checkUrl(urlTextField, true);
         checksPassed |= !checkPort(portTextField, true);
         checksPassed |= !checkClientID(clientIdTextField, true);
+        checksPassed |= !checkConsumerGroup(consumerGroupTextField, true);
+        checksPassed |= !checkConsumerGroupSize(consumerGroupSizeTextField, true);
         if (lwtComboBox.getSelectionModel().getSelectedItem().equals(Lwt.ON)) {
             checksPassed |= !CheckTopicHelper.checkPublishTopic(lwtTopicComboBox, true);
         }
@@ -334,6 +367,11 @@ public class MqttSettingsViewController extends BaseControllerImpl
         usernameTextField.setText(config.getUsername());
         passwordField.setText(config.getPassword());
         cleanSessionCheckBox.setSelected(config.isCleanSession());
+        offlineQueueCheckBox.setSelected(config.isOfflineQueue());
+        topicAliasesCheckBox.setSelected(config.isTopicAliases());
+        consumerGroupTextField.setText(config.getConsumerGroup());
+        consumerGroupSizeTextField.setText(Integer.toString(config.getConsumerGroupSize()));
+        recordMessagesCheckBox.setSelected(config.isRecordMessages());
         mqttVersionComboBox.getSelectionModel().select(config.getMqttVersion());
         tlsSslGridPane.setDisable(config.getSslProperty().getValue().equals(TlsSsl.OFF));
         tlsComboBox.getSelectionModel().select(config.getSsl());
@@ -397,6 +435,11 @@ public class MqttSettingsViewController extends BaseControllerImpl
             config.getUsernameProperty().set(usernameTextField.getText());
             config.getPasswordProperty().set(passwordField.getText());
             config.getCleanSessionProperty().set(cleanSessionCheckBox.isSelected());
+            config.getOfflineQueueProperty().set(offlineQueueCheckBox.isSelected());
+            config.getTopicAliasesProperty().set(topicAliasesCheckBox.isSelected());
+            config.getConsumerGroupProperty().set(isEmpty(consumerGroupTextField) ? null : consumerGroupTextField.getText());
+            config.getConsumerGroupSizeProperty().set(Integer.parseInt(consumerGroupSizeTextField.getText()));
+            config.getRecordMessagesProperty().set(recordMessagesCheckBox.isSelected());
             config.getMqttVersionProperty().setValue(mqttVersionComboBox.getSelectionModel().getSelectedItem());
             config.getSslProperty().setValue(tlsComboBox.getSelectionModel().getSelectedItem());
             config.getSslKeystoreProperty().set(sslKeystoreTextField.getText());
@@ -507,6 +550,27 @@ public class MqttSettingsViewController extends BaseControllerImpl
         return true;
     }
 
+    private boolean checkConsumerGroup(CustomTextField textField, boolean save) {
+        // a share name must not contain topic separators or wildcards
+        if (!isEmpty(textField) && !textField.getText().matches("[^/+#]+")) {
+            setError(textField, save, resources.getString("validationInvalidConsumerGroup"));
+            return false;
+        }
+        unsetError(textField);
+        return true;
+    }
+
+    private boolean checkConsumerGroupSize(CustomTextField textField, boolean save) {
+        if (isEmpty(textField) || !textField.getText().matches("\\d{1,2}")
+                || Integer.parseInt(textField.getText()) < 1
+                || Integer.parseInt(textField.getText()) > CONSUMER_GROUP_MAX_SIZE) {
+            setError(textField, save, resources.getString("validationInvalidConsumerGroupSize"));
+            return false;
+        }
+        unsetError(textField);
+        return true;
+    }
+
     private void setError(CustomTextField textField, boolean save, String tooltipText) {
         if (save) {
             textField.getStyleClass().add("errorOnSave");
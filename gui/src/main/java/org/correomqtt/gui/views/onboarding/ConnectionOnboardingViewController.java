@@ -152,6 +152,11 @@ public class ConnectionOnboardingViewController extends BaseControllerImpl {
                 connectionToUpdate.getLwtQoSProperty().setValue(connection.getLwtQos());
                 connectionToUpdate.getLwtRetainedProperty().setValue(connection.isLwtRetained());
                 connectionToUpdate.getLwtPayloadProperty().setValue(connection.getLwtPayload());
+                connectionToUpdate.getOfflineQueueProperty().setValue(connection.isOfflineQueue());
+                connectionToUpdate.getTopicAliasesProperty().setValue(connection.isTopicAliases());
+                connectionToUpdate.getConsumerGroupProperty().setValue(connection.getConsumerGroup());
+                connectionToUpdate.getConsumerGroupSizeProperty().setValue(connection.getConsumerGroupSize());
+                connectionToUpdate.getRecordMessagesProperty().setValue(connection.isRecordMessages());
             } else {
                 resultList.add(connection);
             }
@@ -26,6 +26,7 @@ import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.di.Observes;
 import org.correomqtt.di.ObservesFilter;
+import org.correomqtt.di.SoyEvents;
 import org.correomqtt.gui.model.ConnectionPropertiesDTO;
 import org.correomqtt.gui.theme.ThemeManager;
 import org.correomqtt.gui.utils.AlertHelper;
@@ -124,6 +125,7 @@ public class ExecutionViewController extends BaseControllerImpl {
 
     public void filterByScript(String name) {
         currentName = name;
+        SoyEvents.updateFilters(this);
         filteredList.setPredicate(s -> s.getScriptFilePropertiesDTO().getName().equals(name));
         executionListView.getSelectionModel().selectFirst();
         headerLabel.setText(MessageFormat.format(resources.getString("scripting.executions"), name));
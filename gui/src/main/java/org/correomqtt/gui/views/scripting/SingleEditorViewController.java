@@ -24,6 +24,7 @@ import org.correomqtt.di.DefaultBean;
 import org.correomqtt.di.Inject;
 import org.correomqtt.di.Observes;
 import org.correomqtt.di.ObservesFilter;
+import org.correomqtt.di.SoyEvents;
 import org.correomqtt.gui.controls.IconButton;
 import org.correomqtt.gui.model.ConnectionPropertiesDTO;
 import org.correomqtt.gui.theme.ThemeManager;
@@ -92,6 +93,7 @@ public class SingleEditorViewController extends BaseControllerImpl {
         this.scriptTaskFactories = scriptTaskFactories;
         this.delegate = delegate;
         this.scriptFilePropertiesDTO = scriptFilePropertiesDTO;
+        scriptFilePropertiesDTO.getNameProperty().addListener((o, oldName, newName) -> SoyEvents.updateFilters(this));
     }
 
     public LoaderResult<SingleEditorViewController> load() {
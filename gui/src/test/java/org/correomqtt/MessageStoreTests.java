@@ -0,0 +1,150 @@
+package org.correomqtt;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.correomqtt.core.model.MessageDTO;
+import org.correomqtt.core.model.MessageType;
+import org.correomqtt.core.model.Qos;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.gui.model.MessageStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageStoreTests {
+
+    private final MessageStore store = new MessageStore("test", 8);
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private static MessagePropertiesDTO message(int i) {
+        return MessagePropertiesDTO.builder()
+                .topic("topic/" + i)
+                .payload("payload " + i)
+                .qos(Qos.AT_MOST_ONCE)
+                .dateTime(LocalDateTime.now())
+                .messageId(String.valueOf(i))
+                .messageType(MessageType.INCOMING)
+                .build();
+    }
+
+    @Test
+    void testSpilledMessagesKeepOrder() {
+        for (int i = 0; i < 100; i++) {
+            store.addFirst(message(i));
+        }
+
+        assertEquals(100, store.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("payload " + (99 - i), store.get(i).getPayload());
+        }
+        assertTrue(store.findInMemory("99").isPresent());
+        assertTrue(store.findInMemory("0").isEmpty());
+    }
+
+    @Test
+    void testFindsBySequenceIdBeforeMessageId() {
+        store.addFirst(MessagePropertiesDTO.builder()
+                .topic("a")
+                .messageId("x")
+                .sequenceId(7)
+                .build());
+
+        assertTrue(store.findInMemory(MessagePropertiesDTO.builder().messageId("y").sequenceId(7).build()).isPresent());
+        assertTrue(store.findInMemory(MessagePropertiesDTO.builder().messageId("x").sequenceId(8).build()).isEmpty());
+        assertTrue(store.findInMemory(MessagePropertiesDTO.builder().messageId("x").build()).isPresent());
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        for (int i = 0; i < 20; i++) {
+            store.addFirst(message(i));
+        }
+
+        store.remove(3);
+        store.remove(store.get(15));
+
+        assertEquals(18, store.size());
+        assertEquals("topic/17", store.get(2).getTopic());
+        assertEquals("topic/15", store.get(3).getTopic());
+        assertEquals("topic/4", store.get(14).getTopic());
+        assertEquals("topic/2", store.get(15).getTopic());
+
+        store.clear();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testInMemoryViewFollowsSpilling() {
+        List<Integer> sizes = new ArrayList<>();
+        ObservableList<MessagePropertiesDTO> inMemory = store.inMemory();
+        inMemory.addListener((ListChangeListener<MessagePropertiesDTO>) change -> {
+            int size = change.getList().size();
+            while (change.next()) {
+                size += change.getRemovedSize() - change.getAddedSize();
+            }
+            sizes.add(size);
+        });
+
+        store.addAllFirst(List.of(message(0), message(1), message(2), message(3), message(4), message(5), message(6),
+                message(7), message(8), message(9)));
+        store.remove(0);
+
+        assertEquals(9, store.size());
+        assertEquals(7, inMemory.size());
+        assertEquals("topic/8", inMemory.get(0).getTopic());
+        assertEquals("topic/2", inMemory.get(6).getTopic());
+        // sizes before each change
+        assertEquals(List.of(0, 8), sizes);
+        assertThrows(IndexOutOfBoundsException.class, () -> inMemory.get(7));
+
+        store.clear();
+        assertEquals(0, inMemory.size());
+    }
+
+    @Test
+    void testSnapshotIncludesSpilledMessagesOldestFirst() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            store.addFirst(message(i));
+        }
+
+        MessageStore.Snapshot snapshot = store.snapshot();
+        for (int i = 100; i < 200; i++) {
+            store.addFirst(message(i));
+        }
+        List<MessageDTO> messages = new ArrayList<>();
+        Thread reader = new Thread(() -> snapshot.forEach(messages::add));
+        reader.start();
+        reader.join();
+
+        assertEquals(100, snapshot.size());
+        assertEquals(100, messages.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("payload " + i, messages.get(i).getPayload());
+        }
+    }
+
+    @Test
+    void testSnapshotFailsAfterClear() {
+        for (int i = 0; i < 100; i++) {
+            store.addFirst(message(i));
+        }
+
+        Iterator<MessageDTO> iterator = store.snapshot().iterator();
+        store.clear();
+
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+}